@@ -81,14 +81,29 @@ public class DefaultLookupRowMatcher implements LookupRowMatcher {
     public DataSetRow getMatchingRow(String joinOn, String joinValue) {
         Map<String, String> values = cache.getRecords().get(joinValue);
         if (values != null) {
-            LOGGER.debug("Looking for value" + joinValue + " and found " + values.values());
+            LOGGER.debug("Looking for value {} and found {}", joinValue, values.values());
             return new DataSetRow(cache.getMetadata(), values);
         } else {
-            LOGGER.debug("Looking for value" + joinValue + " and found: null");
+            LOGGER.debug("Looking for value {} and found: null", joinValue);
             return emptyRow;
         }
     }
 
+    @Override
+    public void copyMatchingValues(String joinOn, String joinValue, String[] lookupColumnIds, String[] targetColumnIds,
+            DataSetRow target) {
+        final Map<String, String> values = cache.getRecords().get(joinValue);
+        if (values != null) {
+            for (int i = 0; i < lookupColumnIds.length; i++) {
+                target.set(targetColumnIds[i], values.get(lookupColumnIds[i]));
+            }
+        } else {
+            for (int i = 0; i < lookupColumnIds.length; i++) {
+                target.set(targetColumnIds[i], emptyRow.get(lookupColumnIds[i]));
+            }
+        }
+    }
+
     /**
      * Returns an empty default row based on the given dataset metadata.
      *
@@ -59,6 +59,15 @@ public class Lookup extends AbstractActionMetadata implements DataSetAction {
     /** This class' logger. */
     private static final Logger LOGGER = LoggerFactory.getLogger(Lookup.class);
 
+    /** Used to parse the selected columns parameter. */
+    private static final ObjectMapper MAPPER = new ObjectMapper();
+
+    /** Context key of the {@link LookupRowMatcher}. */
+    private static final String ROW_MATCHER = "rowMatcher";
+
+    /** Context key of the {@link LookupColumns} resolved at compile time. */
+    private static final String LOOKUP_COLUMNS = "lookupColumns";
+
     /** Adapted value of the name parameter. */
     private String adaptedNameValue = EMPTY;
 
@@ -151,12 +160,13 @@ public class Lookup extends AbstractActionMetadata implements DataSetAction {
                 context.setActionStatus(CANCELED);
             }
 
-            LookupRowMatcher rowMatcher = context.get("rowMatcher", p -> get(LookupRowMatcher.class, p));
+            LookupRowMatcher rowMatcher = context.get(ROW_MATCHER, p -> get(LookupRowMatcher.class, p));
             // Create lookup result columns
             final Map<String, String> parameters = context.getParameters();
             final String columnId = parameters.get(COLUMN_ID.getKey());
             final RowMetadata lookupRowMetadata = rowMatcher.getRowMetadata();
             final RowMetadata rowMetadata = context.getRowMetadata();
+            final List<LookupSelectedColumnParameter> selectedColumns = colsToAdd;
             colsToAdd = Lists.reverse(colsToAdd);
             colsToAdd.forEach(toAdd -> {
                 // create the new column
@@ -172,6 +182,8 @@ public class Lookup extends AbstractActionMetadata implements DataSetAction {
                     return colMetadata;
                 });
             });
+            // Resolve once for all the ids used for each row (again on each compile as columns may have changed)
+            context.get(LOOKUP_COLUMNS, p -> new LookupColumns()).resolve(parameters, selectedColumns, context);
         }
     }
 
@@ -181,28 +193,14 @@ public class Lookup extends AbstractActionMetadata implements DataSetAction {
     @Override
     public void applyOnDataSet(DataSetRow row, ActionContext context) {
 
-        // read parameters
-        final Map<String, String> parameters = context.getParameters();
-        String columnId = parameters.get(COLUMN_ID.getKey());
-        String joinValue = row.get(columnId);
-        String joinOn = parameters.get(LOOKUP_JOIN_ON.getKey());
-
-        // get the rowMatcher from context
-        LookupRowMatcher rowMatcher = context.get("rowMatcher");
-
-        // get the matching lookup row
-        DataSetRow matchingRow = rowMatcher.getMatchingRow(joinOn, joinValue);
+        // get the rowMatcher and the columns (resolved at compile time) from context
+        final LookupRowMatcher rowMatcher = context.get(ROW_MATCHER);
+        final LookupColumns columns = context.get(LOOKUP_COLUMNS);
 
-        LOGGER.trace("For "+ joinValue+" I have found this matching row: "+matchingRow.values().values());
-
-        // get the columns to add
-        List<LookupSelectedColumnParameter> colsToAdd = getColsToAdd(parameters);
-        colsToAdd.forEach(toAdd -> {
-            // get the new column
-            String newColId = context.column(toAdd.getId());
-            // insert new row value
-            row.set(newColId, matchingRow.get(toAdd.getId()));
-        });
+        // copy the matching lookup values in the new columns
+        final String joinValue = row.get(columns.columnId);
+        LOGGER.trace("Looking for {} in lookup data set.", joinValue);
+        rowMatcher.copyMatchingValues(columns.joinOn, joinValue, columns.lookupColumnIds, columns.targetColumnIds, row);
     }
 
     /**
@@ -215,7 +213,7 @@ public class Lookup extends AbstractActionMetadata implements DataSetAction {
         List<LookupSelectedColumnParameter> result;
         try {
             final String cols = parameters.get(LOOKUP_SELECTED_COLS.getKey());
-            result =  new ObjectMapper().readValue(cols, new TypeReference<List<LookupSelectedColumnParameter>>() {
+            result = MAPPER.readValue(cols, new TypeReference<List<LookupSelectedColumnParameter>>() {
             });
         } catch (IOException e) {
             LOGGER.debug("Unable to parse parameter.", e);
@@ -229,6 +227,45 @@ public class Lookup extends AbstractActionMetadata implements DataSetAction {
         return EnumSet.of(Behavior.METADATA_CREATE_COLUMNS);
     }
 
+    /**
+     * The column ids used by the lookup action for each row.
+     */
+    private static class LookupColumns {
+
+        /** The id of the column that holds the join value. */
+        private String columnId;
+
+        /** The id of the lookup column to join on. */
+        private String joinOn;
+
+        /** The ids of the lookup columns to copy. */
+        private String[] lookupColumnIds;
+
+        /** The ids of the created columns (same order as {@link #lookupColumnIds}). */
+        private String[] targetColumnIds;
+
+        /**
+         * Resolves the column ids for the current row metadata of <code>context</code>.
+         *
+         * @param parameters The action parameters.
+         * @param selectedColumns The lookup columns to copy.
+         * @param context The action context (with the lookup columns already created).
+         */
+        private void resolve(Map<String, String> parameters, List<LookupSelectedColumnParameter> selectedColumns,
+                ActionContext context) {
+            final String[] lookupIds = new String[selectedColumns.size()];
+            final String[] targetIds = new String[selectedColumns.size()];
+            for (int i = 0; i < lookupIds.length; i++) {
+                lookupIds[i] = selectedColumns.get(i).getId();
+                targetIds[i] = context.column(lookupIds[i]);
+            }
+            this.columnId = parameters.get(COLUMN_ID.getKey());
+            this.joinOn = parameters.get(LOOKUP_JOIN_ON.getKey());
+            this.lookupColumnIds = lookupIds;
+            this.targetColumnIds = targetIds;
+        }
+    }
+
     /** Lookup parameters */
     public enum Parameters {
         LOOKUP_DS_NAME,
@@ -13,10 +13,8 @@
 package org.talend.dataprep.transformation.actions.duplication;
 
 import static java.util.Collections.singletonList;
-import static org.apache.commons.codec.digest.DigestUtils.sha256Hex;
 
 import java.util.EnumSet;
-import java.util.HashSet;
 import java.util.Locale;
 import java.util.Set;
 
@@ -30,7 +28,9 @@ import org.talend.dataprep.transformation.actions.common.DataSetAction;
 import org.talend.dataprep.transformation.api.action.context.ActionContext;
 
 /**
- * Keep only one occurrence of duplicated rows.
+ * Keep only one occurrence of duplicated rows (first occurrence is kept).
+ *
+ * @see RowFingerprintSet
  */
 @Action(Deduplicate.DEDUPLICATION_ACTION_NAME)
 public class Deduplicate extends AbstractActionMetadata implements DataSetAction {
@@ -40,8 +40,8 @@ public class Deduplicate extends AbstractActionMetadata implements DataSetAction
      */
     public static final String DEDUPLICATION_ACTION_NAME = "deduplication";
 
-    /** Key to store in context hashes */
-    private static final String HASHES_NAME = "hashes";
+    /** Key to store in context row fingerprints */
+    private static final String FINGERPRINTS_NAME = "fingerprints";
 
     private static final boolean CREATE_NEW_COLUMN_DEFAULT = false;
 
@@ -71,34 +71,16 @@ public class Deduplicate extends AbstractActionMetadata implements DataSetAction
         if (ActionsUtils.doesCreateNewColumn(actionContext.getParameters(), CREATE_NEW_COLUMN_DEFAULT)) {
             ActionsUtils.createNewColumn(actionContext, singletonList(ActionsUtils.additionalColumn()));
         }
-        final Set<String> hashes = new HashSet<>();
-        actionContext.get(HASHES_NAME, p -> hashes);
+        actionContext.get(FINGERPRINTS_NAME, p -> new RowFingerprintSet());
     }
 
     @Override
     public void applyOnDataSet(DataSetRow row, ActionContext context) {
         if (!row.isDeleted()) {
-            String data = evalHashCode(row);
-
-            Set<String> hashes = context.get(HASHES_NAME);
-            if (!hashes.contains(data)) {
-                hashes.add(data);
-            } else {
+            final RowFingerprintSet fingerprints = context.get(FINGERPRINTS_NAME);
+            if (!fingerprints.add(row)) {
                 row.setDeleted(true);
             }
         }
     }
-
-    protected String evalHashCode(DataSetRow row) {
-        StringBuilder columnContents = new StringBuilder();
-        for (ColumnMetadata column : row.getRowMetadata().getColumns()) {
-            columnContents
-                    .append(column.getId()) //
-                    .append(":") //
-                    .append(row.get(column.getId())) //
-                    .append("-");
-        }
-
-        return sha256Hex(columnContents.toString());
-    }
 }
@@ -0,0 +1,584 @@
+// ============================================================================
+//
+// Copyright (C) 2006-2018 Talend Inc. - www.talend.com
+//
+// This source code is available under agreement available at
+// https://github.com/Talend/data-prep/blob/master/LICENSE
+//
+// You should have received a copy of the agreement
+// along with this program; if not, write to Talend SA
+// 9 rue Pages 92150 Suresnes, France
+//
+// ============================================================================
+package org.talend.dataprep.transformation.actions.duplication;
+
+import static org.talend.dataprep.exception.error.ActionErrorCodes.UNEXPECTED_EXCEPTION;
+
+import java.io.BufferedOutputStream;
+import java.io.Closeable;
+import java.io.DataOutputStream;
+import java.io.File;
+import java.io.FileOutputStream;
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.StandardOpenOption;
+import java.security.MessageDigest;
+import java.util.ArrayList;
+import java.util.List;
+
+import org.apache.commons.codec.digest.DigestUtils;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.talend.daikon.exception.TalendRuntimeException;
+import org.talend.dataprep.api.dataset.ColumnMetadata;
+import org.talend.dataprep.api.dataset.row.DataSetRow;
+
+/**
+ * <p>
+ * A set of row fingerprints used to detect duplicate rows. Each row is reduced to a 128 bits fingerprint (MD5 of the
+ * column ids and values), and fingerprints are stored as primitive <code>long</code> pairs in open addressing tables, so
+ * memory used no longer depends on row width.
+ * </p>
+ * <p>
+ * Fingerprints are split in {@link #PARTITION_COUNT} independent partitions (using the highest bits of the
+ * fingerprint). When fingerprints in memory exceed the memory threshold, the largest partition is written (sorted) to a
+ * temporary file as a new run, runs of similar sizes being merged (see {@link Partition#spill()}). Lookups in this
+ * partition then check the in-memory table first and the runs next (see {@link Run}). Runs keep about 1.3 bytes per
+ * spilled fingerprint in memory (Bloom filter and fence index).
+ * </p>
+ * <p>
+ * This class is not thread safe. Temporary files are removed by {@link #destroy()} (called when transformation context
+ * is cleaned up).
+ * </p>
+ */
+public class RowFingerprintSet {
+
+    /** Default amount of memory (in bytes) used to keep fingerprints in memory. */
+    public static final long DEFAULT_MEMORY_THRESHOLD = 64L * 1024 * 1024;
+
+    /** Number of partitions for fingerprints (must be a power of 2). */
+    static final int PARTITION_COUNT = 16;
+
+    /** Estimated size in memory of a fingerprint (2 longs with a load factor of 1/2). */
+    private static final int FINGERPRINT_MEMORY_SIZE = 32;
+
+    /** Size of a fingerprint in a spill file. */
+    private static final int FINGERPRINT_FILE_SIZE = 16;
+
+    private static final Logger LOGGER = LoggerFactory.getLogger(RowFingerprintSet.class);
+
+    private final Partition[] partitions = new Partition[PARTITION_COUNT];
+
+    private final long maxFingerprintsInMemory;
+
+    private final MessageDigest digest = DigestUtils.getMd5Digest();
+
+    private long fingerprintsInMemory;
+
+    public RowFingerprintSet() {
+        this(DEFAULT_MEMORY_THRESHOLD);
+    }
+
+    /**
+     * @param memoryThreshold The amount of memory (in bytes) fingerprints may use before partitions are written to disk.
+     */
+    public RowFingerprintSet(long memoryThreshold) {
+        this.maxFingerprintsInMemory = Math.max(1, memoryThreshold / FINGERPRINT_MEMORY_SIZE);
+        for (int i = 0; i < PARTITION_COUNT; i++) {
+            partitions[i] = new Partition();
+        }
+    }
+
+    /**
+     * Adds the fingerprint of <code>row</code> (computed with all the columns of the row metadata).
+     *
+     * @param row The row to add.
+     * @return <code>true</code> if no row with the same fingerprint was added before.
+     */
+    public boolean add(DataSetRow row) {
+        for (ColumnMetadata column : row.getRowMetadata().getColumns()) {
+            update(column.getId());
+            update(row.get(column.getId()));
+        }
+        final ByteBuffer fingerprint = ByteBuffer.wrap(digest.digest());
+        return add(fingerprint.getLong(), fingerprint.getLong());
+    }
+
+    /**
+     * Adds a 128 bits fingerprint.
+     *
+     * @param high The 64 highest bits of the fingerprint.
+     * @param low The 64 lowest bits of the fingerprint.
+     * @return <code>true</code> if fingerprint was not already in set.
+     */
+    boolean add(long high, long low) {
+        final Partition partition = partitions[partition(high)];
+        if (partition.contains(high, low)) {
+            return false;
+        }
+        partition.add(high, low);
+        if (++fingerprintsInMemory > maxFingerprintsInMemory) {
+            spillLargestPartition();
+        }
+        return true;
+    }
+
+    /**
+     * @return The number of fingerprints in this set.
+     */
+    public long size() {
+        long size = 0;
+        for (Partition partition : partitions) {
+            size += partition.size + partition.spilledSize;
+        }
+        return size;
+    }
+
+    /**
+     * @return <code>true</code> if at least one partition was written to disk.
+     */
+    public boolean isSpilled() {
+        for (Partition partition : partitions) {
+            if (!partition.runs.isEmpty()) {
+                return true;
+            }
+        }
+        return false;
+    }
+
+    /**
+     * @return The number of sorted runs written to disk (for all partitions).
+     */
+    int runCount() {
+        int count = 0;
+        for (Partition partition : partitions) {
+            count += partition.runs.size();
+        }
+        return count;
+    }
+
+    /**
+     * Removes all temporary files.
+     */
+    public void destroy() {
+        for (Partition partition : partitions) {
+            partition.destroy();
+        }
+    }
+
+    private static int partition(long high) {
+        return (int) (high >>> 60) & (PARTITION_COUNT - 1);
+    }
+
+    /**
+     * Updates the row digest with a length prefixed value (so "ab" + "c" and "a" + "bc" do not give same fingerprint).
+     */
+    private void update(String value) {
+        if (value == null) {
+            digest.update((byte) 0);
+            return;
+        }
+        final byte[] bytes = value.getBytes(StandardCharsets.UTF_8);
+        digest.update((byte) 1);
+        digest.update((byte) (bytes.length >>> 24));
+        digest.update((byte) (bytes.length >>> 16));
+        digest.update((byte) (bytes.length >>> 8));
+        digest.update((byte) bytes.length);
+        digest.update(bytes);
+    }
+
+    private void spillLargestPartition() {
+        Partition largest = partitions[0];
+        for (Partition partition : partitions) {
+            if (partition.size > largest.size) {
+                largest = partition;
+            }
+        }
+        fingerprintsInMemory -= largest.size;
+        largest.spill();
+    }
+
+    private static int compare(long high1, long low1, long high2, long low2) {
+        final int compare = Long.compare(high1, high2);
+        return compare != 0 ? compare : Long.compare(low1, low2);
+    }
+
+    /**
+     * A partition of the set: an open addressing table (linear probing) and an optional sorted file.
+     */
+    private static class Partition {
+
+        private static final int INITIAL_CAPACITY = 64;
+
+        /** Fingerprints as (high, low) pairs, (0, 0) marks an empty slot. */
+        private long[] table = new long[INITIAL_CAPACITY * 2];
+
+        private int size;
+
+        /** <code>true</code> if the (0, 0) fingerprint is in table (cannot be stored in a slot). */
+        private boolean hasZero;
+
+        /** Sorted runs of fingerprints written to disk (oldest first). */
+        private final List<Run> runs = new ArrayList<>();
+
+        private long spilledSize;
+
+        boolean contains(long high, long low) {
+            if (high == 0 && low == 0) {
+                if (hasZero) {
+                    return true;
+                }
+            } else {
+                final int mask = table.length / 2 - 1;
+                for (int slot = slot(high, low, mask);; slot = (slot + 1) & mask) {
+                    final long slotHigh = table[slot * 2];
+                    final long slotLow = table[slot * 2 + 1];
+                    if (slotHigh == 0 && slotLow == 0) {
+                        break;
+                    } else if (slotHigh == high && slotLow == low) {
+                        return true;
+                    }
+                }
+            }
+            // Newest runs first (they are the smallest ones).
+            for (int i = runs.size() - 1; i >= 0; i--) {
+                if (runs.get(i).contains(high, low)) {
+                    return true;
+                }
+            }
+            return false;
+        }
+
+        void add(long high, long low) {
+            size++;
+            if (high == 0 && low == 0) {
+                hasZero = true;
+                return;
+            }
+            if (size * 2 > table.length / 2) {
+                resize(table.length);
+            }
+            insert(table, high, low);
+        }
+
+        private static int slot(long high, long low, int mask) {
+            // MD5 bits are already well distributed, highest bits are used by partition selection.
+            return (int) (low ^ (low >>> 32)) & mask;
+        }
+
+        private static void insert(long[] table, long high, long low) {
+            final int mask = table.length / 2 - 1;
+            int slot = slot(high, low, mask);
+            while (table[slot * 2] != 0 || table[slot * 2 + 1] != 0) {
+                slot = (slot + 1) & mask;
+            }
+            table[slot * 2] = high;
+            table[slot * 2 + 1] = low;
+        }
+
+        private void resize(int newLength) {
+            final long[] newTable = new long[newLength * 2];
+            for (int i = 0; i < table.length; i += 2) {
+                if (table[i] != 0 || table[i + 1] != 0) {
+                    insert(newTable, table[i], table[i + 1]);
+                }
+            }
+            table = newTable;
+        }
+
+        /**
+         * Writes all in-memory fingerprints (sorted) to a new run file and empties the in-memory table. Runs are then
+         * merged the way a binary counter carries: while newest run is at least as large as the previous one, both are
+         * merged. A partition therefore keeps a logarithmic number of runs and each fingerprint is only rewritten a
+         * logarithmic number of times.
+         */
+        void spill() {
+            final long[] sorted = sortedFingerprints();
+            try (RunWriter writer = new RunWriter(size)) {
+                for (int i = 0; i < sorted.length; i += 2) {
+                    writer.write(sorted[i], sorted[i + 1]);
+                }
+                runs.add(writer.finish());
+                spilledSize += size;
+                while (runs.size() > 1) {
+                    final Run newest = runs.get(runs.size() - 1);
+                    final Run previous = runs.get(runs.size() - 2);
+                    if (newest.size < previous.size || (long) newest.size + previous.size > Run.MAX_SIZE) {
+                        break;
+                    }
+                    final Run merged = Run.merge(previous, newest);
+                    runs.remove(runs.size() - 1);
+                    runs.set(runs.size() - 1, merged);
+                    previous.destroy();
+                    newest.destroy();
+                }
+                LOGGER.debug("Wrote {} fingerprint(s), {} spilled in {} run(s).", size, spilledSize, runs.size());
+            } catch (IOException e) {
+                throw new TalendRuntimeException(UNEXPECTED_EXCEPTION, e);
+            }
+            table = new long[INITIAL_CAPACITY * 2];
+            size = 0;
+            hasZero = false;
+        }
+
+        private long[] sortedFingerprints() {
+            final long[] fingerprints = new long[size * 2];
+            int position = 0;
+            if (hasZero) {
+                position += 2;
+            }
+            for (int i = 0; i < table.length; i += 2) {
+                if (table[i] != 0 || table[i + 1] != 0) {
+                    fingerprints[position++] = table[i];
+                    fingerprints[position++] = table[i + 1];
+                }
+            }
+            sort(fingerprints, 0, size - 1);
+            return fingerprints;
+        }
+
+        /**
+         * Sorts (high, low) pairs between pair index <code>from</code> and <code>to</code> (inclusive).
+         */
+        private static void sort(long[] pairs, int from, int to) {
+            while (from < to) {
+                final int middle = (from + to) >>> 1;
+                final long pivotHigh = pairs[middle * 2];
+                final long pivotLow = pairs[middle * 2 + 1];
+                int i = from;
+                int j = to;
+                while (i <= j) {
+                    while (compare(pairs[i * 2], pairs[i * 2 + 1], pivotHigh, pivotLow) < 0) {
+                        i++;
+                    }
+                    while (compare(pairs[j * 2], pairs[j * 2 + 1], pivotHigh, pivotLow) > 0) {
+                        j--;
+                    }
+                    if (i <= j) {
+                        swap(pairs, i++, j--);
+                    }
+                }
+                // Recurse on smaller part, loop on larger one.
+                if (j - from < to - i) {
+                    sort(pairs, from, j);
+                    from = i;
+                } else {
+                    sort(pairs, i, to);
+                    to = j;
+                }
+            }
+        }
+
+        private static void swap(long[] pairs, int i, int j) {
+            final long high = pairs[i * 2];
+            final long low = pairs[i * 2 + 1];
+            pairs[i * 2] = pairs[j * 2];
+            pairs[i * 2 + 1] = pairs[j * 2 + 1];
+            pairs[j * 2] = high;
+            pairs[j * 2 + 1] = low;
+        }
+
+        void destroy() {
+            runs.forEach(Run::destroy);
+            runs.clear();
+            spilledSize = 0;
+        }
+    }
+
+    /**
+     * <p>
+     * A sorted run of fingerprints in a temporary file. File is memory mapped, so lookups do not issue any system call.
+     * </p>
+     * <p>
+     * Two in-memory structures avoid most reads in file: a Bloom filter (most lookups are for new rows, and are
+     * answered without touching file) and a sparse fence index (first fingerprint of each block of
+     * {@link #FENCE_INTERVAL} fingerprints), so the binary search in file only covers one block.
+     * </p>
+     */
+    private static class Run {
+
+        /** Number of fingerprints between two fences. */
+        private static final int FENCE_INTERVAL = 128;
+
+        /** Number of bits per fingerprint in Bloom filter (about 1% false positives with 7 hashes). */
+        private static final int BLOOM_BITS_PER_FINGERPRINT = 10;
+
+        private static final int BLOOM_HASHES = 7;
+
+        /** Maximum number of fingerprints in a run (so a run can be mapped in a single buffer). */
+        private static final int MAX_SIZE = Integer.MAX_VALUE / FINGERPRINT_FILE_SIZE;
+
+        private final File file;
+
+        private final ByteBuffer buffer;
+
+        private final int size;
+
+        /** First fingerprint (high, low) of each block. */
+        private final long[] fences;
+
+        private final long[] bloom;
+
+        private Run(File file, ByteBuffer buffer, int size, long[] fences, long[] bloom) {
+            this.file = file;
+            this.buffer = buffer;
+            this.size = size;
+            this.fences = fences;
+            this.bloom = bloom;
+        }
+
+        private static long bloomBits(int size) {
+            return ((Math.max(1L, (long) size * BLOOM_BITS_PER_FINGERPRINT) + 63) / 64) * 64;
+        }
+
+        /**
+         * Bloom filter positions come from double hashing: MD5 bits are already well distributed, so both halves of
+         * the fingerprint are used as the 2 hashes.
+         */
+        private static long bloomPosition(long high, long low, int i, long bits) {
+            return Long.remainderUnsigned(low + i * (Long.rotateLeft(high, 32) | 1), bits);
+        }
+
+        private static void addToBloom(long[] bloom, long high, long low) {
+            final long bits = bloom.length * 64L;
+            for (int i = 0; i < BLOOM_HASHES; i++) {
+                final long position = bloomPosition(high, low, i, bits);
+                bloom[(int) (position >>> 6)] |= 1L << position;
+            }
+        }
+
+        boolean contains(long high, long low) {
+            final long bits = bloom.length * 64L;
+            for (int i = 0; i < BLOOM_HASHES; i++) {
+                final long position = bloomPosition(high, low, i, bits);
+                if ((bloom[(int) (position >>> 6)] & (1L << position)) == 0) {
+                    return false;
+                }
+            }
+            // Find the last block whose first fingerprint is <= searched one.
+            int fromFence = 0;
+            int toFence = fences.length / 2 - 1;
+            int block = -1;
+            while (fromFence <= toFence) {
+                final int middle = (fromFence + toFence) >>> 1;
+                final int compare = compare(fences[middle * 2], fences[middle * 2 + 1], high, low);
+                if (compare <= 0) {
+                    block = middle;
+                    fromFence = middle + 1;
+                } else {
+                    toFence = middle - 1;
+                }
+            }
+            if (block < 0) {
+                return false;
+            }
+            int from = block * FENCE_INTERVAL;
+            int to = Math.min(from + FENCE_INTERVAL, size) - 1;
+            while (from <= to) {
+                final int middle = (from + to) >>> 1;
+                final int position = middle * FINGERPRINT_FILE_SIZE;
+                final int compare = compare(buffer.getLong(position), buffer.getLong(position + 8), high, low);
+                if (compare < 0) {
+                    from = middle + 1;
+                } else if (compare > 0) {
+                    to = middle - 1;
+                } else {
+                    return true;
+                }
+            }
+            return false;
+        }
+
+        /**
+         * Merges two runs (with no common fingerprint) in a new run.
+         */
+        static Run merge(Run first, Run second) throws IOException {
+            try (RunWriter writer = new RunWriter(first.size + second.size)) {
+                int i = 0;
+                int j = 0;
+                while (i < first.size || j < second.size) {
+                    final Run next;
+                    if (j >= second.size) {
+                        next = first;
+                    } else if (i >= first.size) {
+                        next = second;
+                    } else {
+                        final int firstPosition = i * FINGERPRINT_FILE_SIZE;
+                        final int secondPosition = j * FINGERPRINT_FILE_SIZE;
+                        next = compare(first.buffer.getLong(firstPosition), first.buffer.getLong(firstPosition + 8),
+                                second.buffer.getLong(secondPosition), second.buffer.getLong(secondPosition + 8)) <= 0
+                                        ? first : second;
+                    }
+                    final int position = (next == first ? i++ : j++) * FINGERPRINT_FILE_SIZE;
+                    writer.write(next.buffer.getLong(position), next.buffer.getLong(position + 8));
+                }
+                return writer.finish();
+            }
+        }
+
+        void destroy() {
+            // Mapped buffer is released when garbage collected, file can be deleted before that.
+            if (!file.delete()) {
+                LOGGER.debug("Unable to delete {}.", file);
+            }
+        }
+    }
+
+    /**
+     * Writes sorted fingerprints to a new {@link Run}, building its fences and Bloom filter on the fly.
+     */
+    private static class RunWriter implements Closeable {
+
+        private final File file;
+
+        private final DataOutputStream output;
+
+        private final long[] fences;
+
+        private final long[] bloom;
+
+        private int size;
+
+        private boolean finished;
+
+        RunWriter(int expectedSize) throws IOException {
+            file = File.createTempFile("Deduplicate", ".bin");
+            output = new DataOutputStream(new BufferedOutputStream(new FileOutputStream(file)));
+            fences = new long[((expectedSize + Run.FENCE_INTERVAL - 1) / Run.FENCE_INTERVAL) * 2];
+            bloom = new long[(int) (Run.bloomBits(expectedSize) / 64)];
+        }
+
+        void write(long high, long low) throws IOException {
+            if (size % Run.FENCE_INTERVAL == 0) {
+                final int fence = size / Run.FENCE_INTERVAL;
+                fences[fence * 2] = high;
+                fences[fence * 2 + 1] = low;
+            }
+            Run.addToBloom(bloom, high, low);
+            output.writeLong(high);
+            output.writeLong(low);
+            size++;
+        }
+
+        Run finish() throws IOException {
+            output.close();
+            try (FileChannel channel = FileChannel.open(file.toPath(), StandardOpenOption.READ)) {
+                final ByteBuffer buffer = channel.map(FileChannel.MapMode.READ_ONLY, 0, channel.size());
+                finished = true;
+                return new Run(file, buffer, size, fences, bloom);
+            }
+        }
+
+        @Override
+        public void close() throws IOException {
+            if (!finished) {
+                output.close();
+                if (!file.delete()) {
+                    LOGGER.debug("Unable to delete {}.", file);
+                }
+            }
+        }
+    }
+}
@@ -111,7 +111,7 @@ public class Absolute extends AbstractActionMetadata implements ColumnAction {
 
     @Override
     public Set<Behavior> getBehavior() {
-        return EnumSet.of(Behavior.VALUES_COLUMN);
+        return EnumSet.of(Behavior.VALUES_COLUMN, Behavior.THREAD_SAFE);
     }
 
 }
@@ -15,7 +15,7 @@ package org.talend.dataprep.transformation.actions.math;
 import static java.util.Collections.singletonList;
 import static org.talend.dataprep.transformation.actions.common.ActionsUtils.appendColumnCreationParameter;
 
-import java.util.Collections;
+import java.util.EnumSet;
 import java.util.List;
 import java.util.Locale;
 import java.util.Set;
@@ -67,6 +67,6 @@ public abstract class AbstractMathAction extends AbstractActionMetadata implemen
 
     @Override
     public Set<Behavior> getBehavior() {
-        return Collections.singleton(Behavior.METADATA_CREATE_COLUMNS);
+        return EnumSet.of(Behavior.METADATA_CREATE_COLUMNS, Behavior.THREAD_SAFE);
     }
 }
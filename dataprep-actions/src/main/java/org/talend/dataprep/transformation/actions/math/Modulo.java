@@ -68,6 +68,6 @@ public class Modulo extends AbstractMathOneParameterAction {
 
     @Override
     public Set<Behavior> getBehavior() {
-        return EnumSet.of(Behavior.METADATA_CREATE_COLUMNS);
+        return EnumSet.of(Behavior.METADATA_CREATE_COLUMNS, Behavior.THREAD_SAFE);
     }
 }
@@ -82,6 +82,6 @@ public class ComputeLength extends AbstractActionMetadata implements ColumnActio
 
     @Override
     public Set<Behavior> getBehavior() {
-        return EnumSet.of(Behavior.METADATA_CREATE_COLUMNS);
+        return EnumSet.of(Behavior.METADATA_CREATE_COLUMNS, Behavior.THREAD_SAFE);
     }
 }
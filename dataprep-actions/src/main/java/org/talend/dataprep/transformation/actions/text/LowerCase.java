@@ -86,6 +86,6 @@ public class LowerCase extends AbstractActionMetadata implements ColumnAction {
 
     @Override
     public Set<Behavior> getBehavior() {
-        return EnumSet.of(Behavior.VALUES_COLUMN);
+        return EnumSet.of(Behavior.VALUES_COLUMN, Behavior.THREAD_SAFE);
     }
 }
@@ -82,6 +82,6 @@ public class ProperCase extends AbstractActionMetadata implements ColumnAction {
 
     @Override
     public Set<Behavior> getBehavior() {
-        return EnumSet.of(Behavior.VALUES_COLUMN);
+        return EnumSet.of(Behavior.VALUES_COLUMN, Behavior.THREAD_SAFE);
     }
 }
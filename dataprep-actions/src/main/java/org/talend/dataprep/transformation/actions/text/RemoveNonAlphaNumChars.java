@@ -89,6 +89,6 @@ public class RemoveNonAlphaNumChars extends AbstractActionMetadata implements Co
 
     @Override
     public Set<Behavior> getBehavior() {
-        return EnumSet.of(Behavior.VALUES_COLUMN);
+        return EnumSet.of(Behavior.VALUES_COLUMN, Behavior.THREAD_SAFE);
     }
 }
@@ -93,6 +93,6 @@ public class RemoveNonNumChars extends AbstractActionMetadata implements ColumnA
 
     @Override
     public Set<Behavior> getBehavior() {
-        return EnumSet.of(Behavior.VALUES_COLUMN);
+        return EnumSet.of(Behavior.VALUES_COLUMN, Behavior.THREAD_SAFE);
     }
 }
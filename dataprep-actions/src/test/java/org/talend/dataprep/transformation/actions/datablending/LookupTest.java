@@ -38,6 +38,8 @@ import org.talend.dataprep.parameters.Parameter;
 import org.talend.dataprep.transformation.actions.AbstractMetadataBaseTest;
 import org.talend.dataprep.transformation.actions.ActionMetadataTestUtils;
 import org.talend.dataprep.transformation.api.action.ActionTestWorkbench;
+import org.talend.dataprep.transformation.api.action.context.ActionContext;
+import org.talend.dataprep.transformation.api.action.context.TransformationContext;
 
 /**
  * Unit test for the Lookup action.
@@ -215,6 +217,64 @@ public class LookupTest extends AbstractMetadataBaseTest<Lookup> {
         }
     }
 
+    @Test
+    public void shouldMergeInColumnsCreatedByLastCompile() throws IOException {
+        // given (compiled once, then compiled again on metadata with an additional column)
+        cacheUsStates();
+        final ActionContext context = new ActionContext(new TransformationContext(),
+                ActionMetadataTestUtils.getRow("Atlanta", "GA", "Philips Arena").getRowMetadata());
+        context.setParameters(getUsStatesLookupParameters("us_states"));
+        action.compile(context);
+
+        final DataSetRow row = ActionMetadataTestUtils.getRow("Atlanta", "GA", "Philips Arena", "Georgia Dome");
+        context.setRowMetadata(row.getRowMetadata());
+        action.compile(context);
+
+        // when
+        action.applyOnDataSet(row, context);
+
+        // then
+        assertEquals("Georgia Dome", row.get("0003"));
+        assertEquals("Atlanta", row.get("0004"));
+        assertEquals("Georgia", row.get("0005"));
+    }
+
+    @Test(timeout = 30000)
+    public void shouldMergeLargeLookup() throws IOException {
+        // given (100k rows reference, every 3rd row has no match)
+        LightweightExportableDataSet reference = new LightweightExportableDataSet();
+        reference.setMetadata(new RowMetadata(Arrays.asList(
+                ColumnMetadata.Builder.column().name("Key").type(Type.STRING).build(),
+                ColumnMetadata.Builder.column().name("State").type(Type.STRING).build(),
+                ColumnMetadata.Builder.column().name("Capital").type(Type.STRING).build())));
+        for (int i = 0; i < 100000; i++) {
+            reference.addRecord("K" + i, getValuesMap("K" + i, "state_" + i, "capital_" + i));
+        }
+        LookupDatasetsManager.put("reference", reference);
+        Map<String, String> parameters = getUsStatesLookupParameters("reference");
+        final List<DataSetRow> rows = new ArrayList<>();
+        for (int i = 0; i < 300000; i++) {
+            final int key = i % 3 == 2 ? -1 : (i * 7) % 100000;
+            rows.add(ActionMetadataTestUtils.getRow("city_" + i, "K" + key, "arena_" + i));
+        }
+
+        // when
+        ActionTestWorkbench.test(rows, actionRegistry, factory.create(action, parameters));
+
+        // then
+        for (int i = 0; i < rows.size(); i++) {
+            final DataSetRow row = rows.get(i);
+            if (i % 3 == 2) {
+                assertEquals("", row.get("0003"));
+                assertEquals("", row.get("0004"));
+            } else {
+                final int key = (i * 7) % 100000;
+                assertEquals("capital_" + key, row.get("0003"));
+                assertEquals("state_" + key, row.get("0004"));
+            }
+        }
+    }
+
     @Test
     public void should_have_expected_behavior() {
         assertEquals(1, action.getBehavior().size());
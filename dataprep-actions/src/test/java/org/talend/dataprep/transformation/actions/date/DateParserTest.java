@@ -165,4 +165,24 @@ public class DateParserTest {
         assertEquals(2, actual.size());
         assertEquals(new PatternFrequency("dd/MM/yyyy", 1), actual.get(1));
     }
+
+    @Test
+    public void shouldParseWithColumnPatternsAfterStatisticsChange() {
+        // given
+        ColumnMetadata column = ActionMetadataTestUtils.getColumn(Type.DATE);
+        final List<PatternFrequency> patternFrequencies = column.getStatistics().getPatternFrequencies();
+        patternFrequencies.add(new PatternFrequency("MM/dd/yyyy", 10));
+        patternFrequencies.add(new PatternFrequency("yyyy-MM-dd", 5));
+        assertEquals(LocalDate.of(2015, 1, 2).atStartOfDay(), action.parse("01/02/2015", column));
+        assertEquals(LocalDate.of(2015, 1, 2).atStartOfDay(), action.parse("01/02/2015", column));
+
+        // when
+        patternFrequencies.clear();
+        patternFrequencies.add(new PatternFrequency("dd/MM/yyyy", 10));
+
+        // then
+        assertEquals(LocalDate.of(2015, 2, 1).atStartOfDay(), action.parse("01/02/2015", column));
+        assertEquals(LocalDate.of(2015, 3, 4).atStartOfDay(), action.parse("2015-03-04", column));
+        assertEquals(2, patternFrequencies.size());
+    }
 }
@@ -0,0 +1,76 @@
+// ============================================================================
+//
+// Copyright (C) 2006-2018 Talend Inc. - www.talend.com
+//
+// This source code is available under agreement available at
+// https://github.com/Talend/data-prep/blob/master/LICENSE
+//
+// You should have received a copy of the agreement
+// along with this program; if not, write to Talend SA
+// 9 rue Pages 92150 Suresnes, France
+//
+// ============================================================================
+package org.talend.dataprep.transformation.actions.duplication;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertTrue;
+
+import java.util.Random;
+
+import org.junit.Test;
+
+/**
+ * Unit test for the RowFingerprintSet class.
+ *
+ * @see RowFingerprintSet
+ */
+public class RowFingerprintSetTest {
+
+    @Test
+    public void should_detect_duplicates_in_memory() {
+        // given
+        final RowFingerprintSet fingerprints = new RowFingerprintSet();
+
+        // then
+        assertTrue(fingerprints.add(1L, 2L));
+        assertTrue(fingerprints.add(0L, 0L));
+        assertTrue(fingerprints.add(2L, 1L));
+        assertFalse(fingerprints.add(1L, 2L));
+        assertFalse(fingerprints.add(0L, 0L));
+        assertEquals(3, fingerprints.size());
+        assertFalse(fingerprints.isSpilled());
+    }
+
+    @Test
+    public void should_detect_duplicates_after_spill() {
+        // given (room for 100 fingerprints in memory)
+        final RowFingerprintSet fingerprints = new RowFingerprintSet(3200);
+        final int count = 10000;
+        final long[] highs = new long[count];
+        final long[] lows = new long[count];
+        final Random random = new Random(1234);
+        try {
+            // when
+            for (int i = 0; i < count; i++) {
+                highs[i] = random.nextLong();
+                lows[i] = random.nextLong();
+                assertTrue(fingerprints.add(highs[i], lows[i]));
+            }
+            assertTrue(fingerprints.add(0L, 0L));
+
+            // then
+            assertTrue(fingerprints.isSpilled());
+            // Runs of similar sizes are merged: about log2(spilled fingerprints / fingerprints per spill) per partition.
+            assertTrue(fingerprints.runCount() <= RowFingerprintSet.PARTITION_COUNT * 10);
+            assertEquals(count + 1, fingerprints.size());
+            for (int i = count - 1; i >= 0; i--) {
+                assertFalse(fingerprints.add(highs[i], lows[i]));
+            }
+            assertFalse(fingerprints.add(0L, 0L));
+            assertTrue(fingerprints.add(highs[0], lows[0] + 1));
+        } finally {
+            fingerprints.destroy();
+        }
+    }
+}
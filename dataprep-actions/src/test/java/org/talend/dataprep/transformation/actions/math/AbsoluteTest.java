@@ -420,8 +420,9 @@ public class AbsoluteTest extends AbstractMetadataBaseTest<Absolute> {
 
     @Test
     public void should_have_expected_behavior() {
-        assertEquals(1, action.getBehavior().size());
+        assertEquals(2, action.getBehavior().size());
         assertTrue(action.getBehavior().contains(ActionDefinition.Behavior.VALUES_COLUMN));
+        assertTrue(action.getBehavior().contains(ActionDefinition.Behavior.THREAD_SAFE));
     }
 
 }
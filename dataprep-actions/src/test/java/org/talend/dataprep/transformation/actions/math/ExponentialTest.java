@@ -129,8 +129,9 @@ public class ExponentialTest extends AbstractMetadataBaseTest<Exponential> {
 
     @Test
     public void should_have_expected_behavior() {
-        assertEquals(1, action.getBehavior().size());
+        assertEquals(2, action.getBehavior().size());
         assertTrue(action.getBehavior().contains(ActionDefinition.Behavior.METADATA_CREATE_COLUMNS));
+        assertTrue(action.getBehavior().contains(ActionDefinition.Behavior.THREAD_SAFE));
     }
 
     private void assertColumnWithResultCreated(DataSetRow row) {
@@ -201,8 +201,9 @@ public class ComputeLengthTest extends AbstractMetadataBaseTest<ComputeLength> {
 
     @Test
     public void should_have_expected_behavior() {
-        assertEquals(1, action.getBehavior().size());
+        assertEquals(2, action.getBehavior().size());
         assertTrue(action.getBehavior().contains(ActionDefinition.Behavior.METADATA_CREATE_COLUMNS));
+        assertTrue(action.getBehavior().contains(ActionDefinition.Behavior.THREAD_SAFE));
     }
 
     protected ColumnMetadata createMetadata(String id, String name, Type type) {
@@ -0,0 +1,169 @@
+// ============================================================================
+// Copyright (C) 2006-2018 Talend Inc. - www.talend.com
+//
+// This source code is available under agreement available at
+// https://github.com/Talend/data-prep/blob/master/LICENSE
+//
+// You should have received a copy of the agreement
+// along with this program; if not, write to Talend SA
+// 9 rue Pages 92150 Suresnes, France
+//
+// ============================================================================
+
+package org.talend.dataprep.transformation.pipeline;
+
+import static org.junit.Assert.assertEquals;
+import static org.talend.dataprep.transformation.actions.AbstractMetadataBaseTest.ValueBuilder.value;
+import static org.talend.dataprep.transformation.actions.AbstractMetadataBaseTest.ValuesBuilder.builder;
+
+import java.io.IOException;
+import java.util.*;
+import java.util.stream.Stream;
+
+import org.junit.Test;
+import org.talend.dataprep.ClassPathActionRegistry;
+import org.talend.dataprep.api.dataset.DataSet;
+import org.talend.dataprep.api.dataset.DataSetMetadata;
+import org.talend.dataprep.api.dataset.RowMetadata;
+import org.talend.dataprep.api.dataset.row.DataSetRow;
+import org.talend.dataprep.api.type.Type;
+import org.talend.dataprep.dataset.StatisticsAdapter;
+import org.talend.dataprep.transformation.actions.ActionMetadataTestUtils;
+import org.talend.dataprep.transformation.actions.common.ActionFactory;
+import org.talend.dataprep.transformation.actions.common.RunnableAction;
+import org.talend.dataprep.transformation.actions.date.BaseDateTest;
+import org.talend.dataprep.transformation.actions.date.ChangeDatePattern;
+import org.talend.dataprep.transformation.actions.math.ChangeNumberFormat;
+import org.talend.dataprep.transformation.actions.text.UpperCase;
+import org.talend.dataprep.transformation.pipeline.node.BasicNode;
+import org.talend.dataprep.transformation.pipeline.node.ParallelNode;
+
+/**
+ * Checks that a pipeline executed with several workers gives the same result as a sequential execution.
+ */
+public class ParallelPipelineTest {
+
+    private static final int ROWS = ParallelNode.DEFAULT_BATCH_SIZE * 5 + 17;
+
+    private final ActionFactory factory = new ActionFactory();
+
+    private final ActionRegistry actionRegistry = new ClassPathActionRegistry("org.talend.dataprep.transformation.actions");
+
+    @Test
+    public void should_have_same_output_as_sequential_execution() throws Exception {
+        // when
+        final CollectorNode sequential = execute(1, false);
+        final CollectorNode parallel = execute(4, false);
+
+        // then
+        assertEquals(ROWS, sequential.getValues().size());
+        assertEquals("VALUE #0", sequential.getValues().get(0).get("0000"));
+        assertEquals("25 - Apr - 1999", sequential.getValues().get(0).get("0002"));
+        assertEquals(sequential.getValues(), parallel.getValues());
+        assertEquals(sequential.getMetadata(), parallel.getMetadata());
+    }
+
+    @Test
+    public void should_have_same_output_as_sequential_execution_with_reused_rows() throws Exception {
+        // when
+        final CollectorNode sequential = execute(1, true);
+        final CollectorNode parallel = execute(4, true);
+
+        // then
+        assertEquals(ROWS, sequential.getValues().size());
+        assertEquals("VALUE #0", sequential.getValues().get(0).get("0000"));
+        assertEquals("VALUE #" + (ROWS - 1), sequential.getValues().get(ROWS - 1).get("0000"));
+        assertEquals(sequential.getValues(), parallel.getValues());
+        assertEquals(sequential.getMetadata(), parallel.getMetadata());
+    }
+
+    /**
+     * @param parallelism The number of workers.
+     * @param reuseRow <code>true</code> to send the same {@link DataSetRow} instance for all records (as
+     * {@link org.talend.dataprep.api.dataset.json.DataSetRowIterator} does), <code>false</code> to send a new instance
+     * for each record.
+     */
+    private CollectorNode execute(int parallelism, boolean reuseRow) throws IOException {
+        // given
+        final List<Map<String, String>> records = new ArrayList<>(ROWS);
+        final RowMetadata rowMetadata = builder() //
+                .with(value("").type(Type.STRING).name("name")) //
+                .with(value("").type(Type.STRING).name("amount")) //
+                .with(value("").type(Type.STRING).name("date")
+                        .statistics(BaseDateTest.class.getResourceAsStream("statistics_MM_dd_yyyy.json"))) //
+                .build() //
+                .getRowMetadata();
+        for (int i = 0; i < ROWS; i++) {
+            final Map<String, String> values = new HashMap<>();
+            values.put("0000", "value #" + i);
+            values.put("0001", i % 2 == 0 ? "1012." + i : "1 012," + i);
+            values.put("0002", "04/" + (i % 28 + 1) + "/1999");
+            records.add(values);
+        }
+        final Stream<DataSetRow> rows;
+        if (reuseRow) {
+            final DataSetRow row = new DataSetRow(rowMetadata);
+            rows = records.stream().map(values -> {
+                row.clear();
+                values.forEach(row::set);
+                return row;
+            });
+        } else {
+            rows = records.stream().map(values -> new DataSetRow(rowMetadata, values));
+        }
+
+        final Map<String, String> upperCaseParameters = new HashMap<>();
+        upperCaseParameters.put("column_id", "0000");
+        upperCaseParameters.put("scope", "column");
+        final Map<String, String> numberParameters = ActionMetadataTestUtils
+                .parseParameters(ChangeNumberFormat.class.getResourceAsStream("changeNumberFormatAction.json"));
+        final Map<String, String> dateParameters = ActionMetadataTestUtils
+                .parseParameters(ChangeDatePattern.class.getResourceAsStream("changeDatePatternAction.json"));
+        dateParameters.put("column_id", "0002");
+        final List<RunnableAction> actions = Arrays.asList( //
+                factory.create(new UpperCase(), upperCaseParameters), //
+                factory.create(new ChangeNumberFormat(), numberParameters), //
+                factory.create(new ChangeDatePattern(), dateParameters), //
+                factory.create(new UpperCase(), upperCaseParameters));
+
+        final DataSet dataSet = new DataSet();
+        final DataSetMetadata dataSetMetadata = new DataSetMetadata();
+        dataSetMetadata.setRowMetadata(rowMetadata);
+        dataSet.setMetadata(dataSetMetadata);
+        dataSet.setRecords(rows);
+        final CollectorNode output = new CollectorNode();
+
+        // when
+        Pipeline.Builder.builder() //
+                .withActionRegistry(actionRegistry) //
+                .withInitialMetadata(rowMetadata, true) //
+                .withActions(actions) //
+                .withStatisticsAdapter(new StatisticsAdapter(40)) //
+                .withOutput(() -> output) //
+                .withParallelism(parallelism) //
+                .build() //
+                .execute(dataSet);
+        return output;
+    }
+
+    private static class CollectorNode extends BasicNode {
+
+        private final List<Map<String, Object>> values = new ArrayList<>();
+
+        private RowMetadata metadata;
+
+        List<Map<String, Object>> getValues() {
+            return values;
+        }
+
+        RowMetadata getMetadata() {
+            return metadata;
+        }
+
+        @Override
+        public void receive(DataSetRow row, RowMetadata metadata) {
+            values.add(new HashMap<>(row.values()));
+            this.metadata = metadata;
+        }
+    }
+}
@@ -243,7 +243,12 @@ public interface ActionDefinition extends Serializable {
          * nodes in case of distributed run). Example for this includes: fill empty with non-empty value from above,
          * make line as header...
          */
-        FORBID_DISTRIBUTED
+        FORBID_DISTRIBUTED,
+        /**
+         * Action can be applied concurrently on rows that share the same action context: context and row metadata are
+         * only modified at compile time and only read when action is applied on a row (e.g. upper case, lower case...).
+         */
+        THREAD_SAFE
     }
 
     /**
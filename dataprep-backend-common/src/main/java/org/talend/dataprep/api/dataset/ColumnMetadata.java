@@ -91,6 +91,9 @@ public class ColumnMetadata implements Serializable {
     @JsonProperty("typeForced")
     private boolean typeForced;
 
+    /** Number of modifications of id, name, type or domain (see {@link RowMetadata#version()}). */
+    private transient int modCount;
+
     /**
      * Default empty constructor.
      */
@@ -128,6 +131,7 @@ public class ColumnMetadata implements Serializable {
      */
     public void setName(String name) {
         this.name = name;
+        modCount++;
     }
 
     /**
@@ -143,6 +147,7 @@ public class ColumnMetadata implements Serializable {
      */
     public void setType(String typeName) {
         this.typeName = typeName;
+        modCount++;
     }
 
     /**
@@ -271,6 +276,7 @@ public class ColumnMetadata implements Serializable {
 
     public void setDomain(String domain) {
         this.domain = domain;
+        modCount++;
     }
 
     public String getDomain() {
@@ -303,6 +309,14 @@ public class ColumnMetadata implements Serializable {
 
     public void setId(String id) {
         this.id = id;
+        modCount++;
+    }
+
+    /**
+     * @return The number of times id, name, type or domain of this column were modified.
+     */
+    int modCount() {
+        return modCount;
     }
 
     /**
@@ -56,6 +56,9 @@ public class RowMetadata implements Serializable {
     @JsonProperty("nextId")
     private int nextId = 0;
 
+    /** Number of structural modifications (see {@link #version()}). */
+    private transient long modCount;
+
     /**
      * Default empty constructor.
      */
@@ -104,6 +107,7 @@ public class RowMetadata implements Serializable {
      * @param columnMetadata the metadata to set.
      */
     public void setColumns(List<ColumnMetadata> columnMetadata) {
+        columns.forEach(this::removed);
         columns.clear();
         nextId = 0;
         columnMetadata.forEach(this::addColumn);
@@ -126,6 +130,7 @@ public class RowMetadata implements Serializable {
     public ColumnMetadata deleteColumnById(String id) {
         ColumnMetadata column = getById(id);
         if (column != null && columns.remove(column)) {
+            removed(column);
             return column;
         }
         return null;
@@ -149,9 +154,32 @@ public class RowMetadata implements Serializable {
             }
         }
         columns.add(index, columnMetadata);
+        modCount++;
         return columnMetadata;
     }
 
+    /**
+     * Keeps {@link #version()} increasing when <code>column</code> (and its own modifications) leaves this metadata.
+     */
+    private void removed(ColumnMetadata column) {
+        modCount += column.modCount() + 1;
+    }
+
+    /**
+     * Returns a number that changes whenever columns are added, removed or replaced, or when id, name, type or domain
+     * of a column changes. This is a cheap alternative to {@link #hashCode()} to detect that this metadata was
+     * modified. Version is not serialized and is only meaningful for a given instance.
+     *
+     * @return The current version of this row metadata.
+     */
+    public long version() {
+        long version = modCount;
+        for (ColumnMetadata column : columns) {
+            version += column.modCount();
+        }
+        return version;
+    }
+
     /**
      * @return the row size.
      */
@@ -204,6 +232,7 @@ public class RowMetadata implements Serializable {
                 int position = findColumnPosition(reference.getColumns(), referenceColumn.getId());
                 referenceColumn.setDiffFlagValue(Flag.DELETE.getValue());
                 columns.add(position, referenceColumn);
+                modCount++;
             }
         });
 
@@ -269,7 +298,7 @@ public class RowMetadata implements Serializable {
             }
             updatePos++;
         }
-        columns.set(updatePos, column);
+        removed(columns.set(updatePos, column));
     }
 
     /**
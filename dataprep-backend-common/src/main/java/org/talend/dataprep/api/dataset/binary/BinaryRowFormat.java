@@ -0,0 +1,105 @@
+// ============================================================================
+// Copyright (C) 2006-2018 Talend Inc. - www.talend.com
+//
+// This source code is available under agreement available at
+// https://github.com/Talend/data-prep/blob/master/LICENSE
+//
+// You should have received a copy of the agreement
+// along with this program; if not, write to Talend SA
+// 9 rue Pages 92150 Suresnes, France
+//
+// ============================================================================
+
+package org.talend.dataprep.api.dataset.binary;
+
+import java.io.DataInput;
+import java.io.DataOutput;
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+
+/**
+ * <p>
+ * Constants and low level helpers for the internal binary row format. This format is only meant for row exchanges
+ * within the same service (or for temporary files), JSON remains the format for HTTP clients.
+ * </p>
+ * <p>
+ * Layout is:
+ * <ul>
+ * <li>Header: magic number, format version, number of columns and column ids.</li>
+ * <li>Rows: a {@link #ROW} marker, a flag byte, the optional TDP id then one value token per header column. Stream
+ * ends with a {@link #END} marker.</li>
+ * </ul>
+ * A value token is a variable length integer: {@link #NULL_VALUE} for <code>null</code>, {@link #LITERAL_VALUE}
+ * followed by the length prefixed UTF-8 value, or the index (shifted by {@link #DICTIONARY_OFFSET}) of a previously
+ * written value. Both ends build the same dictionary: short literal values are added in order of appearance until
+ * dictionary is full.
+ * </p>
+ */
+final class BinaryRowFormat {
+
+    static final int MAGIC = 0x54445052; // "TDPR"
+
+    static final byte VERSION = 1;
+
+    static final byte END = 0;
+
+    static final byte ROW = 1;
+
+    static final int FLAG_DELETED = 1;
+
+    static final int FLAG_TDP_ID = 1 << 1;
+
+    static final int FLAG_INVALID = 1 << 2;
+
+    static final int NULL_VALUE = 0;
+
+    static final int LITERAL_VALUE = 1;
+
+    static final int DICTIONARY_OFFSET = 2;
+
+    /** Maximum number of entries in the value dictionary. */
+    static final int MAX_DICTIONARY_SIZE = 1 << 16;
+
+    /** Values longer than this are never added to dictionary (unlikely to be repeated). */
+    static final int MAX_DICTIONARY_VALUE_LENGTH = 64;
+
+    private BinaryRowFormat() {
+    }
+
+    static boolean isDictionaryCandidate(String value, int dictionarySize) {
+        return dictionarySize < MAX_DICTIONARY_SIZE && value.length() <= MAX_DICTIONARY_VALUE_LENGTH;
+    }
+
+    static void writeVarLong(DataOutput output, long value) throws IOException {
+        long remaining = value;
+        while ((remaining & ~0x7FL) != 0) {
+            output.writeByte((int) ((remaining & 0x7F) | 0x80));
+            remaining >>>= 7;
+        }
+        output.writeByte((int) remaining);
+    }
+
+    static long readVarLong(DataInput input) throws IOException {
+        long value = 0;
+        int shift = 0;
+        byte current;
+        do {
+            current = input.readByte();
+            value |= (long) (current & 0x7F) << shift;
+            shift += 7;
+        } while ((current & 0x80) != 0);
+        return value;
+    }
+
+    static void writeString(DataOutput output, String value) throws IOException {
+        final byte[] bytes = value.getBytes(StandardCharsets.UTF_8);
+        writeVarLong(output, bytes.length);
+        output.write(bytes);
+    }
+
+    static String readString(DataInput input) throws IOException {
+        final byte[] bytes = new byte[(int) readVarLong(input)];
+        input.readFully(bytes);
+        return new String(bytes, StandardCharsets.UTF_8);
+    }
+}
@@ -0,0 +1,169 @@
+// ============================================================================
+// Copyright (C) 2006-2018 Talend Inc. - www.talend.com
+//
+// This source code is available under agreement available at
+// https://github.com/Talend/data-prep/blob/master/LICENSE
+//
+// You should have received a copy of the agreement
+// along with this program; if not, write to Talend SA
+// 9 rue Pages 92150 Suresnes, France
+//
+// ============================================================================
+
+package org.talend.dataprep.api.dataset.binary;
+
+import static org.talend.dataprep.api.dataset.binary.BinaryRowFormat.*;
+
+import java.io.BufferedInputStream;
+import java.io.DataInputStream;
+import java.io.EOFException;
+import java.io.IOException;
+import java.io.InputStream;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Iterator;
+import java.util.List;
+import java.util.NoSuchElementException;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.talend.daikon.exception.TalendRuntimeException;
+import org.talend.dataprep.BaseErrorCodes;
+import org.talend.dataprep.api.dataset.RowMetadata;
+import org.talend.dataprep.api.dataset.row.DataSetRow;
+
+/**
+ * Iterator of dataset row used to Stream DatasetRows from the internal binary row format (see
+ * {@link DataSetRowBinaryWriter}). Similarly to {@link org.talend.dataprep.api.dataset.json.DataSetRowIterator}, the
+ * same row instance is cleaned and reused at each iteration, and <code>null</code> values are read as empty strings
+ * (unless iterator is created to keep them).
+ */
+public class DataSetRowBinaryIterator implements Iterator<DataSetRow> {
+
+    /** This class' logger. */
+    private static final Logger LOGGER = LoggerFactory.getLogger(DataSetRowBinaryIterator.class);
+
+    private final DataInputStream input;
+
+    private final String[] columnIds;
+
+    private final List<String> dictionary = new ArrayList<>();
+
+    /** DataSetRow object used to read rows (cleaned and reused at each iteration). */
+    private final DataSetRow row;
+
+    /** <code>true</code> to read <code>null</code> values as <code>null</code> (and not as empty strings). */
+    private final boolean keepNullValues;
+
+    /** Next marker read from input (or -1 if not read yet). */
+    private int nextMarker = -1;
+
+    public DataSetRowBinaryIterator(InputStream inputStream) {
+        this(inputStream, new RowMetadata());
+    }
+
+    /**
+     * Constructor.
+     *
+     * @param inputStream stream to read rows from.
+     * @param rowMetadata the row metadata to add to each row.
+     */
+    public DataSetRowBinaryIterator(InputStream inputStream, RowMetadata rowMetadata) {
+        this(inputStream, rowMetadata, false);
+    }
+
+    /**
+     * Constructor.
+     *
+     * @param inputStream stream to read rows from.
+     * @param rowMetadata the row metadata to add to each row.
+     * @param keepNullValues <code>true</code> to read <code>null</code> values as <code>null</code>, <code>false</code>
+     * to read them as empty strings.
+     */
+    public DataSetRowBinaryIterator(InputStream inputStream, RowMetadata rowMetadata, boolean keepNullValues) {
+        this.input = new DataInputStream(new BufferedInputStream(inputStream));
+        this.row = new DataSetRow(rowMetadata);
+        this.keepNullValues = keepNullValues;
+        try {
+            if (input.readInt() != MAGIC) {
+                throw new IOException("Input is not in binary row format.");
+            }
+            final byte version = input.readByte();
+            if (version != VERSION) {
+                throw new IOException("Unsupported binary row format version " + version + ".");
+            }
+            columnIds = new String[(int) readVarLong(input)];
+            for (int i = 0; i < columnIds.length; i++) {
+                columnIds[i] = readString(input);
+            }
+        } catch (IOException e) {
+            throw new TalendRuntimeException(BaseErrorCodes.UNEXPECTED_EXCEPTION, e);
+        }
+    }
+
+    /**
+     * @return The column ids as written in header.
+     */
+    public List<String> getColumnIds() {
+        return Arrays.asList(columnIds);
+    }
+
+    @Override
+    public boolean hasNext() {
+        if (nextMarker < 0) {
+            try {
+                nextMarker = input.readByte();
+            } catch (EOFException e) {
+                LOGGER.debug("Unexpected end of binary row input.", e);
+                nextMarker = END;
+            } catch (IOException e) {
+                throw new TalendRuntimeException(BaseErrorCodes.UNEXPECTED_EXCEPTION, e);
+            }
+        }
+        return nextMarker == ROW;
+    }
+
+    @Override
+    public DataSetRow next() {
+        if (!hasNext()) {
+            throw new NoSuchElementException();
+        }
+        nextMarker = -1;
+        try {
+            row.clear();
+            final int flags = input.readByte();
+            row.setDeleted((flags & FLAG_DELETED) != 0);
+            if ((flags & FLAG_TDP_ID) != 0) {
+                row.setTdpId(readVarLong(input));
+            }
+            for (String columnId : columnIds) {
+                final String value = readValue();
+                row.set(columnId, value == null && !keepNullValues ? "" : value);
+            }
+            if ((flags & FLAG_INVALID) != 0) {
+                final long invalidCount = readVarLong(input);
+                for (long i = 0; i < invalidCount; i++) {
+                    row.setInvalid(columnIds[(int) readVarLong(input)]);
+                }
+            }
+            return row;
+        } catch (IOException e) {
+            throw new TalendRuntimeException(BaseErrorCodes.UNEXPECTED_EXCEPTION, e);
+        }
+    }
+
+    private String readValue() throws IOException {
+        final long token = readVarLong(input);
+        if (token == NULL_VALUE) {
+            return null;
+        } else if (token == LITERAL_VALUE) {
+            final String value = readString(input);
+            if (isDictionaryCandidate(value, dictionary.size())) {
+                dictionary.add(value);
+            }
+            return value;
+        } else {
+            return dictionary.get((int) (token - DICTIONARY_OFFSET));
+        }
+    }
+}
@@ -0,0 +1,154 @@
+// ============================================================================
+// Copyright (C) 2006-2018 Talend Inc. - www.talend.com
+//
+// This source code is available under agreement available at
+// https://github.com/Talend/data-prep/blob/master/LICENSE
+//
+// You should have received a copy of the agreement
+// along with this program; if not, write to Talend SA
+// 9 rue Pages 92150 Suresnes, France
+//
+// ============================================================================
+
+package org.talend.dataprep.api.dataset.binary;
+
+import static org.talend.dataprep.api.dataset.binary.BinaryRowFormat.*;
+
+import java.io.BufferedOutputStream;
+import java.io.Closeable;
+import java.io.DataOutputStream;
+import java.io.Flushable;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+import org.talend.dataprep.api.dataset.row.DataSetRow;
+
+/**
+ * Writes rows using the internal binary row format (see {@link DataSetRowBinaryIterator} to read them back).
+ */
+public class DataSetRowBinaryWriter implements Closeable, Flushable {
+
+    private final DataOutputStream output;
+
+    private final String[] columnIds;
+
+    private final Map<String, Integer> dictionary = new HashMap<>();
+
+    private final int[] invalidIndexes;
+
+    private boolean closed;
+
+    /**
+     * Create a writer for rows that contain values for <code>columnIds</code>. Header is written immediately.
+     *
+     * @param output Where rows are written.
+     * @param columnIds The column ids (in the order of the values given to {@link #write(String[])}).
+     * @throws IOException In case header can not be written.
+     */
+    public DataSetRowBinaryWriter(OutputStream output, List<String> columnIds) throws IOException {
+        this.output = new DataOutputStream(new BufferedOutputStream(output));
+        this.columnIds = columnIds.toArray(new String[columnIds.size()]);
+        this.invalidIndexes = new int[this.columnIds.length];
+        this.output.writeInt(MAGIC);
+        this.output.writeByte(VERSION);
+        writeVarLong(this.output, this.columnIds.length);
+        for (String columnId : this.columnIds) {
+            writeString(this.output, columnId);
+        }
+    }
+
+    /**
+     * Writes a row.
+     *
+     * @param values The values (in the same order as the column ids given at creation).
+     * @throws IOException In case of write error.
+     */
+    public void write(String[] values) throws IOException {
+        output.writeByte(ROW);
+        output.writeByte(0);
+        for (int i = 0; i < columnIds.length; i++) {
+            writeValue(i < values.length ? values[i] : null);
+        }
+    }
+
+    /**
+     * Writes a row: values of header columns, deleted flag, TDP id and invalid columns are kept.
+     *
+     * @param row The row to write.
+     * @throws IOException In case of write error.
+     */
+    public void write(DataSetRow row) throws IOException {
+        int invalidCount = 0;
+        for (int i = 0; i < columnIds.length; i++) {
+            if (row.isInvalid(columnIds[i])) {
+                invalidIndexes[invalidCount++] = i;
+            }
+        }
+        int flags = 0;
+        if (row.isDeleted()) {
+            flags |= FLAG_DELETED;
+        }
+        if (row.getTdpId() != null) {
+            flags |= FLAG_TDP_ID;
+        }
+        if (invalidCount > 0) {
+            flags |= FLAG_INVALID;
+        }
+
+        output.writeByte(ROW);
+        output.writeByte(flags);
+        if (row.getTdpId() != null) {
+            writeVarLong(output, row.getTdpId());
+        }
+        for (String columnId : columnIds) {
+            writeValue(row.get(columnId));
+        }
+        if (invalidCount > 0) {
+            writeVarLong(output, invalidCount);
+            for (int i = 0; i < invalidCount; i++) {
+                writeVarLong(output, invalidIndexes[i]);
+            }
+        }
+    }
+
+    private void writeValue(String value) throws IOException {
+        if (value == null) {
+            writeVarLong(output, NULL_VALUE);
+            return;
+        }
+        final Integer index = dictionary.get(value);
+        if (index != null) {
+            writeVarLong(output, index + (long) DICTIONARY_OFFSET);
+        } else {
+            writeVarLong(output, LITERAL_VALUE);
+            writeString(output, value);
+            if (isDictionaryCandidate(value, dictionary.size())) {
+                dictionary.put(value, dictionary.size());
+            }
+        }
+    }
+
+    @Override
+    public void flush() throws IOException {
+        output.flush();
+    }
+
+    /**
+     * Writes end of rows and closes underlying output.
+     */
+    @Override
+    public void close() throws IOException {
+        if (!closed) {
+            closed = true;
+            try {
+                output.writeByte(END);
+                output.flush();
+            } finally {
+                output.close();
+            }
+        }
+    }
+}
@@ -261,7 +261,14 @@ public class DataSetRow implements Cloneable, Serializable {
      */
     @Override
     public DataSetRow clone() {
-        final DataSetRow clone = new DataSetRow(rowMetadata, values);
+        final DataSetRow clone;
+        if (values instanceof SortedMap && !values.containsKey(TDP_INVALID) && !values.containsValue(null)) {
+            // Copying a sorted map is linear (no need to re-insert and re-parse each value).
+            clone = new DataSetRow(rowMetadata);
+            clone.values = new TreeMap<>((SortedMap<String, String>) values);
+        } else {
+            clone = new DataSetRow(rowMetadata, values);
+        }
         clone.invalidColumnIds.addAll(invalidColumnIds);
         clone.setDeleted(this.isDeleted());
         clone.setTdpId(this.rowId);
@@ -390,6 +397,22 @@ public class DataSetRow implements Cloneable, Serializable {
         return strings.toArray(new String[strings.size()]);
     }
 
+    /**
+     * Returns the values of the current row for the <code>columns</code> (in the order of <code>columns</code>). This
+     * is equivalent to <code>filter(columns).order(columns).toArray(SKIP_TDP_ID)</code> but does not create any
+     * intermediate row.
+     *
+     * @param columns The columns to get values for.
+     * @return The values of the current row as array of String, missing values are returned as "null".
+     */
+    public String[] toArray(List<ColumnMetadata> columns) {
+        final String[] array = new String[columns.size()];
+        for (int i = 0; i < array.length; i++) {
+            array[i] = String.valueOf(values.get(columns.get(i).getId()));
+        }
+        return array;
+    }
+
     public Long getTdpId() {
         return rowId;
     }
@@ -403,7 +426,12 @@ public class DataSetRow implements Cloneable, Serializable {
      * <code>false</code> otherwise.
      */
     public boolean isEmpty() {
-        return values.isEmpty() || values.values().stream().filter(s -> !StringUtils.isEmpty(s)).count() == 0;
+        for (String value : values.values()) {
+            if (!StringUtils.isEmpty(value)) {
+                return false;
+            }
+        }
+        return true;
     }
 
     /**
@@ -442,8 +470,7 @@ public class DataSetRow implements Cloneable, Serializable {
      * @return <code>true</code> if column is marked as invalid in row, <code>false</code> otherwise or if column does not exist.
      */
     public boolean isInvalid(String columnId) {
-        final String currentInvalidColumnIds = get(TDP_INVALID);
-        return currentInvalidColumnIds != null && currentInvalidColumnIds.contains(columnId);
+        return invalidColumnIds.contains(columnId);
     }
 
     /**
@@ -579,6 +606,16 @@ public class DataSetRow implements Cloneable, Serializable {
             return delegate.order(columns);
         }
 
+        @Override
+        public String[] toArray(List<ColumnMetadata> columns) {
+            return delegate.toArray(columns);
+        }
+
+        @Override
+        public boolean isInvalid(String columnId) {
+            return delegate.isInvalid(columnId);
+        }
+
         @Override
         public Long getTdpId() {
             return delegate.getTdpId();
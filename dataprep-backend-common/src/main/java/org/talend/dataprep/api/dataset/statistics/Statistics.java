@@ -18,6 +18,7 @@ import java.util.HashSet;
 import java.util.LinkedList;
 import java.util.List;
 
+import com.fasterxml.jackson.annotation.JsonInclude;
 import com.fasterxml.jackson.annotation.JsonProperty;
 import com.fasterxml.jackson.annotation.JsonRootName;
 
@@ -74,6 +75,11 @@ public class Statistics implements Serializable {
     @JsonProperty("textLengthSummary")
     private TextLengthSummary textLengthSummary = new TextLengthSummary();
 
+    /** <code>true</code> if some statistics (distinct count, frequencies, quantiles) are estimations. */
+    @JsonProperty("approximate")
+    @JsonInclude(JsonInclude.Include.NON_DEFAULT)
+    private boolean approximate;
+
     public long getCount() {
         return count;
     }
@@ -194,13 +200,21 @@ public class Statistics implements Serializable {
         this.textLengthSummary = textLengthSummary;
     }
 
+    public boolean isApproximate() {
+        return approximate;
+    }
+
+    public void setApproximate(boolean approximate) {
+        this.approximate = approximate;
+    }
+
     @Override
     public String toString() {
         return "Statistics{" + "count=" + count + ", valid=" + valid + ", invalid=" + invalid + ", empty=" + empty + ", max="
                 + max + ", min=" + min + ", mean=" + mean + ", variance=" + variance + ", duplicateCount=" + duplicateCount
                 + ", distinctCount=" + distinctCount + ", dataFrequencies=" + dataFrequencies + ", patternFrequencies="
                 + patternFrequencies + ", quantiles=" + quantiles + ", histogram=" + histogram + ", textLengthSummary="
-                + textLengthSummary + '}';
+                + textLengthSummary + ", approximate=" + approximate + '}';
     }
 
     @Override
@@ -242,6 +256,9 @@ public class Statistics implements Serializable {
         if (distinctCount != that.distinctCount) {
             return false;
         }
+        if (approximate != that.approximate) {
+            return false;
+        }
         if (!new HashSet<>(dataFrequencies).equals(new HashSet<>(that.dataFrequencies))) {
             return false;
         }
@@ -281,6 +298,7 @@ public class Statistics implements Serializable {
         result = 31 * result + quantiles.hashCode();
         result = 31 * result + histogram.hashCode();
         result = 31 * result + textLengthSummary.hashCode();
+        result = 31 * result + (approximate ? 1 : 0);
         return result;
     }
 }
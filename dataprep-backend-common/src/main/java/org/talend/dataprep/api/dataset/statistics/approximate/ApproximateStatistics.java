@@ -0,0 +1,125 @@
+// ============================================================================
+// Copyright (C) 2006-2018 Talend Inc. - www.talend.com
+//
+// This source code is available under agreement available at
+// https://github.com/Talend/data-prep/blob/master/LICENSE
+//
+// You should have received a copy of the agreement
+// along with this program; if not, write to Talend SA
+// 9 rue Pages 92150 Suresnes, France
+//
+// ============================================================================
+
+
+package org.talend.dataprep.api.dataset.statistics.approximate;
+
+import java.io.Serializable;
+import java.util.Map;
+
+/**
+ * Approximate statistics for a column: distinct count ({@link HyperLogLog}), most frequent values ({@link SpaceSaving})
+ * and, for numeric columns, quantiles ({@link TDigest}). Memory used does not depend on the number of values (nor on
+ * the number of distinct values).
+ *
+ * @see ApproximateStatisticsAnalyzer
+ */
+public class ApproximateStatistics implements Serializable {
+
+    private static final long serialVersionUID = 1L;
+
+    private long count;
+
+    private HyperLogLog distinct = new HyperLogLog();
+
+    private SpaceSaving frequencies = new SpaceSaving();
+
+    /** Quantiles, only created once a numeric value is added. */
+    private TDigest quantiles;
+
+    /**
+     * Adds a value to the distinct count and frequencies.
+     *
+     * @param value The value to add.
+     */
+    public void add(String value) {
+        count++;
+        distinct.add(value);
+        frequencies.add(value);
+    }
+
+    /**
+     * Adds a numeric value to the quantiles.
+     *
+     * @param value The value to add.
+     */
+    public void addNumber(double value) {
+        if (quantiles == null) {
+            quantiles = new TDigest();
+        }
+        quantiles.add(value);
+    }
+
+    /**
+     * @return The number of values.
+     */
+    public long getCount() {
+        return count;
+    }
+
+    /**
+     * @return The (estimated) number of distinct values.
+     */
+    public long getDistinctCount() {
+        return Math.min(count, distinct.cardinality());
+    }
+
+    /**
+     * @return The (estimated) number of duplicate values (i.e. count - distinct count).
+     */
+    public long getDuplicateCount() {
+        return count - getDistinctCount();
+    }
+
+    /**
+     * @param k The maximum number of values to return.
+     * @return The most frequent values with their occurrences, most frequent first.
+     * @see SpaceSaving#getTopK(int)
+     */
+    public Map<String, Long> getTopK(int k) {
+        return frequencies.getTopK(k);
+    }
+
+    /**
+     * @return <code>true</code> if at least a numeric value was added (and {@link #getQuantile(double)} is available).
+     */
+    public boolean hasQuantiles() {
+        return quantiles != null;
+    }
+
+    /**
+     * @param q A quantile (between 0 and 1).
+     * @return The (estimated) value at quantile <code>q</code>, NaN if no numeric value was added.
+     */
+    public double getQuantile(double q) {
+        return quantiles == null ? Double.NaN : quantiles.quantile(q);
+    }
+
+    /**
+     * @param other Other statistics for the same column.
+     * @return New statistics for the values of these statistics and <code>other</code>.
+     */
+    public ApproximateStatistics merge(ApproximateStatistics other) {
+        final ApproximateStatistics merged = new ApproximateStatistics();
+        merged.count = count + other.count;
+        merged.distinct = distinct.merge(other.distinct);
+        merged.frequencies = frequencies.merge(other.frequencies);
+        if (quantiles == null) {
+            merged.quantiles = other.quantiles;
+        } else if (other.quantiles == null) {
+            merged.quantiles = quantiles;
+        } else {
+            merged.quantiles = quantiles.merge(other.quantiles);
+        }
+        return merged;
+    }
+}
@@ -0,0 +1,99 @@
+// ============================================================================
+// Copyright (C) 2006-2018 Talend Inc. - www.talend.com
+//
+// This source code is available under agreement available at
+// https://github.com/Talend/data-prep/blob/master/LICENSE
+//
+// You should have received a copy of the agreement
+// along with this program; if not, write to Talend SA
+// 9 rue Pages 92150 Suresnes, France
+//
+// ============================================================================
+
+
+package org.talend.dataprep.api.dataset.statistics.approximate;
+
+import java.util.ArrayList;
+import java.util.List;
+
+import org.talend.daikon.number.BigDecimalParser;
+import org.talend.dataquality.common.inference.Analyzer;
+import org.talend.dataquality.statistics.type.DataTypeEnum;
+import org.talend.dataquality.statistics.type.TypeInferenceUtils;
+
+/**
+ * An analyzer that computes {@link ApproximateStatistics} (distinct count, value frequencies and quantiles) with sketches
+ * instead of exact (heap growing) structures. Analyzers can be {@link #merge(Analyzer) merged}, so distinct parts of
+ * the same content can be analyzed in parallel.
+ */
+public class ApproximateStatisticsAnalyzer implements Analyzer<ApproximateStatistics> {
+
+    private static final long serialVersionUID = 1L;
+
+    private final DataTypeEnum[] types;
+
+    private final List<ApproximateStatistics> statistics = new ArrayList<>();
+
+    /**
+     * @param types The column types (quantiles are only computed for numeric columns).
+     */
+    public ApproximateStatisticsAnalyzer(DataTypeEnum[] types) {
+        this.types = types;
+    }
+
+    @Override
+    public void init() {
+        statistics.clear();
+    }
+
+    @Override
+    public boolean analyze(String... record) {
+        while (statistics.size() < record.length) {
+            statistics.add(new ApproximateStatistics());
+        }
+        for (int i = 0; i < record.length; i++) {
+            final String value = record[i];
+            final ApproximateStatistics columnStatistics = statistics.get(i);
+            columnStatistics.add(value);
+            if (i < types.length && isNumeric(types[i]) && TypeInferenceUtils.isValid(types[i], value)) {
+                columnStatistics.addNumber(BigDecimalParser.toBigDecimal(value).doubleValue());
+            }
+        }
+        return true;
+    }
+
+    private static boolean isNumeric(DataTypeEnum type) {
+        return type == DataTypeEnum.INTEGER || type == DataTypeEnum.DOUBLE;
+    }
+
+    @Override
+    public void end() {
+        // Nothing to do
+    }
+
+    @Override
+    public List<ApproximateStatistics> getResult() {
+        return statistics;
+    }
+
+    @Override
+    public Analyzer<ApproximateStatistics> merge(Analyzer<ApproximateStatistics> another) {
+        final ApproximateStatisticsAnalyzer merged = new ApproximateStatisticsAnalyzer(types);
+        final List<ApproximateStatistics> otherStatistics = another.getResult();
+        for (int i = 0; i < Math.max(statistics.size(), otherStatistics.size()); i++) {
+            if (i >= statistics.size()) {
+                merged.statistics.add(otherStatistics.get(i));
+            } else if (i >= otherStatistics.size()) {
+                merged.statistics.add(statistics.get(i));
+            } else {
+                merged.statistics.add(statistics.get(i).merge(otherStatistics.get(i)));
+            }
+        }
+        return merged;
+    }
+
+    @Override
+    public void close() {
+        // Nothing to do
+    }
+}
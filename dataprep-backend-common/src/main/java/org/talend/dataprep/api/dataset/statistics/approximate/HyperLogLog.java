@@ -0,0 +1,151 @@
+// ============================================================================
+// Copyright (C) 2006-2018 Talend Inc. - www.talend.com
+//
+// This source code is available under agreement available at
+// https://github.com/Talend/data-prep/blob/master/LICENSE
+//
+// You should have received a copy of the agreement
+// along with this program; if not, write to Talend SA
+// 9 rue Pages 92150 Suresnes, France
+//
+// ============================================================================
+
+
+package org.talend.dataprep.api.dataset.statistics.approximate;
+
+import java.io.Serializable;
+import java.util.HashSet;
+import java.util.Set;
+
+/**
+ * <p>
+ * A HyperLogLog sketch to estimate the number of distinct values in a stream using a fixed amount of memory
+ * (<code>2^precision</code> bytes).
+ * </p>
+ * <p>
+ * Relative standard error is about <code>1.04 / sqrt(2^precision)</code> (0.8% with default precision). Up to
+ * {@link #EXACT_THRESHOLD} distinct values, the hashes of the values are also kept so that small cardinalities are
+ * exact. Two sketches with the same precision can be {@link #merge(HyperLogLog) merged}.
+ * </p>
+ */
+public class HyperLogLog implements Serializable {
+
+    /** Default precision (16K registers). */
+    public static final int DEFAULT_PRECISION = 14;
+
+    /** Number of distinct hashes kept to give exact results for small cardinalities. */
+    static final int EXACT_THRESHOLD = 1024;
+
+    private static final long serialVersionUID = 1L;
+
+    private final int precision;
+
+    private final byte[] registers;
+
+    /** Distinct hashes added so far (<code>null</code> once there are more than {@link #EXACT_THRESHOLD}). */
+    private Set<Long> hashes = new HashSet<>();
+
+    public HyperLogLog() {
+        this(DEFAULT_PRECISION);
+    }
+
+    /**
+     * @param precision The number of bits used to select a register (between 4 and 18).
+     */
+    public HyperLogLog(int precision) {
+        if (precision < 4 || precision > 18) {
+            throw new IllegalArgumentException("Precision must be between 4 and 18 (was " + precision + ").");
+        }
+        this.precision = precision;
+        this.registers = new byte[1 << precision];
+    }
+
+    /**
+     * Adds a value to the sketch.
+     *
+     * @param value The value to add (<code>null</code> is handled as an empty value).
+     */
+    public void add(String value) {
+        addHash(hash(value == null ? "" : value));
+    }
+
+    void addHash(long hash) {
+        if (hashes != null && hashes.add(hash) && hashes.size() > EXACT_THRESHOLD) {
+            hashes = null;
+        }
+        final int index = (int) (hash >>> (Long.SIZE - precision));
+        // Ensures at least one bit is set in the remaining bits (rank is bounded by 64 - precision + 1).
+        final long remaining = (hash << precision) | (1L << (precision - 1));
+        final byte rank = (byte) (Long.numberOfLeadingZeros(remaining) + 1);
+        if (rank > registers[index]) {
+            registers[index] = rank;
+        }
+    }
+
+    /**
+     * @return The estimated number of distinct values added to this sketch.
+     */
+    public long cardinality() {
+        if (hashes != null) {
+            return hashes.size();
+        }
+        final int m = registers.length;
+        double sum = 0;
+        int zeros = 0;
+        for (byte register : registers) {
+            sum += Math.scalb(1.0, -register);
+            if (register == 0) {
+                zeros++;
+            }
+        }
+        final double alpha = 0.7213 / (1 + 1.079 / m);
+        double estimate = alpha * m * m / sum;
+        if (estimate <= 2.5 * m && zeros > 0) {
+            // Small range correction (linear counting).
+            estimate = m * Math.log((double) m / zeros);
+        }
+        return Math.round(estimate);
+    }
+
+    /**
+     * @param other Another sketch with the same precision.
+     * @return A new sketch for the union of the values added to this sketch and <code>other</code>.
+     */
+    public HyperLogLog merge(HyperLogLog other) {
+        if (other.precision != precision) {
+            throw new IllegalArgumentException(
+                    "Unable to merge sketches with different precisions (" + precision + " and " + other.precision + ").");
+        }
+        final HyperLogLog merged = new HyperLogLog(precision);
+        if (hashes != null && other.hashes != null) {
+            merged.hashes.addAll(hashes);
+            merged.hashes.addAll(other.hashes);
+            if (merged.hashes.size() > EXACT_THRESHOLD) {
+                merged.hashes = null;
+            }
+        } else {
+            merged.hashes = null;
+        }
+        for (int i = 0; i < registers.length; i++) {
+            merged.registers[i] = (byte) Math.max(registers[i], other.registers[i]);
+        }
+        return merged;
+    }
+
+    /**
+     * @return A 64 bits hash of <code>value</code> (FNV-1a on chars, then mixed with MurmurHash3 finalizer).
+     */
+    static long hash(String value) {
+        long hash = 0xcbf29ce484222325L;
+        for (int i = 0; i < value.length(); i++) {
+            hash ^= value.charAt(i);
+            hash *= 0x100000001b3L;
+        }
+        hash ^= hash >>> 33;
+        hash *= 0xff51afd7ed558ccdL;
+        hash ^= hash >>> 33;
+        hash *= 0xc4ceb9fe1a85ec53L;
+        hash ^= hash >>> 33;
+        return hash;
+    }
+}
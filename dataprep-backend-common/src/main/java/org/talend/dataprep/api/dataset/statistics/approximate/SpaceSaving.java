@@ -0,0 +1,165 @@
+// ============================================================================
+// Copyright (C) 2006-2018 Talend Inc. - www.talend.com
+//
+// This source code is available under agreement available at
+// https://github.com/Talend/data-prep/blob/master/LICENSE
+//
+// You should have received a copy of the agreement
+// along with this program; if not, write to Talend SA
+// 9 rue Pages 92150 Suresnes, France
+//
+// ============================================================================
+
+
+package org.talend.dataprep.api.dataset.statistics.approximate;
+
+import java.io.Serializable;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.TreeMap;
+
+/**
+ * <p>
+ * A "Space-Saving" heavy hitters sketch: keeps at most <code>capacity</code> counters to find the most frequent values
+ * of a stream.
+ * </p>
+ * <p>
+ * When a new value arrives and all counters are used, the counter with the lowest count is given to the new value (and
+ * its count is kept as the possible over-estimation of the new value). Any value whose frequency is greater than
+ * <code>count / capacity</code> is guaranteed to be kept, and the reported occurrences of a value never exceed its real
+ * occurrences by more than <code>count / capacity</code>. When there are fewer distinct values than counters, results
+ * are exact.
+ * </p>
+ */
+public class SpaceSaving implements Serializable {
+
+    /** Default number of counters. */
+    public static final int DEFAULT_CAPACITY = 1000;
+
+    private static final long serialVersionUID = 1L;
+
+    private final int capacity;
+
+    /** Counters by value. */
+    private final Map<String, Counter> counters = new HashMap<>();
+
+    /** Counters grouped by count (allows to find the counter with the lowest count). */
+    private final TreeMap<Long, Set<Counter>> buckets = new TreeMap<>();
+
+    public SpaceSaving() {
+        this(DEFAULT_CAPACITY);
+    }
+
+    /**
+     * @param capacity The maximum number of counters.
+     */
+    public SpaceSaving(int capacity) {
+        if (capacity <= 0) {
+            throw new IllegalArgumentException("Capacity must be positive (was " + capacity + ").");
+        }
+        this.capacity = capacity;
+    }
+
+    /**
+     * Adds one occurrence of <code>value</code>.
+     *
+     * @param value The value to add (<code>null</code> is handled as an empty value).
+     */
+    public void add(String value) {
+        add(value, 1, 0);
+    }
+
+    private void add(String value, long occurrences, long error) {
+        final String key = value == null ? "" : value;
+        Counter counter = counters.get(key);
+        if (counter != null) {
+            unbucket(counter);
+            counter.count += occurrences;
+            counter.error += error;
+        } else if (counters.size() < capacity) {
+            counter = new Counter(key, occurrences, error);
+            counters.put(key, counter);
+        } else {
+            // Replace the counter with the lowest count (its count is the possible over-estimation of new value).
+            final Counter evicted = buckets.firstEntry().getValue().iterator().next();
+            unbucket(evicted);
+            counters.remove(evicted.value);
+            counter = new Counter(key, evicted.count + occurrences, evicted.count + error);
+            counters.put(key, counter);
+        }
+        buckets.computeIfAbsent(counter.count, c -> new LinkedHashSet<>()).add(counter);
+    }
+
+    private void unbucket(Counter counter) {
+        final Set<Counter> bucket = buckets.get(counter.count);
+        bucket.remove(counter);
+        if (bucket.isEmpty()) {
+            buckets.remove(counter.count);
+        }
+    }
+
+    /**
+     * Returns the most frequent values with the occurrences guaranteed by the sketch (a lower bound of the real
+     * occurrences, exact when no counter was ever replaced). Values whose occurrences cannot be guaranteed are not
+     * returned.
+     *
+     * @param k The maximum number of values to return.
+     * @return The (at most) <code>k</code> most frequent values with their occurrences, most frequent first.
+     */
+    public Map<String, Long> getTopK(int k) {
+        final List<Counter> sorted = new ArrayList<>(counters.values());
+        sorted.sort(Comparator.comparingLong(Counter::guaranteed).reversed().thenComparing(c -> c.value));
+        final Map<String, Long> topK = new LinkedHashMap<>();
+        for (int i = 0; i < Math.min(k, sorted.size()) && sorted.get(i).guaranteed() > 0; i++) {
+            topK.put(sorted.get(i).value, sorted.get(i).guaranteed());
+        }
+        return topK;
+    }
+
+    /**
+     * @param other Another sketch.
+     * @return A new sketch (with this sketch capacity) for the values of this sketch and <code>other</code>.
+     */
+    public SpaceSaving merge(SpaceSaving other) {
+        final SpaceSaving merged = new SpaceSaving(capacity);
+        final List<Counter> all = new ArrayList<>(counters.values());
+        all.addAll(other.counters.values());
+        // Add largest counts first so that low counts are the ones evicted when capacity is reached.
+        all.sort(Comparator.comparingLong((Counter c) -> c.count).reversed());
+        for (Counter counter : all) {
+            merged.add(counter.value, counter.count, counter.error);
+        }
+        return merged;
+    }
+
+    private static class Counter implements Serializable {
+
+        private static final long serialVersionUID = 1L;
+
+        private final String value;
+
+        private long count;
+
+        /** Maximum over-estimation of count. */
+        private long error;
+
+        private Counter(String value, long count, long error) {
+            this.value = value;
+            this.count = count;
+            this.error = error;
+        }
+
+        /**
+         * @return The occurrences of value guaranteed by this counter.
+         */
+        private long guaranteed() {
+            return count - error;
+        }
+    }
+}
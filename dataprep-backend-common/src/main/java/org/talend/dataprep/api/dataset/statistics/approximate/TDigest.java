@@ -0,0 +1,256 @@
+// ============================================================================
+// Copyright (C) 2006-2018 Talend Inc. - www.talend.com
+//
+// This source code is available under agreement available at
+// https://github.com/Talend/data-prep/blob/master/LICENSE
+//
+// You should have received a copy of the agreement
+// along with this program; if not, write to Talend SA
+// 9 rue Pages 92150 Suresnes, France
+//
+// ============================================================================
+
+
+package org.talend.dataprep.api.dataset.statistics.approximate;
+
+import java.io.Serializable;
+
+/**
+ * <p>
+ * A (merging) t-digest to estimate quantiles of a stream of numbers with a small amount of memory.
+ * </p>
+ * <p>
+ * Values are buffered, then sorted and merged into a list of centroids (mean and weight). Centroids near the
+ * distribution tails are kept small (the size of a centroid is bounded by <code>4 * count * q * (1 - q) /
+ * compression</code>, <code>q</code> being its quantile), which makes estimations of extreme quantiles accurate while
+ * keeping the number of centroids proportional to <code>compression * log(count)</code> (less than a thousand
+ * centroids for a hundred million values with default compression). Two digests can be {@link #merge(TDigest) merged}.
+ * </p>
+ */
+public class TDigest implements Serializable {
+
+    /** Default compression (a few hundred centroids). */
+    public static final double DEFAULT_COMPRESSION = 100;
+
+    private static final long serialVersionUID = 1L;
+
+    private final double compression;
+
+    /** Centroid means (sorted). */
+    private double[] means;
+
+    /** Centroid weights. */
+    private double[] weights;
+
+    private int centroidCount;
+
+    private final double[] bufferMeans;
+
+    private final double[] bufferWeights;
+
+    private int bufferSize;
+
+    private double totalWeight;
+
+    private double min = Double.POSITIVE_INFINITY;
+
+    private double max = Double.NEGATIVE_INFINITY;
+
+    public TDigest() {
+        this(DEFAULT_COMPRESSION);
+    }
+
+    /**
+     * @param compression The compression factor (a higher value means more centroids and more accurate estimations).
+     */
+    public TDigest(double compression) {
+        if (compression < 10) {
+            throw new IllegalArgumentException("Compression must be at least 10 (was " + compression + ").");
+        }
+        this.compression = compression;
+        this.means = new double[0];
+        this.weights = new double[0];
+        this.bufferMeans = new double[(int) (5 * compression)];
+        this.bufferWeights = new double[bufferMeans.length];
+    }
+
+    /**
+     * Adds a value to the digest.
+     *
+     * @param value The value to add (NaN values are ignored).
+     */
+    public void add(double value) {
+        add(value, 1);
+    }
+
+    private void add(double mean, double weight) {
+        if (Double.isNaN(mean)) {
+            return;
+        }
+        if (bufferSize == bufferMeans.length) {
+            compress();
+        }
+        bufferMeans[bufferSize] = mean;
+        bufferWeights[bufferSize] = weight;
+        bufferSize++;
+        totalWeight += weight;
+        min = Math.min(min, mean);
+        max = Math.max(max, mean);
+    }
+
+    /**
+     * Merges buffered values with existing centroids.
+     */
+    private void compress() {
+        if (bufferSize == 0) {
+            return;
+        }
+        sort(bufferMeans, bufferWeights, 0, bufferSize - 1);
+
+        final double[] mergedMeans = new double[centroidCount + bufferSize];
+        final double[] mergedWeights = new double[mergedMeans.length];
+        int mergedCount = 0;
+        double weightSoFar = 0;
+        int i = 0; // index in centroids
+        int j = 0; // index in buffer
+        while (i < centroidCount || j < bufferSize) {
+            final double mean;
+            final double weight;
+            if (j >= bufferSize || (i < centroidCount && means[i] <= bufferMeans[j])) {
+                mean = means[i];
+                weight = weights[i];
+                i++;
+            } else {
+                mean = bufferMeans[j];
+                weight = bufferWeights[j];
+                j++;
+            }
+            if (mergedCount > 0) {
+                final int last = mergedCount - 1;
+                final double proposedWeight = mergedWeights[last] + weight;
+                final double q = (weightSoFar - mergedWeights[last] + proposedWeight / 2) / totalWeight;
+                if (proposedWeight <= 4 * totalWeight * q * (1 - q) / compression) {
+                    mergedMeans[last] += (mean - mergedMeans[last]) * weight / proposedWeight;
+                    mergedWeights[last] = proposedWeight;
+                    weightSoFar += weight;
+                    continue;
+                }
+            }
+            mergedMeans[mergedCount] = mean;
+            mergedWeights[mergedCount] = weight;
+            mergedCount++;
+            weightSoFar += weight;
+        }
+        means = mergedMeans;
+        weights = mergedWeights;
+        centroidCount = mergedCount;
+        bufferSize = 0;
+    }
+
+    /**
+     * @param q A quantile (between 0 and 1).
+     * @return The estimated value at quantile <code>q</code> or NaN if no value was added.
+     */
+    public double quantile(double q) {
+        if (q < 0 || q > 1) {
+            throw new IllegalArgumentException("Quantile must be between 0 and 1 (was " + q + ").");
+        }
+        compress();
+        if (centroidCount == 0) {
+            return Double.NaN;
+        }
+        if (centroidCount == 1) {
+            return means[0];
+        }
+        final double index = q * totalWeight;
+        // Centroid i "center" is at cumulative weight (weights before i) + weights[i] / 2.
+        double left = weights[0] / 2;
+        if (index <= left) {
+            return interpolate(index, 0, min, left, means[0]);
+        }
+        for (int i = 0; i < centroidCount - 1; i++) {
+            final double right = left + (weights[i] + weights[i + 1]) / 2;
+            if (index <= right) {
+                return interpolate(index, left, means[i], right, means[i + 1]);
+            }
+            left = right;
+        }
+        return interpolate(index, left, means[centroidCount - 1], totalWeight, max);
+    }
+
+    private static double interpolate(double x, double x0, double y0, double x1, double y1) {
+        if (x1 <= x0) {
+            return y0;
+        }
+        return y0 + (x - x0) * (y1 - y0) / (x1 - x0);
+    }
+
+    /**
+     * @return The number of values added to this digest.
+     */
+    public long size() {
+        return Math.round(totalWeight);
+    }
+
+    /**
+     * @param other Another digest.
+     * @return A new digest (with this digest compression) for the values of this digest and <code>other</code>.
+     */
+    public TDigest merge(TDigest other) {
+        final TDigest merged = new TDigest(compression);
+        for (TDigest digest : new TDigest[] { this, other }) {
+            digest.compress();
+            for (int i = 0; i < digest.centroidCount; i++) {
+                merged.add(digest.means[i], digest.weights[i]);
+            }
+            merged.min = Math.min(merged.min, digest.min);
+            merged.max = Math.max(merged.max, digest.max);
+        }
+        return merged;
+    }
+
+    /**
+     * Sorts <code>keys</code> (and moves <code>values</code> accordingly) between <code>from</code> and <code>to</code>
+     * (inclusive).
+     */
+    private static void sort(double[] keys, double[] values, int from, int to) {
+        while (to - from > 16) {
+            final double pivot = keys[(from + to) >>> 1];
+            int i = from;
+            int j = to;
+            while (i <= j) {
+                while (keys[i] < pivot) {
+                    i++;
+                }
+                while (keys[j] > pivot) {
+                    j--;
+                }
+                if (i <= j) {
+                    swap(keys, values, i++, j--);
+                }
+            }
+            // Recurse on smaller part, loop on larger one.
+            if (j - from < to - i) {
+                sort(keys, values, from, j);
+                from = i;
+            } else {
+                sort(keys, values, i, to);
+                to = j;
+            }
+        }
+        for (int i = from + 1; i <= to; i++) {
+            for (int j = i; j > from && keys[j - 1] > keys[j]; j--) {
+                swap(keys, values, j - 1, j);
+            }
+        }
+    }
+
+    private static void swap(double[] keys, double[] values, int i, int j) {
+        final double key = keys[i];
+        keys[i] = keys[j];
+        keys[j] = key;
+        final double value = values[i];
+        values[i] = values[j];
+        values[j] = value;
+    }
+}
@@ -15,12 +15,16 @@ package org.talend.dataprep.api.filter;
 import static org.apache.commons.lang.StringUtils.isEmpty;
 import static org.talend.dataprep.util.NumericHelper.isBigDecimal;
 
+import java.text.Format;
 import java.text.ParseException;
 import java.time.DateTimeException;
 import java.time.LocalDateTime;
 import java.time.format.DateTimeFormatter;
+import java.util.HashMap;
 import java.util.Iterator;
 import java.util.List;
+import java.util.Map;
+import java.util.concurrent.atomic.AtomicReference;
 import java.util.function.Predicate;
 
 import org.apache.commons.lang.StringUtils;
@@ -38,7 +42,6 @@ import org.talend.dataprep.date.DateManipulator;
 import org.talend.dataprep.quality.AnalyzerService;
 import org.talend.dataprep.transformation.actions.Providers;
 import org.talend.dataprep.transformation.actions.date.DateParser;
-import org.talend.dataprep.util.NumericHelper;
 
 import com.fasterxml.jackson.databind.JsonNode;
 import com.fasterxml.jackson.databind.ObjectMapper;
@@ -100,14 +103,14 @@ public class SimpleFilterService implements FilterService {
             if (!elements.hasNext()) {
                 throw new IllegalArgumentException("Malformed filter: " + filterAsString);
             } else {
-                return buildFilter(root, rowMetadata);
+                return buildFilter(root, rowMetadata, new NumberCache());
             }
         } catch (Exception e) {
             throw new TalendRuntimeException(BaseErrorCodes.UNABLE_TO_PARSE_FILTER, e);
         }
     }
 
-    private Predicate<DataSetRow> buildFilter(JsonNode currentNode, RowMetadata rowMetadata) {
+    private Predicate<DataSetRow> buildFilter(JsonNode currentNode, RowMetadata rowMetadata, NumberCache numbers) {
         final Iterator<JsonNode> children = currentNode.elements();
         final JsonNode operationContent = children.next();
         final String columnId = operationContent.has("field") ? operationContent.get("field").asText() : null;
@@ -124,10 +127,10 @@ public class SimpleFilterService implements FilterService {
             final List<ColumnMetadata> columns = rowMetadata.getColumns();
             Predicate<DataSetRow> predicate;
             if (!columns.isEmpty()) {
-                predicate = buildOperationFilter(currentNode, rowMetadata, columns.get(0).getId(), operation, value);
+                predicate = buildOperationFilter(currentNode, rowMetadata, columns.get(0).getId(), operation, value, numbers);
                 for (int i = 1; i < columns.size(); i++) {
-                    predicate = predicate
-                            .or(buildOperationFilter(currentNode, rowMetadata, columns.get(i).getId(), operation, value));
+                    predicate = predicate.or(
+                            buildOperationFilter(currentNode, rowMetadata, columns.get(i).getId(), operation, value, numbers));
                 }
             } else {
                 // We can't return a null filter, default to the neutral value
@@ -135,7 +138,7 @@ public class SimpleFilterService implements FilterService {
             }
             return predicate;
         } else {
-            return buildOperationFilter(currentNode, rowMetadata, columnId, operation, value);
+            return buildOperationFilter(currentNode, rowMetadata, columnId, operation, value, numbers);
         }
     }
 
@@ -165,18 +168,19 @@ public class SimpleFilterService implements FilterService {
             RowMetadata rowMetadata, //
             String columnId, //
             String operation, //
-            String value) {
+            String value, //
+            NumberCache numbers) {
         switch (operation) {
         case EQ:
-            return createEqualsPredicate(currentNode, columnId, value);
+            return createEqualsPredicate(currentNode, columnId, value, numbers);
         case GT:
-            return createGreaterThanPredicate(currentNode, columnId, value);
+            return createNumberPredicate(currentNode, columnId, value, numbers, (n, v) -> n > v);
         case LT:
-            return createLowerThanPredicate(currentNode, columnId, value);
+            return createNumberPredicate(currentNode, columnId, value, numbers, (n, v) -> n < v);
         case GTE:
-            return createGreaterOrEqualsPredicate(currentNode, columnId, value);
+            return createNumberPredicate(currentNode, columnId, value, numbers, (n, v) -> n >= v);
         case LTE:
-            return createLowerOrEqualsPredicate(currentNode, columnId, value);
+            return createNumberPredicate(currentNode, columnId, value, numbers, (n, v) -> n <= v);
         case CONTAINS:
             return createContainsPredicate(currentNode, columnId, value);
         case MATCHES:
@@ -188,13 +192,13 @@ public class SimpleFilterService implements FilterService {
         case EMPTY:
             return createEmptyPredicate(columnId);
         case RANGE:
-            return createRangePredicate(columnId, currentNode.elements().next(), rowMetadata);
+            return createRangePredicate(columnId, currentNode.elements().next(), rowMetadata, numbers);
         case AND:
-            return createAndPredicate(currentNode.elements().next(), rowMetadata);
+            return createAndPredicate(currentNode.elements().next(), rowMetadata, numbers);
         case OR:
-            return createOrPredicate(currentNode.elements().next(), rowMetadata);
+            return createOrPredicate(currentNode.elements().next(), rowMetadata, numbers);
         case NOT:
-            return createNotPredicate(currentNode.elements().next(), rowMetadata);
+            return createNotPredicate(currentNode.elements().next(), rowMetadata, numbers);
         default:
             throw new UnsupportedOperationException(
                     "Unsupported query, unknown filter '" + operation + "': " + currentNode.toString());
@@ -206,12 +210,14 @@ public class SimpleFilterService implements FilterService {
      *
      * @param nodeContent The node content
      * @param rowMetadata Row metadata to used to obtain information (valid/invalid, types...)
+     * @param numbers The numbers parsed from row values (shared by all predicates of the filter)
      * @return the AND predicate
      */
-    private Predicate<DataSetRow> createAndPredicate(final JsonNode nodeContent, RowMetadata rowMetadata) {
+    private Predicate<DataSetRow> createAndPredicate(final JsonNode nodeContent, RowMetadata rowMetadata,
+            NumberCache numbers) {
         checkValidMultiPredicate(nodeContent);
-        final Predicate<DataSetRow> leftFilter = buildFilter(nodeContent.get(0), rowMetadata);
-        final Predicate<DataSetRow> rightFilter = buildFilter(nodeContent.get(1), rowMetadata);
+        final Predicate<DataSetRow> leftFilter = buildFilter(nodeContent.get(0), rowMetadata, numbers);
+        final Predicate<DataSetRow> rightFilter = buildFilter(nodeContent.get(1), rowMetadata, numbers);
         return leftFilter.and(rightFilter);
     }
 
@@ -220,12 +226,14 @@ public class SimpleFilterService implements FilterService {
      *
      * @param nodeContent The node content
      * @param rowMetadata Row metadata to used to obtain information (valid/invalid, types...)
+     * @param numbers The numbers parsed from row values (shared by all predicates of the filter)
      * @return the OR predicate
      */
-    private Predicate<DataSetRow> createOrPredicate(final JsonNode nodeContent, RowMetadata rowMetadata) {
+    private Predicate<DataSetRow> createOrPredicate(final JsonNode nodeContent, RowMetadata rowMetadata,
+            NumberCache numbers) {
         checkValidMultiPredicate(nodeContent);
-        final Predicate<DataSetRow> leftFilter = buildFilter(nodeContent.get(0), rowMetadata);
-        final Predicate<DataSetRow> rightFilter = buildFilter(nodeContent.get(1), rowMetadata);
+        final Predicate<DataSetRow> leftFilter = buildFilter(nodeContent.get(0), rowMetadata, numbers);
+        final Predicate<DataSetRow> rightFilter = buildFilter(nodeContent.get(1), rowMetadata, numbers);
         return leftFilter.or(rightFilter);
     }
 
@@ -234,16 +242,18 @@ public class SimpleFilterService implements FilterService {
      *
      * @param nodeContent The node content
      * @param rowMetadata Row metadata to used to obtain information (valid/invalid, types...)
+     * @param numbers The numbers parsed from row values (shared by all predicates of the filter)
      * @return The NOT predicate
      */
-    private Predicate<DataSetRow> createNotPredicate(final JsonNode nodeContent, RowMetadata rowMetadata) {
+    private Predicate<DataSetRow> createNotPredicate(final JsonNode nodeContent, RowMetadata rowMetadata,
+            NumberCache numbers) {
         if (!nodeContent.isObject()) {
             throw new IllegalArgumentException("Unsupported query, malformed 'not' (expected 1 object child).");
         }
         if (nodeContent.size() == 0) {
             throw new IllegalArgumentException("Unsupported query, malformed 'not' (object child is empty).");
         }
-        return buildFilter(nodeContent, rowMetadata).negate();
+        return buildFilter(nodeContent, rowMetadata, numbers).negate();
     }
 
     /**
@@ -254,79 +264,49 @@ public class SimpleFilterService implements FilterService {
      * @param node The filter node
      * @param columnId The column id
      * @param value The compare value
+     * @param numbers The numbers parsed from row values
      * @return The eq predicate
      */
-    private Predicate<DataSetRow> createEqualsPredicate(final JsonNode node, final String columnId, final String value) {
+    private Predicate<DataSetRow> createEqualsPredicate(final JsonNode node, final String columnId, final String value,
+            final NumberCache numbers) {
         checkValidValue(node, value);
+        final double number = toNumber(value);
+        final int slot = numbers.slot(columnId);
         return r -> {
-            if (StringUtils.equals(r.get(columnId), value)) {
+            final String columnValue = r.get(columnId);
+            if (StringUtils.equals(columnValue, value)) {
                 return true;
+            } else if (Double.isNaN(number)) {
+                return false;
             } else {
-                return isBigDecimal(r.get(columnId)) //
-                        && isBigDecimal(value) //
-                        && NumberUtils.compare(toBigDecimal(r.get(columnId)), toBigDecimal(value)) == 0;
+                final double columnNumber = numbers.get(slot, columnValue);
+                return !Double.isNaN(columnNumber) && NumberUtils.compare(columnNumber, number) == 0;
             }
         };
     }
 
     /**
-     * Create a predicate that checks if the var is greater than a value
-     *
-     * @param node The filter node
-     * @param columnId The column id
-     * @param value The compare value
-     * @return The gt predicate
-     */
-    private Predicate<DataSetRow> createGreaterThanPredicate(final JsonNode node, final String columnId, final String value) {
-        checkValidValue(node, value);
-        return r -> isBigDecimal(r.get(columnId)) //
-                && isBigDecimal(value) //
-                && toBigDecimal(r.get(columnId)) > toBigDecimal(value);
-    }
-
-    /**
-     * Create a predicate that checks if the var is lower than a value
-     *
-     * @param node The filter node
-     * @param columnId The column id
-     * @param value The compare value
-     * @return The lt predicate
-     */
-    private Predicate<DataSetRow> createLowerThanPredicate(final JsonNode node, final String columnId, final String value) {
-        checkValidValue(node, value);
-        return r -> isBigDecimal(r.get(columnId)) //
-                && isBigDecimal(value) //
-                && toBigDecimal(r.get(columnId)) < toBigDecimal(value);
-    }
-
-    /**
-     * Create a predicate that checks if the var is greater than or equals to a value
-     *
-     * @param node The filter node
-     * @param columnId The column id
-     * @param value The compare value
-     * @return The gte predicate
-     */
-    private Predicate<DataSetRow> createGreaterOrEqualsPredicate(final JsonNode node, final String columnId, final String value) {
-        checkValidValue(node, value);
-        return r -> isBigDecimal(r.get(columnId)) //
-                && isBigDecimal(value) //
-                && toBigDecimal(r.get(columnId)) >= toBigDecimal(value);
-    }
-
-    /**
-     * Create a predicate that checks if the var is lower than or equals to a value
+     * Create a predicate that compares the var (as number) with a value (gt, lt, gte, lte predicates).
      *
      * @param node The filter node
      * @param columnId The column id
      * @param value The compare value
-     * @return The lte predicate
+     * @param numbers The numbers parsed from row values
+     * @param comparison The comparison between var (first argument) and value (second argument)
+     * @return The comparison predicate
      */
-    private Predicate<DataSetRow> createLowerOrEqualsPredicate(final JsonNode node, final String columnId, final String value) {
+    private Predicate<DataSetRow> createNumberPredicate(final JsonNode node, final String columnId, final String value,
+            final NumberCache numbers, final DoubleBiPredicate comparison) {
         checkValidValue(node, value);
-        return r -> isBigDecimal(r.get(columnId)) //
-                && isBigDecimal(value) //
-                && toBigDecimal(r.get(columnId)) <= toBigDecimal(value);
+        final double number = toNumber(value);
+        if (Double.isNaN(number)) {
+            return r -> false;
+        }
+        final int slot = numbers.slot(columnId);
+        return r -> {
+            final double columnNumber = numbers.get(slot, r.get(columnId));
+            return !Double.isNaN(columnNumber) && comparison.test(columnNumber, number);
+        };
     }
 
     /**
@@ -352,7 +332,8 @@ public class SimpleFilterService implements FilterService {
      */
     private Predicate<DataSetRow> createMatchesPredicate(final JsonNode node, final String columnId, final String value) {
         checkValidValue(node, value);
-        return r -> matches(r.get(columnId), value);
+        final Predicate<String> matcher = compilePattern(value);
+        return r -> matcher.test(r.get(columnId));
     }
 
     /**
@@ -386,26 +367,37 @@ public class SimpleFilterService implements FilterService {
     }
 
     /**
-     * Create a predicate that checks if the value is within a range [min, max[
+     * Create a predicate that checks if the value is within a range [min, max[. As column type may change after filter
+     * creation, the date or number predicate is created again only when column type changes.
      *
      * @param columnId The column id
      * @param nodeContent The node content that contains min/max values
+     * @param numbers The numbers parsed from row values
      * @return The range predicate
      */
     private Predicate<DataSetRow> createRangePredicate(final String columnId, final JsonNode nodeContent,
-            final RowMetadata rowMetadata) {
+            final RowMetadata rowMetadata, final NumberCache numbers) {
         final String start = nodeContent.get("start").asText();
         final String end = nodeContent.get("end").asText();
+        final int slot = numbers.slot(columnId);
+        final AtomicReference<TypedPredicate> compiled = new AtomicReference<>();
         return r -> {
             final String columnType = rowMetadata.getById(columnId).getType();
-            Type parsedType = Type.get(columnType);
-            if (Type.DATE.isAssignableFrom(parsedType)) {
-                return createDateRangePredicate(columnId, start, end, rowMetadata).test(r);
-            } else {
-                // Assume range can be parsed as number (may happen if column is currently marked as string, but will
-                // contain some numbers).
-                return createNumberRangePredicate(columnId, start, end).test(r);
+            TypedPredicate current = compiled.get();
+            if (current == null || !StringUtils.equals(current.type, columnType)) {
+                Type parsedType = Type.get(columnType);
+                final Predicate<DataSetRow> predicate;
+                if (Type.DATE.isAssignableFrom(parsedType)) {
+                    predicate = createDateRangePredicate(columnId, start, end, rowMetadata);
+                } else {
+                    // Assume range can be parsed as number (may happen if column is currently marked as string, but
+                    // will contain some numbers).
+                    predicate = createNumberRangePredicate(columnId, start, end, numbers, slot);
+                }
+                current = new TypedPredicate(columnType, predicate);
+                compiled.set(current);
             }
+            return current.predicate.test(r);
         };
     }
 
@@ -426,9 +418,10 @@ public class SimpleFilterService implements FilterService {
             final LocalDateTime minDate = DateManipulator.fromEpochMillisecondsWithSystemOffset(minTimestamp);
             final LocalDateTime maxDate = DateManipulator.fromEpochMillisecondsWithSystemOffset(maxTimestamp);
 
+            final DateParser parser = getDateParser();
             return safeDate(r -> {
                 final ColumnMetadata columnMetadata = rowMetadata.getById(columnId);
-                final LocalDateTime columnValue = getDateParser().parse(r.get(columnId), columnMetadata);
+                final LocalDateTime columnValue = parser.parse(r.get(columnId), columnMetadata);
                 return minDate.compareTo(columnValue) == 0 || (minDate.isBefore(columnValue) && maxDate.isAfter(columnValue));
             });
         } catch (Exception e) {
@@ -456,20 +449,21 @@ public class SimpleFilterService implements FilterService {
      * @param columnId The column id
      * @param start The start value
      * @param end The end value
+     * @param numbers The numbers parsed from row values
+     * @param slot The cache slot for the column values
      * @return The number range predicate
      */
-    private Predicate<DataSetRow> createNumberRangePredicate(final String columnId, final String start, final String end) {
+    private Predicate<DataSetRow> createNumberRangePredicate(final String columnId, final String start, final String end,
+            final NumberCache numbers, final int slot) {
         try {
             final double min = toBigDecimal(start);
             final double max = toBigDecimal(end);
             return r -> {
-                final String value = r.get(columnId);
-                if (NumericHelper.isBigDecimal(value)) {
-                    final double columnValue = toBigDecimal(value);
-                    return NumberUtils.compare(columnValue, min) == 0 || (columnValue > min && columnValue < max);
-                } else {
+                final double columnValue = numbers.get(slot, r.get(columnId));
+                if (Double.isNaN(columnValue)) {
                     return false;
                 }
+                return NumberUtils.compare(columnValue, min) == 0 || (columnValue > min && columnValue < max);
             };
         } catch (Exception e) {
             LOGGER.debug("Unable to create number range predicate.", e);
@@ -503,60 +497,140 @@ public class SimpleFilterService implements FilterService {
     }
 
     /**
-     * Test a string value against a pattern returned during value analysis.
+     * Compiles a pattern returned during value analysis into a test for string values.
      *
-     * @param value A string value. May be null.
      * @param pattern A pattern as returned in value analysis.
-     * @return <code>true</code> if value matches, <code>false</code> otherwise.
+     * @return A predicate that returns <code>true</code> if a (possibly null) value matches <code>pattern</code>.
      */
-    private boolean matches(String value, String pattern) {
-        if (value == null && pattern == null) {
-            return true;
-        }
-        if (value == null) {
-            return false;
-        }
+    private static Predicate<String> compilePattern(String pattern) {
         // Character based patterns
         if (StringUtils.containsAny(pattern, new char[] { 'A', 'a', '9' })) {
-            if (value.length() != pattern.length()) {
-                return false;
-            }
-            final char[] valueArray = value.toCharArray();
             final char[] patternArray = pattern.toCharArray();
-            for (int i = 0; i < valueArray.length; i++) {
-                if (patternArray[i] == 'A') {
-                    if (!Character.isUpperCase(valueArray[i])) {
-                        return false;
-                    }
-                } else if (patternArray[i] == 'a') {
-                    if (!Character.isLowerCase(valueArray[i])) {
-                        return false;
-                    }
-                } else if (patternArray[i] == '9') {
-                    if (!Character.isDigit(valueArray[i])) {
-                        return false;
-                    }
-                } else {
-                    if (valueArray[i] != patternArray[i]) {
-                        return false;
-                    }
-                }
-            }
+            return value -> value != null && matchesCharacters(value, patternArray);
         } else {
-            final DateTimeFormatter formatter = DateTimeFormatter.ofPattern(pattern);
-            try {
-                formatter.toFormat().parseObject(value);
-            } catch (ParseException e) {
-                return false;
+            final Format format = DateTimeFormatter.ofPattern(pattern).toFormat();
+            return value -> {
+                if (value == null) {
+                    return false;
+                }
+                try {
+                    format.parseObject(value);
+                    return true;
+                } catch (ParseException e) {
+                    return false;
+                }
+            };
+        }
+    }
+
+    private static boolean matchesCharacters(String value, char[] patternArray) {
+        if (value.length() != patternArray.length) {
+            return false;
+        }
+        for (int i = 0; i < patternArray.length; i++) {
+            final char c = value.charAt(i);
+            if (patternArray[i] == 'A') {
+                if (!Character.isUpperCase(c)) {
+                    return false;
+                }
+            } else if (patternArray[i] == 'a') {
+                if (!Character.isLowerCase(c)) {
+                    return false;
+                }
+            } else if (patternArray[i] == '9') {
+                if (!Character.isDigit(c)) {
+                    return false;
+                }
+            } else {
+                if (c != patternArray[i]) {
+                    return false;
+                }
             }
         }
         return true;
     }
 
+    /**
+     * @param value A string value. May be null.
+     * @return The value as number, {@link Double#NaN} if value is not a number.
+     */
+    private static double toNumber(String value) {
+        if (isBigDecimal(value)) {
+            return BigDecimalParser.toBigDecimal(value).doubleValue();
+        }
+        return Double.NaN;
+    }
+
     /**
      * Simple wrapper to call BigDecimalParser to simplify code above.
      */
     private double toBigDecimal(String value) {
         return BigDecimalParser.toBigDecimal(value).doubleValue();
     }
+
+    /**
+     * A comparison between two numbers.
+     */
+    @FunctionalInterface
+    private interface DoubleBiPredicate {
+
+        boolean test(double left, double right);
+    }
+
+    /**
+     * A predicate created for a given column type.
+     */
+    private static class TypedPredicate {
+
+        private final String type;
+
+        private final Predicate<DataSetRow> predicate;
+
+        private TypedPredicate(String type, Predicate<DataSetRow> predicate) {
+            this.type = type;
+            this.predicate = predicate;
+        }
+    }
+
+    /**
+     * Numbers parsed from row values, shared by all the predicates of a filter: when several predicates need the same
+     * column value as number (e.g. 'gt' and 'lt' in a 'and'), value is parsed only once. Each thread has its own cache
+     * so a filter can be used by concurrent workers.
+     */
+    private static class NumberCache {
+
+        /** Cache slot for each column (only modified while filter is built, before any row is tested). */
+        private final Map<String, Integer> slots = new HashMap<>();
+
+        /** Last parsed value and number for each slot. */
+        private final ThreadLocal<Object[]> values = ThreadLocal.withInitial(() -> new Object[slots.size()]);
+
+        private final ThreadLocal<double[]> parsed = ThreadLocal.withInitial(() -> new double[slots.size()]);
+
+        /**
+         * @param columnId A column id.
+         * @return The cache slot for the column values.
+         */
+        private int slot(String columnId) {
+            return slots.computeIfAbsent(columnId, id -> slots.size());
+        }
+
+        /**
+         * @param slot A cache slot (as returned by {@link #slot(String)}).
+         * @param value The column value.
+         * @return The value as number, {@link Double#NaN} if value is not a number.
+         */
+        private double get(int slot, String value) {
+            final Object[] lastValues = values.get();
+            final double[] lastNumbers = parsed.get();
+            // Same instance means same row value (values of a row are parsed once for all predicates).
+            if (value != null && lastValues[slot] == value) {
+                return lastNumbers[slot];
+            }
+            final double number = toNumber(value);
+            lastValues[slot] = value;
+            lastNumbers[slot] = number;
+            return number;
+        }
+    }
 }
@@ -14,7 +14,9 @@ package org.talend.dataprep.api.filter;
 
 import static org.talend.daikon.number.BigDecimalParser.toBigDecimal;
 
-import java.util.List;
+import java.math.BigDecimal;
+import java.util.Set;
+import java.util.function.IntPredicate;
 import java.util.function.Predicate;
 import java.util.regex.Pattern;
 import java.util.stream.Collectors;
@@ -101,25 +103,39 @@ public class TQLFilterService implements FilterService {
             switch (operator) {
             case EQ:
                 return row -> StringUtils.equals(row.get(columnName), value);
-            case LT:
-                return row -> toBigDecimal(row.get(columnName)).compareTo(toBigDecimal(value)) < 0;
-            case GT:
-                return row -> toBigDecimal(row.get(columnName)).compareTo(toBigDecimal(value)) > 0;
             case NEQ:
                 return row -> !StringUtils.equals(row.get(columnName), value);
+            case LT:
+                return compare(columnName, value, c -> c < 0);
+            case GT:
+                return compare(columnName, value, c -> c > 0);
             case LET:
-                return row -> toBigDecimal(row.get(columnName)).compareTo(toBigDecimal(value)) <= 0;
+                return compare(columnName, value, c -> c <= 0);
             case GET:
-                return row -> toBigDecimal(row.get(columnName)).compareTo(toBigDecimal(value)) >= 0;
+                return compare(columnName, value, c -> c >= 0);
             }
             return null;
         }
 
+        /**
+         * Creates a predicate that compares column values (as numbers) to <code>value</code>. The value is parsed once
+         * (not for each row).
+         *
+         * @param columnName The column to compare.
+         * @param value The value to compare to.
+         * @param comparison A test on the comparison result.
+         * @return A number comparison predicate.
+         */
+        private static Predicate<DataSetRow> compare(String columnName, String value, IntPredicate comparison) {
+            final BigDecimal number = toBigDecimal(value);
+            return row -> comparison.test(toBigDecimal(row.get(columnName)).compareTo(number));
+        }
+
         @Override
         public Predicate<DataSetRow> visit(FieldInExpression fieldInExpression) {
             final String fieldName = ((FieldReference) fieldInExpression.getField()).getPath();
-            final List<String> collect =
-                    Stream.of(fieldInExpression.getValues()).map(LiteralValue::getValue).collect(Collectors.toList());
+            final Set<String> collect =
+                    Stream.of(fieldInExpression.getValues()).map(LiteralValue::getValue).collect(Collectors.toSet());
 
             return row -> collect.contains(row.get(fieldName));
         }
@@ -159,11 +175,13 @@ public class TQLFilterService implements FilterService {
         @Override
         public Predicate<DataSetRow> visit(FieldBetweenExpression fieldBetweenExpression) {
             final String fieldName = ((FieldReference) fieldBetweenExpression.getField()).getPath();
-            final String low = fieldBetweenExpression.getLeft().getValue();
-            final String high = fieldBetweenExpression.getRight().getValue();
+            final BigDecimal low = toBigDecimal(fieldBetweenExpression.getLeft().getValue());
+            final BigDecimal high = toBigDecimal(fieldBetweenExpression.getRight().getValue());
 
-            return row -> toBigDecimal(row.get(fieldName)).compareTo(toBigDecimal(low)) < 0
-                    && toBigDecimal(row.get(fieldName)).compareTo(toBigDecimal(high)) > 0;
+            return row -> {
+                final BigDecimal value = toBigDecimal(row.get(fieldName));
+                return value.compareTo(low) < 0 && value.compareTo(high) > 0;
+            };
         }
 
         @Override
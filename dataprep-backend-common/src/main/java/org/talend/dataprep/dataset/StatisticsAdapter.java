@@ -27,6 +27,7 @@ import org.slf4j.LoggerFactory;
 import org.talend.dataprep.api.dataset.ColumnMetadata;
 import org.talend.dataprep.api.dataset.Quality;
 import org.talend.dataprep.api.dataset.statistics.*;
+import org.talend.dataprep.api.dataset.statistics.approximate.ApproximateStatistics;
 import org.talend.dataprep.api.dataset.statistics.date.DateHistogram;
 import org.talend.dataprep.api.dataset.statistics.date.StreamDateHistogramStatistics;
 import org.talend.dataprep.api.dataset.statistics.number.NumberHistogram;
@@ -116,6 +117,7 @@ public class StatisticsAdapter {
         injectDataFrequency(currentColumn, result);
         injectPatternFrequency(currentColumn, result);
         injectQuantile(currentColumn, result);
+        injectApproximateStatistics(currentColumn, result); // distinct, duplicates, frequencies and quantiles
         injectNumberSummary(currentColumn, result); // min, max, mean, variance
         injectTextLength(currentColumn, result);
         injectNumberHistogram(currentColumn, result);
@@ -231,6 +233,7 @@ public class StatisticsAdapter {
             final CardinalityStatistics cardinalityStatistics = result.get(CardinalityStatistics.class);
             statistics.setDistinctCount(cardinalityStatistics.getDistinctCount());
             statistics.setDuplicateCount(cardinalityStatistics.getDuplicateCount());
+            statistics.setApproximate(false);
         }
     }
 
@@ -274,6 +277,39 @@ public class StatisticsAdapter {
         }
     }
 
+    /**
+     * Injects approximate statistics (only for the statistics not computed by exact analysis) and flags column
+     * statistics as approximate.
+     *
+     * @param column the specified column metadata
+     * @param result the analyzer result
+     */
+    private void injectApproximateStatistics(final ColumnMetadata column, final Analyzers.Result result) {
+        if (result.exist(ApproximateStatistics.class)) {
+            final Statistics statistics = column.getStatistics();
+            final ApproximateStatistics approximateStatistics = result.get(ApproximateStatistics.class);
+            if (!result.exist(CardinalityStatistics.class)) {
+                statistics.setDistinctCount(approximateStatistics.getDistinctCount());
+                statistics.setDuplicateCount(approximateStatistics.getDuplicateCount());
+                statistics.setApproximate(true);
+            }
+            if (!result.exist(DataTypeFrequencyStatistics.class)) {
+                statistics.getDataFrequencies().clear();
+                approximateStatistics.getTopK(15)
+                        .forEach((s, o) -> statistics.getDataFrequencies().add(new DataFrequency(s, o)));
+                statistics.setApproximate(true);
+            }
+            if (!result.exist(QuantileStatistics.class) && NUMERIC.isAssignableFrom(column.getType())
+                    && approximateStatistics.hasQuantiles()) {
+                final Quantiles quantiles = statistics.getQuantiles();
+                quantiles.setLowerQuantile(approximateStatistics.getQuantile(0.25));
+                quantiles.setMedian(approximateStatistics.getQuantile(0.5));
+                quantiles.setUpperQuantile(approximateStatistics.getQuantile(0.75));
+                statistics.setApproximate(true);
+            }
+        }
+    }
+
     /**
      * Injects numerical statistics like max, min to statistics of the specified column metadata.
      *
@@ -22,6 +22,7 @@ import java.util.EnumSet;
 import java.util.HashSet;
 import java.util.List;
 import java.util.Set;
+import java.util.concurrent.atomic.LongAdder;
 import java.util.stream.Collectors;
 
 import org.apache.commons.lang.StringUtils;
@@ -29,6 +30,8 @@ import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 import org.talend.dataprep.api.dataset.ColumnMetadata;
 import org.talend.dataprep.api.dataset.row.RowMetadataUtils;
+import org.talend.dataprep.api.dataset.statistics.approximate.ApproximateStatistics;
+import org.talend.dataprep.api.dataset.statistics.approximate.ApproximateStatisticsAnalyzer;
 import org.talend.dataprep.api.dataset.statistics.date.StreamDateHistogramAnalyzer;
 import org.talend.dataprep.api.dataset.statistics.date.StreamDateHistogramStatistics;
 import org.talend.dataprep.api.dataset.statistics.number.StreamNumberHistogramAnalyzer;
@@ -85,6 +88,15 @@ public class AnalyzerService {
 
     private DictionarySnapshotProvider dictionarySnapshotProvider;
 
+    /** Number of distinct values whose quality verdict is kept per column (0 to disable). */
+    private int qualityCacheSize = MemoizedValueQualityAnalyzer.DEFAULT_CACHE_SIZE;
+
+    /** Number of values whose quality verdict was found in cache (for all closed analyzers). */
+    private final LongAdder qualityCacheHits = new LongAdder();
+
+    /** Number of values submitted to quality analysis (for all closed analyzers). */
+    private final LongAdder qualityCacheLookups = new LongAdder();
+
     public AnalyzerService() {
         this(new StandardDictionarySnapshotProvider());
     }
@@ -99,6 +111,43 @@ public class AnalyzerService {
         this.dictionarySnapshotProvider = provider;
     }
 
+    /**
+     * @param qualityCacheSize The number of distinct values whose quality verdict is kept per column, 0 disables
+     * caching.
+     */
+    public void setQualityCacheSize(int qualityCacheSize) {
+        this.qualityCacheSize = qualityCacheSize;
+    }
+
+    /**
+     * @return The number of values whose quality verdict was found in cache, for all closed analyzers.
+     */
+    public long getQualityCacheHits() {
+        return qualityCacheHits.sum();
+    }
+
+    /**
+     * @return The number of values submitted to quality analysis, for all closed analyzers.
+     */
+    public long getQualityCacheLookups() {
+        return qualityCacheLookups.sum();
+    }
+
+    /**
+     * @return The ratio (between 0 and 1) of values whose quality verdict was found in cache, for all closed analyzers.
+     */
+    public double getQualityCacheHitRatio() {
+        final long lookups = qualityCacheLookups.sum();
+        return lookups == 0 ? 0 : (double) qualityCacheHits.sum() / lookups;
+    }
+
+    private void onQualityCacheClose(long hits, long lookups) {
+        qualityCacheHits.add(hits);
+        qualityCacheLookups.add(lookups);
+        LOGGER.debug("Value quality cache hit ratio: {} ({} lookup(s) since startup).", getQualityCacheHitRatio(),
+                qualityCacheLookups.sum());
+    }
+
     private static AbstractFrequencyAnalyzer buildPatternAnalyzer(List<ColumnMetadata> columns) {
         // deal with specific date, even custom date pattern
         final DateTimePatternRecognizer dateTimePatternFrequencyAnalyzer = new DateTimePatternRecognizer();
@@ -216,11 +265,15 @@ public class AnalyzerService {
                     analyzers.add(new StreamNumberHistogramAnalyzer(types));
                     break;
                 case QUALITY:
-                    final DataTypeQualityAnalyzer dataTypeQualityAnalyzer = new DataTypeQualityAnalyzer(types);
-                    columns.forEach(
-                            c -> dataTypeQualityAnalyzer.addCustomDateTimePattern(RowMetadataUtils.getMostUsedDatePattern(c)));
-                    analyzers.add(new ValueQualityAnalyzer(dataTypeQualityAnalyzer,
-                            new SemanticQualityAnalyzer(dictionarySnapshot, domains, false), true)); // NOSONAR
+                    if (qualityCacheSize > 0) {
+                        // One analyzer per column: distinct values are only evaluated once per column.
+                        analyzers.add(new MemoizedValueQualityAnalyzer(
+                                i -> buildQualityAnalyzer(columns, new DataTypeEnum[] { types[i] }, new String[] { domains[i] },
+                                        dictionarySnapshot),
+                                columns.size(), qualityCacheSize, this::onQualityCacheClose));
+                    } else {
+                        analyzers.add(buildQualityAnalyzer(columns, types, domains, dictionarySnapshot));
+                    }
                     break;
                 case CARDINALITY:
                     analyzers.add(new CardinalityAnalyzer());
@@ -264,6 +317,9 @@ public class AnalyzerService {
                 case FREQUENCY:
                     analyzers.add(new DataTypeFrequencyAnalyzer());
                     break;
+                case APPROXIMATE:
+                    analyzers.add(new ApproximateStatisticsAnalyzer(types));
+                    break;
                 default:
                     throw new IllegalArgumentException("Missing support for '" + setting + "'.");
             }
@@ -280,6 +336,14 @@ public class AnalyzerService {
         }
     }
 
+    private static Analyzer<ValueQualityStatistics> buildQualityAnalyzer(List<ColumnMetadata> columns, DataTypeEnum[] types,
+            String[] domains, DictionarySnapshot dictionarySnapshot) {
+        final DataTypeQualityAnalyzer dataTypeQualityAnalyzer = new DataTypeQualityAnalyzer(types);
+        columns.forEach(c -> dataTypeQualityAnalyzer.addCustomDateTimePattern(RowMetadataUtils.getMostUsedDatePattern(c)));
+        return new ValueQualityAnalyzer(dataTypeQualityAnalyzer, new SemanticQualityAnalyzer(dictionarySnapshot, domains, false),
+                true); // NOSONAR
+    }
+
     public Analyzer<Analyzers.Result> full(final List<ColumnMetadata> columns) {
         // Configure quality & semantic analysis (if column metadata information is present in stream).
         return build(columns, Analysis.QUALITY, Analysis.CARDINALITY, Analysis.FREQUENCY, Analysis.PATTERNS, Analysis.LENGTH,
@@ -346,7 +410,12 @@ public class AnalyzerService {
         /**
          * Value to frequency map
          */
-        FREQUENCY(DataTypeFrequencyStatistics.class);
+        FREQUENCY(DataTypeFrequencyStatistics.class),
+        /**
+         * Approximate cardinality, value to frequency map and quantiles (memory does not grow with the number of
+         * values, to be used instead of CARDINALITY, FREQUENCY and QUANTILES on large content).
+         */
+        APPROXIMATE(ApproximateStatistics.class);
 
         private final Class resultClass;
 
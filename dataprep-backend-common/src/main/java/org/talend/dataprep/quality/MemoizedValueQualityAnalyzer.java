@@ -0,0 +1,295 @@
+// ============================================================================
+// Copyright (C) 2006-2018 Talend Inc. - www.talend.com
+//
+// This source code is available under agreement available at
+// https://github.com/Talend/data-prep/blob/master/LICENSE
+//
+// You should have received a copy of the agreement
+// along with this program; if not, write to Talend SA
+// 9 rue Pages 92150 Suresnes, France
+//
+// ============================================================================
+
+
+package org.talend.dataprep.quality;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.function.IntFunction;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.talend.daikon.exception.TalendRuntimeException;
+import org.talend.dataprep.BaseErrorCodes;
+import org.talend.dataquality.common.inference.Analyzer;
+import org.talend.dataquality.common.inference.ValueQualityStatistics;
+
+/**
+ * <p>
+ * An {@link Analyzer} for value quality (valid, empty, invalid or unknown values) that evaluates each distinct value of
+ * a column only once.
+ * </p>
+ * <p>
+ * Each column has its own quality analyzer (as created by the provided factory) and a bounded (least recently used)
+ * cache of the verdicts for the values seen so far. When a value is not in cache, it is submitted to the column
+ * analyzer and the verdict is deduced from the counter that changed. When a value is in cache, the verdict is replayed
+ * in the column statistics without any call to the column analyzer (no dictionary lookup, no regular expression, no
+ * date pattern parsing).
+ * </p>
+ * <p>
+ * Counts (valid, empty, invalid and unknown) are the same as the ones of a
+ * {@link org.talend.dataquality.statistics.quality.ValueQualityAnalyzer} for all columns. Invalid and unknown values
+ * samples are not collected: returned statistics never contain any sample (no caller reads them).
+ * </p>
+ */
+public class MemoizedValueQualityAnalyzer implements Analyzer<ValueQualityStatistics> {
+
+    /** Default number of distinct values whose verdict is kept per column. */
+    public static final int DEFAULT_CACHE_SIZE = 1000;
+
+    private static final long serialVersionUID = 1L;
+
+    private static final Logger LOGGER = LoggerFactory.getLogger(MemoizedValueQualityAnalyzer.class);
+
+    /** Creates the quality analyzer for a column (given its index). */
+    private final transient IntFunction<Analyzer<ValueQualityStatistics>> columnAnalyzerFactory;
+
+    /** Number of columns in analyzed records. */
+    private final int columnCount;
+
+    private final int cacheSize;
+
+    /** Listener to call with (hits, lookups) when analyzer is closed. */
+    private final transient Listener listener;
+
+    private transient List<Analyzer<ValueQualityStatistics>> columnAnalyzers;
+
+    private transient List<Map<String, Verdict>> verdicts;
+
+    private final List<ValueQualityStatistics> statistics = new ArrayList<>();
+
+    private long hits;
+
+    private long lookups;
+
+    /**
+     * @param columnAnalyzerFactory A factory for the quality analyzer of a column (given its index).
+     * @param columnCount The number of columns in analyzed records.
+     * @param cacheSize The maximum number of verdicts kept per column.
+     */
+    public MemoizedValueQualityAnalyzer(IntFunction<Analyzer<ValueQualityStatistics>> columnAnalyzerFactory, int columnCount,
+            int cacheSize) {
+        this(columnAnalyzerFactory, columnCount, cacheSize, null);
+    }
+
+    /**
+     * @param columnAnalyzerFactory A factory for the quality analyzer of a column (given its index).
+     * @param columnCount The number of columns in analyzed records.
+     * @param cacheSize The maximum number of verdicts kept per column.
+     * @param listener A (nullable) listener to be notified of cache usage when analyzer is closed.
+     */
+    public MemoizedValueQualityAnalyzer(IntFunction<Analyzer<ValueQualityStatistics>> columnAnalyzerFactory, int columnCount,
+            int cacheSize, Listener listener) {
+        this.columnAnalyzerFactory = columnAnalyzerFactory;
+        this.columnCount = columnCount;
+        this.cacheSize = Math.max(0, cacheSize);
+        this.listener = listener;
+    }
+
+    @Override
+    public void init() {
+        columnAnalyzers = new ArrayList<>();
+        verdicts = new ArrayList<>();
+        statistics.clear();
+        hits = 0;
+        lookups = 0;
+        for (int i = 0; i < columnCount; i++) {
+            final Analyzer<ValueQualityStatistics> columnAnalyzer = columnAnalyzerFactory.apply(i);
+            columnAnalyzer.init();
+            columnAnalyzers.add(columnAnalyzer);
+            verdicts.add(new LinkedHashMap<String, Verdict>(16, 0.75f, true) {
+
+                @Override
+                protected boolean removeEldestEntry(Map.Entry<String, Verdict> eldest) {
+                    return size() > cacheSize;
+                }
+            });
+            statistics.add(new ValueQualityStatistics());
+        }
+    }
+
+    @Override
+    public boolean analyze(String... record) {
+        if (columnAnalyzers == null) {
+            init();
+        }
+        final int length = Math.min(record.length, columnCount);
+        for (int i = 0; i < length; i++) {
+            final String value = record[i];
+            final Map<String, Verdict> columnVerdicts = verdicts.get(i);
+            lookups++;
+            Verdict verdict = columnVerdicts.get(value);
+            if (verdict == null) {
+                verdict = evaluate(i, value);
+                if (cacheSize > 0) {
+                    columnVerdicts.put(value, verdict);
+                }
+            } else {
+                hits++;
+            }
+            verdict.increment(statistics.get(i));
+        }
+        return true;
+    }
+
+    /**
+     * Submits <code>value</code> to the column analyzer and returns the verdict of the analyzer.
+     */
+    private Verdict evaluate(int index, String value) {
+        final Analyzer<ValueQualityStatistics> columnAnalyzer = columnAnalyzers.get(index);
+        final ValueQualityStatistics before = copy(columnAnalyzer.getResult().get(0));
+        columnAnalyzer.analyze(value);
+        final ValueQualityStatistics after = columnAnalyzer.getResult().get(0);
+        if (after.getEmptyCount() > before.getEmptyCount()) {
+            return Verdict.EMPTY;
+        } else if (after.getValidCount() > before.getValidCount()) {
+            return Verdict.VALID;
+        } else if (after.getInvalidCount() > before.getInvalidCount()) {
+            return Verdict.INVALID;
+        } else {
+            return Verdict.UNKNOWN;
+        }
+    }
+
+    private static ValueQualityStatistics copy(ValueQualityStatistics statistics) {
+        final ValueQualityStatistics copy = new ValueQualityStatistics();
+        add(copy, statistics);
+        return copy;
+    }
+
+    @Override
+    public void end() {
+        if (columnAnalyzers != null) {
+            columnAnalyzers.forEach(Analyzer::end);
+        }
+    }
+
+    @Override
+    public List<ValueQualityStatistics> getResult() {
+        return Collections.unmodifiableList(statistics);
+    }
+
+    @Override
+    public Analyzer<ValueQualityStatistics> merge(Analyzer<ValueQualityStatistics> another) {
+        final MemoizedValueQualityAnalyzer merged = new MemoizedValueQualityAnalyzer(columnAnalyzerFactory, 0, cacheSize);
+        merged.init();
+        final List<ValueQualityStatistics> otherStatistics = another.getResult();
+        for (int i = 0; i < Math.max(statistics.size(), otherStatistics.size()); i++) {
+            final ValueQualityStatistics mergedStatistics = new ValueQualityStatistics();
+            if (i < statistics.size()) {
+                add(mergedStatistics, statistics.get(i));
+            }
+            if (i < otherStatistics.size()) {
+                add(mergedStatistics, otherStatistics.get(i));
+            }
+            merged.statistics.add(mergedStatistics);
+        }
+        return merged;
+    }
+
+    private static void add(ValueQualityStatistics target, ValueQualityStatistics source) {
+        target.setEmptyCount(target.getEmptyCount() + source.getEmptyCount());
+        target.setValidCount(target.getValidCount() + source.getValidCount());
+        target.setInvalidCount(target.getInvalidCount() + source.getInvalidCount());
+        target.setUnknownCount(target.getUnknownCount() + source.getUnknownCount());
+    }
+
+    @Override
+    public void close() throws Exception {
+        if (LOGGER.isDebugEnabled() && lookups > 0) {
+            LOGGER.debug("Value quality cache: {} hit(s) for {} value(s) ({}%).", hits, lookups, hits * 100 / lookups);
+        }
+        if (listener != null) {
+            listener.onClose(hits, lookups);
+        }
+        if (columnAnalyzers != null) {
+            for (Analyzer<ValueQualityStatistics> columnAnalyzer : columnAnalyzers) {
+                try {
+                    columnAnalyzer.close();
+                } catch (Exception e) {
+                    throw new TalendRuntimeException(BaseErrorCodes.UNEXPECTED_EXCEPTION, e);
+                }
+            }
+            columnAnalyzers = null;
+            verdicts = null;
+        }
+    }
+
+    /**
+     * @return The number of values whose verdict was found in cache.
+     */
+    public long getHits() {
+        return hits;
+    }
+
+    /**
+     * @return The number of analyzed values.
+     */
+    public long getLookups() {
+        return lookups;
+    }
+
+    /**
+     * Listener for cache usage of a {@link MemoizedValueQualityAnalyzer}.
+     */
+    @FunctionalInterface
+    public interface Listener {
+
+        /**
+         * Called when analyzer is closed.
+         *
+         * @param hits The number of values whose verdict was found in cache.
+         * @param lookups The number of analyzed values.
+         */
+        void onClose(long hits, long lookups);
+    }
+
+    /**
+     * The quality verdict for a value.
+     */
+    private enum Verdict {
+        EMPTY {
+
+            @Override
+            void increment(ValueQualityStatistics statistics) {
+                statistics.setEmptyCount(statistics.getEmptyCount() + 1);
+            }
+        },
+        VALID {
+
+            @Override
+            void increment(ValueQualityStatistics statistics) {
+                statistics.setValidCount(statistics.getValidCount() + 1);
+            }
+        },
+        INVALID {
+
+            @Override
+            void increment(ValueQualityStatistics statistics) {
+                statistics.setInvalidCount(statistics.getInvalidCount() + 1);
+            }
+        },
+        UNKNOWN {
+
+            @Override
+            void increment(ValueQualityStatistics statistics) {
+                statistics.setUnknownCount(statistics.getUnknownCount() + 1);
+            }
+        };
+
+        abstract void increment(ValueQualityStatistics statistics);
+    }
+}
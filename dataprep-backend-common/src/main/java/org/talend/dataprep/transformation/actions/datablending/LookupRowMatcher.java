@@ -17,6 +17,25 @@ public interface LookupRowMatcher {
      */
     DataSetRow getMatchingRow(String joinOn, String joinValue);
 
+    /**
+     * Copy the values of the matching row into <code>target</code> (empty values are copied if no row matches). Default
+     * implementation relies on {@link #getMatchingRow(String, String)}, implementations should override it to avoid the
+     * creation of an intermediate row for each call.
+     *
+     * @param joinOn the column id to join on.
+     * @param joinValue the join value.
+     * @param lookupColumnIds the ids of the lookup columns to copy.
+     * @param targetColumnIds the ids of the columns in <code>target</code> (same order as <code>lookupColumnIds</code>).
+     * @param target the row where values are copied.
+     */
+    default void copyMatchingValues(String joinOn, String joinValue, String[] lookupColumnIds, String[] targetColumnIds,
+            DataSetRow target) {
+        final DataSetRow matchingRow = getMatchingRow(joinOn, joinValue);
+        for (int i = 0; i < lookupColumnIds.length; i++) {
+            target.set(targetColumnIds[i], matchingRow.get(lookupColumnIds[i]));
+        }
+    }
+
     /**
      * @return The {@link RowMetadata row} for returning empty row.
      */
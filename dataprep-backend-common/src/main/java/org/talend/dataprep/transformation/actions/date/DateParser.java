@@ -16,12 +16,12 @@ package org.talend.dataprep.transformation.actions.date;
 import static java.util.stream.Collectors.toList;
 import static org.apache.commons.lang.StringUtils.isNotEmpty;
 
+import java.text.ParsePosition;
 import java.time.DateTimeException;
 import java.time.LocalDate;
 import java.time.LocalDateTime;
 import java.time.format.DateTimeFormatter;
-import java.time.format.DateTimeFormatterBuilder;
-import java.time.format.ResolverStyle;
+import java.time.temporal.TemporalAccessor;
 import java.util.*;
 
 import org.apache.commons.lang.StringUtils;
@@ -36,8 +36,21 @@ import org.talend.dataquality.common.inference.Analyzers;
 import org.talend.dataquality.statistics.datetime.SystemDateTimePatternManager;
 import org.talend.dataquality.statistics.frequency.pattern.PatternFrequencyStatistics;
 
+import com.google.common.cache.Cache;
+import com.google.common.cache.CacheBuilder;
+
 /**
  * Component in charge of parsing dates.
+ * <p>
+ * Date patterns of a column are compiled once (see {@link ColumnDateParser}) and kept as long as the column statistics
+ * (more precisely its pattern frequencies) are unchanged. This class is thread safe.
+ * </p>
+ * <p>
+ * When no known pattern matches a value, pattern is guessed for this single value (see
+ * {@link #guessAndParse(String, ColumnMetadata)}): callers need the result of each value before the next one, so values
+ * can't be gathered for a batched guess. Guessed pattern is added to the column patterns, next values with the same
+ * pattern are then parsed with the compiled patterns.
+ * </p>
  */
 public class DateParser {
 
@@ -45,6 +58,12 @@ public class DateParser {
 
     private final AnalyzerService analyzerService;
 
+    /** Compiled date patterns, by pattern frequencies of columns (weak keys use identity to compare keys). */
+    private final Cache<List<PatternFrequency>, ColumnDateParser> columnParsers = CacheBuilder.newBuilder() //
+            .weakKeys() //
+            .maximumSize(1000) //
+            .build();
+
     public DateParser() {
         this(Providers.get(AnalyzerService.class));
     }
@@ -65,14 +84,34 @@ public class DateParser {
      * @throws DateTimeException if the date cannot be parsed, or if value is empty or null.
      */
     public LocalDateTime parse(String value, ColumnMetadata column) {
+        final ColumnDateParser columnParser = getColumnParser(column.getStatistics().getPatternFrequencies());
+        final LocalDateTime parsed = columnParser.parse(value);
+        if (parsed != null) {
+            return parsed;
+        }
+        LOGGER.debug("Unable to parse date '{}'", value);
         try {
-            return parseDateFromPatterns(value, getPatterns(column.getStatistics().getPatternFrequencies()));
-        } catch (DateTimeException e) {
-            LOGGER.debug("Unable to parse date '{}'", value, e);
             return guessAndParse(value, column);
+        } catch (DateTimeException e) {
+            // no need to guess again for this value (until patterns change)
+            columnParser.unparsable(value);
+            throw e;
         }
     }
 
+    /**
+     * @param patternFrequencies The pattern frequencies of a column.
+     * @return The compiled patterns for <code>patternFrequencies</code>.
+     */
+    private ColumnDateParser getColumnParser(List<PatternFrequency> patternFrequencies) {
+        ColumnDateParser columnParser = columnParsers.getIfPresent(patternFrequencies);
+        if (columnParser == null || !columnParser.isCompiledFrom(patternFrequencies)) {
+            columnParser = new ColumnDateParser(patternFrequencies, getPatterns(patternFrequencies));
+            columnParsers.put(patternFrequencies, columnParser);
+        }
+        return columnParser;
+    }
+
     /**
      * Try to guess the pattern from the value. If the date is successfully parsed, the column statistics is updated
      * with the new pattern.
@@ -151,26 +190,40 @@ public class DateParser {
             // TDQ-14421 use ResolverStyle.STRICT to parse a date. such as "2017-02-29" should be invalid.
             final DateTimeFormatter formatter =
                     SystemDateTimePatternManager.getDateTimeFormatterByPattern(pattern.getPattern(), Locale.ENGLISH);
-            if (formatter == null) {
-                continue;
+            final LocalDateTime parsed = parse(value, formatter);
+            if (parsed != null) {
+                return parsed;
             }
+        }
+        throw new DateTimeException("'" + value + "' does not match any known pattern");
+    }
 
-            // first try to parse directly as LocalDateTime
-            try {
-                return LocalDateTime.parse(value, formatter);
-            } catch (DateTimeException e) {
-                LOGGER.trace("Unable to parse date '{}' using LocalDateTime.", value, e);
-                // if it fails, let's try the LocalDate first
-                try {
-                    LocalDate temp = LocalDate.parse(value, formatter);
-                    return temp.atStartOfDay();
-                } catch (DateTimeException e2) {
-                    LOGGER.trace("Unable to parse date '{}' using LocalDate.", value, e2);
-                    // nothing to do here, just try the next formatter
-                }
+    /**
+     * Parse the date with the given formatter, first as a {@link LocalDateTime} then as a {@link LocalDate}.
+     *
+     * @param value the text to parse (not null).
+     * @param formatter the formatter to use (may be null).
+     * @return the parsed date-time or <code>null</code> if value cannot be parsed with formatter.
+     */
+    private static LocalDateTime parse(String value, DateTimeFormatter formatter) {
+        if (formatter == null) {
+            return null;
+        }
+        // quickly (without exception) discard formatters that cannot parse the text
+        final ParsePosition position = new ParsePosition(0);
+        if (formatter.parseUnresolved(value, position) == null || position.getIndex() != value.length()) {
+            return null;
+        }
+        try {
+            final TemporalAccessor parsed = formatter.parseBest(value, LocalDateTime::from, LocalDate::from);
+            if (parsed instanceof LocalDate) {
+                return ((LocalDate) parsed).atStartOfDay();
             }
+            return (LocalDateTime) parsed;
+        } catch (DateTimeException e) {
+            LOGGER.trace("Unable to parse date '{}'.", value, e);
+            return null;
         }
-        throw new DateTimeException("'" + value + "' does not match any known pattern");
     }
 
     /**
@@ -195,4 +248,94 @@ public class DateParser {
                 }).filter(Objects::nonNull) // remove non valid date patterns
                 .sorted().collect(toList());
     }
+
+    /**
+     * Date patterns of a column compiled into formatters, with a bounded memo of the most recently added values.
+     */
+    private static class ColumnDateParser {
+
+        private static final int MEMO_SIZE = 1024;
+
+        /** Marker in memo for values that cannot be parsed. */
+        private static final Object UNPARSABLE = new Object();
+
+        /** Pattern frequencies (as they were when compiled). */
+        private final String[] patterns;
+
+        private final long[] occurrences;
+
+        /** Formatters (sorted by occurrences) for valid patterns. */
+        private final DateTimeFormatter[] formatters;
+
+        /** Most recently parsed values (parsed date-time or {@link #UNPARSABLE}). */
+        private final Map<String, Object> memo = Collections.synchronizedMap(new LinkedHashMap<String, Object>() {
+
+            @Override
+            protected boolean removeEldestEntry(Map.Entry<String, Object> eldest) {
+                return size() > MEMO_SIZE;
+            }
+        });
+
+        private ColumnDateParser(List<PatternFrequency> patternFrequencies, List<DatePattern> datePatterns) {
+            patterns = new String[patternFrequencies.size()];
+            occurrences = new long[patternFrequencies.size()];
+            for (int i = 0; i < patterns.length; i++) {
+                patterns[i] = patternFrequencies.get(i).getPattern();
+                occurrences[i] = patternFrequencies.get(i).getOccurrences();
+            }
+            formatters = datePatterns.stream() //
+                    .map(DatePattern::getPattern) //
+                    .map(p -> SystemDateTimePatternManager.getDateTimeFormatterByPattern(p, Locale.ENGLISH)) //
+                    .filter(Objects::nonNull) //
+                    .toArray(DateTimeFormatter[]::new);
+        }
+
+        /**
+         * @return <code>true</code> if pattern frequencies did not change since this parser was compiled.
+         */
+        private boolean isCompiledFrom(List<PatternFrequency> patternFrequencies) {
+            if (patternFrequencies.size() != patterns.length) {
+                return false;
+            }
+            for (int i = 0; i < patterns.length; i++) {
+                final PatternFrequency patternFrequency = patternFrequencies.get(i);
+                if (patternFrequency.getOccurrences() != occurrences[i]
+                        || !Objects.equals(patternFrequency.getPattern(), patterns[i])) {
+                    return false;
+                }
+            }
+            return true;
+        }
+
+        /**
+         * @param value the text to parse.
+         * @return the parsed date-time or <code>null</code> if value cannot be parsed with the column patterns.
+         * @throws DateTimeException if value is known to be unparsable (even with a guessed pattern).
+         */
+        private LocalDateTime parse(String value) {
+            if (value == null) {
+                return null;
+            }
+            final Object memoized = memo.get(value);
+            if (memoized == UNPARSABLE) {
+                throw new DateTimeException("'" + value + "' does not match any known pattern");
+            } else if (memoized != null) {
+                return (LocalDateTime) memoized;
+            }
+            for (DateTimeFormatter formatter : formatters) {
+                final LocalDateTime parsed = DateParser.parse(value, formatter);
+                if (parsed != null) {
+                    memo.put(value, parsed);
+                    return parsed;
+                }
+            }
+            return null;
+        }
+
+        private void unparsable(String value) {
+            if (value != null) {
+                memo.put(value, UNPARSABLE);
+            }
+        }
+    }
 }
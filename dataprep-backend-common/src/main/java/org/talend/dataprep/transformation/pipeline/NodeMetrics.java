@@ -0,0 +1,251 @@
+// ============================================================================
+// Copyright (C) 2006-2018 Talend Inc. - www.talend.com
+//
+// This source code is available under agreement available at
+// https://github.com/Talend/data-prep/blob/master/LICENSE
+//
+// You should have received a copy of the agreement
+// along with this program; if not, write to Talend SA
+// 9 rue Pages 92150 Suresnes, France
+//
+// ============================================================================
+
+
+package org.talend.dataprep.transformation.pipeline;
+
+import java.lang.management.ManagementFactory;
+import java.lang.management.ThreadMXBean;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.talend.dataprep.api.dataset.RowMetadata;
+import org.talend.dataprep.api.dataset.row.DataSetRow;
+
+/**
+ * <p>
+ * Execution metrics of a single {@link Node}: number of rows received, time spent in the node (excluding the time spent
+ * in the nodes it emits rows to) and an estimate of the memory allocated by the node.
+ * </p>
+ * <p>
+ * Allocation is measured with the per-thread allocation counter of the JVM (when available) on a sample of the rows: it
+ * is then extrapolated to all rows received by the node.
+ * </p>
+ *
+ * @see NodeMetricsCollector
+ */
+public class NodeMetrics {
+
+    /** Allocation is measured for one row out of <code>ALLOCATION_SAMPLING</code>. */
+    private static final int ALLOCATION_SAMPLING = 64;
+
+    private static final Logger LOGGER = LoggerFactory.getLogger(NodeMetrics.class);
+
+    private static final com.sun.management.ThreadMXBean ALLOCATION_BEAN = allocationBean();
+
+    /** State of the current execution for each thread (nested nodes calls share the same frame). */
+    private static final ThreadLocal<Frame> FRAME = ThreadLocal.withInitial(Frame::new);
+
+    private long rowsIn;
+
+    private long time;
+
+    private long sampledRows;
+
+    private long sampledAllocatedBytes;
+
+    private static com.sun.management.ThreadMXBean allocationBean() {
+        try {
+            final ThreadMXBean bean = ManagementFactory.getThreadMXBean();
+            if (bean instanceof com.sun.management.ThreadMXBean) {
+                final com.sun.management.ThreadMXBean allocationBean = (com.sun.management.ThreadMXBean) bean;
+                if (allocationBean.isThreadAllocatedMemorySupported() && allocationBean.isThreadAllocatedMemoryEnabled()) {
+                    return allocationBean;
+                }
+            }
+        } catch (Throwable e) { // NOSONAR: com.sun.management classes may not be available
+            LOGGER.debug("Thread allocation measure is not available.", e);
+        }
+        LOGGER.debug("Thread allocation measure is not available, pipeline metrics won't include allocations.");
+        return null;
+    }
+
+    private static long allocatedBytes() {
+        return ALLOCATION_BEAN.getThreadAllocatedBytes(Thread.currentThread().getId());
+    }
+
+    /**
+     * @param node The {@link RuntimeNode} to monitor.
+     * @return A {@link RuntimeNode} that records in this metrics all the calls to <code>node</code>.
+     */
+    public RuntimeNode monitor(RuntimeNode node) {
+        return new MonitoredRuntimeNode(node, this);
+    }
+
+    /**
+     * Starts the measure of a call to the node.
+     *
+     * @param rows The number of rows passed to the node (0 for a signal).
+     * @return The frame to pass to {@link #stop(Frame, int, long)} once call is over, <code>null</code> if call is too
+     * deeply nested to be measured (its time is then included in its caller's).
+     */
+    private Frame start(int rows) {
+        final Frame frame = FRAME.get();
+        if (frame.depth >= Frame.MAX_DEPTH) {
+            return null;
+        }
+        if (frame.depth == 0) {
+            // Outermost call decides whether allocations are measured for the whole call chain.
+            frame.sampling = ALLOCATION_BEAN != null && rows > 0 && (frame.calls++ % ALLOCATION_SAMPLING) == 0;
+        }
+        frame.depth++;
+        frame.parentChildTime[frame.depth] = frame.childTime;
+        frame.parentChildAllocation[frame.depth] = frame.childAllocation;
+        frame.childTime = 0;
+        frame.childAllocation = 0;
+        frame.startAllocation[frame.depth] = frame.sampling ? allocatedBytes() : 0;
+        return frame;
+    }
+
+    /**
+     * Ends the measure started by {@link #start(int)}.
+     *
+     * @param frame The frame returned by {@link #start(int)}.
+     * @param rows The number of rows passed to the node (0 for a signal).
+     * @param start The {@link System#nanoTime()} when the call started.
+     */
+    private void stop(Frame frame, int rows, long start) {
+        final long elapsed = System.nanoTime() - start;
+        final int depth = frame.depth;
+        final long allocated = frame.sampling ? allocatedBytes() - frame.startAllocation[depth] : 0;
+        rowsIn += rows;
+        time += Math.max(0, elapsed - frame.childTime);
+        if (frame.sampling && rows > 0) {
+            sampledRows += rows;
+            sampledAllocatedBytes += Math.max(0, allocated - frame.childAllocation);
+        }
+        frame.childTime = frame.parentChildTime[depth] + elapsed;
+        frame.childAllocation = frame.parentChildAllocation[depth] + allocated;
+        frame.depth--;
+    }
+
+    /**
+     * Adds the measures of <code>other</code> to this metrics (e.g. the metrics of a copy of the node that processed
+     * rows on another thread). Caller must ensure neither metrics is updated during this call.
+     *
+     * @param other The metrics to add.
+     */
+    public void add(NodeMetrics other) {
+        rowsIn += other.rowsIn;
+        time += other.time;
+        sampledRows += other.sampledRows;
+        sampledAllocatedBytes += other.sampledAllocatedBytes;
+    }
+
+    /**
+     * @return The number of rows received by the node.
+     */
+    public long getRowsIn() {
+        return rowsIn;
+    }
+
+    /**
+     * @return The time (in nanoseconds) spent in the node, time spent in next nodes is not included.
+     */
+    public long getTime() {
+        return time;
+    }
+
+    /**
+     * @return An estimate of the bytes allocated by the node, -1 if allocations can't be measured.
+     */
+    public long getAllocatedBytes() {
+        if (ALLOCATION_BEAN == null) {
+            return -1;
+        }
+        if (sampledRows == 0) {
+            return 0;
+        }
+        return (long) ((double) sampledAllocatedBytes / sampledRows * rowsIn);
+    }
+
+    /**
+     * Per-thread state of the measures in progress.
+     */
+    private static class Frame {
+
+        /** Maximum number of nested monitored calls (deeper calls share the measure of their caller). */
+        private static final int MAX_DEPTH = 256;
+
+        private final long[] parentChildTime = new long[MAX_DEPTH + 1];
+
+        private final long[] parentChildAllocation = new long[MAX_DEPTH + 1];
+
+        private final long[] startAllocation = new long[MAX_DEPTH + 1];
+
+        private int depth;
+
+        private long calls;
+
+        private boolean sampling;
+
+        /** Time spent in nested calls of the current call. */
+        private long childTime;
+
+        /** Bytes allocated by nested calls of the current call (when sampling). */
+        private long childAllocation;
+    }
+
+    /**
+     * A {@link RuntimeNode} that records metrics for each call to the node it wraps.
+     */
+    private static class MonitoredRuntimeNode implements RuntimeNode {
+
+        private final RuntimeNode delegate;
+
+        private final NodeMetrics metrics;
+
+        private MonitoredRuntimeNode(RuntimeNode delegate, NodeMetrics metrics) {
+            this.delegate = delegate;
+            this.metrics = metrics;
+        }
+
+        @Override
+        public void receive(DataSetRow row, RowMetadata metadata) {
+            final Frame frame = metrics.start(1);
+            final long start = System.nanoTime();
+            try {
+                delegate.receive(row, metadata);
+            } finally {
+                if (frame != null) {
+                    metrics.stop(frame, 1, start);
+                }
+            }
+        }
+
+        @Override
+        public void receive(DataSetRow[] rows, RowMetadata[] metadatas) {
+            final Frame frame = metrics.start(rows.length);
+            final long start = System.nanoTime();
+            try {
+                delegate.receive(rows, metadatas);
+            } finally {
+                if (frame != null) {
+                    metrics.stop(frame, rows.length, start);
+                }
+            }
+        }
+
+        @Override
+        public void signal(Signal signal) {
+            final Frame frame = metrics.start(0);
+            final long start = System.nanoTime();
+            try {
+                delegate.signal(signal);
+            } finally {
+                if (frame != null) {
+                    metrics.stop(frame, 0, start);
+                }
+            }
+        }
+    }
+}
@@ -0,0 +1,261 @@
+// ============================================================================
+// Copyright (C) 2006-2018 Talend Inc. - www.talend.com
+//
+// This source code is available under agreement available at
+// https://github.com/Talend/data-prep/blob/master/LICENSE
+//
+// You should have received a copy of the agreement
+// along with this program; if not, write to Talend SA
+// 9 rue Pages 92150 Suresnes, France
+//
+// ============================================================================
+
+
+package org.talend.dataprep.transformation.pipeline;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.IdentityHashMap;
+import java.util.List;
+import java.util.Set;
+import java.util.concurrent.TimeUnit;
+
+import org.talend.dataprep.transformation.pipeline.link.BasicLink;
+import org.talend.dataprep.transformation.pipeline.link.CloneLink;
+import org.talend.dataprep.transformation.pipeline.node.ActionNode;
+import org.talend.dataprep.transformation.pipeline.node.BasicNode;
+import org.talend.dataprep.transformation.pipeline.node.CompileNode;
+import org.talend.dataprep.transformation.pipeline.node.ParallelNode;
+import org.talend.dataprep.transformation.pipeline.node.SourceNode;
+import org.talend.dataprep.transformation.pipeline.node.StepNode;
+
+/**
+ * <p>
+ * A {@link Visitor} to monitor all the nodes of a pipeline: {@link #instrument(Node)} attaches a new {@link NodeMetrics}
+ * to each node and, once pipeline is executed, {@link #collect(Node)} returns the metrics of all nodes in pipeline
+ * order.
+ * </p>
+ * <p>
+ * Nodes inside a {@link ParallelNode} only record the rows processed by the calling thread (the first row of each
+ * batch): time spent by workers is accounted to the parallel node.
+ * </p>
+ */
+public class NodeMetricsCollector extends Visitor {
+
+    /** <code>true</code> to attach new metrics to nodes, <code>false</code> to read them. */
+    private final boolean instrument;
+
+    private final Set<Node> visited = Collections.newSetFromMap(new IdentityHashMap<>());
+
+    private final List<Entry> entries = new ArrayList<>();
+
+    private NodeMetricsCollector(boolean instrument) {
+        this.instrument = instrument;
+    }
+
+    /**
+     * Attaches a new {@link NodeMetrics} to all nodes accessible from <code>node</code>.
+     *
+     * @param node The pipeline (as {@link Node}) to monitor.
+     * @return The same <code>node</code> for chaining.
+     */
+    public static <T extends Node> T instrument(T node) {
+        node.accept(new NodeMetricsCollector(true));
+        return node;
+    }
+
+    /**
+     * @param node A pipeline (as {@link Node}) previously {@link #instrument(Node) instrumented}.
+     * @return The metrics of all the monitored nodes accessible from <code>node</code>, in pipeline order.
+     */
+    public static List<Entry> collect(Node node) {
+        final NodeMetricsCollector collector = new NodeMetricsCollector(false);
+        node.accept(collector);
+        return collector.entries;
+    }
+
+    private static NodeMetrics metricsOf(Node node) {
+        Node current = node;
+        while (current instanceof Pipeline) {
+            current = ((Pipeline) current).getNode();
+        }
+        if (current instanceof BasicNode) {
+            return ((BasicNode) current).getMetrics();
+        }
+        return null;
+    }
+
+    private static long rowsOut(Node node) {
+        final Link link = node.getLink();
+        final NodeMetrics next;
+        if (link instanceof BasicLink) {
+            next = metricsOf(link.getTarget());
+        } else if (link instanceof CloneLink && ((CloneLink) link).getNodes().length > 0) {
+            next = metricsOf(((CloneLink) link).getNodes()[0]);
+        } else {
+            next = null;
+        }
+        return next == null ? -1 : next.getRowsIn();
+    }
+
+    /**
+     * @return <code>true</code> if node is visited for the first time (and its links should be visited too).
+     */
+    private boolean visit(Node node, String name) {
+        return visit(node, name, name);
+    }
+
+    /**
+     * @param name The name of the node in this pipeline.
+     * @param type The type of the node, shared by the similar nodes of other pipelines (see {@link Entry#getType()}).
+     * @return <code>true</code> if node is visited for the first time (and its links should be visited too).
+     */
+    private boolean visit(Node node, String name, String type) {
+        if (!visited.add(node)) {
+            return false;
+        }
+        if (node instanceof BasicNode) {
+            final BasicNode basicNode = (BasicNode) node;
+            if (instrument) {
+                basicNode.setMetrics(new NodeMetrics());
+            } else if (basicNode.getMetrics() != null) {
+                entries.add(new Entry(name, type, basicNode.getMetrics(), rowsOut(node)));
+            }
+        }
+        return true;
+    }
+
+    @Override
+    public void visitAction(ActionNode actionNode) {
+        if (visit(actionNode, "ACTION [" + actionNode.getAction().getName() + "]")) {
+            super.visitAction(actionNode);
+        }
+    }
+
+    @Override
+    public void visitCompile(CompileNode compileNode) {
+        if (visit(compileNode, "COMPILE [" + compileNode.getAction().getName() + "]")) {
+            super.visitCompile(compileNode);
+        }
+    }
+
+    @Override
+    public void visitSource(SourceNode sourceNode) {
+        if (visit(sourceNode, "SOURCE")) {
+            super.visitSource(sourceNode);
+        }
+    }
+
+    @Override
+    public void visitPipeline(Pipeline pipeline) {
+        if (visited.add(pipeline)) {
+            super.visitPipeline(pipeline);
+        }
+    }
+
+    @Override
+    public void visitStepNode(StepNode stepNode) {
+        if (visit(stepNode, "STEP [" + stepNode.getStep().id() + "]", "STEP")) {
+            // Nodes of the step (last node of the step isn't linked to next node in visits).
+            stepNode.getEntryNode().accept(this);
+            super.visitStepNode(stepNode);
+        }
+    }
+
+    @Override
+    public void visitParallel(ParallelNode parallelNode) {
+        if (visit(parallelNode, "PARALLEL (" + parallelNode.getParallelism() + " workers)")) {
+            super.visitParallel(parallelNode);
+        }
+    }
+
+    @Override
+    public void visitNode(Node node) {
+        if (visit(node, node.getClass().getSimpleName())) {
+            super.visitNode(node);
+        }
+    }
+
+    /**
+     * Metrics of a node at the time they were collected.
+     */
+    public static class Entry {
+
+        private final String name;
+
+        private final String type;
+
+        private final long rowsIn;
+
+        private final long rowsOut;
+
+        private final long time;
+
+        private final long allocatedBytes;
+
+        private Entry(String name, String type, NodeMetrics metrics, long rowsOut) {
+            this.name = name;
+            this.type = type;
+            this.rowsIn = metrics.getRowsIn();
+            this.rowsOut = rowsOut;
+            this.time = metrics.getTime();
+            this.allocatedBytes = metrics.getAllocatedBytes();
+        }
+
+        /**
+         * @return A description of the node (node type and action name if any).
+         */
+        public String getName() {
+            return name;
+        }
+
+        /**
+         * @return The type of the node: same as {@link #getName()} but without execution specific information (such as
+         * step ids), so metrics of different executions can be summed per type.
+         */
+        public String getType() {
+            return type;
+        }
+
+        /**
+         * @return The number of rows received by the node.
+         */
+        public long getRowsIn() {
+            return rowsIn;
+        }
+
+        /**
+         * @return The number of rows received by next node, -1 if unknown (no next node or next node not monitored).
+         */
+        public long getRowsOut() {
+            return rowsOut;
+        }
+
+        /**
+         * @return The time (in nanoseconds) spent in the node (time spent in next nodes is not included).
+         */
+        public long getTime() {
+            return time;
+        }
+
+        /**
+         * @return An estimate of the bytes allocated by the node, -1 if unknown.
+         */
+        public long getAllocatedBytes() {
+            return allocatedBytes;
+        }
+
+        /**
+         * @return The number of rows processed per second (based on {@link #getTime()}).
+         */
+        public double getThroughput() {
+            return time > 0 ? ((double) rowsIn * TimeUnit.SECONDS.toNanos(1)) / time : 0;
+        }
+
+        @Override
+        public String toString() {
+            return name + " (" + TimeUnit.NANOSECONDS.toMillis(time) + " ms - " + rowsIn + " rows in - " + rowsOut
+                    + " rows out - " + Math.round(getThroughput()) + " rows/s - " + allocatedBytes + " bytes)";
+        }
+    }
+}
@@ -0,0 +1,131 @@
+// ============================================================================
+// Copyright (C) 2006-2018 Talend Inc. - www.talend.com
+//
+// This source code is available under agreement available at
+// https://github.com/Talend/data-prep/blob/master/LICENSE
+//
+// You should have received a copy of the agreement
+// along with this program; if not, write to Talend SA
+// 9 rue Pages 92150 Suresnes, France
+//
+// ============================================================================
+
+package org.talend.dataprep.transformation.pipeline;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.function.Predicate;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.talend.dataprep.transformation.actions.common.RunnableAction;
+import org.talend.dataprep.transformation.pipeline.link.BasicLink;
+import org.talend.dataprep.transformation.pipeline.node.ActionNode;
+import org.talend.dataprep.transformation.pipeline.node.BasicNode;
+import org.talend.dataprep.transformation.pipeline.node.CompileNode;
+import org.talend.dataprep.transformation.pipeline.node.ParallelNode;
+import org.talend.dataprep.transformation.pipeline.node.SourceNode;
+import org.talend.dataprep.transformation.pipeline.node.StepNode;
+
+/**
+ * A utility class to transform a pipeline (with nodes) and group consecutive action-related nodes into
+ * {@link ParallelNode parallel nodes} when all the actions allow it.
+ */
+public class ParallelNodeTransformer {
+
+    private static final Logger LOGGER = LoggerFactory.getLogger(ParallelNodeTransformer.class);
+
+    private ParallelNodeTransformer() {
+    }
+
+    /**
+     * Groups all consecutive {@link CompileNode}, {@link ActionNode} and {@link StepNode} (accessible from
+     * <code>node</code>) into {@link ParallelNode}. Grouping only happens for simple links (nodes after a
+     * {@link org.talend.dataprep.transformation.pipeline.link.CloneLink} are left unchanged).
+     *
+     * @param node The pipeline (as {@link Node}) to transform, this pipeline is modified in place.
+     * @param canRunInParallel A predicate to indicate whether an action can be executed by concurrent workers (sharing
+     * the same action context).
+     * @param parallelism The number of workers for each parallel node.
+     * @return The transformed pipeline.
+     */
+    public static Node transform(Node node, Predicate<RunnableAction> canRunInParallel, int parallelism) {
+        if (parallelism <= 1) {
+            return node;
+        }
+        Node previous = null;
+        Node current = node;
+        while (current != null) {
+            if (previous != null && isParallel(current, canRunInParallel)) {
+                final List<ActionNode> actions = new ArrayList<>();
+                final Node first = current;
+                Node last = current;
+                collectActions(current, actions);
+                Node next = next(last);
+                while (next != null && isParallel(next, canRunInParallel)) {
+                    collectActions(next, actions);
+                    last = next;
+                    next = next(last);
+                }
+                if (!actions.isEmpty()) {
+                    LOGGER.debug("Grouping {} action(s) in a parallel node.", actions.size());
+                    final ParallelNode parallelNode = new ParallelNode(first, last, actions, parallelism);
+                    previous.setLink(new BasicLink(parallelNode));
+                    current = parallelNode;
+                }
+            }
+            previous = current;
+            current = next(current);
+        }
+        return node;
+    }
+
+    private static Node next(Node node) {
+        final Link link = node.getLink();
+        if (link instanceof BasicLink) {
+            return link.getTarget();
+        }
+        return null;
+    }
+
+    private static boolean isParallel(Node node, Predicate<RunnableAction> canRunInParallel) {
+        if (node instanceof CompileNode) {
+            return canRunInParallel.test(((CompileNode) node).getAction());
+        } else if (node instanceof ActionNode) {
+            return canRunInParallel.test(((ActionNode) node).getAction());
+        } else if (node instanceof StepNode) {
+            final StepNode stepNode = (StepNode) node;
+            Node inner = stepNode.getEntryNode();
+            while (inner != null) {
+                final boolean isPassThrough = inner.getClass() == SourceNode.class || inner.getClass() == BasicNode.class;
+                if (!isPassThrough && !isParallel(inner, canRunInParallel)) {
+                    return false;
+                }
+                if (inner == stepNode.getLastNode()) {
+                    return true;
+                }
+                inner = next(inner);
+            }
+            return false;
+        }
+        return false;
+    }
+
+    private static void collectActions(Node node, List<ActionNode> actions) {
+        if (node instanceof ActionNode) {
+            actions.add((ActionNode) node);
+        } else if (node instanceof StepNode) {
+            final StepNode stepNode = (StepNode) node;
+            Node inner = stepNode.getEntryNode();
+            while (inner != null) {
+                if (inner instanceof ActionNode) {
+                    actions.add((ActionNode) inner);
+                }
+                if (inner == stepNode.getLastNode()) {
+                    return;
+                }
+                inner = next(inner);
+            }
+        }
+    }
+}
@@ -19,6 +19,7 @@ import java.util.ArrayList;
 import java.util.HashMap;
 import java.util.List;
 import java.util.Map;
+import java.util.Set;
 import java.util.concurrent.atomic.AtomicBoolean;
 import java.util.concurrent.atomic.AtomicLong;
 import java.util.function.Function;
@@ -215,6 +216,12 @@ public class Pipeline implements Node, RuntimeNode, Serializable {
 
         private Long limit = null;
 
+        private int parallelism = 1;
+
+        private boolean monitorNodes;
+
+        private long typeDetectionSampleSize;
+
         public static Builder builder() {
             return new Builder();
         }
@@ -290,6 +297,34 @@ public class Pipeline implements Node, RuntimeNode, Serializable {
             return this;
         }
 
+        /**
+         * @param parallelism The number of workers used to execute actions (1 means sequential execution).
+         * @see ParallelNodeTransformer
+         */
+        public Builder withParallelism(int parallelism) {
+            this.parallelism = parallelism;
+            return this;
+        }
+
+        /**
+         * @param monitorNodes <code>true</code> to record execution metrics of each node.
+         * @see NodeMetricsCollector
+         */
+        public Builder withNodeMetrics(boolean monitorNodes) {
+            this.monitorNodes = monitorNodes;
+            return this;
+        }
+
+        /**
+         * @param typeDetectionSampleSize The number of rows used to detect column types (0 or less to analyze all
+         * rows).
+         * @see org.talend.dataprep.transformation.pipeline.node.TypeDetectionNode
+         */
+        public Builder withTypeDetectionSampleSize(long typeDetectionSampleSize) {
+            this.typeDetectionSampleSize = typeDetectionSampleSize;
+            return this;
+        }
+
         public Pipeline build() {
             final NodeBuilder current;
             if (inFilter != null) {
@@ -333,6 +368,7 @@ public class Pipeline implements Node, RuntimeNode, Serializable {
                     .needStatisticsBefore(!completeMetadata) //
                     .needStatisticsAfter(needGlobalStatistics) //
                     .allowSchemaAnalysis(allowMetadataChange) //
+                    .typeDetectionSampleSize(typeDetectionSampleSize) //
                     // statistics dependencies/arguments
                     .actionRegistry(actionRegistry) //
                     .analyzerService(analyzerService) //
@@ -364,10 +400,37 @@ public class Pipeline implements Node, RuntimeNode, Serializable {
             current.to(outputSupplier.get());
             current.to(monitorSupplier.get());
 
-            pipeline.setNode(current.build());
+            if (parallelism > 1) {
+                LOG.debug("Running actions with {} worker(s)", parallelism);
+                pipeline.setNode(ParallelNodeTransformer.transform(current.build(), this::canRunInParallel, parallelism));
+            } else {
+                pipeline.setNode(current.build());
+            }
+            if (monitorNodes) {
+                NodeMetricsCollector.instrument(pipeline);
+            }
 
             // Finally build pipeline
             return pipeline;
         }
+
+        /**
+         * Concurrent workers share the action context, so only actions declared as
+         * {@link ActionDefinition.Behavior#THREAD_SAFE thread safe} are executed by concurrent workers. Actions that can
+         * not run in a distributed environment are never executed concurrently.
+         */
+        private boolean canRunInParallel(RunnableAction action) {
+            if (actionRegistry == null || action.getName() == null) {
+                return false;
+            }
+            final ActionDefinition actionDefinition = actionRegistry.get(action.getName());
+            if (actionDefinition == null) {
+                return false;
+            }
+            final ScopeCategory scope = ScopeCategory.from(action.getParameters().get(ImplicitParameters.SCOPE.getKey()));
+            final Set<ActionDefinition.Behavior> behavior = actionDefinition.adapt(scope).getBehavior();
+            return behavior.contains(ActionDefinition.Behavior.THREAD_SAFE)
+                    && !behavior.contains(ActionDefinition.Behavior.FORBID_DISTRIBUTED);
+        }
     }
 }
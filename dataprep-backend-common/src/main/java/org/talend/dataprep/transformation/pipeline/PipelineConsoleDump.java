@@ -17,6 +17,7 @@ import org.talend.dataprep.transformation.pipeline.link.BasicLink;
 import org.talend.dataprep.transformation.pipeline.link.CloneLink;
 import org.talend.dataprep.transformation.pipeline.node.ActionNode;
 import org.talend.dataprep.transformation.pipeline.node.CompileNode;
+import org.talend.dataprep.transformation.pipeline.node.ParallelNode;
 import org.talend.dataprep.transformation.pipeline.node.SourceNode;
 import org.talend.dataprep.transformation.pipeline.node.StepNode;
 
@@ -86,6 +87,12 @@ public class PipelineConsoleDump extends Visitor {
         super.visitCloneLink(cloneLink);
     }
 
+    @Override
+    public void visitParallel(ParallelNode parallelNode) {
+        builder.append("PARALLEL (").append(parallelNode.getParallelism()).append(" workers)\n");
+        super.visitParallel(parallelNode);
+    }
+
     @Override
     public void visitStepNode(StepNode stepNode) {
         builder.append("STEP NODE (").append(stepNode.getStep().toString()).append(")\n");
@@ -16,6 +16,7 @@ import org.talend.dataprep.transformation.pipeline.link.BasicLink;
 import org.talend.dataprep.transformation.pipeline.link.CloneLink;
 import org.talend.dataprep.transformation.pipeline.node.ActionNode;
 import org.talend.dataprep.transformation.pipeline.node.CompileNode;
+import org.talend.dataprep.transformation.pipeline.node.ParallelNode;
 import org.talend.dataprep.transformation.pipeline.node.SourceNode;
 import org.talend.dataprep.transformation.pipeline.node.StepNode;
 
@@ -51,6 +52,11 @@ public abstract class Visitor {
         doNodeVisit(stepNode);
     }
 
+    public void visitParallel(ParallelNode parallelNode) {
+        // Visit the original segment: its last node is linked to the node after the parallel node.
+        parallelNode.getEntryNode().accept(this);
+    }
+
     public void visitNode(Node node) {
         doNodeVisit(node);
     }
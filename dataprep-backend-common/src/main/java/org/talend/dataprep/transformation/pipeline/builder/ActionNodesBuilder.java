@@ -32,6 +32,8 @@ public class ActionNodesBuilder {
 
     private boolean allowSchemaAnalysis = true;
 
+    private long typeDetectionSampleSize;
+
     // analyse dependencies
     private ActionRegistry actionRegistry;
 
@@ -68,6 +70,11 @@ public class ActionNodesBuilder {
         return this;
     }
 
+    public ActionNodesBuilder typeDetectionSampleSize(final long typeDetectionSampleSize) {
+        this.typeDetectionSampleSize = typeDetectionSampleSize;
+        return this;
+    }
+
     public ActionNodesBuilder actionRegistry(final ActionRegistry actionRegistry) {
         this.actionRegistry = actionRegistry;
         return this;
@@ -92,6 +99,7 @@ public class ActionNodesBuilder {
                 .actionRegistry(actionRegistry) //
                 .statisticsAdapter(statisticsAdapter) //
                 .allowSchemaAnalysis(allowSchemaAnalysis) //
+                .typeDetectionSampleSize(typeDetectionSampleSize) //
                 .actions(actions) //
                 .columns(initialMetadata.getColumns());
 
@@ -43,6 +43,8 @@ public class StatisticsNodesBuilder {
 
     private boolean allowSchemaAnalysis = true;
 
+    private long typeDetectionSampleSize;
+
     private ActionsProfile actionsProfile;
 
     private Map<Action, ActionDefinition> actionToMetadata;
@@ -74,6 +76,15 @@ public class StatisticsNodesBuilder {
         return this;
     }
 
+    /**
+     * @param typeDetectionSampleSize The number of rows used to detect column types (0 or less to analyze all rows).
+     * @see TypeDetectionNode
+     */
+    public StatisticsNodesBuilder typeDetectionSampleSize(final long typeDetectionSampleSize) {
+        this.typeDetectionSampleSize = typeDetectionSampleSize;
+        return this;
+    }
+
     public StatisticsNodesBuilder actions(final List<RunnableAction> actions) {
         this.actions = actions;
         return this;
@@ -205,7 +216,8 @@ public class StatisticsNodesBuilder {
     }
 
     private Node getTypeDetectionNode(final Predicate<ColumnMetadata> columnFilter) {
-        return allowSchemaAnalysis ? new TypeDetectionNode(columnFilter, statisticsAdapter, analyzerService::schemaAnalysis)
+        return allowSchemaAnalysis ? new TypeDetectionNode(columnFilter, statisticsAdapter, analyzerService::schemaAnalysis,
+                typeDetectionSampleSize)
                 : new BasicNode();
     }
 
@@ -71,6 +71,20 @@ public class ActionNode extends BasicNode implements Monitored {
         return new ActionNode(action, actionContext);
     }
 
+    /**
+     * Adds the execution counters (and metrics, if both nodes are monitored) of <code>copy</code> to this node.
+     *
+     * @param copy A copy of this node that applied the action on some rows.
+     * @see ParallelNode
+     */
+    void merge(ActionNode copy) {
+        totalTime += copy.totalTime;
+        count += copy.count;
+        if (getMetrics() != null && copy.getMetrics() != null) {
+            getMetrics().add(copy.getMetrics());
+        }
+    }
+
     @Override
     public long getTotalTime() {
         return totalTime;
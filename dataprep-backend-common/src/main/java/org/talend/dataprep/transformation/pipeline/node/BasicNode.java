@@ -20,6 +20,11 @@ public class BasicNode implements Node, RuntimeNode {
 
     Link link;
 
+    /** Execution metrics of this node (<code>null</code> when node isn't monitored). */
+    private transient NodeMetrics metrics;
+
+    private transient RuntimeNode monitored;
+
     @Override
     public void receive(DataSetRow row, RowMetadata metadata) {
         if (link != null) {
@@ -58,9 +63,31 @@ public class BasicNode implements Node, RuntimeNode {
 
     @Override
     public RuntimeNode exec() {
+        if (monitored != null) {
+            return monitored;
+        }
         return this;
     }
 
+    /**
+     * @return The execution metrics of this node, <code>null</code> if node isn't monitored.
+     * @see org.talend.dataprep.transformation.pipeline.NodeMetricsCollector
+     */
+    public NodeMetrics getMetrics() {
+        return metrics;
+    }
+
+    /**
+     * Starts (or stops if <code>metrics</code> is <code>null</code>) the monitoring of this node: all calls going
+     * through {@link #exec()} are recorded in <code>metrics</code>.
+     *
+     * @param metrics The metrics to record this node execution in.
+     */
+    public void setMetrics(NodeMetrics metrics) {
+        this.metrics = metrics;
+        this.monitored = metrics == null ? null : metrics.monitor(this);
+    }
+
     @Override
     public Node copyShallow() {
         return new BasicNode();
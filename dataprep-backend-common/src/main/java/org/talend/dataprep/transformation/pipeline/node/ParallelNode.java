@@ -0,0 +1,299 @@
+// ============================================================================
+// Copyright (C) 2006-2018 Talend Inc. - www.talend.com
+//
+// This source code is available under agreement available at
+// https://github.com/Talend/data-prep/blob/master/LICENSE
+//
+// You should have received a copy of the agreement
+// along with this program; if not, write to Talend SA
+// 9 rue Pages 92150 Suresnes, France
+//
+// ============================================================================
+
+package org.talend.dataprep.transformation.pipeline.node;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.concurrent.Callable;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.Future;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.talend.daikon.exception.TalendRuntimeException;
+import org.talend.dataprep.BaseErrorCodes;
+import org.talend.dataprep.api.dataset.RowMetadata;
+import org.talend.dataprep.api.dataset.row.DataSetRow;
+import org.talend.dataprep.transformation.pipeline.Link;
+import org.talend.dataprep.transformation.pipeline.Node;
+import org.talend.dataprep.transformation.pipeline.NodeMetrics;
+import org.talend.dataprep.transformation.pipeline.Signal;
+import org.talend.dataprep.transformation.pipeline.Visitor;
+import org.talend.dataprep.transformation.pipeline.link.BasicLink;
+
+/**
+ * <p>
+ * A node that executes a segment of the pipeline (a sequence of {@link CompileNode}, {@link ActionNode} and
+ * {@link StepNode}) on several threads.
+ * </p>
+ * <p>
+ * Incoming rows are gathered in ordered batches. The first row of each batch goes through the original segment: this
+ * takes care of any (re)compilation of the actions and keeps step information up to date. Remaining rows are split in
+ * chunks, each chunk being processed on the {@link ForkJoinPool#commonPool() common pool} by a copy of the segment
+ * actions (see {@link Node#copyShallow()}). Copies share the action context of the original actions, so segment must
+ * only contain actions that are safe to apply concurrently. Results are then emitted to next node in the original
+ * order, so nodes after this one (statistics, limit, writer...) see the exact same sequence of rows as a sequential
+ * execution.
+ * </p>
+ * <p>
+ * Once a batch is processed, the counters (and {@link NodeMetrics metrics} when monitored) of each copy are added to
+ * the original action node, so action time is the sum of the time spent on all threads.
+ * </p>
+ *
+ * @see org.talend.dataprep.transformation.pipeline.ParallelNodeTransformer
+ */
+public class ParallelNode extends BasicNode {
+
+    /** Default number of rows gathered before a parallel processing happens. */
+    public static final int DEFAULT_BATCH_SIZE = 1024;
+
+    private static final Logger LOGGER = LoggerFactory.getLogger(ParallelNode.class);
+
+    /** First node of the segment to run in parallel. */
+    private final Node entryNode;
+
+    /** Last node of the segment to run in parallel (its link is the link of this node). */
+    private final Node lastNode;
+
+    /** All the action nodes (in order) of the segment, used to create a copy of the segment for each worker. */
+    private final List<ActionNode> actions;
+
+    /** The number of chunks each batch is split into. */
+    private final int parallelism;
+
+    /** The number of rows per batch. */
+    private final int batchSize;
+
+    /** The current batch of rows. */
+    private transient List<DataSetRow> batch;
+
+    /** The metadata shared by all rows in current batch. */
+    private transient RowMetadata batchMetadata;
+
+    /** Copy of {@link #batchMetadata} taken when the batch started (used if metadata is modified before flush). */
+    private transient RowMetadata batchMetadataSnapshot;
+
+    /** {@link RowMetadata#version() Version} of {@link #batchMetadata} when the batch started. */
+    private transient long batchMetadataVersion;
+
+    public ParallelNode(Node entryNode, Node lastNode, List<ActionNode> actions, int parallelism) {
+        this(entryNode, lastNode, actions, parallelism, DEFAULT_BATCH_SIZE);
+    }
+
+    public ParallelNode(Node entryNode, Node lastNode, List<ActionNode> actions, int parallelism, int batchSize) {
+        this.entryNode = entryNode;
+        this.lastNode = lastNode;
+        this.actions = actions;
+        this.parallelism = Math.max(1, parallelism);
+        this.batchSize = Math.max(1, batchSize);
+        this.link = lastNode.getLink();
+    }
+
+    @Override
+    public void receive(DataSetRow row, RowMetadata metadata) {
+        if (batch == null) {
+            batch = new ArrayList<>(batchSize);
+        }
+        if (!batch.isEmpty() && (metadata != batchMetadata || metadata.version() != batchMetadataVersion)) {
+            // Metadata changed: rows received so far must be processed with the previous metadata.
+            flush();
+        }
+        if (batch.isEmpty()) {
+            batchMetadata = metadata;
+            batchMetadataSnapshot = metadata.clone();
+            batchMetadataVersion = metadata.version();
+        }
+        // Upstream nodes may reuse the same row instance for each record (see DataSetRowIterator), keep a copy.
+        batch.add(row.clone());
+        if (batch.size() >= batchSize) {
+            flush();
+        }
+    }
+
+    @Override
+    public void receive(DataSetRow[] rows, RowMetadata[] metadatas) {
+        for (int i = 0; i < rows.length; i++) {
+            receive(rows[i], metadatas[i]);
+        }
+    }
+
+    @Override
+    public void signal(Signal signal) {
+        if (signal == Signal.CANCEL) {
+            if (batch != null) {
+                batch.clear();
+            }
+        } else {
+            flush();
+        }
+        entryNode.exec().signal(signal);
+    }
+
+    /**
+     * Process all rows in current batch and emit results to the next node.
+     */
+    private void flush() {
+        if (batch == null || batch.isEmpty()) {
+            return;
+        }
+        final List<DataSetRow> rows = new ArrayList<>(batch);
+        batch.clear();
+
+        RowMetadata metadata = batchMetadata;
+        if (metadata.version() != batchMetadataVersion) {
+            // Metadata was modified by a previous node after rows were buffered (e.g. statistics at end of stream).
+            metadata = batchMetadataSnapshot;
+        }
+
+        // First row goes through the original segment (compiles actions if needed, in calling thread).
+        entryNode.exec().receive(rows.get(0), metadata);
+        if (rows.size() == 1) {
+            return;
+        }
+
+        // Other rows are processed in parallel, using copies of the actions.
+        final List<DataSetRow> remaining = rows.subList(1, rows.size());
+        final int chunkSize = (remaining.size() + parallelism - 1) / parallelism;
+        final List<Callable<Collector>> chunks = new ArrayList<>(parallelism);
+        for (int i = 0; i < remaining.size(); i += chunkSize) {
+            final List<DataSetRow> chunk = remaining.subList(i, Math.min(i + chunkSize, remaining.size()));
+            final RowMetadata chunkMetadata = metadata;
+            chunks.add(() -> {
+                final Collector collector = new Collector(chunk.size(), actions.size());
+                final Node worker = copyActions(collector);
+                for (DataSetRow row : chunk) {
+                    worker.exec().receive(row, chunkMetadata);
+                }
+                return collector;
+            });
+        }
+
+        final List<Collector> results = execute(chunks);
+        for (Collector result : results) {
+            for (int i = 0; i < actions.size(); i++) {
+                actions.get(i).merge(result.copies.get(i));
+            }
+        }
+        if (link != null) {
+            for (Collector result : results) {
+                for (int i = 0; i < result.rows.size(); i++) {
+                    link.exec().emit(result.rows.get(i), result.metadata.get(i));
+                }
+            }
+        }
+    }
+
+    private List<Collector> execute(List<Callable<Collector>> chunks) {
+        try {
+            final List<Future<Collector>> futures = ForkJoinPool.commonPool().invokeAll(chunks);
+            final List<Collector> results = new ArrayList<>(futures.size());
+            for (Future<Collector> future : futures) {
+                results.add(future.get());
+            }
+            return results;
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new TalendRuntimeException(BaseErrorCodes.UNEXPECTED_EXCEPTION, e);
+        } catch (ExecutionException e) {
+            if (e.getCause() instanceof RuntimeException) {
+                throw (RuntimeException) e.getCause();
+            }
+            throw new TalendRuntimeException(BaseErrorCodes.UNEXPECTED_EXCEPTION, e.getCause());
+        }
+    }
+
+    /**
+     * @param output The node to receive worker output (copies are also kept in it, in segment order).
+     * @return A copy of all the actions of the segment (without compilation), linked to <code>output</code>.
+     */
+    private Node copyActions(Collector output) {
+        final ActionNode[] copies = new ActionNode[actions.size()];
+        Node next = output;
+        for (int i = actions.size() - 1; i >= 0; i--) {
+            final ActionNode action = actions.get(i);
+            final ActionNode copy = (ActionNode) action.copyShallow();
+            if (action.getMetrics() != null) {
+                copy.setMetrics(new NodeMetrics());
+            }
+            copy.setLink(new BasicLink(next));
+            copies[i] = copy;
+            next = copy;
+        }
+        Collections.addAll(output.copies, copies);
+        return next;
+    }
+
+    @Override
+    public void setLink(Link link) {
+        super.setLink(link);
+        lastNode.setLink(link);
+    }
+
+    @Override
+    public void accept(Visitor visitor) {
+        visitor.visitParallel(this);
+    }
+
+    @Override
+    public Node copyShallow() {
+        return new ParallelNode(entryNode, lastNode, actions, parallelism, batchSize);
+    }
+
+    public Node getEntryNode() {
+        return entryNode;
+    }
+
+    public Node getLastNode() {
+        return lastNode;
+    }
+
+    public List<ActionNode> getActions() {
+        return Collections.unmodifiableList(actions);
+    }
+
+    public int getParallelism() {
+        return parallelism;
+    }
+
+    /**
+     * Terminal node for a worker: keeps rows (and metadata) in the order they were received.
+     */
+    private static class Collector extends BasicNode {
+
+        private final List<DataSetRow> rows;
+
+        private final List<RowMetadata> metadata;
+
+        /** The copies of the segment actions that emitted rows to this collector. */
+        private final List<ActionNode> copies;
+
+        private Collector(int size, int actionCount) {
+            rows = new ArrayList<>(size);
+            metadata = new ArrayList<>(size);
+            copies = new ArrayList<>(actionCount);
+        }
+
+        @Override
+        public void receive(DataSetRow row, RowMetadata metadata) {
+            this.rows.add(row);
+            this.metadata.add(metadata);
+        }
+
+        @Override
+        public void signal(Signal signal) {
+            LOGGER.trace("Ignore signal {} in parallel worker.", signal);
+        }
+    }
+}
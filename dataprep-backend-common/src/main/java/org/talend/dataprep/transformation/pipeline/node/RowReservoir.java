@@ -0,0 +1,205 @@
+// ============================================================================
+// Copyright (C) 2006-2018 Talend Inc. - www.talend.com
+//
+// This source code is available under agreement available at
+// https://github.com/Talend/data-prep/blob/master/LICENSE
+//
+// You should have received a copy of the agreement
+// along with this program; if not, write to Talend SA
+// 9 rue Pages 92150 Suresnes, France
+//
+// ============================================================================
+
+
+package org.talend.dataprep.transformation.pipeline.node;
+
+import java.io.Closeable;
+import java.io.File;
+import java.io.FileInputStream;
+import java.io.FileOutputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.function.Consumer;
+import java.util.stream.Collectors;
+
+import org.apache.commons.lang.StringUtils;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.talend.daikon.exception.TalendRuntimeException;
+import org.talend.dataprep.BaseErrorCodes;
+import org.talend.dataprep.api.dataset.ColumnMetadata;
+import org.talend.dataprep.api.dataset.RowMetadata;
+import org.talend.dataprep.api.dataset.binary.DataSetRowBinaryIterator;
+import org.talend.dataprep.api.dataset.binary.DataSetRowBinaryWriter;
+import org.talend.dataprep.api.dataset.row.DataSetRow;
+import org.talend.dataprep.api.dataset.row.FlagNames;
+import org.talend.dataprep.util.FilesHelper;
+
+/**
+ * <p>
+ * Keeps rows until they can be replayed to next nodes (once types are known for example).
+ * </p>
+ * <p>
+ * Rows are first kept in memory; when estimated size of kept rows goes over <code>memoryThreshold</code>, all rows are
+ * spilled to a temporary file and subsequent rows are appended to this file. File uses the internal binary row format
+ * (see {@link DataSetRowBinaryWriter}) with the columns known when spill happens, so replay does not need any JSON
+ * parsing.
+ * </p>
+ */
+class RowReservoir implements Closeable {
+
+    /** Default memory (in bytes) used for rows before spilling to disk. */
+    static final long DEFAULT_MEMORY_THRESHOLD = 32L * 1024 * 1024;
+
+    private static final Logger LOGGER = LoggerFactory.getLogger(RowReservoir.class);
+
+    /** Estimated overhead (in bytes) of a row and of a value held in memory. */
+    private static final int ROW_OVERHEAD = 96;
+
+    private static final int VALUE_OVERHEAD = 64;
+
+    private final long memoryThreshold;
+
+    /** Rows kept in memory (until a spill happens). */
+    private List<DataSetRow> rows = new ArrayList<>();
+
+    private long estimatedSize;
+
+    private long size;
+
+    private File spill;
+
+    private DataSetRowBinaryWriter writer;
+
+    RowReservoir(long memoryThreshold) {
+        this.memoryThreshold = memoryThreshold;
+    }
+
+    /**
+     * Adds a copy of <code>row</code> (only values of <code>metadata</code> columns are kept) to the reservoir.
+     *
+     * @param row The row to keep.
+     * @param metadata The metadata of the row.
+     */
+    void add(DataSetRow row, RowMetadata metadata) {
+        final List<ColumnMetadata> columns = metadata.getColumns();
+        try {
+            if (writer != null) {
+                writer.write(row);
+            } else {
+                final DataSetRow copy = new DataSetRow(metadata);
+                long rowSize = ROW_OVERHEAD;
+                for (ColumnMetadata column : columns) {
+                    final String value = row.get(column.getId());
+                    copy.set(column.getId(), value);
+                    rowSize += VALUE_OVERHEAD + (value == null ? 0 : value.length() * 2);
+                }
+                copy(row, copy);
+                rows.add(copy);
+                estimatedSize += rowSize;
+                if (estimatedSize > memoryThreshold) {
+                    spill(columns);
+                }
+            }
+            size++;
+        } catch (IOException e) {
+            throw new TalendRuntimeException(BaseErrorCodes.UNEXPECTED_EXCEPTION, e);
+        }
+    }
+
+    /**
+     * Sends all rows (in the order they were added) to <code>consumer</code>, then empties the reservoir.
+     *
+     * @param metadata The row metadata to set on replayed rows.
+     * @param consumer The consumer for the rows.
+     */
+    void replay(RowMetadata metadata, Consumer<DataSetRow> consumer) {
+        if (writer == null) {
+            final List<DataSetRow> kept = rows;
+            rows = new ArrayList<>();
+            estimatedSize = 0;
+            for (DataSetRow row : kept) {
+                row.setRowMetadata(metadata);
+                consumer.accept(row);
+            }
+        } else {
+            try {
+                writer.close();
+                writer = null;
+                try (InputStream input = new FileInputStream(spill)) {
+                    final DataSetRowBinaryIterator iterator = new DataSetRowBinaryIterator(input, metadata, true);
+                    final List<String> columnIds = iterator.getColumnIds();
+                    while (iterator.hasNext()) {
+                        // Iterator reuses the same row instance: send a copy
+                        final DataSetRow read = iterator.next();
+                        final DataSetRow row = new DataSetRow(metadata);
+                        for (String columnId : columnIds) {
+                            row.set(columnId, read.get(columnId));
+                        }
+                        copy(read, row);
+                        consumer.accept(row);
+                    }
+                }
+            } catch (IOException e) {
+                throw new TalendRuntimeException(BaseErrorCodes.UNEXPECTED_EXCEPTION, e);
+            } finally {
+                close();
+            }
+        }
+        size = 0;
+    }
+
+    /**
+     * @return The number of rows in reservoir.
+     */
+    long size() {
+        return size;
+    }
+
+    /**
+     * @return <code>true</code> if rows were spilled to disk.
+     */
+    boolean isSpilled() {
+        return spill != null;
+    }
+
+    @Override
+    public void close() {
+        if (writer != null) {
+            try {
+                writer.close();
+            } catch (IOException e) {
+                LOGGER.error("Unable to close reservoir file (causing potential temp file delete issues).", e);
+            }
+            writer = null;
+        }
+        if (spill != null) {
+            FilesHelper.deleteQuietly(spill);
+            spill = null;
+        }
+        rows.clear();
+    }
+
+    private void spill(List<ColumnMetadata> columns) throws IOException {
+        LOGGER.debug("Spilling {} row(s) (~{} bytes) to disk.", rows.size(), estimatedSize);
+        spill = File.createTempFile("TypeDetection", ".bin");
+        final List<String> columnIds = columns.stream().map(ColumnMetadata::getId).collect(Collectors.toList());
+        writer = new DataSetRowBinaryWriter(new FileOutputStream(spill), columnIds);
+        for (DataSetRow row : rows) {
+            writer.write(row);
+        }
+        rows = new ArrayList<>();
+        estimatedSize = 0;
+    }
+
+    private static void copy(DataSetRow source, DataSetRow target) {
+        final String invalid = source.getInternalValues().get(FlagNames.TDP_INVALID);
+        if (StringUtils.isNotEmpty(invalid)) {
+            target.set(FlagNames.TDP_INVALID, invalid);
+        }
+        target.setDeleted(source.isDeleted());
+        target.setTdpId(source.getTdpId());
+    }
+}
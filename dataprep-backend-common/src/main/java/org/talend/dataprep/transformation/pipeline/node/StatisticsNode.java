@@ -91,7 +91,7 @@ public class StatisticsNode extends ColumnFilteredNode {
             this.configuredAnalyzer = analyzer.apply(filteredColumns);
         }
         if (!row.isDeleted()) {
-            configuredAnalyzer.analyze(row.filter(filteredColumns).order(filteredColumns).toArray(DataSetRow.SKIP_TDP_ID));
+            configuredAnalyzer.analyze(row.toArray(filteredColumns));
         }
         super.receive(row, metadata);
     }
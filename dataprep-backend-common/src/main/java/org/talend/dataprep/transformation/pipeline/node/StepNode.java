@@ -51,6 +51,10 @@ public class StepNode extends BasicNode {
         return entryNode;
     }
 
+    public Node getLastNode() {
+        return lastNode;
+    }
+
     public Step getStep() {
         return step;
     }
@@ -10,111 +10,104 @@
 //
 // ============================================================================
 
+
 package org.talend.dataprep.transformation.pipeline.node;
 
-import java.io.File;
-import java.io.FileInputStream;
-import java.io.FileOutputStream;
-import java.io.IOException;
 import java.util.Arrays;
 import java.util.List;
-import java.util.Map;
-import java.util.Optional;
 import java.util.function.Function;
 import java.util.function.Predicate;
-import java.util.zip.GZIPInputStream;
-import java.util.zip.GZIPOutputStream;
 
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
-import org.talend.daikon.exception.TalendRuntimeException;
-import org.talend.dataprep.BaseErrorCodes;
 import org.talend.dataprep.api.dataset.ColumnMetadata;
-import org.talend.dataprep.api.dataset.DataSet;
 import org.talend.dataprep.api.dataset.RowMetadata;
 import org.talend.dataprep.api.dataset.row.DataSetRow;
-import org.talend.dataprep.api.dataset.row.FlagNames;
 import org.talend.dataprep.dataset.StatisticsAdapter;
 import org.talend.dataprep.transformation.pipeline.Monitored;
 import org.talend.dataprep.transformation.pipeline.Node;
 import org.talend.dataprep.transformation.pipeline.Signal;
 import org.talend.dataprep.transformation.pipeline.Visitor;
-import org.talend.dataprep.util.FilesHelper;
 import org.talend.dataquality.common.inference.Analyzer;
 import org.talend.dataquality.common.inference.Analyzers;
 
-import com.fasterxml.jackson.core.JsonFactory;
-import com.fasterxml.jackson.core.JsonGenerator;
-import com.fasterxml.jackson.core.JsonParser;
-import com.fasterxml.jackson.databind.ObjectMapper;
-
+/**
+ * <p>
+ * A node that detects column types before sending rows to next nodes: rows are kept in a {@link RowReservoir reservoir}
+ * until types are known, then metadata is adapted and kept rows are replayed.
+ * </p>
+ * <p>
+ * By default, all rows are analyzed (rows are replayed at end of stream). When a <code>sampleSize</code> is set, types
+ * are inferred from the first <code>sampleSize</code> rows only: once sample is complete, metadata is adapted, sample
+ * rows are replayed and all subsequent rows go directly to next node.
+ * </p>
+ */
 public class TypeDetectionNode extends ColumnFilteredNode implements Monitored {
 
     private static final Logger LOGGER = LoggerFactory.getLogger(TypeDetectionNode.class);
 
-    private final JsonGenerator generator;
-
-    private final File reservoir;
-
     private final Function<List<ColumnMetadata>, Analyzer<Analyzers.Result>> analyzer;
 
     private final StatisticsAdapter adapter;
 
+    /** Number of rows used to detect types (0 or less to analyze all rows). */
+    private final long sampleSize;
+
+    /** Memory (in bytes) used to keep rows before they are spilled to disk. */
+    private final long memoryThreshold;
+
+    private final RowReservoir reservoir;
+
     private long totalTime;
 
     private Analyzer<Analyzers.Result> resultAnalyzer;
 
     private long count;
 
+    /** <code>true</code> once types are detected (rows are then directly sent to next node). */
+    private boolean detected;
+
     public TypeDetectionNode(Predicate<? super ColumnMetadata> filter, StatisticsAdapter adapter,
             Function<List<ColumnMetadata>, Analyzer<Analyzers.Result>> analyzer) {
+        this(filter, adapter, analyzer, 0);
+    }
+
+    public TypeDetectionNode(Predicate<? super ColumnMetadata> filter, StatisticsAdapter adapter,
+            Function<List<ColumnMetadata>, Analyzer<Analyzers.Result>> analyzer, long sampleSize) {
+        this(filter, adapter, analyzer, sampleSize, RowReservoir.DEFAULT_MEMORY_THRESHOLD);
+    }
+
+    public TypeDetectionNode(Predicate<? super ColumnMetadata> filter, StatisticsAdapter adapter,
+            Function<List<ColumnMetadata>, Analyzer<Analyzers.Result>> analyzer, long sampleSize, long memoryThreshold) {
         super(filter);
         this.analyzer = analyzer;
         this.adapter = adapter;
-        try {
-            reservoir = File.createTempFile("TypeDetection", ".zip");
-            JsonFactory factory = new JsonFactory();
-            generator = factory.createGenerator(new GZIPOutputStream(new FileOutputStream(reservoir), true));
-            generator.writeStartObject();
-            generator.writeFieldName("records");
-            generator.writeStartArray();
-        } catch (IOException e) {
-            throw new TalendRuntimeException(BaseErrorCodes.UNEXPECTED_EXCEPTION, e);
-        }
+        this.sampleSize = sampleSize;
+        this.memoryThreshold = memoryThreshold;
+        this.reservoir = new RowReservoir(memoryThreshold);
     }
 
     @Override
     public void receive(DataSetRow row, RowMetadata metadata) {
+        count++;
+        if (detected) {
+            // Keep sending the metadata adapted to detected types (and not the incoming one).
+            final RowMetadata adapted = rowMetadata == null ? metadata : rowMetadata;
+            row.setRowMetadata(adapted);
+            link.exec().emit(row, adapted);
+            return;
+        }
         performColumnFilter(row, metadata);
-        store(row, metadata.getColumns());
+        reservoir.add(row, metadata);
         analyze(row);
-        count++;
-    }
-
-    // Store row in temporary file
-    private void store(DataSetRow row, List<ColumnMetadata> columns) {
-        try {
-            generator.writeStartObject();
-            columns.forEach(column -> {
-                try {
-                    generator.writeStringField(column.getId(), row.get(column.getId()));
-                } catch (IOException e) {
-                    throw new TalendRuntimeException(BaseErrorCodes.UNEXPECTED_EXCEPTION, e);
-                }
-            });
-            if (row.isDeleted()) {
-                generator.writeBooleanField("_deleted", true);
-            }
-            final Optional<Long> tdpId = Optional.ofNullable(row.getTdpId());
-            if (tdpId.isPresent()) {
-                generator.writeNumberField(FlagNames.TDP_ID, tdpId.get());
-            }
-            for (Map.Entry<String, String> entry : row.getInternalValues().entrySet()) {
-                generator.writeStringField(entry.getKey(), entry.getValue());
+        if (sampleSize > 0 && count >= sampleSize) {
+            final long start = System.currentTimeMillis();
+            try {
+                LOGGER.debug("Sample of {} row(s) complete, types detected.", count);
+                detect();
+            } finally {
+                totalTime += System.currentTimeMillis() - start;
             }
-            generator.writeEndObject();
-        } catch (IOException e) {
-            throw new TalendRuntimeException(BaseErrorCodes.UNEXPECTED_EXCEPTION, e);
         }
     }
 
@@ -125,9 +118,7 @@ public class TypeDetectionNode extends ColumnFilteredNode implements Monitored {
             if (resultAnalyzer == null) {
                 resultAnalyzer = analyzer.apply(filteredColumns);
             }
-            final String[] values = row.filter(filteredColumns) //
-                    .order(rowMetadata.getColumns()) //
-                    .toArray(DataSetRow.SKIP_TDP_ID.and(e -> filteredColumnNames.contains(e.getKey())));
+            final String[] values = row.toArray(filteredColumns);
             try {
                 resultAnalyzer.analyze(values);
             } catch (Exception e) {
@@ -136,6 +127,28 @@ public class TypeDetectionNode extends ColumnFilteredNode implements Monitored {
         }
     }
 
+    // Adapt row metadata to detected types and send kept rows to next node
+    private void detect() {
+        detected = true;
+        try {
+            if (rowMetadata != null && resultAnalyzer != null) {
+                // Adapt row metadata to infer type (adapter takes care of type-forced columns)
+                resultAnalyzer.end();
+                final List<ColumnMetadata> columns = rowMetadata.getColumns();
+                adapter.adapt(columns, resultAnalyzer.getResult(), (Predicate<ColumnMetadata>) filter);
+                resultAnalyzer.close();
+            }
+        } catch (Exception e) {
+            LOGGER.warn("Unable to perform delayed analysis.", e);
+        }
+        // Continue process
+        try {
+            reservoir.replay(rowMetadata, r -> link.exec().emit(r, rowMetadata));
+        } finally {
+            reservoir.close();
+        }
+    }
+
     @Override
     public void accept(Visitor visitor) {
         visitor.visitNode(this);
@@ -143,47 +156,20 @@ public class TypeDetectionNode extends ColumnFilteredNode implements Monitored {
 
     @Override
     public Node copyShallow() {
-        return new TypeDetectionNode(filter, adapter, analyzer);
+        return new TypeDetectionNode(filter, adapter, analyzer, sampleSize, memoryThreshold);
     }
 
     @Override
     public void signal(Signal signal) {
-
         final long start = System.currentTimeMillis();
         try {
-            if (signal == Signal.END_OF_STREAM || signal == Signal.CANCEL || signal == Signal.STOP) {
-                // End temporary output
-                generator.writeEndArray();
-                generator.writeEndObject();
-                generator.flush();
-                // Send stored records to next steps
-                final ObjectMapper mapper = new ObjectMapper();
-                if (rowMetadata != null && resultAnalyzer != null) {
-                    // Adapt row metadata to infer type (adapter takes care of type-forced columns)
-                    resultAnalyzer.end();
-                    final List<ColumnMetadata> columns = rowMetadata.getColumns();
-                    adapter.adapt(columns, resultAnalyzer.getResult(), (Predicate<ColumnMetadata>) filter);
-                    resultAnalyzer.close();
-                }
-                // Continue process
-                try (JsonParser parser = mapper.getFactory().createParser(new GZIPInputStream(new FileInputStream(reservoir)))) {
-                    final DataSet dataSet = mapper.reader(DataSet.class).readValue(parser);
-                    dataSet.getRecords().forEach(r -> {
-                        r.setRowMetadata(rowMetadata);
-                        link.exec().emit(r, rowMetadata);
-                    });
-
-                }
+            if (!detected && (signal == Signal.END_OF_STREAM || signal == Signal.CANCEL || signal == Signal.STOP)) {
+                detect();
             }
         } catch (Exception e) {
-            LOGGER.warn("Unable to perform delayed analysis.", e);
+            LOGGER.warn("Unable to send kept rows to next node.", e);
         } finally {
-            try {
-                generator.close();
-            } catch (IOException e) {
-                LOGGER.error("Unable to close JSON generator (causing potential temp file delete issues).", e);
-            }
-            FilesHelper.deleteQuietly(reservoir);
+            reservoir.close();
             totalTime += System.currentTimeMillis() - start;
         }
         super.signal(signal);
@@ -310,6 +310,23 @@ public class DataSetRowTest {
         assertEquals("2", strings[0]);
     }
 
+    @Test
+    public void testToArrayWithColumns() throws Exception {
+        DataSetRow row = createRow(defaultValues(), false);
+        List<ColumnMetadata> columns = new ArrayList<ColumnMetadata>() {
+
+            {
+                add(column().computedId("lastName").type(Type.STRING).build());
+                add(column().computedId("age").type(Type.STRING).build());
+            }
+        };
+        final String[] strings = row.toArray(columns);
+        assertEquals(2, strings.length);
+        assertEquals("Tata", strings[0]);
+        assertEquals("18", strings[1]);
+        assertArrayEquals(row.filter(columns).order(columns).toArray(DataSetRow.SKIP_TDP_ID), strings);
+    }
+
     @Test
     public void testFilter() throws Exception {
         DataSetRow row = createRow(defaultValues(), false);
@@ -328,6 +328,31 @@ public class RowMetadataTest {
         assertEquals("0001", addedColumn.getId());
     }
 
+    @Test
+    public void shouldChangeVersionOnModification() {
+        // given
+        List<ColumnMetadata> columns = new ArrayList<>();
+        columns.add(getColumnMetadata("toto", 0));
+        columns.add(getColumnMetadata("titi", 1));
+        RowMetadata rowMetadata = new RowMetadata(columns);
+        long version = rowMetadata.version();
+
+        // when / then
+        rowMetadata.getById("0000").setStatistics(null);
+        assertEquals(version, rowMetadata.version());
+        rowMetadata.getById("0000").setType(Type.INTEGER.getName());
+        assertTrue(rowMetadata.version() > version);
+        version = rowMetadata.version();
+        rowMetadata.deleteColumnById("0000");
+        assertTrue(rowMetadata.version() > version);
+        version = rowMetadata.version();
+        rowMetadata.update("0001", getColumnMetadata("tata", 1));
+        assertTrue(rowMetadata.version() > version);
+        version = rowMetadata.version();
+        rowMetadata.insertAfter("0001", getColumnMetadata("tutu"));
+        assertTrue(rowMetadata.version() > version);
+    }
+
 
     /**
      * @param name the column name.
@@ -0,0 +1,104 @@
+// ============================================================================
+// Copyright (C) 2006-2018 Talend Inc. - www.talend.com
+//
+// This source code is available under agreement available at
+// https://github.com/Talend/data-prep/blob/master/LICENSE
+//
+// You should have received a copy of the agreement
+// along with this program; if not, write to Talend SA
+// 9 rue Pages 92150 Suresnes, France
+//
+// ============================================================================
+
+package org.talend.dataprep.api.dataset.binary;
+
+import static java.util.Arrays.asList;
+import static org.junit.Assert.*;
+
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+
+import org.junit.Test;
+import org.talend.dataprep.api.dataset.RowMetadata;
+import org.talend.dataprep.api.dataset.row.DataSetRow;
+
+public class DataSetRowBinaryIteratorTest {
+
+    @Test
+    public void should_read_written_values() throws Exception {
+        // given
+        final ByteArrayOutputStream output = new ByteArrayOutputStream();
+        try (DataSetRowBinaryWriter writer = new DataSetRowBinaryWriter(output, asList("0000", "0001"))) {
+            writer.write(new String[] { "France", "Paris" });
+            writer.write(new String[] { "France", null });
+            writer.write(new String[] { "Spain" });
+        }
+
+        // when
+        final DataSetRowBinaryIterator iterator = new DataSetRowBinaryIterator(new ByteArrayInputStream(output.toByteArray()));
+
+        // then
+        assertEquals(asList("0000", "0001"), iterator.getColumnIds());
+        assertTrue(iterator.hasNext());
+        DataSetRow row = iterator.next();
+        assertEquals("France", row.get("0000"));
+        assertEquals("Paris", row.get("0001"));
+        assertTrue(iterator.hasNext());
+        row = iterator.next();
+        assertEquals("France", row.get("0000")); // from dictionary
+        assertEquals("", row.get("0001"));
+        assertTrue(iterator.hasNext());
+        row = iterator.next();
+        assertEquals("Spain", row.get("0000"));
+        assertEquals("", row.get("0001"));
+        assertFalse(iterator.hasNext());
+    }
+
+    @Test
+    public void should_read_written_rows() throws Exception {
+        // given
+        final DataSetRow row = new DataSetRow(new RowMetadata());
+        row.set("0000", "value");
+        row.set("0001", "invalid");
+        row.setInvalid("0001");
+        row.setDeleted(true);
+        row.setTdpId(42L);
+
+        final ByteArrayOutputStream output = new ByteArrayOutputStream();
+        try (DataSetRowBinaryWriter writer = new DataSetRowBinaryWriter(output, asList("0000", "0001"))) {
+            writer.write(row);
+        }
+
+        // when
+        final DataSetRowBinaryIterator iterator = new DataSetRowBinaryIterator(new ByteArrayInputStream(output.toByteArray()));
+        final DataSetRow read = iterator.next();
+
+        // then
+        assertEquals("value", read.get("0000"));
+        assertEquals("invalid", read.get("0001"));
+        assertTrue(read.isInvalid("0001"));
+        assertFalse(read.isInvalid("0000"));
+        assertTrue(read.isDeleted());
+        assertEquals(42L, read.getTdpId().longValue());
+        assertFalse(iterator.hasNext());
+    }
+
+    @Test
+    public void should_keep_null_values() throws Exception {
+        // given
+        final ByteArrayOutputStream output = new ByteArrayOutputStream();
+        try (DataSetRowBinaryWriter writer = new DataSetRowBinaryWriter(output, asList("0000", "0001"))) {
+            writer.write(new String[] { "France", null });
+        }
+
+        // when
+        final DataSetRowBinaryIterator iterator = new DataSetRowBinaryIterator(
+                new ByteArrayInputStream(output.toByteArray()), new RowMetadata(), true);
+        final DataSetRow read = iterator.next();
+
+        // then
+        assertEquals("France", read.get("0000"));
+        assertNull(read.get("0001"));
+        assertFalse(iterator.hasNext());
+    }
+}
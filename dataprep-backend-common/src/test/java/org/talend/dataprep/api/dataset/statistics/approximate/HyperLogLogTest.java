@@ -0,0 +1,74 @@
+// ============================================================================
+// Copyright (C) 2006-2018 Talend Inc. - www.talend.com
+//
+// This source code is available under agreement available at
+// https://github.com/Talend/data-prep/blob/master/LICENSE
+//
+// You should have received a copy of the agreement
+// along with this program; if not, write to Talend SA
+// 9 rue Pages 92150 Suresnes, France
+//
+// ============================================================================
+
+
+package org.talend.dataprep.api.dataset.statistics.approximate;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertTrue;
+
+import org.junit.Test;
+
+public class HyperLogLogTest {
+
+    @Test
+    public void shouldBeExactForSmallCardinalities() {
+        // given
+        final HyperLogLog sketch = new HyperLogLog();
+
+        // when
+        for (int i = 0; i < 1000; i++) {
+            sketch.add("value" + (i % 100));
+        }
+        sketch.add(null);
+
+        // then
+        assertEquals(101, sketch.cardinality());
+    }
+
+    @Test
+    public void shouldEstimateLargeCardinalities() {
+        // given
+        final HyperLogLog sketch = new HyperLogLog();
+
+        // when
+        for (int i = 0; i < 1_000_000; i++) {
+            sketch.add("value" + i);
+        }
+
+        // then (standard error is 0.8%)
+        assertEquals(1_000_000, sketch.cardinality(), 30_000);
+    }
+
+    @Test
+    public void shouldMerge() {
+        // given
+        final HyperLogLog first = new HyperLogLog();
+        final HyperLogLog second = new HyperLogLog();
+        for (int i = 0; i < 200_000; i++) {
+            first.add("value" + i);
+            second.add("value" + (i + 100_000));
+        }
+
+        // when
+        final HyperLogLog merged = first.merge(second);
+
+        // then
+        assertEquals(300_000, merged.cardinality(), 9_000);
+        assertTrue(first.cardinality() < merged.cardinality());
+    }
+
+    @Test(expected = IllegalArgumentException.class)
+    public void shouldNotMergeDifferentPrecisions() {
+        new HyperLogLog(10).merge(new HyperLogLog(12));
+    }
+}
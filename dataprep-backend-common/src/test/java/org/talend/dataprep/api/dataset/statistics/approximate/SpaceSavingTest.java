@@ -0,0 +1,92 @@
+// ============================================================================
+// Copyright (C) 2006-2018 Talend Inc. - www.talend.com
+//
+// This source code is available under agreement available at
+// https://github.com/Talend/data-prep/blob/master/LICENSE
+//
+// You should have received a copy of the agreement
+// along with this program; if not, write to Talend SA
+// 9 rue Pages 92150 Suresnes, France
+//
+// ============================================================================
+
+
+package org.talend.dataprep.api.dataset.statistics.approximate;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertTrue;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Map;
+import java.util.Random;
+
+import org.junit.Test;
+
+public class SpaceSavingTest {
+
+    @Test
+    public void shouldBeExactWithFewDistinctValues() {
+        // given
+        final SpaceSaving sketch = new SpaceSaving(10);
+
+        // when
+        for (int i = 0; i < 100; i++) {
+            sketch.add("value" + (i % 4));
+        }
+        for (int i = 0; i < 5; i++) {
+            sketch.add("value2");
+        }
+
+        // then
+        final Map<String, Long> topK = sketch.getTopK(2);
+        assertEquals(Arrays.asList("value2", "value0"), new ArrayList<>(topK.keySet()));
+        assertEquals(30, topK.get("value2").longValue());
+        assertEquals(25, topK.get("value0").longValue());
+        assertEquals(4, sketch.getTopK(10).size());
+    }
+
+    @Test
+    public void shouldFindHeavyHitters() {
+        // given
+        final SpaceSaving sketch = new SpaceSaving(100);
+        final Random random = new Random(1234);
+
+        // when: half of the values are one of 5 values, other half is (mostly) unique values
+        for (int i = 0; i < 1_000_000; i++) {
+            if (i % 2 == 0) {
+                sketch.add("frequent" + random.nextInt(5));
+            } else {
+                sketch.add("rare" + random.nextInt(1_000_000));
+            }
+        }
+
+        // then
+        final Map<String, Long> topK = sketch.getTopK(5);
+        assertEquals(5, topK.size());
+        topK.forEach((value, occurrences) -> {
+            assertTrue(value.startsWith("frequent"));
+            assertEquals(100_000, occurrences, 5_000);
+        });
+    }
+
+    @Test
+    public void shouldMerge() {
+        // given
+        final SpaceSaving first = new SpaceSaving(10);
+        final SpaceSaving second = new SpaceSaving(10);
+        for (int i = 0; i < 100; i++) {
+            first.add("value" + (i % 3));
+            second.add("value" + (i % 4));
+        }
+
+        // when
+        final Map<String, Long> topK = first.merge(second).getTopK(10);
+
+        // then
+        assertEquals(59, topK.get("value0").longValue());
+        assertEquals(58, topK.get("value1").longValue());
+        assertEquals(58, topK.get("value2").longValue());
+        assertEquals(25, topK.get("value3").longValue());
+    }
+}
@@ -0,0 +1,91 @@
+// ============================================================================
+// Copyright (C) 2006-2018 Talend Inc. - www.talend.com
+//
+// This source code is available under agreement available at
+// https://github.com/Talend/data-prep/blob/master/LICENSE
+//
+// You should have received a copy of the agreement
+// along with this program; if not, write to Talend SA
+// 9 rue Pages 92150 Suresnes, France
+//
+// ============================================================================
+
+
+package org.talend.dataprep.api.dataset.statistics.approximate;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertTrue;
+
+import java.util.Arrays;
+import java.util.Random;
+
+import org.junit.Test;
+
+public class TDigestTest {
+
+    @Test
+    public void shouldBeNaNWhenEmpty() {
+        assertTrue(Double.isNaN(new TDigest().quantile(0.5)));
+    }
+
+    @Test
+    public void shouldComputeQuantilesOfFewValues() {
+        // given
+        final TDigest digest = new TDigest();
+
+        // when
+        for (int i = 1; i <= 4; i++) {
+            digest.add(i);
+        }
+
+        // then
+        assertEquals(1, digest.quantile(0), 0);
+        assertEquals(1.5, digest.quantile(0.25), 0);
+        assertEquals(2.5, digest.quantile(0.5), 0);
+        assertEquals(3.5, digest.quantile(0.75), 0);
+        assertEquals(4, digest.quantile(1), 0);
+    }
+
+    @Test
+    public void shouldEstimateQuantiles() {
+        // given
+        final TDigest digest = new TDigest();
+        final Random random = new Random(1234);
+        final double[] values = new double[500_000];
+
+        // when
+        for (int i = 0; i < values.length; i++) {
+            values[i] = random.nextGaussian() * 10 + 50;
+            digest.add(values[i]);
+        }
+
+        // then
+        Arrays.sort(values);
+        for (double q : new double[] { 0.01, 0.25, 0.5, 0.75, 0.99 }) {
+            assertEquals(values[(int) (q * values.length)], digest.quantile(q), 0.1);
+        }
+        assertEquals(values[0], digest.quantile(0), 0);
+        assertEquals(values[values.length - 1], digest.quantile(1), 0);
+        assertEquals(values.length, digest.size());
+    }
+
+    @Test
+    public void shouldMerge() {
+        // given
+        final TDigest first = new TDigest();
+        final TDigest second = new TDigest();
+        for (int i = 0; i < 100_000; i++) {
+            first.add(i);
+            second.add(100_000 + i);
+        }
+
+        // when
+        final TDigest merged = first.merge(second);
+
+        // then
+        assertEquals(200_000, merged.size());
+        assertEquals(50_000, merged.quantile(0.25), 200);
+        assertEquals(100_000, merged.quantile(0.5), 200);
+        assertEquals(150_000, merged.quantile(0.75), 200);
+    }
+}
@@ -21,6 +21,7 @@ import static org.mockito.Mockito.when;
 import java.time.DateTimeException;
 import java.time.LocalDateTime;
 import java.util.function.Predicate;
+import java.util.stream.IntStream;
 
 import org.junit.Test;
 import org.mockito.Mockito;
@@ -1044,6 +1045,64 @@ public class SimpleFilterServiceTest extends FilterServiceTest {
         assertThat(filter.test(datasetRowFromValues), is(true));
     }
 
+    @Test
+    public void should_follow_column_type_change_in_RANGE_predicate() throws Exception {
+        //given
+        final String filtersDefinition = "{" +
+                "   \"range\": {" +
+                "       \"field\": \"0001\"," +
+                "       \"start\": 0," +
+                "       \"end\": " + (LocalDateTime.of(1990, JANUARY, 1, 0, 0).toEpochSecond(UTC) * 1000) +
+                "   }" +
+                "}";
+        final ColumnMetadata column = row.getRowMetadata().getById("0001");
+        column.setType("integer");
+        final DateParser dateParser = Mockito.mock(DateParser.class);
+        when(dateParser.parse("1980/01/01", column)).thenReturn(LocalDateTime.of(1980, JANUARY, 1, 0, 0));
+        service.setDateParser(dateParser);
+        final Predicate<DataSetRow> filter = service.build(filtersDefinition, rowMetadata);
+        row.set("0001", "1980/01/01");
+        assertThat(filter.test(row), is(false));
+
+        //when
+        column.setType("date");
+
+        //then
+        assertThat(filter.test(row), is(true));
+    }
+
+    @Test
+    public void should_share_filter_between_threads() throws Exception {
+        //given
+        final String filtersDefinition = "{" +
+                "   \"and\": [" +
+                "       {" +
+                "           \"gte\": {" +
+                "               \"field\": \"0001\"," +
+                "               \"value\": \"100\"" +
+                "           }" +
+                "       }," +
+                "       {" +
+                "           \"lt\": {" +
+                "               \"field\": \"0001\"," +
+                "               \"value\": \"200\"" +
+                "           }" +
+                "       }" +
+                "   ]" +
+                "}";
+        final Predicate<DataSetRow> filter = service.build(filtersDefinition, rowMetadata);
+
+        //when
+        final long matches = IntStream.range(0, 10000).parallel().filter(i -> {
+            final DataSetRow current = new DataSetRow(rowMetadata);
+            current.set("0001", String.valueOf(i));
+            return filter.test(current);
+        }).count();
+
+        //then
+        assertThat(matches, is(100L));
+    }
+
     @Test
     public void TDP_4291_shouldNotThrowAnException() throws Exception {
         // given
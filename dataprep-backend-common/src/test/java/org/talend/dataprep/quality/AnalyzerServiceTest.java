@@ -88,6 +88,26 @@ public class AnalyzerServiceTest {
         }
     }
 
+    @Test
+    public void shouldComputeQualityCacheHitRatio() throws Exception {
+        // Given
+        final ColumnMetadata column = new ColumnMetadata();
+        column.setType(Type.INTEGER.getName());
+        column.setName(UUID.randomUUID().toString());
+        assertEquals(0, service.getQualityCacheHitRatio(), 0);
+
+        // When
+        try (Analyzer<Analyzers.Result> analyzer = service.build(column, AnalyzerService.Analysis.QUALITY)) {
+            analyzer.analyze("1");
+            analyzer.analyze("1");
+            analyzer.analyze("2");
+            analyzer.analyze("1");
+        }
+
+        // Then
+        assertEquals(0.5, service.getQualityCacheHitRatio(), 0);
+    }
+
     private Map<String, DQCategory> createMetadata() {
         Map<String, DQCategory> metadata = new HashMap<>();
 
@@ -0,0 +1,152 @@
+// ============================================================================
+// Copyright (C) 2006-2018 Talend Inc. - www.talend.com
+//
+// This source code is available under agreement available at
+// https://github.com/Talend/data-prep/blob/master/LICENSE
+//
+// You should have received a copy of the agreement
+// along with this program; if not, write to Talend SA
+// 9 rue Pages 92150 Suresnes, France
+//
+// ============================================================================
+
+
+package org.talend.dataprep.quality;
+
+import static org.junit.Assert.assertEquals;
+
+import java.util.Collections;
+import java.util.List;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import org.junit.Test;
+import org.talend.dataquality.common.inference.Analyzer;
+import org.talend.dataquality.common.inference.ValueQualityStatistics;
+
+public class MemoizedValueQualityAnalyzerTest {
+
+    @Test
+    public void shouldEvaluateDistinctValuesOnce() throws Exception {
+        // given
+        final AtomicInteger evaluations = new AtomicInteger();
+        final MemoizedValueQualityAnalyzer analyzer = new MemoizedValueQualityAnalyzer(
+                i -> new NumberQualityAnalyzer(evaluations), 2, 10);
+        analyzer.init();
+
+        // when
+        for (int i = 0; i < 100; i++) {
+            analyzer.analyze(String.valueOf(i % 3), i % 2 == 0 ? "" : "abc");
+        }
+        analyzer.end();
+
+        // then
+        assertEquals(5, evaluations.get()); // 0, 1, 2 in first column, "" and "abc" in second one.
+        assertEquals(195, analyzer.getHits());
+        assertEquals(200, analyzer.getLookups());
+        final List<ValueQualityStatistics> result = analyzer.getResult();
+        assertEquals(2, result.size());
+        assertEquals(100, result.get(0).getValidCount());
+        assertEquals(0, result.get(0).getInvalidCount());
+        assertEquals(50, result.get(1).getEmptyCount());
+        assertEquals(50, result.get(1).getInvalidCount());
+        assertEquals(0, result.get(1).getValidCount());
+        analyzer.close();
+    }
+
+    @Test
+    public void shouldEvaluateEvictedValuesAgain() throws Exception {
+        // given
+        final AtomicInteger evaluations = new AtomicInteger();
+        final MemoizedValueQualityAnalyzer analyzer = new MemoizedValueQualityAnalyzer(
+                i -> new NumberQualityAnalyzer(evaluations), 1, 2);
+        analyzer.init();
+
+        // when
+        analyzer.analyze("1");
+        analyzer.analyze("2");
+        analyzer.analyze("1");
+        analyzer.analyze("3"); // evicts "2" (least recently used)
+        analyzer.analyze("1");
+        analyzer.analyze("2");
+
+        // then
+        assertEquals(4, evaluations.get());
+        assertEquals(6, analyzer.getResult().get(0).getValidCount());
+        analyzer.close();
+    }
+
+    @Test
+    public void shouldNotifyListenerOnClose() throws Exception {
+        // given
+        final long[] usage = new long[2];
+        final MemoizedValueQualityAnalyzer analyzer = new MemoizedValueQualityAnalyzer(
+                i -> new NumberQualityAnalyzer(new AtomicInteger()), 1, 10, (hits, lookups) -> {
+                    usage[0] = hits;
+                    usage[1] = lookups;
+                });
+        analyzer.init();
+        analyzer.analyze("a");
+        analyzer.analyze("a");
+        analyzer.analyze("b");
+
+        // when
+        analyzer.close();
+
+        // then
+        assertEquals(1, usage[0]);
+        assertEquals(3, usage[1]);
+    }
+
+    /**
+     * A single column quality analyzer: numbers are valid, empty values are empty, all other values are invalid.
+     */
+    private static class NumberQualityAnalyzer implements Analyzer<ValueQualityStatistics> {
+
+        private final AtomicInteger evaluations;
+
+        private final ValueQualityStatistics statistics = new ValueQualityStatistics();
+
+        private NumberQualityAnalyzer(AtomicInteger evaluations) {
+            this.evaluations = evaluations;
+        }
+
+        @Override
+        public void init() {
+            // Nothing to do
+        }
+
+        @Override
+        public boolean analyze(String... record) {
+            evaluations.incrementAndGet();
+            final String value = record[0];
+            if (value.isEmpty()) {
+                statistics.setEmptyCount(statistics.getEmptyCount() + 1);
+            } else if (value.chars().allMatch(Character::isDigit)) {
+                statistics.setValidCount(statistics.getValidCount() + 1);
+            } else {
+                statistics.setInvalidCount(statistics.getInvalidCount() + 1);
+            }
+            return true;
+        }
+
+        @Override
+        public void end() {
+            // Nothing to do
+        }
+
+        @Override
+        public List<ValueQualityStatistics> getResult() {
+            return Collections.singletonList(statistics);
+        }
+
+        @Override
+        public Analyzer<ValueQualityStatistics> merge(Analyzer<ValueQualityStatistics> another) {
+            return this;
+        }
+
+        @Override
+        public void close() {
+            // Nothing to do
+        }
+    }
+}
@@ -0,0 +1,114 @@
+// ============================================================================
+// Copyright (C) 2006-2018 Talend Inc. - www.talend.com
+//
+// This source code is available under agreement available at
+// https://github.com/Talend/data-prep/blob/master/LICENSE
+//
+// You should have received a copy of the agreement
+// along with this program; if not, write to Talend SA
+// 9 rue Pages 92150 Suresnes, France
+//
+// ============================================================================
+
+
+package org.talend.dataprep.transformation.pipeline;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertNull;
+import static org.junit.Assert.assertTrue;
+import static org.talend.dataprep.transformation.pipeline.Signal.END_OF_STREAM;
+
+import java.util.Collections;
+import java.util.List;
+
+import org.junit.Test;
+import org.talend.dataprep.api.dataset.RowMetadata;
+import org.talend.dataprep.api.dataset.row.DataSetRow;
+import org.talend.dataprep.transformation.pipeline.builder.NodeBuilder;
+import org.talend.dataprep.transformation.pipeline.node.BasicNode;
+import org.talend.dataprep.transformation.pipeline.node.FilterNode;
+
+public class NodeMetricsCollectorTest {
+
+    private static Node buildPipeline(BasicNode output) {
+        return NodeBuilder.source() //
+                .to(new FilterNode((row, metadata) -> Integer.parseInt(row.get("0000")) % 2 == 0)) //
+                .to(output) //
+                .build();
+    }
+
+    private static void execute(Node node, int rowCount) {
+        final RowMetadata rowMetadata = new RowMetadata();
+        for (int i = 0; i < rowCount; i++) {
+            node.exec().receive(new DataSetRow(Collections.singletonMap("0000", String.valueOf(i))), rowMetadata);
+        }
+        node.exec().signal(END_OF_STREAM);
+    }
+
+    @Test
+    public void should_collect_rows_in_and_out() {
+        // given
+        final BasicNode output = new BasicNode();
+        final Node node = NodeMetricsCollector.instrument(buildPipeline(output));
+
+        // when
+        execute(node, 10);
+        final List<NodeMetricsCollector.Entry> entries = NodeMetricsCollector.collect(node);
+
+        // then
+        assertEquals(3, entries.size());
+        assertEquals("SOURCE", entries.get(0).getName());
+        assertEquals("SOURCE", entries.get(0).getType());
+        assertEquals(10, entries.get(0).getRowsIn());
+        assertEquals(10, entries.get(0).getRowsOut());
+        assertEquals("FilterNode", entries.get(1).getName());
+        assertEquals(10, entries.get(1).getRowsIn());
+        assertEquals(5, entries.get(1).getRowsOut());
+        assertEquals("BasicNode", entries.get(2).getName());
+        assertEquals(5, entries.get(2).getRowsIn());
+        assertEquals(-1, entries.get(2).getRowsOut());
+        for (NodeMetricsCollector.Entry entry : entries) {
+            assertTrue(entry.getTime() >= 0);
+        }
+    }
+
+    @Test
+    public void should_exclude_next_nodes_time() {
+        // given
+        final BasicNode output = new BasicNode() {
+
+            @Override
+            public void receive(DataSetRow row, RowMetadata metadata) {
+                final long start = System.nanoTime();
+                while (System.nanoTime() - start < 1_000_000) {
+                    // Simulate a slow node (1 ms per row).
+                }
+            }
+        };
+        final Node node = NodeMetricsCollector.instrument(buildPipeline(output));
+
+        // when
+        execute(node, 20);
+        final List<NodeMetricsCollector.Entry> entries = NodeMetricsCollector.collect(node);
+
+        // then
+        final long outputTime = entries.get(2).getTime();
+        assertTrue(outputTime >= 10_000_000);
+        assertTrue(entries.get(0).getTime() < outputTime);
+        assertTrue(entries.get(1).getTime() < outputTime);
+    }
+
+    @Test
+    public void should_not_monitor_nodes_by_default() {
+        // given
+        final BasicNode output = new BasicNode();
+        final Node node = buildPipeline(output);
+
+        // when
+        execute(node, 10);
+
+        // then
+        assertNull(output.getMetrics());
+        assertTrue(NodeMetricsCollector.collect(node).isEmpty());
+    }
+}
@@ -0,0 +1,138 @@
+// ============================================================================
+// Copyright (C) 2006-2018 Talend Inc. - www.talend.com
+//
+// This source code is available under agreement available at
+// https://github.com/Talend/data-prep/blob/master/LICENSE
+//
+// You should have received a copy of the agreement
+// along with this program; if not, write to Talend SA
+// 9 rue Pages 92150 Suresnes, France
+//
+// ============================================================================
+
+package org.talend.dataprep.transformation.pipeline.node;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertTrue;
+import static org.talend.dataprep.transformation.pipeline.Signal.END_OF_STREAM;
+
+import java.util.Collections;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import org.junit.Test;
+import org.talend.dataprep.api.dataset.RowMetadata;
+import org.talend.dataprep.api.dataset.row.DataSetRow;
+import org.talend.dataprep.transformation.actions.common.RunnableAction;
+import org.talend.dataprep.transformation.api.action.DataSetRowAction;
+import org.talend.dataprep.transformation.api.action.context.ActionContext;
+import org.talend.dataprep.transformation.api.action.context.TransformationContext;
+import org.talend.dataprep.transformation.pipeline.Node;
+import org.talend.dataprep.transformation.pipeline.NodeMetricsCollector;
+import org.talend.dataprep.transformation.pipeline.ParallelNodeTransformer;
+import org.talend.dataprep.transformation.pipeline.TestNode;
+import org.talend.dataprep.transformation.pipeline.builder.NodeBuilder;
+
+public class ParallelNodeTest {
+
+    private static RunnableAction append(String suffix, AtomicInteger compileCount) {
+        return new RunnableAction(new DataSetRowAction() {
+
+            @Override
+            public void compile(ActionContext actionContext) {
+                compileCount.incrementAndGet();
+                actionContext.setActionStatus(ActionContext.ActionStatus.OK);
+            }
+
+            @Override
+            public DataSetRow apply(DataSetRow dataSetRow, ActionContext context) {
+                dataSetRow.set("0000", dataSetRow.get("0000") + suffix);
+                return dataSetRow;
+            }
+        });
+    }
+
+    @Test
+    public void should_keep_row_order_and_compile_once() {
+        // given
+        final AtomicInteger compileCount = new AtomicInteger();
+        final TransformationContext context = new TransformationContext();
+        final RunnableAction first = append("_a", compileCount);
+        final RunnableAction second = append("_b", compileCount);
+        final RowMetadata rowMetadata = new RowMetadata();
+        final TestNode output = new TestNode();
+        final Node node = NodeBuilder.source() //
+                .to(new CompileNode(first, context.create(first.getRowAction(), rowMetadata))) //
+                .to(new ActionNode(first, context.in(first.getRowAction()))) //
+                .to(new CompileNode(second, context.create(second.getRowAction(), rowMetadata))) //
+                .to(new ActionNode(second, context.in(second.getRowAction()))) //
+                .to(output) //
+                .build();
+        final Node transformed = ParallelNodeTransformer.transform(node, a -> true, 4);
+
+        // when
+        final int rowCount = ParallelNode.DEFAULT_BATCH_SIZE * 3 + 17;
+        for (int i = 0; i < rowCount; i++) {
+            final DataSetRow row = new DataSetRow(Collections.singletonMap("0000", String.valueOf(i)));
+            row.setTdpId((long) i);
+            transformed.exec().receive(row, rowMetadata);
+        }
+        transformed.exec().signal(END_OF_STREAM);
+
+        // then
+        assertTrue(transformed.getLink().getTarget() instanceof ParallelNode);
+        assertEquals(2, compileCount.get());
+        assertEquals(rowCount, output.getReceivedRows().size());
+        for (int i = 0; i < rowCount; i++) {
+            final DataSetRow row = output.getReceivedRows().get(i);
+            assertEquals(i, row.getTdpId().longValue());
+            assertEquals(i + "_a_b", row.get("0000"));
+        }
+        assertEquals(Collections.singletonList(END_OF_STREAM), output.getReceivedSignals());
+    }
+
+    @Test
+    public void should_merge_worker_counters_in_action_nodes() {
+        // given
+        final TransformationContext context = new TransformationContext();
+        final RunnableAction action = append("_a", new AtomicInteger());
+        final RowMetadata rowMetadata = new RowMetadata();
+        final ActionNode actionNode = new ActionNode(action, context.in(action.getRowAction()));
+        final Node node = NodeBuilder.source() //
+                .to(new CompileNode(action, context.create(action.getRowAction(), rowMetadata))) //
+                .to(actionNode) //
+                .to(new TestNode()) //
+                .build();
+        final Node transformed = NodeMetricsCollector.instrument(ParallelNodeTransformer.transform(node, a -> true, 4));
+
+        // when
+        final int rowCount = ParallelNode.DEFAULT_BATCH_SIZE * 2 + 5;
+        for (int i = 0; i < rowCount; i++) {
+            transformed.exec().receive(new DataSetRow(Collections.singletonMap("0000", String.valueOf(i))), rowMetadata);
+        }
+        transformed.exec().signal(END_OF_STREAM);
+
+        // then
+        assertEquals(rowCount, actionNode.getCount());
+        assertEquals(rowCount, actionNode.getMetrics().getRowsIn());
+        assertTrue(actionNode.getMetrics().getTime() > 0);
+    }
+
+    @Test
+    public void should_not_group_actions_that_forbid_parallel_execution() {
+        // given
+        final TransformationContext context = new TransformationContext();
+        final RunnableAction action = append("_a", new AtomicInteger());
+        final RowMetadata rowMetadata = new RowMetadata();
+        final Node node = NodeBuilder.source() //
+                .to(new CompileNode(action, context.create(action.getRowAction(), rowMetadata))) //
+                .to(new ActionNode(action, context.in(action.getRowAction()))) //
+                .to(new TestNode()) //
+                .build();
+
+        // when
+        final Node transformed = ParallelNodeTransformer.transform(node, a -> false, 4);
+
+        // then
+        assertTrue(transformed.getLink().getTarget() instanceof CompileNode);
+    }
+}
@@ -0,0 +1,156 @@
+// ============================================================================
+// Copyright (C) 2006-2018 Talend Inc. - www.talend.com
+//
+// This source code is available under agreement available at
+// https://github.com/Talend/data-prep/blob/master/LICENSE
+//
+// You should have received a copy of the agreement
+// along with this program; if not, write to Talend SA
+// 9 rue Pages 92150 Suresnes, France
+//
+// ============================================================================
+
+
+package org.talend.dataprep.transformation.pipeline.node;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertSame;
+import static org.junit.Assert.assertTrue;
+import static org.mockito.Matchers.any;
+import static org.mockito.Matchers.anyVararg;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
+import static org.talend.dataprep.api.dataset.ColumnMetadata.Builder.column;
+import static org.talend.dataprep.transformation.pipeline.Signal.END_OF_STREAM;
+
+import java.util.Arrays;
+import java.util.List;
+
+import org.junit.Before;
+import org.junit.Test;
+import org.talend.dataprep.api.dataset.RowMetadata;
+import org.talend.dataprep.api.dataset.row.DataSetRow;
+import org.talend.dataprep.api.dataset.row.FlagNames;
+import org.talend.dataprep.api.type.Type;
+import org.talend.dataprep.dataset.StatisticsAdapter;
+import org.talend.dataprep.transformation.pipeline.TestNode;
+import org.talend.dataprep.transformation.pipeline.link.BasicLink;
+import org.talend.dataquality.common.inference.Analyzer;
+import org.talend.dataquality.common.inference.Analyzers;
+
+public class TypeDetectionNodeTest {
+
+    private Analyzer<Analyzers.Result> analyzer;
+
+    private StatisticsAdapter adapter;
+
+    private RowMetadata metadata;
+
+    private TestNode output;
+
+    @Before
+    @SuppressWarnings("unchecked")
+    public void setUp() {
+        analyzer = mock(Analyzer.class);
+        adapter = mock(StatisticsAdapter.class);
+        metadata = new RowMetadata(Arrays.asList(column().id(0).name("id").type(Type.STRING).build(),
+                column().id(1).name("name").type(Type.STRING).build()));
+        output = new TestNode();
+    }
+
+    private DataSetRow row(int i) {
+        final DataSetRow row = new DataSetRow(metadata);
+        row.set("0000", String.valueOf(i));
+        row.set("0001", i % 2 == 0 ? null : "name_" + i);
+        row.setTdpId((long) i);
+        return row;
+    }
+
+    @Test
+    public void should_replay_spilled_rows_in_order() {
+        // given (no memory for rows: all rows spilled to disk)
+        final TypeDetectionNode node = new TypeDetectionNode(c -> true, adapter, c -> analyzer, 0, 0);
+        node.setLink(new BasicLink(output));
+        final DataSetRow deleted = row(5);
+        deleted.setDeleted(true);
+        deleted.set(FlagNames.TDP_INVALID, "0001");
+
+        // when
+        for (int i = 0; i < 5; i++) {
+            node.exec().receive(row(i), metadata);
+        }
+        node.exec().receive(deleted, metadata);
+        assertTrue(output.getReceivedRows().isEmpty());
+        node.exec().signal(END_OF_STREAM);
+
+        // then
+        final List<DataSetRow> rows = output.getReceivedRows();
+        assertEquals(6, rows.size());
+        for (int i = 0; i < 5; i++) {
+            assertEquals(String.valueOf(i), rows.get(i).get("0000"));
+            assertEquals(i % 2 == 0 ? null : "name_" + i, rows.get(i).get("0001"));
+            assertEquals(i, rows.get(i).getTdpId().longValue());
+            assertFalse(rows.get(i).isDeleted());
+            assertEquals(metadata, rows.get(i).getRowMetadata());
+        }
+        assertTrue(rows.get(5).isDeleted());
+        assertEquals("0001", rows.get(5).get(FlagNames.TDP_INVALID));
+        verify(analyzer, times(5)).analyze(anyVararg());
+        verify(adapter).adapt(any(), any(), any());
+    }
+
+    @Test
+    public void should_detect_types_on_sample_and_pass_through_other_rows() {
+        // given
+        final TypeDetectionNode node = new TypeDetectionNode(c -> true, adapter, c -> analyzer, 3);
+        node.setLink(new BasicLink(output));
+
+        // when
+        node.exec().receive(row(0), metadata);
+        node.exec().receive(row(1), metadata);
+        assertTrue(output.getReceivedRows().isEmpty());
+        node.exec().receive(row(2), metadata);
+        assertEquals(3, output.getReceivedRows().size());
+        for (int i = 3; i < 10; i++) {
+            node.exec().receive(row(i), metadata);
+            assertEquals(i + 1, output.getReceivedRows().size());
+        }
+        node.exec().signal(END_OF_STREAM);
+
+        // then
+        for (int i = 0; i < 10; i++) {
+            assertEquals(i, output.getReceivedRows().get(i).getTdpId().longValue());
+        }
+        assertEquals(10, node.getCount());
+        verify(analyzer, times(3)).analyze(anyVararg());
+        verify(adapter).adapt(any(), any(), any());
+        assertEquals(1, output.getReceivedSignals().size());
+    }
+
+    @Test
+    public void should_send_adapted_metadata_after_sample() {
+        // given
+        final TypeDetectionNode node = new TypeDetectionNode(c -> true, adapter, c -> analyzer, 2);
+        node.setLink(new BasicLink(output));
+
+        // when
+        node.exec().receive(row(0), metadata);
+        node.exec().receive(row(1), metadata);
+        for (int i = 2; i < 5; i++) {
+            final RowMetadata incoming = metadata.clone();
+            final DataSetRow row = row(i);
+            row.setRowMetadata(incoming);
+            node.exec().receive(row, incoming);
+        }
+        node.exec().signal(END_OF_STREAM);
+
+        // then
+        assertEquals(5, output.getReceivedRows().size());
+        for (int i = 0; i < 5; i++) {
+            assertSame(metadata, output.getReceivedMetadata().get(i));
+            assertSame(metadata, output.getReceivedRows().get(i).getRowMetadata());
+        }
+    }
+}
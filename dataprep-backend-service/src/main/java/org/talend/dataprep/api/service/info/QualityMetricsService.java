@@ -0,0 +1,88 @@
+// ============================================================================
+// Copyright (C) 2006-2018 Talend Inc. - www.talend.com
+//
+// This source code is available under agreement available at
+// https://github.com/Talend/data-prep/blob/master/LICENSE
+//
+// You should have received a copy of the agreement
+// along with this program; if not, write to Talend SA
+// 9 rue Pages 92150 Suresnes, France
+//
+// ============================================================================
+
+package org.talend.dataprep.api.service.info;
+
+import static org.springframework.http.MediaType.APPLICATION_JSON_VALUE;
+import static org.springframework.web.bind.annotation.RequestMethod.GET;
+
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.web.bind.annotation.RequestMapping;
+import org.springframework.web.bind.annotation.RestController;
+import org.talend.dataprep.metrics.Timed;
+import org.talend.dataprep.quality.AnalyzerService;
+
+import io.swagger.annotations.Api;
+import io.swagger.annotations.ApiOperation;
+
+/**
+ * Rest controller that returns the metrics of the data quality analysis of the running service.
+ *
+ * @see AnalyzerService
+ */
+@RestController
+@Api(value = "quality", basePath = "/quality", description = "data quality analysis metrics of running application")
+public class QualityMetricsService {
+
+    @Autowired
+    private AnalyzerService analyzerService;
+
+    /**
+     * @return The value quality cache metrics for all analyses completed since service started.
+     */
+    @RequestMapping(value = "/quality/metrics", method = GET, produces = APPLICATION_JSON_VALUE)
+    @ApiOperation(value = "Get the value quality cache metrics", notes = "Returns the hits, lookups and hit ratio of the value quality cache.")
+    @Timed
+    public QualityCacheMetrics metrics() {
+        return new QualityCacheMetrics(analyzerService.getQualityCacheHits(), analyzerService.getQualityCacheLookups(),
+                analyzerService.getQualityCacheHitRatio());
+    }
+
+    /**
+     * Value quality cache metrics at the time they were read.
+     */
+    public static class QualityCacheMetrics {
+
+        private final long hits;
+
+        private final long lookups;
+
+        private final double hitRatio;
+
+        private QualityCacheMetrics(long hits, long lookups, double hitRatio) {
+            this.hits = hits;
+            this.lookups = lookups;
+            this.hitRatio = hitRatio;
+        }
+
+        /**
+         * @return The number of values whose quality verdict was found in cache.
+         */
+        public long getHits() {
+            return hits;
+        }
+
+        /**
+         * @return The number of values submitted to quality analysis.
+         */
+        public long getLookups() {
+            return lookups;
+        }
+
+        /**
+         * @return The ratio (between 0 and 1) of values whose quality verdict was found in cache.
+         */
+        public double getHitRatio() {
+            return hitRatio;
+        }
+    }
+}
@@ -115,6 +115,13 @@ public interface ContentCache {
     @Timed
     void clear();
 
+    /**
+     * @return The hit, miss and eviction counts of this cache (all zeros if cache does not record them).
+     */
+    default ContentCacheStatistics getStatistics() {
+        return new ContentCacheStatistics(0, 0, 0, 0);
+    }
+
     /**
      * Configure how long a cache entry may exist in cache.
      */
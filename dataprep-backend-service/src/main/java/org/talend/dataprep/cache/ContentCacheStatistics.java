@@ -0,0 +1,83 @@
+// ============================================================================
+// Copyright (C) 2006-2018 Talend Inc. - www.talend.com
+//
+// This source code is available under agreement available at
+// https://github.com/Talend/data-prep/blob/master/LICENSE
+//
+// You should have received a copy of the agreement
+// along with this program; if not, write to Talend SA
+// 9 rue Pages 92150 Suresnes, France
+//
+// ============================================================================
+
+package org.talend.dataprep.cache;
+
+/**
+ * Hit, miss and eviction counts of a {@link ContentCache} at the time they were read.
+ *
+ * @see ContentCache#getStatistics()
+ */
+public class ContentCacheStatistics {
+
+    private final long hitCount;
+
+    private final long missCount;
+
+    private final long evictionCount;
+
+    private final long size;
+
+    public ContentCacheStatistics(long hitCount, long missCount, long evictionCount, long size) {
+        this.hitCount = hitCount;
+        this.missCount = missCount;
+        this.evictionCount = evictionCount;
+        this.size = size;
+    }
+
+    /**
+     * @return The number of lookups ({@link ContentCache#has(ContentCacheKey)} or
+     * {@link ContentCache#get(ContentCacheKey)}) that found a valid entry.
+     */
+    public long getHitCount() {
+        return hitCount;
+    }
+
+    /**
+     * @return The number of lookups that did not find a valid entry.
+     */
+    public long getMissCount() {
+        return missCount;
+    }
+
+    /**
+     * @return The ratio of lookups that found a valid entry (0 if cache was never looked up).
+     */
+    public double getHitRatio() {
+        final long lookups = hitCount + missCount;
+        return lookups == 0 ? 0 : (double) hitCount / lookups;
+    }
+
+    /**
+     * @return The number of entries evicted because cache size was over its max size.
+     */
+    public long getEvictionCount() {
+        return evictionCount;
+    }
+
+    /**
+     * @return The size (in bytes) of all cache entries.
+     */
+    public long getSize() {
+        return size;
+    }
+
+    @Override
+    public String toString() {
+        return "ContentCacheStatistics{" + //
+                "hitCount=" + hitCount + //
+                ", missCount=" + missCount + //
+                ", evictionCount=" + evictionCount + //
+                ", size=" + size + //
+                '}';
+    }
+}
@@ -0,0 +1,418 @@
+// ============================================================================
+// Copyright (C) 2006-2018 Talend Inc. - www.talend.com
+//
+// This source code is available under agreement available at
+// https://github.com/Talend/data-prep/blob/master/LICENSE
+//
+// You should have received a copy of the agreement
+// along with this program; if not, write to Talend SA
+// 9 rue Pages 92150 Suresnes, France
+//
+// ============================================================================
+
+package org.talend.dataprep.cache.loader;
+
+import static org.apache.commons.lang.StringUtils.substringAfterLast;
+import static org.apache.commons.lang.StringUtils.substringBeforeLast;
+
+import java.io.IOException;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.function.Predicate;
+import java.util.stream.Collectors;
+
+import javax.annotation.PostConstruct;
+
+import org.apache.commons.lang.StringUtils;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnBean;
+import org.springframework.stereotype.Component;
+import org.talend.daikon.content.ContentServiceEnabled;
+import org.talend.daikon.content.DeletableResource;
+import org.talend.daikon.content.ResourceResolver;
+import org.talend.dataprep.cache.ContentCacheKey;
+
+/**
+ * <p>
+ * An in-memory index of the entries stored in <code>/cache</code>: for each cache key, the index keeps the location of
+ * the most recent content, its expiration time and its size. Entries are kept from the least to the most recently
+ * used, so least recently used entries are selected for eviction without sorting the index. This allows
+ * {@link ResourceLoaderContentCache} to answer <code>has</code>/<code>get</code>/<code>evict</code> without listing the
+ * cache directory and to keep track of the total size of the cache.
+ * </p>
+ * <p>
+ * Index is built when application starts and kept up to date by the {@link ResourceLoaderContentCache cache} (on
+ * put/move/evict) and the {@link DeletableResourceLoaderCacheJanitor janitor} (that also registers entries written by
+ * other processes sharing the same cache directory).
+ * </p>
+ */
+@Component
+@ConditionalOnBean(ContentServiceEnabled.class)
+public class ContentCacheIndex {
+
+    /** Root location of all cache entries. */
+    static final String CACHE_ROOT = "/cache/";
+
+    private static final Logger LOGGER = LoggerFactory.getLogger(ContentCacheIndex.class);
+
+    /**
+     * Cache entries indexed by cache key, from the least to the most recently used (guarded by <code>this</code>). Map
+     * is not in access order as only cache reads and writes are accesses (janitor lookups are not), accessed entries
+     * are moved to the end with {@link #touch(Entry)}.
+     */
+    private final LinkedHashMap<String, Entry> entries = new LinkedHashMap<>();
+
+    /** Sum of the (known) sizes of all indexed entries. */
+    private final AtomicLong totalSize = new AtomicLong();
+
+    @Autowired
+    private ResourceResolver resolver;
+
+    @PostConstruct
+    public void init() {
+        final long start = System.currentTimeMillis();
+        try {
+            for (DeletableResource resource : resolver.getResources(CACHE_ROOT + "*")) {
+                register(resource);
+            }
+            LOGGER.info("Content cache index built in {} ms ({} entries).", System.currentTimeMillis() - start,
+                    entries.size());
+        } catch (Exception e) {
+            LOGGER.warn("Unable to build content cache index (index will be filled by janitor).", e);
+        }
+    }
+
+    /**
+     * Returns the location where content for <code>key</code> should be written.
+     *
+     * @param key The cache key.
+     * @param expiry The expiration time (in ms) or a value &lt;= 0 for a permanent entry.
+     * @return The location for the cache entry.
+     */
+    static String getLocation(String key, long expiry) {
+        if (expiry > 0) {
+            return CACHE_ROOT + key + "." + expiry;
+        } else {
+            return CACHE_ROOT + key;
+        }
+    }
+
+    /**
+     * Parse a cache file name (as created by {@link #getLocation(String, long)}) into an index entry.
+     *
+     * @param fileName A file name in cache directory.
+     * @return The corresponding {@link Entry}, or <code>null</code> if file name cannot be a cache entry.
+     */
+    static Entry parse(String fileName) {
+        // Ignore "." files (hidden files like MacOS).
+        if (StringUtils.isEmpty(fileName) || fileName.startsWith(".")) {
+            return null;
+        }
+        final String suffix = substringAfterLast(fileName, ".");
+        // Ignore NFS files (may happen in local mode when NFS is used).
+        if (suffix.startsWith("nfs")) {
+            return null;
+        }
+        if (StringUtils.isEmpty(suffix)) {
+            return new Entry(fileName, CACHE_ROOT + fileName, -1);
+        }
+        try {
+            return new Entry(substringBeforeLast(fileName, "."), CACHE_ROOT + fileName, Long.parseLong(suffix));
+        } catch (NumberFormatException e) {
+            return new Entry(fileName, CACHE_ROOT + fileName, -1);
+        }
+    }
+
+    /**
+     * @param key A cache key.
+     * @return The valid (not expired) entry for <code>key</code>, <code>null</code> if there's none.
+     */
+    public synchronized Entry get(ContentCacheKey key) {
+        final Entry entry = entries.get(key.getKey());
+        if (entry == null || entry.isExpired(System.currentTimeMillis())) {
+            return null;
+        }
+        touch(entry);
+        return entry;
+    }
+
+    /**
+     * Creates a new entry for <code>key</code> (entry is <b>not</b> added to index).
+     *
+     * @param key The cache key.
+     * @param expiry The expiration time (in ms) or a value &lt;= 0 for a permanent entry.
+     * @return A new entry.
+     * @see #put(Entry)
+     */
+    public Entry newEntry(ContentCacheKey key, long expiry) {
+        return new Entry(key.getKey(), getLocation(key.getKey(), expiry), expiry);
+    }
+
+    /**
+     * Adds (or replaces) the entry for <code>entry</code>'s key.
+     *
+     * @param entry The entry to add.
+     * @return The previous entry for the same key (or <code>null</code> if there was none).
+     */
+    public synchronized Entry put(Entry entry) {
+        final Entry previous = entries.remove(entry.getKey());
+        entries.put(entry.getKey(), entry);
+        removed(previous);
+        added(entry);
+        return previous;
+    }
+
+    /**
+     * Updates the size of <code>entry</code> (once its content is fully written).
+     *
+     * @param entry The entry to update.
+     * @param size The content size in bytes.
+     */
+    public synchronized void setSize(Entry entry, long size) {
+        final Entry current = entries.computeIfPresent(entry.getKey(), (k, e) -> {
+            if (e == entry) {
+                removed(e);
+                e.setSize(size);
+                added(e);
+            }
+            return e;
+        });
+        if (current != entry) {
+            // Entry is no longer indexed: no accounting needed.
+            entry.setSize(size);
+        }
+    }
+
+    /**
+     * Removes the entry for <code>key</code> from index.
+     *
+     * @param key The cache key.
+     * @return The removed entry (or <code>null</code> if there was no entry for this key).
+     */
+    public synchronized Entry remove(ContentCacheKey key) {
+        final Entry removed = entries.remove(key.getKey());
+        removed(removed);
+        return removed;
+    }
+
+    /**
+     * Removes <code>entry</code> from index only if it is still the current entry for its key.
+     *
+     * @param entry The entry to remove.
+     * @return <code>true</code> if entry was removed from index.
+     */
+    public synchronized boolean remove(Entry entry) {
+        if (entries.remove(entry.getKey(), entry)) {
+            removed(entry);
+            return true;
+        }
+        return false;
+    }
+
+    /**
+     * Returns all entries whose file name matches the key prefix and matcher.
+     *
+     * @param key A partial cache key.
+     * @return The matching entries (expired entries included).
+     * @see ContentCacheKey#getMatcher()
+     */
+    public synchronized List<Entry> match(ContentCacheKey key) {
+        final String prefix = key.getPrefix();
+        final Predicate<String> matcher = key.getMatcher();
+        return entries.values().stream() //
+                .filter(e -> e.getKey().startsWith(prefix)) //
+                .filter(e -> matcher.test(e.getFileName())) //
+                .collect(Collectors.toList());
+    }
+
+    /**
+     * Registers an existing resource in index (if resource is more recent than the current entry for the same key).
+     *
+     * @param resource A resource in cache directory.
+     */
+    public synchronized void register(DeletableResource resource) {
+        final Entry entry = parse(resource.getFilename());
+        if (entry == null) {
+            return;
+        }
+        try {
+            if (!resource.exists()) {
+                // Resource deleted since it was listed.
+                return;
+            }
+            entry.setSize(resource.contentLength());
+        } catch (IOException e) {
+            LOGGER.debug("Unable to get size of '{}'.", resource, e);
+        }
+        final Entry current = entries.get(entry.getKey());
+        if (current == null || entry.isMoreRecentThan(current)) {
+            put(entry);
+        }
+    }
+
+    /**
+     * Removes from index the entry that points to <code>fileName</code> (if any).
+     *
+     * @param fileName A file name in cache directory.
+     */
+    public synchronized void unregister(String fileName) {
+        final Entry entry = parse(fileName);
+        if (entry != null) {
+            entries.computeIfPresent(entry.getKey(), (k, current) -> {
+                if (current.getLocation().equals(entry.getLocation())) {
+                    removed(current);
+                    return null;
+                }
+                return current;
+            });
+        }
+    }
+
+    /**
+     * Removes all entries from index.
+     */
+    public synchronized void clear() {
+        entries.clear();
+        totalSize.set(0);
+    }
+
+    /**
+     * Returns the least recently used entries to remove so that total size goes back under <code>targetSize</code>.
+     * Permanent entries are never selected (they are evicted by callers).
+     *
+     * @param targetSize The expected total size (in bytes) after eviction.
+     * @return The entries to evict, least recently used first (empty if total size is already under target).
+     */
+    public synchronized List<Entry> getEvictionCandidates(long targetSize) {
+        long toFree = totalSize.get() - targetSize;
+        if (toFree <= 0) {
+            return Collections.emptyList();
+        }
+        final List<Entry> selected = new ArrayList<>();
+        for (Entry candidate : entries.values()) {
+            if (toFree <= 0) {
+                break;
+            }
+            if (candidate.getExpiry() > 0 && candidate.getSize() > 0) {
+                selected.add(candidate);
+                toFree -= candidate.getSize();
+            }
+        }
+        return selected;
+    }
+
+    /**
+     * @return The sum of the sizes (in bytes) of all entries in index.
+     */
+    public long getTotalSize() {
+        return totalSize.get();
+    }
+
+    /**
+     * Moves <code>entry</code> to the end of the index (most recently used entries).
+     */
+    private void touch(Entry entry) {
+        entries.remove(entry.getKey());
+        entries.put(entry.getKey(), entry);
+    }
+
+    private void added(Entry entry) {
+        if (entry != null && entry.getSize() > 0) {
+            totalSize.addAndGet(entry.getSize());
+        }
+    }
+
+    private void removed(Entry entry) {
+        if (entry != null && entry.getSize() > 0) {
+            totalSize.addAndGet(-entry.getSize());
+        }
+    }
+
+    /**
+     * @return The number of entries in index.
+     */
+    public synchronized int size() {
+        return entries.size();
+    }
+
+    /**
+     * An entry in the content cache index.
+     */
+    public static class Entry {
+
+        private final String key;
+
+        private final String location;
+
+        private final long expiry;
+
+        private volatile long size = -1;
+
+        Entry(String key, String location, long expiry) {
+            this.key = key;
+            this.location = location;
+            this.expiry = expiry;
+        }
+
+        /**
+         * @return The cache key of this entry.
+         */
+        public String getKey() {
+            return key;
+        }
+
+        /**
+         * @return The resource location of this entry.
+         */
+        public String getLocation() {
+            return location;
+        }
+
+        /**
+         * @return The file name of this entry (location without the cache directory).
+         */
+        public String getFileName() {
+            return location.substring(CACHE_ROOT.length());
+        }
+
+        /**
+         * @return The expiration time in ms, a value &lt;= 0 for a permanent entry.
+         */
+        public long getExpiry() {
+            return expiry;
+        }
+
+        /**
+         * @return The size (in bytes) of the content, -1 if unknown.
+         */
+        public long getSize() {
+            return size;
+        }
+
+        void setSize(long size) {
+            this.size = size;
+        }
+
+        /**
+         * @param time A time in ms.
+         * @return <code>true</code> if entry is no longer valid at <code>time</code>.
+         */
+        public boolean isExpired(long time) {
+            return expiry > 0 && expiry <= time;
+        }
+
+        private boolean isMoreRecentThan(Entry other) {
+            return expiry <= 0 || (other.expiry > 0 && expiry > other.expiry);
+        }
+
+        @Override
+        public String toString() {
+            return "Entry{" + "location='" + location + '\'' + ", expiry=" + expiry + ", size=" + size + '}';
+        }
+    }
+}
@@ -40,6 +40,9 @@ public class DeletableResourceLoaderCacheJanitor implements CacheJanitor {
     @Autowired
     private ResourceResolver deletablePathResolver;
 
+    @Autowired
+    private ContentCacheIndex index;
+
     @PostConstruct
     public void init() {
         LOGGER.info("Using resource loader cache janitor.");
@@ -62,12 +65,18 @@ public class DeletableResourceLoaderCacheJanitor implements CacheJanitor {
             final Predicate<DeletableResource> deleteOld = resource -> cleanUpResources(totalCount, start, resource);
 
             // Perform deletes for old resources
-            stream(resources).filter(deleteOld).forEach(r -> {
-                try {
-                    deletedCount.incrementAndGet();
-                    r.delete();
-                } catch (IOException e) {
-                    LOGGER.error("Unable to delete resource {}", r, e);
+            stream(resources).forEach(r -> {
+                if (deleteOld.test(r)) {
+                    try {
+                        deletedCount.incrementAndGet();
+                        index.unregister(r.getFilename());
+                        r.delete();
+                    } catch (IOException e) {
+                        LOGGER.error("Unable to delete resource {}", r, e);
+                    }
+                } else {
+                    // Keep index in sync with entries created by other processes
+                    index.register(r);
                 }
             });
         } catch (IOException e) {
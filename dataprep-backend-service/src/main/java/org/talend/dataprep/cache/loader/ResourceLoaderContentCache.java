@@ -10,36 +10,42 @@
 //
 // ============================================================================
 
-package org.talend.dataprep.cache.loader;
 
-import static java.lang.Long.parseLong;
-import static java.util.Arrays.stream;
-import static java.util.Optional.ofNullable;
-import static java.util.function.BinaryOperator.maxBy;
-import static org.apache.commons.lang.StringUtils.substringAfterLast;
+package org.talend.dataprep.cache.loader;
 
+import java.io.FileNotFoundException;
 import java.io.IOException;
 import java.io.InputStream;
 import java.io.OutputStream;
-import java.util.Optional;
-import java.util.function.Predicate;
+import java.util.concurrent.atomic.AtomicLong;
 
-import org.apache.commons.lang.StringUtils;
+import org.apache.commons.io.output.CountingOutputStream;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
 import org.springframework.boot.autoconfigure.condition.ConditionalOnBean;
 import org.springframework.stereotype.Component;
 import org.talend.daikon.content.ContentServiceEnabled;
-import org.talend.daikon.content.DeletableResource;
 import org.talend.daikon.content.ResourceResolver;
 import org.talend.dataprep.cache.ContentCache;
 import org.talend.dataprep.cache.ContentCacheKey;
+import org.talend.dataprep.cache.ContentCacheStatistics;
 import org.talend.dataprep.exception.TDPException;
 import org.talend.dataprep.exception.error.CommonErrorCodes;
 import org.talend.dataprep.metrics.Timed;
 import org.talend.dataprep.metrics.VolumeMetered;
 
+/**
+ * <p>
+ * A {@link ContentCache} that stores entries using a {@link ResourceResolver}. Lookups are performed using the
+ * {@link ContentCacheIndex index} so they don't need to list cache directory.
+ * </p>
+ * <p>
+ * When <code>content-service.cache.max-size</code> is set (in bytes), least recently used entries are evicted as soon as
+ * total size of the cache goes over this limit (permanent entries are never evicted this way).
+ * </p>
+ */
 @Component
 @ConditionalOnBean(ContentServiceEnabled.class)
 public class ResourceLoaderContentCache implements ContentCache {
@@ -49,84 +55,129 @@ public class ResourceLoaderContentCache implements ContentCache {
     @Autowired
     private ResourceResolver resolver;
 
+    /** Ratio of the max size to go back to when cache is over capacity (avoids evicting on every put). */
+    private static final double EVICTION_TARGET_RATIO = 0.9;
+
+    @Autowired
+    private ContentCacheIndex index;
+
+    /** Max size (in bytes) of the cache, a value &lt;= 0 means no limit. */
+    @Value("${content-service.cache.max-size:-1}")
+    private long maxSize;
+
+    /** Number of lookups that found a valid entry. */
+    private final AtomicLong hitCount = new AtomicLong();
+
+    /** Number of lookups that did not find a valid entry. */
+    private final AtomicLong missCount = new AtomicLong();
+
+    /** Number of entries evicted because cache size was over its max size. */
+    private final AtomicLong evictionCount = new AtomicLong();
+
     public ResourceLoaderContentCache() {
         LOGGER.info("Using content cache: {}", this.getClass().getName());
     }
 
-    private DeletableResource getOrCreateResource(ContentCacheKey key, TimeToLive ttl) {
-        return resolver.getResource(getLocation(key, ttl));
+    private static long getExpiry(TimeToLive ttl) {
+        if (ttl.getTime() > 0) {
+            return System.currentTimeMillis() + ttl.getTime();
+        } else {
+            return -1;
+        }
     }
 
-    private String getLocation(ContentCacheKey key, TimeToLive ttl) {
-        if (ttl.getTime() > 0) {
-            return "/cache/" + key.getKey() + "." + (System.currentTimeMillis() + ttl.getTime());
+    private ContentCacheIndex.Entry lookup(ContentCacheKey key) {
+        final ContentCacheIndex.Entry entry = index.get(key);
+        if (entry == null) {
+            missCount.incrementAndGet();
         } else {
-            return "/cache/" + key.getKey();
+            hitCount.incrementAndGet();
         }
+        return entry;
     }
 
-    private DeletableResource getResource(ContentCacheKey key) {
-        try {
-            final DeletableResource[] resources = resolver.getResources( "/cache/" + key.getKey() + "*");
-            if (resources.length <= 0) {
-                return null;
-            } else { // resources.length > 0
-                final Optional<DeletableResource> reduce = stream(resources).reduce(maxBy((r1, r2) -> {
-                    final String suffix1 = substringAfterLast(r1.getFilename(), ".");
-                    final String suffix2 = substringAfterLast(r2.getFilename(), ".");
-                    if (StringUtils.isEmpty(suffix1) || StringUtils.isEmpty(suffix2)) {
-                        return 0;
-                    }
-
-                    final long i1 = parseLong(suffix1);
-                    final long i2 = parseLong(suffix2);
-                    if (i1 > i2) {
-                        return 1;
-                    } else if (i1 < i2) {
-                        return -1;
-                    } else {
-                        return 0;
-                    }
-                }));
-                return reduce.filter(r -> {
-                    final String suffix = StringUtils.substringAfterLast(r.getFilename(), ".");
-                    try {
-                        final long time = parseLong(suffix);
-                        return time > System.currentTimeMillis();
-                    } catch (NumberFormatException e) {
-                        // Ignored
-                        return true;
-                    }
-                }).orElse(null);
+    /**
+     * Evicts least recently used entries if cache size is over the configured max size.
+     */
+    private synchronized void enforceMaxSize() {
+        if (maxSize <= 0 || index.getTotalSize() <= maxSize) {
+            return;
+        }
+        for (ContentCacheIndex.Entry entry : index.getEvictionCandidates((long) (maxSize * EVICTION_TARGET_RATIO))) {
+            if (index.remove(entry)) {
+                try {
+                    delete(entry);
+                    evictionCount.incrementAndGet();
+                } catch (IOException e) {
+                    LOGGER.debug("Unable to delete cache entry {} (janitor will clean it).", entry, e);
+                }
             }
+        }
+        LOGGER.debug("Cache size after eviction: {} bytes ({} evictions so far).", index.getTotalSize(), evictionCount);
+    }
+
+    private void delete(ContentCacheIndex.Entry entry) throws IOException {
+        resolver.getResource(entry.getLocation()).delete();
+    }
+
+    /**
+     * Deletes the content of <code>previous</code> (if it's no longer used by index).
+     *
+     * @param previous An entry replaced by a more recent one.
+     * @param current The entry that replaced <code>previous</code>.
+     */
+    private void deleteReplaced(ContentCacheIndex.Entry previous, ContentCacheIndex.Entry current) {
+        if (previous == null || previous.getLocation().equals(current.getLocation())) {
+            return;
+        }
+        try {
+            delete(previous);
         } catch (IOException e) {
-            throw new TDPException(CommonErrorCodes.UNEXPECTED_EXCEPTION, e);
+            LOGGER.debug("Unable to delete replaced cache entry {} (janitor will clean it).", previous, e);
         }
     }
 
     @Timed
     @Override
     public boolean has(ContentCacheKey key) {
-        return ofNullable(getResource(key)).isPresent();
+        return lookup(key) != null;
     }
 
     @VolumeMetered
     @Override
     public InputStream get(ContentCacheKey key) {
-        return ofNullable(getResource(key)).map(r -> {
-            try {
-                return r.getInputStream();
-            } catch (IOException e) {
-                throw new TDPException(CommonErrorCodes.UNEXPECTED_EXCEPTION, e);
-            }
-        }).orElse(null);
+        final ContentCacheIndex.Entry entry = lookup(key);
+        if (entry == null) {
+            return null;
+        }
+        try {
+            return resolver.getResource(entry.getLocation()).getInputStream();
+        } catch (FileNotFoundException e) {
+            LOGGER.debug("Cache entry {} no longer exists.", entry, e);
+            index.remove(entry);
+            return null;
+        } catch (IOException e) {
+            throw new TDPException(CommonErrorCodes.UNEXPECTED_EXCEPTION, e);
+        }
     }
 
     @VolumeMetered
     @Override
     public OutputStream put(ContentCacheKey key, TimeToLive timeToLive) {
         try {
-            return getOrCreateResource(key, timeToLive).getOutputStream();
+            final ContentCacheIndex.Entry entry = index.newEntry(key, getExpiry(timeToLive));
+            final OutputStream outputStream = resolver.getResource(entry.getLocation()).getOutputStream();
+            final ContentCacheIndex.Entry previous = index.put(entry);
+            return new CountingOutputStream(outputStream) {
+
+                @Override
+                public void close() throws IOException {
+                    super.close();
+                    index.setSize(entry, getByteCount());
+                    deleteReplaced(previous, entry);
+                    enforceMaxSize();
+                }
+            };
         } catch (IOException e) {
             throw new TDPException(CommonErrorCodes.UNEXPECTED_EXCEPTION, e);
         }
@@ -135,40 +186,40 @@ public class ResourceLoaderContentCache implements ContentCache {
     @Timed
     @Override
     public void evict(ContentCacheKey key) {
-        ofNullable(getResource(key)).ifPresent(r -> {
+        final ContentCacheIndex.Entry entry = index.remove(key);
+        if (entry != null) {
             try {
-                r.delete();
+                delete(entry);
             } catch (IOException e) {
                 throw new TDPException(CommonErrorCodes.UNEXPECTED_EXCEPTION, e);
             }
-        });
+        }
     }
 
     @Timed
     @Override
     public void evictMatch(ContentCacheKey key) {
-        try {
-            final DeletableResource[] resources = resolver.getResources("/cache/" + key.getPrefix() + "**");
-            final Predicate<String> matcher = key.getMatcher();
-            stream(resources).filter(r -> matcher.test(r.getFilename())).forEach(r -> {
-                try {
-                    r.delete();
-                } catch (IOException e) {
-                    throw new TDPException(CommonErrorCodes.UNEXPECTED_EXCEPTION, e);
-                }
-            });
-        } catch (IOException e) {
-            throw new TDPException(CommonErrorCodes.UNEXPECTED_EXCEPTION, e);
+        for (ContentCacheIndex.Entry entry : index.match(key)) {
+            index.remove(entry);
+            try {
+                delete(entry);
+            } catch (IOException e) {
+                throw new TDPException(CommonErrorCodes.UNEXPECTED_EXCEPTION, e);
+            }
         }
     }
 
     @Timed
     @Override
     public void move(ContentCacheKey from, ContentCacheKey to, TimeToLive toTimeToLive) {
-        final DeletableResource resource = getResource(from);
-        if (resource != null) {
+        final ContentCacheIndex.Entry entry = index.get(from);
+        if (entry != null) {
             try {
-                resource.move(getLocation(to, toTimeToLive));
+                final ContentCacheIndex.Entry target = index.newEntry(to, getExpiry(toTimeToLive));
+                resolver.getResource(entry.getLocation()).move(target.getLocation());
+                target.setSize(entry.getSize());
+                index.remove(entry);
+                deleteReplaced(index.put(target), target);
             } catch (IOException e) {
                 throw new TDPException(CommonErrorCodes.UNEXPECTED_EXCEPTION, e);
             }
@@ -180,8 +231,14 @@ public class ResourceLoaderContentCache implements ContentCache {
     public void clear() {
         try {
             resolver.clear("/cache/**");
+            index.clear();
         } catch (IOException e) {
             throw new TDPException(CommonErrorCodes.UNEXPECTED_EXCEPTION, e);
         }
     }
+
+    @Override
+    public ContentCacheStatistics getStatistics() {
+        return new ContentCacheStatistics(hitCount.get(), missCount.get(), evictionCount.get(), index.getTotalSize());
+    }
 }
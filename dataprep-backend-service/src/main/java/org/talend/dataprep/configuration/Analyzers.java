@@ -40,6 +40,10 @@ public class Analyzers implements DisposableBean {
     @Value("#{'${semantic.threshold:40}'}")
     private int semanticThreshold;
 
+    /** Number of distinct values whose quality verdict is kept per column during analysis (0 to disable cache). */
+    @Value("${dataquality.quality.cache.size:1000}")
+    private int qualityCacheSize;
+
     @Bean
     public StatisticsAdapter statisticsAdapter() {
         return new StatisticsAdapter(semanticThreshold);
@@ -65,7 +69,9 @@ public class Analyzers implements DisposableBean {
         }
 
         LOGGER.info("DataQuality indexes location : '{}'", this.dataqualityIndexesLocation);
-        return new AnalyzerService(new StandardDictionarySnapshotProvider());
+        final AnalyzerService analyzerService = new AnalyzerService(new StandardDictionarySnapshotProvider());
+        analyzerService.setQualityCacheSize(qualityCacheSize);
+        return analyzerService;
     }
 
     @Override
@@ -98,6 +98,23 @@ public class TaskExecution {
         return getAsyncExecutor();
     }
 
+    /**
+     * @return A {@link TaskExecutor} for data set statistics, each analyzer runs in its own thread for the duration of
+     * the analysis.
+     */
+    @Bean(name = "analysis#executor")
+    TaskExecutor getAnalysisTaskExecutor() {
+        return new SimpleAsyncTaskExecutor("analysis-");
+    }
+
+    /**
+     * @return A {@link TaskExecutor} for intermediate results cached after a preparation export.
+     */
+    @Bean(name = "export#checkpoint#executor")
+    TaskExecutor getExportCheckpointTaskExecutor() {
+        return getAsyncExecutor();
+    }
+
     /**
      * @return an Authenticated task executor ready to run.
      */
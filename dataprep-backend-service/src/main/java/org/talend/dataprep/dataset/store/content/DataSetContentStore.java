@@ -14,6 +14,7 @@
 package org.talend.dataprep.dataset.store.content;
 
 import java.io.InputStream;
+import java.util.Iterator;
 import java.util.List;
 import java.util.concurrent.atomic.AtomicLong;
 import java.util.stream.Stream;
@@ -24,12 +25,14 @@ import org.springframework.beans.factory.annotation.Value;
 import org.talend.dataprep.api.dataset.ColumnMetadata;
 import org.talend.dataprep.api.dataset.DataSetContent;
 import org.talend.dataprep.api.dataset.DataSetMetadata;
+import org.talend.dataprep.api.dataset.binary.DataSetRowBinaryIterator;
 import org.talend.dataprep.api.dataset.json.DataSetRowIterator;
 import org.talend.dataprep.api.dataset.row.DataSetRow;
 import org.talend.dataprep.api.dataset.row.InvalidMarker;
 import org.talend.dataprep.exception.TDPException;
 import org.talend.dataprep.exception.error.CommonErrorCodes;
 import org.talend.dataprep.quality.AnalyzerService;
+import org.talend.dataprep.schema.BinarySerializer;
 import org.talend.dataprep.schema.FormatFamilyFactory;
 import org.talend.dataprep.schema.Serializer;
 import org.talend.dataquality.common.inference.Analyzer;
@@ -129,34 +132,104 @@ public abstract class DataSetContentStore {
      * @return A valid <b>{@link DataSetRow}</b> stream.
      */
     public Stream<DataSetRow> stream(DataSetMetadata dataSetMetadata, long limit) {
-        final InputStream inputStream = get(dataSetMetadata, limit);
-        final DataSetRowIterator iterator = new DataSetRowIterator(inputStream);
+        return decorate(dataSetMetadata, rows(dataSetMetadata, limit), 1);
+    }
+
+    /**
+     * Returns the same rows as {@link #stream(DataSetMetadata)} but without quality analysis: values are not marked as
+     * invalid and rows have no TDP id. This is intended for callers that run their own analysis on the content.
+     *
+     * @param dataSetMetadata The {@link DataSetMetadata data set} to read rows from.
+     * @return A valid <b>{@link DataSetRow}</b> stream.
+     */
+    public Stream<DataSetRow> streamUnmarked(DataSetMetadata dataSetMetadata) {
+        return rows(dataSetMetadata, sampleSize);
+    }
+
+    /**
+     * Returns a range of the data set rows: rows from index <code>from</code> (inclusive) to index <code>to</code>
+     * (exclusive). Rows have the same TDP ids as in the full {@link #stream(DataSetMetadata, long) stream}, this allows
+     * several consumers to read distinct parts of the same data set.
+     *
+     * @param dataSetMetadata The {@link DataSetMetadata data set} to read rows from.
+     * @param from The index of the first row to return.
+     * @param to The index after the last row to return (use -1 for "up to the last row").
+     * @return A valid <b>{@link DataSetRow}</b> stream.
+     */
+    public Stream<DataSetRow> stream(DataSetMetadata dataSetMetadata, long from, long to) {
+        return decorate(dataSetMetadata, rows(dataSetMetadata, from, to), from + 1);
+    }
+
+    /**
+     * Returns the (non empty) rows of the data set, before any quality analysis or TDP id assignment. Closing the
+     * returned stream releases all resources used to read content.
+     *
+     * @param dataSetMetadata The {@link DataSetMetadata data set} to read rows from.
+     * @param limit A limit to pass to raw content supplier (use -1 for "no limit).
+     * @return The data set rows.
+     */
+    protected Stream<DataSetRow> rows(DataSetMetadata dataSetMetadata, long limit) {
+        // Rows are consumed within this service: prefer binary format over JSON when serializer supports it.
+        final Serializer serializer = factory.getFormatFamily(dataSetMetadata.getContent().getFormatFamilyId()).getSerializer();
+        final InputStream inputStream;
+        final Iterator<DataSetRow> iterator;
+        if (serializer instanceof BinarySerializer) {
+            inputStream = ((BinarySerializer) serializer).serializeAsBinary(getAsRaw(dataSetMetadata, limit), dataSetMetadata, limit);
+            iterator = new DataSetRowBinaryIterator(inputStream);
+        } else {
+            inputStream = get(dataSetMetadata, limit);
+            iterator = new DataSetRowIterator(inputStream);
+        }
         final Iterable<DataSetRow> rowIterable = () -> iterator;
-        Stream<DataSetRow> dataSetRowStream = StreamSupport.stream(rowIterable.spliterator(), false);
 
         // make sure to close the original input stream when closing this one
-        AtomicLong tdpId = new AtomicLong(1);
+        return StreamSupport.stream(rowIterable.spliterator(), false) //
+                .filter(r -> !r.isEmpty()) //
+                .onClose(() -> { //
+                    try {
+                        inputStream.close();
+                    } catch (Exception e) {
+                        throw new TDPException(CommonErrorCodes.UNEXPECTED_EXCEPTION, e);
+                    }
+                });
+    }
+
+    /**
+     * Returns a range of the (non empty) rows of the data set, see {@link #rows(DataSetMetadata, long)}. Default
+     * implementation reads and skips all rows before <code>from</code>, implementations with random access to rows are
+     * encouraged to override this method.
+     *
+     * @param dataSetMetadata The {@link DataSetMetadata data set} to read rows from.
+     * @param from The index of the first row to return.
+     * @param to The index after the last row to return (use -1 for "up to the last row").
+     * @return The data set rows in range.
+     */
+    protected Stream<DataSetRow> rows(DataSetMetadata dataSetMetadata, long from, long to) {
+        final Stream<DataSetRow> rows = rows(dataSetMetadata, -1).skip(from);
+        return to < 0 ? rows : rows.limit(Math.max(0, to - from));
+    }
+
+    /**
+     * Runs quality analysis on <code>rows</code> (to mark invalid values) and assigns TDP ids. Closing the returned
+     * stream closes the quality analyzer.
+     */
+    private Stream<DataSetRow> decorate(DataSetMetadata dataSetMetadata, Stream<DataSetRow> rows, long firstTdpId) {
+        AtomicLong tdpId = new AtomicLong(firstTdpId);
         final List<ColumnMetadata> columns = dataSetMetadata.getRowMetadata().getColumns();
         final Analyzer<Analyzers.Result> analyzer = service.build(columns, AnalyzerService.Analysis.QUALITY);
 
-        dataSetRowStream = dataSetRowStream.filter(r -> !r.isEmpty()).map(r -> {
-            final String[] values = r.order(columns).toArray(DataSetRow.SKIP_TDP_ID);
-            analyzer.analyze(values);
-            return r;
-        }) //
-        .map(new InvalidMarker(columns, analyzer)) // Mark invalid columns as detected by provided analyzer.
-        .map(r -> { //
-            r.setTdpId(tdpId.getAndIncrement());
-            return r;
-        }).onClose(() -> { //
-            try {
-                inputStream.close();
-            } catch (Exception e) {
-                throw new TDPException(CommonErrorCodes.UNEXPECTED_EXCEPTION, e);
-            }
-        });
-
-        return dataSetRowStream;
+        return rows.map(new InvalidMarker(columns, analyzer)) // Mark invalid columns as detected by provided analyzer.
+                .map(r -> { //
+                    r.setTdpId(tdpId.getAndIncrement());
+                    return r;
+                }) //
+                .onClose(() -> { //
+                    try {
+                        analyzer.close();
+                    } catch (Exception e) {
+                        throw new TDPException(CommonErrorCodes.UNEXPECTED_EXCEPTION, e);
+                    }
+                });
     }
 
     /**
@@ -54,6 +54,32 @@ class LimitDataSetContent implements DataSetContentLimit {
             return dataSetRowStream.limit(limit);
         }
 
+        @Override
+        protected Stream<DataSetRow> rows(DataSetMetadata dataSetMetadata, long limit) {
+            return delegate.rows(dataSetMetadata, clamp(limit));
+        }
+
+        @Override
+        protected Stream<DataSetRow> rows(DataSetMetadata dataSetMetadata, long from, long to) {
+            final long clampedTo = clamp(to);
+            if (clampedTo >= 0 && from >= clampedTo) {
+                return Stream.empty();
+            }
+            return delegate.rows(dataSetMetadata, from, clampedTo);
+        }
+
+        /**
+         * @param requested A requested limit or end of range (-1 for "no limit").
+         * @return The requested limit if it is within the data set size limit, the size limit otherwise (size limit is
+         * ignored if it is <= 0).
+         */
+        private long clamp(long requested) {
+            if (limit <= 0) {
+                return requested;
+            }
+            return requested < 0 ? limit : Math.min(requested, limit);
+        }
+
         @Override
         public InputStream getAsRaw(DataSetMetadata dataSetMetadata) {
             return delegate.getAsRaw(dataSetMetadata, limit);
@@ -19,7 +19,13 @@ import java.io.FileInputStream;
 import java.io.FileOutputStream;
 import java.io.IOException;
 import java.util.Arrays;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.Map;
 import java.util.Objects;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.function.Function;
 import java.util.stream.Stream;
 import java.util.zip.GZIPInputStream;
 import java.util.zip.GZIPOutputStream;
@@ -36,15 +42,22 @@ import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
 import org.springframework.stereotype.Component;
 import org.talend.daikon.exception.ExceptionContext;
 import org.talend.dataprep.api.preparation.Identifiable;
+import org.talend.dataprep.api.preparation.Preparation;
 import org.talend.dataprep.api.preparation.PreparationActions;
 import org.talend.dataprep.api.preparation.Step;
 import org.talend.dataprep.exception.TDPException;
 import org.talend.dataprep.exception.error.CommonErrorCodes;
 import org.talend.dataprep.preparation.store.ObjectPreparationRepository;
+import org.talend.dataprep.preparation.store.PersistentPreparation;
 import org.talend.dataprep.preparation.store.PersistentStep;
 import org.talend.dataprep.preparation.store.PreparationRepository;
 import org.talend.dataprep.security.Security;
 import org.talend.dataprep.util.FilesHelper;
+import org.talend.tql.model.ComparisonExpression;
+import org.talend.tql.model.ComparisonOperator;
+import org.talend.tql.model.Expression;
+import org.talend.tql.model.FieldReference;
+import org.talend.tql.model.LiteralValue;
 
 import com.fasterxml.jackson.databind.ObjectMapper;
 
@@ -59,6 +72,20 @@ public class FileSystemPreparationRepository extends ObjectPreparationRepository
     /** This class' logger. */
     private static final Logger LOG = LoggerFactory.getLogger(FileSystemPreparationRepository.class);
 
+    /** Properties that can be looked up without reading all objects (when cache is enabled), by class simple name. */
+    private static final Map<String, Map<String, Function<Identifiable, String>>> INDEXED_PROPERTIES = new HashMap<>();
+
+    static {
+        INDEXED_PROPERTIES.put(PersistentPreparation.class.getSimpleName(),
+                Collections.singletonMap("dataSetId", o -> ((PersistentPreparation) o).getDataSetId()));
+        INDEXED_PROPERTIES.put(Preparation.class.getSimpleName(),
+                Collections.singletonMap("dataSetId", o -> ((Preparation) o).getDataSetId()));
+        final Map<String, Function<Identifiable, String>> stepProperties = new HashMap<>();
+        stepProperties.put("contentId", o -> ((PersistentStep) o).getContentId());
+        stepProperties.put("parentId", o -> ((PersistentStep) o).getParentId());
+        INDEXED_PROPERTIES.put(PersistentStep.class.getSimpleName(), stepProperties);
+    }
+
     /** The dataprep ready jackson builder. */
     @Autowired
     private ObjectMapper mapper;
@@ -71,6 +98,16 @@ public class FileSystemPreparationRepository extends ObjectPreparationRepository
     @Autowired
     private Security security;
 
+    /**
+     * <code>true</code> to keep a copy of stored objects in memory. This must only be enabled when this process is the
+     * only one to update the store folder.
+     */
+    @Value("${preparation.store.file.cache.enabled:false}")
+    private boolean cacheEnabled;
+
+    /** In-memory copies of the stored objects (when cache is enabled), by class simple name. */
+    private final Map<String, IdentifiableCache> caches = new ConcurrentHashMap<>();
+
     /**
      * Make sure the root folder is there.
      */
@@ -103,18 +140,100 @@ public class FileSystemPreparationRepository extends ObjectPreparationRepository
             LOG.error("Unable to prepare file for {}.", object, e);
         }
 
+        final byte[] content;
         try (GZIPOutputStream output = new GZIPOutputStream(new FileOutputStream(outputFile))) {
-            mapper.writer().writeValue(output, object);
+            content = mapper.writer().writeValueAsBytes(object);
+            output.write(content);
         } catch (IOException e) {
             LOG.error("Error saving {}", object, e);
             throw new TDPException(CommonErrorCodes.UNABLE_TO_SAVE_PREPARATION, e,
                     ExceptionContext.build().put("id", object.id()));
         }
+        if (cacheEnabled) {
+            getCache(object.getClass()).put(object, content);
+        }
         LOG.debug("{} #{} saved", object.getClass().getSimpleName(), object.id());
     }
 
+    /**
+     * Reads the file of the object (or its cached copy) instead of scanning all the objects of <code>clazz</code>.
+     *
+     * @see PreparationRepository#get(String, Class)
+     */
+    @Override
+    public <T extends Identifiable> T get(String id, Class<T> clazz) {
+        if (StringUtils.isBlank(id) || StringUtils.containsAny(id, "/\\")) {
+            return null;
+        }
+        final T result;
+        if (cacheEnabled) {
+            result = fromCache(getCache(clazz), stripOptionalPrefix(clazz, id), clazz);
+        } else {
+            result = read(id, clazz);
+        }
+        // Same checks as a scan: object must be of the expected class and have the expected id.
+        if (result != null && clazz.isAssignableFrom(result.getClass()) && id.equals(result.getId())) {
+            return result;
+        }
+        return null;
+    }
+
+    @Override
+    public <T extends Identifiable> boolean exist(Class<T> clazz, Expression expression) {
+        final Set<String> ids = lookup(clazz, expression);
+        if (ids == null) {
+            return super.exist(clazz, expression);
+        }
+        return ids.stream().anyMatch(id -> get(id, clazz) != null);
+    }
+
+    @Override
+    public <T extends Identifiable> Stream<T> list(Class<T> clazz, Expression expression) {
+        final Set<String> ids = lookup(clazz, expression);
+        if (ids == null) {
+            return super.list(clazz, expression);
+        }
+        return ids.stream().map(id -> get(id, clazz)).filter(Objects::nonNull);
+    }
+
+    /**
+     * Returns the ids of the objects that match <code>expression</code> when this can be done without reading all
+     * objects: <code>expression</code> must be an equality on the id or (if cache is enabled) on an indexed property.
+     *
+     * @param clazz The class of the objects to look up.
+     * @param expression A TQL expression on <code>clazz</code> objects.
+     * @return The ids of the matching objects, or <code>null</code> if all objects need to be scanned.
+     */
+    private Set<String> lookup(Class<? extends Identifiable> clazz, Expression expression) {
+        if (!(expression instanceof ComparisonExpression)) {
+            return null;
+        }
+        final ComparisonExpression comparison = (ComparisonExpression) expression;
+        if (comparison.getOperator().getOperator() != ComparisonOperator.Enum.EQ
+                || !(comparison.getField() instanceof FieldReference)
+                || !(comparison.getValueOrField() instanceof LiteralValue)) {
+            return null;
+        }
+        final String property = ((FieldReference) comparison.getField()).getPath();
+        final String value = ((LiteralValue) comparison.getValueOrField()).getValue();
+        if ("id".equals(property)) {
+            return Collections.singleton(value);
+        }
+        if (cacheEnabled) {
+            final IdentifiableCache cache = getCache(clazz);
+            if (cache.isIndexed(property)) {
+                return cache.lookup(property, value);
+            }
+        }
+        return null;
+    }
+
     @Override
     public <T extends Identifiable> Stream<T> source(Class<T> clazz) {
+        if (cacheEnabled) {
+            final IdentifiableCache cache = getCache(clazz);
+            return cache.ids().stream().map(id -> fromCache(cache, id, clazz)).filter(Objects::nonNull);
+        }
         File[] files = getRootFolder().listFiles();
         if (files == null) {
             LOG.error("error listing preparations");
@@ -152,6 +271,46 @@ public class FileSystemPreparationRepository extends ObjectPreparationRepository
         return result;
     }
 
+    /**
+     * @param clazz The class of the objects.
+     * @return The cache for <code>clazz</code> objects, filled with all objects in store on first call.
+     */
+    private IdentifiableCache getCache(Class<? extends Identifiable> clazz) {
+        return caches.computeIfAbsent(clazz.getSimpleName(), name -> {
+            final long start = System.currentTimeMillis();
+            final IdentifiableCache cache = new IdentifiableCache(
+                    INDEXED_PROPERTIES.getOrDefault(name, Collections.emptyMap()));
+            final File[] files = getRootFolder().listFiles((dir, fileName) -> fileName.startsWith(name + '-'));
+            if (files != null) {
+                for (File file : files) {
+                    final Identifiable object = read(file.getName(), clazz);
+                    if (object != null) {
+                        try {
+                            cache.put(object, mapper.writer().writeValueAsBytes(object));
+                        } catch (IOException e) {
+                            LOG.error("Unable to cache {}", file.getName(), e);
+                        }
+                    }
+                }
+            }
+            LOG.debug("{} cache loaded in {} ms.", name, System.currentTimeMillis() - start);
+            return cache;
+        });
+    }
+
+    private <T extends Identifiable> T fromCache(IdentifiableCache cache, String id, Class<T> clazz) {
+        final byte[] content = id == null ? null : cache.get(id);
+        if (content == null) {
+            return null;
+        }
+        try {
+            return mapper.readerFor(clazz).readValue(content);
+        } catch (IOException e) {
+            LOG.error("error reading cached {} #{}", clazz.getSimpleName(), id, e);
+            return null;
+        }
+    }
+
     /**
      * @see PreparationRepository#clear()
      */
@@ -166,6 +325,7 @@ public class FileSystemPreparationRepository extends ObjectPreparationRepository
             }
         }
 
+        caches.clear();
         LOG.debug("preparation repository cleared");
     }
 
@@ -179,6 +339,10 @@ public class FileSystemPreparationRepository extends ObjectPreparationRepository
         }
         final File file = getIdentifiableFile(object);
         FilesHelper.deleteQuietly(file);
+        final IdentifiableCache cache = caches.get(object.getClass().getSimpleName());
+        if (cache != null) {
+            cache.remove(object.id());
+        }
         LOG.debug("identifiable {} #{} removed", object.getClass().getSimpleName(), object.id());
     }
 
@@ -0,0 +1,137 @@
+// ============================================================================
+// Copyright (C) 2006-2018 Talend Inc. - www.talend.com
+//
+// This source code is available under agreement available at
+// https://github.com/Talend/data-prep/blob/master/LICENSE
+//
+// You should have received a copy of the agreement
+// along with this program; if not, write to Talend SA
+// 9 rue Pages 92150 Suresnes, France
+//
+// ============================================================================
+
+
+package org.talend.dataprep.preparation.store.file;
+
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.function.Function;
+
+import org.talend.dataprep.api.preparation.Identifiable;
+
+/**
+ * <p>
+ * In-memory copy of the objects of one class stored by {@link FileSystemPreparationRepository}, with secondary indexes
+ * on some of their properties.
+ * </p>
+ * <p>
+ * Objects are kept serialized (uncompressed JSON) so callers never share instances with the cache: modifying an object
+ * returned by the repository has no effect until it is added again.
+ * </p>
+ */
+class IdentifiableCache {
+
+    /** Serialized objects, by id. */
+    private final Map<String, byte[]> contents = new ConcurrentHashMap<>();
+
+    /** Functions to get the indexed property values of an object, by property name. */
+    private final Map<String, Function<Identifiable, String>> indexedProperties;
+
+    /** For each indexed property, the ids of the objects by property value (guarded by <code>this</code>). */
+    private final Map<String, Map<String, Set<String>>> indexes = new HashMap<>();
+
+    /** The indexed values of each object, by id (guarded by <code>this</code>). */
+    private final Map<String, Map<String, String>> indexedValues = new HashMap<>();
+
+    IdentifiableCache(Map<String, Function<Identifiable, String>> indexedProperties) {
+        this.indexedProperties = indexedProperties;
+        for (String property : indexedProperties.keySet()) {
+            indexes.put(property, new HashMap<>());
+        }
+    }
+
+    /**
+     * @param id An object id.
+     * @return The serialized object, <code>null</code> if not in cache.
+     */
+    byte[] get(String id) {
+        return contents.get(id);
+    }
+
+    /**
+     * @return The ids of all the objects in cache.
+     */
+    Set<String> ids() {
+        return new HashSet<>(contents.keySet());
+    }
+
+    /**
+     * Adds (or replaces) an object.
+     *
+     * @param object The object to add.
+     * @param content The serialized object.
+     */
+    synchronized void put(Identifiable object, byte[] content) {
+        final String id = object.id();
+        unindex(id);
+        final Map<String, String> values = new HashMap<>();
+        for (Map.Entry<String, Function<Identifiable, String>> property : indexedProperties.entrySet()) {
+            final String value = property.getValue().apply(object);
+            if (value != null) {
+                values.put(property.getKey(), value);
+                indexes.get(property.getKey()).computeIfAbsent(value, v -> new HashSet<>()).add(id);
+            }
+        }
+        indexedValues.put(id, values);
+        contents.put(id, content);
+    }
+
+    /**
+     * Removes an object.
+     *
+     * @param id The object id.
+     */
+    synchronized void remove(String id) {
+        contents.remove(id);
+        unindex(id);
+    }
+
+    /**
+     * @param property A property name.
+     * @return <code>true</code> if objects can be looked up by this property.
+     * @see #lookup(String, String)
+     */
+    boolean isIndexed(String property) {
+        return indexedProperties.containsKey(property);
+    }
+
+    /**
+     * @param property An {@link #isIndexed(String) indexed} property.
+     * @param value A property value.
+     * @return The ids of the objects whose <code>property</code> equals <code>value</code>.
+     */
+    synchronized Set<String> lookup(String property, String value) {
+        final Set<String> ids = indexes.get(property).get(value);
+        return ids == null ? Collections.emptySet() : new HashSet<>(ids);
+    }
+
+    private void unindex(String id) {
+        final Map<String, String> previous = indexedValues.remove(id);
+        if (previous != null) {
+            for (Map.Entry<String, String> value : previous.entrySet()) {
+                final Map<String, Set<String>> index = indexes.get(value.getKey());
+                final Set<String> ids = index.get(value.getValue());
+                if (ids != null) {
+                    ids.remove(id);
+                    if (ids.isEmpty()) {
+                        index.remove(value.getValue());
+                    }
+                }
+            }
+        }
+    }
+}
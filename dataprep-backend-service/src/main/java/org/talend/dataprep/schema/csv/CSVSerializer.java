@@ -18,6 +18,7 @@ import static org.talend.dataprep.schema.csv.CSVFormatFamily.TEXT_ENCLOSURE_CHAR
 import java.io.*;
 import java.util.List;
 import java.util.Map;
+import java.util.stream.Collectors;
 
 import javax.annotation.Resource;
 
@@ -29,9 +30,10 @@ import org.springframework.core.task.TaskExecutor;
 import org.springframework.stereotype.Service;
 import org.talend.dataprep.api.dataset.ColumnMetadata;
 import org.talend.dataprep.api.dataset.DataSetMetadata;
+import org.talend.dataprep.api.dataset.binary.DataSetRowBinaryWriter;
 import org.talend.dataprep.exception.TDPException;
 import org.talend.dataprep.exception.error.CommonErrorCodes;
-import org.talend.dataprep.schema.Serializer;
+import org.talend.dataprep.schema.BinarySerializer;
 
 import com.fasterxml.jackson.core.JsonFactory;
 import com.fasterxml.jackson.core.JsonGenerator;
@@ -39,7 +41,7 @@ import com.fasterxml.jackson.core.JsonGenerator;
 import au.com.bytecode.opencsv.CSVReader;
 
 @Service("serializer#csv")
-public class CSVSerializer implements Serializer {
+public class CSVSerializer implements BinarySerializer {
 
     /** This class' logger. */
     private static final Logger LOGGER = LoggerFactory.getLogger(CSVSerializer.class);
@@ -58,9 +60,18 @@ public class CSVSerializer implements Serializer {
 
     @Override
     public InputStream serialize(InputStream rawContent, DataSetMetadata metadata, long limit) {
+        return serialize(rawContent, metadata, limit, JsonLineWriter::new);
+    }
+
+    @Override
+    public InputStream serializeAsBinary(InputStream rawContent, DataSetMetadata metadata, long limit) {
+        return serialize(rawContent, metadata, limit, BinaryLineWriter::new);
+    }
+
+    private InputStream serialize(InputStream rawContent, DataSetMetadata metadata, long limit, LineWriterFactory writerFactory) {
         try {
             PipedInputStream pipe = new PipedInputStream();
-            PipedOutputStream jsonOutput = new PipedOutputStream(pipe);
+            PipedOutputStream output = new PipedOutputStream(pipe);
             // Serialize asynchronously for better performance (especially if caller doesn't consume all, see sampling).
             Runnable r = () -> {
                 final Map<String, String> parameters = metadata.getContent().getParameters();
@@ -72,15 +83,14 @@ public class CSVSerializer implements Serializer {
                 try (InputStreamReader input = new InputStreamReader(rawContent, metadata.getEncoding());
                         CSVReader reader = new CSVReader(input, actualSeparator, textEnclosureChar, escapeChar)) {
 
-                    JsonGenerator generator = new JsonFactory().createGenerator(jsonOutput);
+                    final List<ColumnMetadata> columns = metadata.getRowMetadata().getColumns();
+                    final LineWriter writer = writerFactory.create(output, columns);
                     int i = 0;
                     while (i++ < metadata.getContent().getNbLinesInHeader()) {
                         reader.readNext(); // Skip all header lines
                     }
-                    generator.writeStartArray();
-                    writeLineContent(reader, metadata, generator, separator, limit);
-                    generator.writeEndArray();
-                    generator.flush();
+                    writeLineContent(reader, columns, writer, separator, limit);
+                    writer.end();
                 } catch (Exception e) {
                     // Consumer may very well interrupt consumption of stream (in case of limit(n) use for sampling).
                     // This is not an issue as consumer is allowed to partially consumes results, it's up to the
@@ -88,7 +98,7 @@ public class CSVSerializer implements Serializer {
                     LOGGER.debug("Unable to continue serialization for {}. Skipping remaining content.", metadata.getId(), e);
                 } finally {
                     try {
-                        jsonOutput.close();
+                        output.close();
                     } catch (IOException e) {
                         LOGGER.error("Unable to close output", e);
                     }
@@ -124,16 +134,18 @@ public class CSVSerializer implements Serializer {
      * Write the line content.
      *
      * @param reader the csv reader to use as data source.
-     * @param metadata the dataset metadata to use to get the columns.
-     * @param generator the json generator used to actually write the line content.
+     * @param columns the dataset columns.
+     * @param writer the writer used to actually write the line content.
      * @param separator the csv separator to use.
      * @param limit The maximum number of lines in the exported content.
      * @throws IOException if an error occurs.
      */
-    private void writeLineContent(CSVReader reader, DataSetMetadata metadata, JsonGenerator generator, String separator,
+    private void writeLineContent(CSVReader reader, List<ColumnMetadata> columns, LineWriter writer, String separator,
             long limit) throws IOException {
         String[] line;
         int current = 0;
+        final int columnsSize = columns.size();
+        final String[] values = new String[columnsSize];
 
         while ((line = reader.readNext()) != null && withinLimit(limit, current)) {
             // skip empty lines
@@ -141,29 +153,22 @@ public class CSVSerializer implements Serializer {
                 continue;
             }
 
-            List<ColumnMetadata> columns = metadata.getRowMetadata().getColumns();
-            generator.writeStartObject();
-            int columnsSize = columns.size();
             for (int i = 0; i < columnsSize; i++) {
-                ColumnMetadata columnMetadata = columns.get(i);
-
-                generator.writeFieldName(columnMetadata.getId());
-
                 // deal with additional content (line.length > columns.size)
                 if (i == columnsSize - 1 && line.length > columnsSize) {
                     String additionalContent = getRemainingColumns(line, i, separator);
-                    generator.writeString(cleanCharacters(additionalContent));
+                    values[i] = cleanCharacters(additionalContent);
                 }
                 // deal with fewer content (line.length < columns.size)
                 else if (i < line.length && line[i] != null) {
-                    generator.writeString(cleanCharacters(line[i]));
+                    values[i] = cleanCharacters(line[i]);
                 }
                 // deal with null
                 else {
-                    generator.writeNull();
+                    values[i] = null;
                 }
             }
-            generator.writeEndObject();
+            writer.write(values);
             current++;
         }
     }
@@ -194,4 +199,85 @@ public class CSVSerializer implements Serializer {
         }
         return buffer.toString();
     }
+
+    /**
+     * Creates a {@link LineWriter} for an output.
+     */
+    @FunctionalInterface
+    private interface LineWriterFactory {
+
+        LineWriter create(OutputStream output, List<ColumnMetadata> columns) throws IOException;
+    }
+
+    /**
+     * Writes CSV lines (as values ordered by columns) to an output.
+     */
+    private interface LineWriter {
+
+        void write(String[] values) throws IOException;
+
+        /**
+         * Called once all lines were successfully written.
+         */
+        void end() throws IOException;
+    }
+
+    /**
+     * Writes lines as a JSON array of objects (one object per line).
+     */
+    private static class JsonLineWriter implements LineWriter {
+
+        private final JsonGenerator generator;
+
+        private final List<ColumnMetadata> columns;
+
+        private JsonLineWriter(OutputStream output, List<ColumnMetadata> columns) throws IOException {
+            this.generator = new JsonFactory().createGenerator(output);
+            this.columns = columns;
+            generator.writeStartArray();
+        }
+
+        @Override
+        public void write(String[] values) throws IOException {
+            generator.writeStartObject();
+            for (int i = 0; i < values.length; i++) {
+                generator.writeFieldName(columns.get(i).getId());
+                if (values[i] != null) {
+                    generator.writeString(values[i]);
+                } else {
+                    generator.writeNull();
+                }
+            }
+            generator.writeEndObject();
+        }
+
+        @Override
+        public void end() throws IOException {
+            generator.writeEndArray();
+            generator.flush();
+        }
+    }
+
+    /**
+     * Writes lines using the internal binary row format.
+     */
+    private static class BinaryLineWriter implements LineWriter {
+
+        private final DataSetRowBinaryWriter writer;
+
+        private BinaryLineWriter(OutputStream output, List<ColumnMetadata> columns) throws IOException {
+            final List<String> columnIds = columns.stream().map(ColumnMetadata::getId).collect(Collectors.toList());
+            this.writer = new DataSetRowBinaryWriter(output, columnIds);
+        }
+
+        @Override
+        public void write(String[] values) throws IOException {
+            writer.write(values);
+        }
+
+        @Override
+        public void end() throws IOException {
+            writer.close();
+        }
+    }
 }
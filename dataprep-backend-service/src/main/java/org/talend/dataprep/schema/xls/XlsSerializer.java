@@ -62,18 +62,14 @@ public class XlsSerializer implements Serializer {
             PipedInputStream pipe = new PipedInputStream();
             PipedOutputStream jsonOutput = new PipedOutputStream(pipe);
 
-            // override the parameter in case it needs to be wrapped in a buffered inputstream
+            // Only peek at the first bytes to detect format: a mark on the whole content would keep the workbook in
+            // memory while it is parsed.
             InputStream inputStream = givenInputStream;
             if (!inputStream.markSupported()) {
-                inputStream = new BufferedInputStream(inputStream);
+                inputStream = new PushbackInputStream(inputStream, 8);
             }
-
-            inputStream.mark(Integer.MAX_VALUE);
-
             boolean newExcelFormat = XlsUtils.isNewExcelFormat(inputStream);
 
-            inputStream.reset();
-
             Runnable runnable = newExcelFormat ? //
                     serializeNew(inputStream, metadata, limit, jsonOutput) : serializeOld(inputStream, metadata, limit, jsonOutput);
 
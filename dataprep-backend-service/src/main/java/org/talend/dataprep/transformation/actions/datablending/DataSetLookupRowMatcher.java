@@ -17,27 +17,31 @@ import static org.talend.dataprep.transformation.actions.datablending.Lookup.Par
 
 import java.io.IOException;
 import java.io.InputStream;
-import java.util.HashMap;
-import java.util.Iterator;
 import java.util.List;
 import java.util.Map;
+import java.util.TreeMap;
+import java.util.stream.Collectors;
+import java.util.stream.Stream;
 
 import javax.annotation.PostConstruct;
 
 import org.apache.commons.lang.StringUtils;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
-import org.springframework.beans.factory.DisposableBean;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.context.ApplicationContext;
 import org.springframework.context.annotation.Lazy;
 import org.springframework.context.annotation.Scope;
 import org.springframework.stereotype.Component;
+import org.talend.daikon.exception.ExceptionContext;
 import org.talend.dataprep.api.dataset.ColumnMetadata;
 import org.talend.dataprep.api.dataset.DataSet;
+import org.talend.dataprep.api.dataset.DataSetContent;
+import org.talend.dataprep.api.dataset.DataSetMetadata;
 import org.talend.dataprep.api.dataset.RowMetadata;
 import org.talend.dataprep.api.dataset.row.DataSetRow;
 import org.talend.dataprep.command.dataset.DataSetGet;
+import org.talend.dataprep.command.dataset.DataSetGetMetadata;
 import org.talend.dataprep.exception.TDPException;
 import org.talend.dataprep.exception.error.TransformationErrorCodes;
 
@@ -45,11 +49,13 @@ import com.fasterxml.jackson.core.JsonParser;
 import com.fasterxml.jackson.databind.ObjectMapper;
 
 /**
- *
+ * A {@link LookupRowMatcher} for a lookup data set served by the data set service. Rows are found in a
+ * {@link LookupIndex} shared (through {@link LookupIndexService}) by all the executions that use the same version of
+ * the lookup data set content.
  */
 @Component
 @Scope("prototype")
-public class DataSetLookupRowMatcher implements DisposableBean, LookupRowMatcher {
+public class DataSetLookupRowMatcher implements LookupRowMatcher {
 
     /** This class' logger. */
     private static final Logger LOGGER = LoggerFactory.getLogger(DataSetLookupRowMatcher.class);
@@ -63,20 +69,27 @@ public class DataSetLookupRowMatcher implements DisposableBean, LookupRowMatcher
     @Autowired
     private ApplicationContext context;
 
+    /** The shared lookup indexes. */
+    @Autowired
+    private LookupIndexService indexService;
+
     /** The dataset id to lookup. */
     private String datasetId;
 
-    /** The dataset lookup input stream. */
-    private InputStream input;
+    /** The version of the lookup dataset content. */
+    private String version;
 
-    /** Lookup row iterator. */
-    private Iterator<DataSetRow> lookupIterator;
+    /** Ids of the lookup dataset columns. */
+    private List<String> columnIds;
 
     /** Default empty row for the parsed lookup dataset. */
     private DataSetRow emptyRow;
 
-    /** Cache of dataset row. */
-    private Map<String, DataSetRow> cache = new HashMap<>();
+    /** The join column of {@link #index}. */
+    private String indexJoinOn;
+
+    /** The index for {@link #indexJoinOn}. */
+    private LookupIndex index;
 
     /**
      * Default constructor.
@@ -88,39 +101,73 @@ public class DataSetLookupRowMatcher implements DisposableBean, LookupRowMatcher
     }
 
     /**
-     * Open the connection to get the dataset content and init the row iterator.
+     * Get the lookup dataset metadata (content is only read if no index is available for the current version).
      */
     @PostConstruct
     private void init() {
+        final DataSetGetMetadata dataSetGetMetadata = context.getBean(DataSetGetMetadata.class, datasetId);
+        final DataSetMetadata metadata = dataSetGetMetadata.execute();
+        if (metadata == null) {
+            throw new TDPException(TransformationErrorCodes.UNABLE_TO_READ_LOOKUP_DATASET,
+                    ExceptionContext.build().put("id", datasetId));
+        }
+        final List<ColumnMetadata> columns = metadata.getRowMetadata().getColumns();
+        this.version = getVersion(metadata);
+        this.columnIds = columns.stream().map(ColumnMetadata::getId).collect(Collectors.toList());
+        this.emptyRow = getEmptyRow(columns);
+    }
+
+    /**
+     * Computes the version of the lookup data set content. Last modification date is not enough: it is only updated
+     * when raw content is replaced, and not when format parameters (separator, sheet, encoding...) are updated or when a
+     * remote data set is refreshed. Version is therefore built from everything that changes the parsed content.
+     *
+     * @param metadata The lookup data set metadata.
+     * @return A version that changes whenever the lookup data set content may have changed.
+     */
+    static String getVersion(DataSetMetadata metadata) {
+        final DataSetContent content = metadata.getContent();
+        final StringBuilder version = new StringBuilder();
+        version.append(metadata.getLastModificationDate()) //
+                .append('|').append(metadata.getEncoding()) //
+                .append('|').append(metadata.getSheetName()) //
+                .append('|').append(content.getFormatFamilyId()) //
+                .append('|').append(content.getNbRecords()) //
+                .append('|').append(content.getNbLinesInHeader()) //
+                .append('|').append(content.getNbLinesInFooter()) //
+                .append('|').append(new TreeMap<>(content.getParameters()));
+        for (ColumnMetadata column : metadata.getRowMetadata().getColumns()) {
+            version.append('|').append(column.getId());
+        }
+        return version.toString();
+    }
 
+    /**
+     * Read the lookup dataset content to build a new index.
+     *
+     * @param joinOn the column id to join on.
+     * @return the index of the lookup dataset content.
+     */
+    private LookupIndex load(String joinOn) {
         final DataSetGet dataSetGet = context.getBean(DataSetGet.class, datasetId, true, true);
 
         LOGGER.debug("opening {}", datasetId);
 
-        this.input = dataSetGet.execute();
-        try {
+        try (InputStream input = dataSetGet.execute()) {
             JsonParser jsonParser = mapper.getFactory().createParser(input);
             DataSet lookup = mapper.readerFor(DataSet.class).readValue(jsonParser);
-            this.lookupIterator = lookup.getRecords().iterator();
-            this.emptyRow = getEmptyRow(lookup.getMetadata().getRowMetadata().getColumns());
+            final LookupIndex.Builder builder = LookupIndex.builder(columnIds, joinOn);
+            try (Stream<DataSetRow> records = lookup.getRecords()) {
+                records.forEach(builder::add);
+            }
+            return builder.build();
         } catch (IOException e) {
             throw new TDPException(TransformationErrorCodes.UNABLE_TO_READ_LOOKUP_DATASET, e);
+        } finally {
+            LOGGER.debug("connection to {} closed", datasetId);
         }
     }
 
-    /**
-     * Gently close the input stream as well as the http client.
-     */
-    @Override
-    public void destroy() {
-        try {
-            input.close();
-        } catch (IOException e) {
-            LOGGER.warn("Error cleaning LookupRowMatcher", e);
-        }
-        LOGGER.debug("connection to {} closed", datasetId);
-    }
-
     /**
      * Return the matching row from the loaded dataset.
      *
@@ -136,34 +183,42 @@ public class DataSetLookupRowMatcher implements DisposableBean, LookupRowMatcher
             return emptyRow;
         }
 
-        // first, let's look in the cache
-        if (cache.containsKey(joinValue)) {
-            return cache.get(joinValue);
+        final LookupIndex lookupIndex = getIndex(joinOn);
+        final int row = lookupIndex.find(joinValue);
+        if (row < 0) {
+            LOGGER.trace("no row found for {}, returning an empty row", joinValue);
+            return emptyRow;
         }
+        final DataSetRow matchingRow = new DataSetRow(emptyRow.getRowMetadata());
+        for (String columnId : columnIds) {
+            matchingRow.set(columnId, lookupIndex.get(row, columnId));
+        }
+        return matchingRow;
+    }
 
-        // if the value is not cached, let's update the cache
-        while (lookupIterator.hasNext()) {
-            DataSetRow nextRow = lookupIterator.next();
-            final String nextRowJoinValue = nextRow.get(joinOn);
-
-            // update the cache no matter what so that the next joinValue may be already cached !
-            if (!cache.containsKey(nextRowJoinValue)) {
-                cache.put(nextRowJoinValue, nextRow.clone());
-                LOGGER.trace("row found and cached for {} -> {}", nextRowJoinValue, nextRow.values());
+    @Override
+    public void copyMatchingValues(String joinOn, String joinValue, String[] lookupColumnIds, String[] targetColumnIds,
+            DataSetRow target) {
+        final LookupIndex lookupIndex = getIndex(joinOn);
+        final int row = lookupIndex.find(joinValue);
+        if (row < 0) {
+            for (int i = 0; i < lookupColumnIds.length; i++) {
+                target.set(targetColumnIds[i], emptyRow.get(lookupColumnIds[i]));
             }
-
-            // if matching row is found, let's stop here
-            if (StringUtils.equals(joinValue, nextRowJoinValue)) {
-                return nextRow;
+        } else {
+            for (int i = 0; i < lookupColumnIds.length; i++) {
+                target.set(targetColumnIds[i], lookupIndex.get(row, lookupColumnIds[i]));
             }
         }
-
-        // the join value was not found and the cache is fully updated, so let's cache an empty row and return it
-        cache.put(joinValue, this.emptyRow);
-        LOGGER.trace("no row found for {}, returning an empty row", joinValue);
-        return this.emptyRow;
     }
 
+    private synchronized LookupIndex getIndex(String joinOn) {
+        if (index == null || !StringUtils.equals(joinOn, indexJoinOn)) {
+            index = indexService.getIndex(datasetId, version, joinOn, () -> load(joinOn));
+            indexJoinOn = joinOn;
+        }
+        return index;
+    }
     @Override
     public RowMetadata getRowMetadata() {
         return emptyRow.getRowMetadata();
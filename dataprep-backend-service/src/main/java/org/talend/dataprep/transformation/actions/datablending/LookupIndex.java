@@ -0,0 +1,201 @@
+// ============================================================================
+// Copyright (C) 2006-2018 Talend Inc. - www.talend.com
+//
+// This source code is available under agreement available at
+// https://github.com/Talend/data-prep/blob/master/LICENSE
+//
+// You should have received a copy of the agreement
+// along with this program; if not, write to Talend SA
+// 9 rue Pages 92150 Suresnes, France
+//
+// ============================================================================
+
+
+package org.talend.dataprep.transformation.actions.datablending;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+import org.talend.dataprep.api.dataset.row.DataSetRow;
+
+/**
+ * <p>
+ * A read-only index of a lookup data set content, used to find rows by their value in a join column.
+ * </p>
+ * <p>
+ * Values are dictionary encoded: each distinct value is stored once and rows only keep the dictionary position of their
+ * values (one <code>int</code> per cell). Once built, an index can be shared by concurrent lookup executions.
+ * </p>
+ *
+ * @see LookupIndexService
+ */
+public class LookupIndex {
+
+    /** Estimated size (in bytes) of a String instance without its characters. */
+    private static final int STRING_OVERHEAD = 56;
+
+    /** Estimated size (in bytes) of a hash map entry (entry, boxed integer and table slot). */
+    private static final int ENTRY_OVERHEAD = 64;
+
+    /** Position of each column in a row, by column id. */
+    private final Map<String, Integer> columnPositions;
+
+    /** Number of cells in a row. */
+    private final int columnCount;
+
+    /** Distinct values of the lookup data set. */
+    private final String[] dictionary;
+
+    /** Dictionary positions of the cells (row after row), -1 for a <code>null</code> value. */
+    private final int[] cells;
+
+    /** Row number of the first row for each join value. */
+    private final Map<String, Integer> rows;
+
+    /** Estimated size (in bytes) of this index. */
+    private final long estimatedSize;
+
+    private LookupIndex(Builder builder) {
+        this.columnPositions = builder.columnPositions;
+        this.columnCount = builder.columnPositions.size();
+        this.dictionary = builder.values.toArray(new String[builder.values.size()]);
+        this.cells = Arrays.copyOf(builder.cells, builder.cellCount);
+        this.rows = builder.rows;
+
+        long size = 4L * cells.length + (long) ENTRY_OVERHEAD * rows.size() + (long) STRING_OVERHEAD * dictionary.length;
+        for (String value : dictionary) {
+            size += 2L * value.length();
+        }
+        this.estimatedSize = size;
+    }
+
+    /**
+     * @param columnIds The ids of the lookup data set columns.
+     * @param joinOn The id of the column used to find rows.
+     * @return A builder for a new index.
+     */
+    public static Builder builder(List<String> columnIds, String joinOn) {
+        return new Builder(columnIds, joinOn);
+    }
+
+    /**
+     * @param joinValue A value of the join column.
+     * @return The number of the first row that has <code>joinValue</code> in join column, -1 if there's none.
+     */
+    public int find(String joinValue) {
+        if (joinValue == null) {
+            return -1;
+        }
+        final Integer row = rows.get(joinValue);
+        return row == null ? -1 : row;
+    }
+
+    /**
+     * @param row A row number (as returned by {@link #find(String)}).
+     * @param columnId A column id.
+     * @return The value of the cell, <code>null</code> if column is unknown.
+     */
+    public String get(int row, String columnId) {
+        final Integer position = columnPositions.get(columnId);
+        if (position == null) {
+            return null;
+        }
+        final int code = cells[row * columnCount + position];
+        return code < 0 ? null : dictionary[code];
+    }
+
+    /**
+     * @return The number of distinct join values in this index.
+     */
+    public int size() {
+        return rows.size();
+    }
+
+    /**
+     * @return The estimated memory used by this index (in bytes).
+     */
+    public long getEstimatedSize() {
+        return estimatedSize;
+    }
+
+    /**
+     * Builds a {@link LookupIndex} from the rows of a lookup data set.
+     */
+    public static class Builder {
+
+        private final String[] columnIds;
+
+        private final Map<String, Integer> columnPositions = new HashMap<>();
+
+        private final int joinPosition;
+
+        /** Dictionary position of each distinct value. */
+        private final Map<String, Integer> codes = new HashMap<>();
+
+        /** Distinct values, in dictionary order. */
+        private final List<String> values = new ArrayList<>();
+
+        private final Map<String, Integer> rows = new HashMap<>();
+
+        private int[] cells = new int[1024];
+
+        private int cellCount;
+
+        private int rowCount;
+
+        private Builder(List<String> columnIds, String joinOn) {
+            this.columnIds = columnIds.toArray(new String[columnIds.size()]);
+            for (int i = 0; i < this.columnIds.length; i++) {
+                columnPositions.put(this.columnIds[i], i);
+            }
+            final Integer position = columnPositions.get(joinOn);
+            this.joinPosition = position == null ? -1 : position;
+        }
+
+        /**
+         * Adds a row to the index (only the first row for a given join value can be found).
+         *
+         * @param row A row of the lookup data set.
+         * @return This builder.
+         */
+        public Builder add(DataSetRow row) {
+            if (cellCount + columnIds.length > cells.length) {
+                cells = Arrays.copyOf(cells, Math.max(cells.length * 2, cellCount + columnIds.length));
+            }
+            final int rowNumber = rowCount++;
+            for (int i = 0; i < columnIds.length; i++) {
+                final int code = encode(row.get(columnIds[i]));
+                cells[cellCount++] = code;
+                if (i == joinPosition && code >= 0) {
+                    // dictionary instance is used as key so the join value is stored only once
+                    rows.putIfAbsent(values.get(code), rowNumber);
+                }
+            }
+            return this;
+        }
+
+        private int encode(String value) {
+            if (value == null) {
+                return -1;
+            }
+            final Integer code = codes.get(value);
+            if (code != null) {
+                return code;
+            }
+            final int newCode = values.size();
+            codes.put(value, newCode);
+            values.add(value);
+            return newCode;
+        }
+
+        /**
+         * @return The index for all the rows added so far.
+         */
+        public LookupIndex build() {
+            return new LookupIndex(this);
+        }
+    }
+}
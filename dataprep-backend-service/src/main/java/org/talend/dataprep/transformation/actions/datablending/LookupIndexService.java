@@ -0,0 +1,206 @@
+// ============================================================================
+// Copyright (C) 2006-2018 Talend Inc. - www.talend.com
+//
+// This source code is available under agreement available at
+// https://github.com/Talend/data-prep/blob/master/LICENSE
+//
+// You should have received a copy of the agreement
+// along with this program; if not, write to Talend SA
+// 9 rue Pages 92150 Suresnes, France
+//
+// ============================================================================
+
+
+package org.talend.dataprep.transformation.actions.datablending;
+
+import java.util.Iterator;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.Objects;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ExecutionException;
+import java.util.function.Supplier;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+import org.talend.dataprep.exception.TDPException;
+import org.talend.dataprep.exception.error.TransformationErrorCodes;
+
+/**
+ * <p>
+ * Keeps the {@link LookupIndex lookup indexes} shared by all lookup executions (previews, exports...) of this node.
+ * Indexes are identified by the lookup data set id, the version of its content and the join column.
+ * </p>
+ * <p>
+ * When several executions need the same missing index at the same time, only one of them builds it and the others wait
+ * for the result. Memory used by indexes is bounded by <code>transformation.lookup.index.max.size</code>: least
+ * recently used indexes are evicted first. Index of a previous version of a data set is removed when the index of
+ * a new version is built, indexes of removed data sets are no longer used and are evicted the same way.
+ * </p>
+ */
+@Component
+public class LookupIndexService {
+
+    private static final Logger LOGGER = LoggerFactory.getLogger(LookupIndexService.class);
+
+    /** Indexes being built. */
+    private final Map<Key, CompletableFuture<LookupIndex>> loading = new ConcurrentHashMap<>();
+
+    /** Available indexes, least recently used first (guarded by <code>this</code>). */
+    private final LinkedHashMap<Key, LookupIndex> indexes = new LinkedHashMap<>(16, 0.75f, true);
+
+    /** Sum of the estimated sizes of all the available indexes (guarded by <code>this</code>). */
+    private long totalSize;
+
+    /** Maximum memory (in bytes) used by indexes. */
+    @Value("${transformation.lookup.index.max.size:268435456}")
+    private long maxSize;
+
+    /**
+     * Returns the index for the given data set, version and join column, built by <code>loader</code> if needed.
+     *
+     * @param dataSetId The lookup data set id.
+     * @param version The version of the lookup data set content (any change in content must change version).
+     * @param joinOn The id of the join column.
+     * @param loader The function to build the index if it is not available.
+     * @return The lookup index.
+     */
+    public LookupIndex getIndex(String dataSetId, String version, String joinOn, Supplier<LookupIndex> loader) {
+        final Key key = new Key(dataSetId, version, joinOn);
+        final LookupIndex available = get(key);
+        if (available != null) {
+            LOGGER.debug("Reuse lookup index for {}.", key);
+            return available;
+        }
+
+        final CompletableFuture<LookupIndex> future = new CompletableFuture<>();
+        final CompletableFuture<LookupIndex> pending = loading.putIfAbsent(key, future);
+        if (pending != null) {
+            LOGGER.debug("Wait for lookup index of {}.", key);
+            return await(pending);
+        }
+        try {
+            // Index may have been added between first check and registration of the future.
+            LookupIndex index = get(key);
+            if (index == null) {
+                final long start = System.currentTimeMillis();
+                index = loader.get();
+                LOGGER.debug("Lookup index for {} built in {} ms ({} values, ~{} bytes).", key,
+                        System.currentTimeMillis() - start, index.size(), index.getEstimatedSize());
+                put(key, index);
+            }
+            future.complete(index);
+            return index;
+        } catch (RuntimeException e) {
+            future.completeExceptionally(e);
+            throw e;
+        } finally {
+            loading.remove(key, future);
+        }
+    }
+
+    /**
+     * @return The estimated memory (in bytes) used by all available indexes.
+     */
+    public synchronized long getTotalSize() {
+        return totalSize;
+    }
+
+    private synchronized LookupIndex get(Key key) {
+        return indexes.get(key);
+    }
+
+    private synchronized void put(Key key, LookupIndex index) {
+        // Indexes for older versions of the same content are no longer useful.
+        final Iterator<Map.Entry<Key, LookupIndex>> iterator = indexes.entrySet().iterator();
+        while (iterator.hasNext()) {
+            final Map.Entry<Key, LookupIndex> entry = iterator.next();
+            if (entry.getKey().isOtherVersionOf(key)) {
+                totalSize -= entry.getValue().getEstimatedSize();
+                iterator.remove();
+            }
+        }
+        if (index.getEstimatedSize() > maxSize) {
+            LOGGER.info("Lookup index for {} is too large to be kept (~{} bytes).", key, index.getEstimatedSize());
+            return;
+        }
+        final LookupIndex previous = indexes.put(key, index);
+        if (previous != null) {
+            totalSize -= previous.getEstimatedSize();
+        }
+        totalSize += index.getEstimatedSize();
+        // Evict least recently used indexes.
+        final Iterator<Map.Entry<Key, LookupIndex>> lru = indexes.entrySet().iterator();
+        while (totalSize > maxSize && lru.hasNext()) {
+            final Map.Entry<Key, LookupIndex> entry = lru.next();
+            if (entry.getValue() != index) {
+                LOGGER.debug("Evict lookup index for {}.", entry.getKey());
+                totalSize -= entry.getValue().getEstimatedSize();
+                lru.remove();
+            }
+        }
+    }
+
+    private static LookupIndex await(CompletableFuture<LookupIndex> future) {
+        try {
+            return future.get();
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new TDPException(TransformationErrorCodes.UNABLE_TO_READ_LOOKUP_DATASET, e);
+        } catch (ExecutionException e) {
+            if (e.getCause() instanceof RuntimeException) {
+                throw (RuntimeException) e.getCause();
+            }
+            throw new TDPException(TransformationErrorCodes.UNABLE_TO_READ_LOOKUP_DATASET, e.getCause());
+        }
+    }
+
+    /**
+     * Identifies a lookup index.
+     */
+    private static class Key {
+
+        private final String dataSetId;
+
+        private final String version;
+
+        private final String joinOn;
+
+        private Key(String dataSetId, String version, String joinOn) {
+            this.dataSetId = dataSetId;
+            this.version = version;
+            this.joinOn = joinOn;
+        }
+
+        private boolean isOtherVersionOf(Key other) {
+            return Objects.equals(dataSetId, other.dataSetId) && Objects.equals(joinOn, other.joinOn)
+                    && !Objects.equals(version, other.version);
+        }
+
+        @Override
+        public boolean equals(Object o) {
+            if (this == o) {
+                return true;
+            }
+            if (o == null || getClass() != o.getClass()) {
+                return false;
+            }
+            Key key = (Key) o;
+            return Objects.equals(dataSetId, key.dataSetId) && Objects.equals(version, key.version)
+                    && Objects.equals(joinOn, key.joinOn);
+        }
+
+        @Override
+        public int hashCode() {
+            return Objects.hash(dataSetId, version, joinOn);
+        }
+
+        @Override
+        public String toString() {
+            return dataSetId + " (version " + version + ", join on " + joinOn + ")";
+        }
+    }
+}
@@ -15,10 +15,24 @@ package org.talend.dataprep.transformation.api.action.dynamic.cluster;
 
 import static org.apache.commons.lang.StringUtils.EMPTY;
 
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.Collections;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.stream.Stream;
+
+import org.apache.commons.codec.language.Soundex;
 import org.apache.commons.lang.StringUtils;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
 import org.springframework.context.i18n.LocaleContextHolder;
 import org.springframework.stereotype.Component;
 import org.talend.dataprep.api.dataset.DataSet;
+import org.talend.dataprep.api.dataset.row.DataSetRow;
 import org.talend.dataprep.i18n.DataprepBundle;
 import org.talend.dataprep.parameters.ClusterItem;
 import org.talend.dataprep.parameters.Clusters;
@@ -32,45 +46,127 @@ import org.talend.dataquality.record.linkage.analyzer.StringsClusterAnalyzer;
 import org.talend.dataquality.record.linkage.constant.AttributeMatcherType;
 
 /**
+ * <p>
  * Cluster action dynamic parameter generator It takes an InputStream as argument, containing the dataset
+ * </p>
+ * <p>
+ * Rows are reduced to the distinct values of the column (with their number of occurrences) before clustering, so each
+ * value is analyzed once and the value kept for a cluster is its most frequent value. When the column has more than
+ * <code>transformation.cluster.blocking.threshold</code> distinct values, values are split in blocks (values that sound
+ * alike) and each block is clustered separately, so values are only compared to values of the same block.
+ * </p>
  */
 @Component
 public class ClusterParameters implements DynamicParameters {
 
+    private static final Logger LOGGER = LoggerFactory.getLogger(ClusterParameters.class);
+
+    /** Number of distinct values above which values are clustered per block (0 or less to disable blocking). */
+    @Value("${transformation.cluster.blocking.threshold:5000}")
+    private int blockingThreshold = 5000;
+
     @Override
     public GenericParameter getParameters(final String columnId, final DataSet content) {
-        // Analyze clusters service
-        StringsClusterAnalyzer clusterAnalyzer = new StringsClusterAnalyzer();
-        clusterAnalyzer.withPostMerges(new PostMerge(AttributeMatcherType.SOUNDEX, 0.8f));
-        clusterAnalyzer.init();
-        content.getRecords().forEach(row -> {
-            String value = row.get(columnId);
-            clusterAnalyzer.analyze(value);
-        });
-        clusterAnalyzer.end();
+        return getParameters(columnId, content.getRecords());
+    }
+
+    /**
+     * @param columnId The column to cluster.
+     * @param records The records that hold the values of the column.
+     * @return The cluster parameters for the values of <code>columnId</code> in <code>records</code>.
+     */
+    public GenericParameter getParameters(final String columnId, final Stream<DataSetRow> records) {
+        // Distinct values (in order of first occurrence) with their number of occurrences
+        final Map<String, Integer> frequencies = new LinkedHashMap<>();
+        records.forEach(row -> frequencies.merge(row.get(columnId), 1, Integer::sum));
+
+        // Analyze clusters service (each block is analyzed separately)
+        final Collection<List<String>> blocks = getBlocks(frequencies);
+        LOGGER.debug("Clustering {} distinct value(s) in {} block(s).", frequencies.size(), blocks.size());
+
         // Build results
         final Clusters.Builder builder = Clusters
                 .builder()
                 .title(DataprepBundle.message("parameter.textclustering.title.1"))
                 .title(DataprepBundle.message("parameter.textclustering.title.2"));
-        final StringClusters result = clusterAnalyzer.getResult().get(0);
-        for (StringClusters.StringCluster cluster : result) {
-            // String clustering may cluster null / empty values, however not interesting for data prep.
-            if (!StringUtils.isEmpty(cluster.survivedValue)) {
-                final ClusterItem.Builder currentCluster = ClusterItem.builder();
-                for (String value : cluster.originalValues) {
-                    currentCluster.parameter(new ConstantParameter(value, ParameterType.BOOLEAN));
+        for (List<String> block : blocks) {
+            for (StringClusters.StringCluster cluster : analyze(block)) {
+                final String survivedValue = getSurvivedValue(cluster, frequencies);
+                // String clustering may cluster null / empty values, however not interesting for data prep.
+                if (!StringUtils.isEmpty(survivedValue)) {
+                    final ClusterItem.Builder currentCluster = ClusterItem.builder();
+                    for (String value : cluster.originalValues) {
+                        currentCluster.parameter(new ConstantParameter(value, ParameterType.BOOLEAN));
+                    }
+                    currentCluster.replace(Parameter.parameter(LocaleContextHolder.getLocale()).setName("replaceValue")
+                            .setType(ParameterType.STRING)
+                            .setDefaultValue(survivedValue)
+                            .build(null));
+                    builder.cluster(currentCluster);
                 }
-                currentCluster.replace(Parameter.parameter(LocaleContextHolder.getLocale()).setName("replaceValue")
-                        .setType(ParameterType.STRING)
-                        .setDefaultValue(cluster.survivedValue)
-                        .build(null));
-                builder.cluster(currentCluster);
             }
         }
         return new GenericParameter("cluster", builder.build());
     }
 
+    private static StringClusters analyze(List<String> values) {
+        StringsClusterAnalyzer clusterAnalyzer = new StringsClusterAnalyzer();
+        clusterAnalyzer.withPostMerges(new PostMerge(AttributeMatcherType.SOUNDEX, 0.8f));
+        clusterAnalyzer.init();
+        values.forEach(clusterAnalyzer::analyze);
+        clusterAnalyzer.end();
+        return clusterAnalyzer.getResult().get(0);
+    }
+
+    /**
+     * Split distinct values in blocks (all values in one block if there are less values than blocking threshold).
+     */
+    private Collection<List<String>> getBlocks(Map<String, Integer> frequencies) {
+        if (blockingThreshold <= 0 || frequencies.size() <= blockingThreshold) {
+            return Collections.singletonList(new ArrayList<>(frequencies.keySet()));
+        }
+        final Soundex soundex = new Soundex();
+        final Map<String, List<String>> blocks = new LinkedHashMap<>();
+        for (String value : frequencies.keySet()) {
+            blocks.computeIfAbsent(getBlockKey(soundex, value), k -> new ArrayList<>()).add(value);
+        }
+        return blocks.values();
+    }
+
+    /**
+     * @return The phonetic code of <code>value</code> (or its first character if value can't be encoded).
+     */
+    private static String getBlockKey(Soundex soundex, String value) {
+        if (StringUtils.isBlank(value)) {
+            return EMPTY;
+        }
+        try {
+            final String code = soundex.encode(value);
+            if (StringUtils.isNotEmpty(code)) {
+                return code;
+            }
+        } catch (IllegalArgumentException e) {
+            LOGGER.trace("Unable to encode '{}', use first character as block key.", value, e);
+        }
+        return value.trim().substring(0, 1).toUpperCase(Locale.ENGLISH);
+    }
+
+    /**
+     * @return The most frequent value of <code>cluster</code> (value elected by analyzer in case of equality).
+     */
+    private static String getSurvivedValue(StringClusters.StringCluster cluster, Map<String, Integer> frequencies) {
+        String survivedValue = cluster.survivedValue;
+        int max = frequencies.getOrDefault(survivedValue, 0);
+        for (String value : cluster.originalValues) {
+            final int frequency = frequencies.getOrDefault(value, 0);
+            if (frequency > max) {
+                survivedValue = value;
+                max = frequency;
+            }
+        }
+        return survivedValue;
+    }
+
     private static class ConstantParameter extends Parameter {
 
         private ConstantParameter(String value, ParameterType type) {
@@ -0,0 +1,63 @@
+// ============================================================================
+// Copyright (C) 2006-2018 Talend Inc. - www.talend.com
+//
+// This source code is available under agreement available at
+// https://github.com/Talend/data-prep/blob/master/LICENSE
+//
+// You should have received a copy of the agreement
+// along with this program; if not, write to Talend SA
+// 9 rue Pages 92150 Suresnes, France
+//
+// ============================================================================
+
+package org.talend.dataprep.api.service.info;
+
+import static com.jayway.restassured.RestAssured.given;
+import static org.junit.Assert.assertEquals;
+
+import java.util.UUID;
+
+import org.junit.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.talend.ServiceBaseTest;
+import org.talend.dataprep.api.dataset.ColumnMetadata;
+import org.talend.dataprep.api.type.Type;
+import org.talend.dataprep.quality.AnalyzerService;
+import org.talend.dataquality.common.inference.Analyzer;
+import org.talend.dataquality.common.inference.Analyzers;
+
+import com.fasterxml.jackson.databind.JsonNode;
+
+public class QualityMetricsServiceTest extends ServiceBaseTest {
+
+    @Autowired
+    private AnalyzerService analyzerService;
+
+    @Test
+    public void shouldExposeQualityCacheMetrics() throws Exception {
+        // given
+        final ColumnMetadata column = new ColumnMetadata();
+        column.setType(Type.INTEGER.getName());
+        column.setName(UUID.randomUUID().toString());
+        final long hits = analyzerService.getQualityCacheHits();
+        final long lookups = analyzerService.getQualityCacheLookups();
+        try (Analyzer<Analyzers.Result> analyzer = analyzerService.build(column, AnalyzerService.Analysis.QUALITY)) {
+            analyzer.analyze("1");
+            analyzer.analyze("1");
+            analyzer.analyze("2");
+            analyzer.analyze("1");
+        }
+
+        // when
+        final JsonNode metrics = mapper.readTree(given() //
+                .expect().statusCode(200).log().ifError() //
+                .when() //
+                .get("/quality/metrics") //
+                .asString());
+
+        // then
+        assertEquals(hits + 2, metrics.get("hits").asLong());
+        assertEquals(lookups + 4, metrics.get("lookups").asLong());
+        assertEquals(analyzerService.getQualityCacheHitRatio(), metrics.get("hitRatio").asDouble(), 0);
+    }
+}
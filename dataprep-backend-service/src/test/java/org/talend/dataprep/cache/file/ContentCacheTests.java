@@ -33,6 +33,7 @@ import org.talend.ServiceBaseTest;
 import org.talend.dataprep.cache.CacheJanitor;
 import org.talend.dataprep.cache.ContentCache;
 import org.talend.dataprep.cache.ContentCacheKey;
+import org.talend.dataprep.cache.ContentCacheStatistics;
 import org.talend.dataprep.cache.noop.NoOpCacheJanitor;
 
 /**
@@ -118,6 +119,25 @@ public abstract class ContentCacheTests extends ServiceBaseTest {
         assertThat(cache.has(key), is(true));
     }
 
+    @Test
+    public void shouldCountHitsAndMisses() throws Exception {
+        // given
+        ContentCacheKey key = new DummyCacheKey("statistics");
+        final ContentCacheStatistics before = cache.getStatistics();
+
+        // when
+        assertThat(cache.has(key), is(false));
+        addCacheEntry(key, "content", ContentCache.TimeToLive.DEFAULT);
+        assertThat(cache.has(key), is(true));
+        cache.get(key).close();
+
+        // then
+        final ContentCacheStatistics after = cache.getStatistics();
+        assertEquals(before.getHitCount() + 2, after.getHitCount());
+        assertEquals(before.getMissCount() + 1, after.getMissCount());
+        assertTrue(after.getSize() > 0);
+    }
+
     @Test
     public void testGet() throws Exception {
         ContentCacheKey key = new DummyCacheKey("tata");
@@ -0,0 +1,215 @@
+// ============================================================================
+// Copyright (C) 2006-2018 Talend Inc. - www.talend.com
+//
+// This source code is available under agreement available at
+// https://github.com/Talend/data-prep/blob/master/LICENSE
+//
+// You should have received a copy of the agreement
+// along with this program; if not, write to Talend SA
+// 9 rue Pages 92150 Suresnes, France
+//
+// ============================================================================
+
+
+package org.talend.dataprep.cache.loader;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertNotNull;
+import static org.junit.Assert.assertNull;
+import static org.junit.Assert.assertTrue;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.when;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+import java.util.function.Predicate;
+import java.util.regex.Pattern;
+
+import org.junit.Before;
+import org.junit.Test;
+import org.springframework.test.util.ReflectionTestUtils;
+import org.talend.daikon.content.DeletableResource;
+import org.talend.daikon.content.ResourceResolver;
+import org.talend.dataprep.cache.ContentCacheKey;
+
+public class ContentCacheIndexTest {
+
+    private static final int ENTRY_COUNT = 100_000;
+
+    private ResourceResolver resolver;
+
+    private ContentCacheIndex index;
+
+    private static DeletableResource resource(String fileName, long size) throws Exception {
+        final DeletableResource resource = mock(DeletableResource.class);
+        when(resource.getFilename()).thenReturn(fileName);
+        when(resource.exists()).thenReturn(true);
+        when(resource.contentLength()).thenReturn(size);
+        return resource;
+    }
+
+    private static ContentCacheKey key(String key) {
+        return () -> key;
+    }
+
+    @Before
+    public void setUp() throws Exception {
+        resolver = mock(ResourceResolver.class);
+        index = new ContentCacheIndex();
+        ReflectionTestUtils.setField(index, "resolver", resolver);
+    }
+
+    @Test
+    public void shouldBuildIndexFromCacheDirectory() throws Exception {
+        // given
+        final long future = System.currentTimeMillis() + TimeUnit.HOURS.toMillis(1);
+        final long past = System.currentTimeMillis() - TimeUnit.HOURS.toMillis(1);
+        when(resolver.getResources("/cache/*")).thenReturn(new DeletableResource[] { //
+                resource("permanent", 10), //
+                resource("multiple." + (future - 1000), 20), //
+                resource("multiple." + future, 30), //
+                resource("expired." + past, 40), //
+                resource(".DS_Store", 0), //
+                resource("file.nfs0001", 0) //
+        });
+
+        // when
+        index.init();
+
+        // then
+        assertEquals(3, index.size());
+        assertEquals(-1, index.get(key("permanent")).getExpiry());
+        assertEquals(10, index.get(key("permanent")).getSize());
+        assertEquals("/cache/multiple." + future, index.get(key("multiple")).getLocation());
+        assertEquals(30, index.get(key("multiple")).getSize());
+        assertNull(index.get(key("expired")));
+    }
+
+    @Test
+    public void shouldReplaceAndRemoveEntries() throws Exception {
+        // given
+        final ContentCacheKey key = key("key");
+        final ContentCacheIndex.Entry first = index.newEntry(key, -1);
+        final ContentCacheIndex.Entry second = index.newEntry(key, System.currentTimeMillis() + 10000);
+
+        // when
+        assertNull(index.put(first));
+        final ContentCacheIndex.Entry previous = index.put(second);
+        index.remove(first);
+
+        // then
+        assertEquals(first, previous);
+        assertEquals(second, index.get(key));
+        assertEquals(second, index.remove(key));
+        assertNull(index.get(key));
+    }
+
+    @Test
+    public void shouldMatchEntries() throws Exception {
+        // given
+        index.put(index.newEntry(key("prefix_1_a"), -1));
+        index.put(index.newEntry(key("prefix_1_b"), System.currentTimeMillis() + 10000));
+        index.put(index.newEntry(key("prefix_2_a"), -1));
+        final Pattern pattern = Pattern.compile("prefix_1_.*");
+        final ContentCacheKey partialKey = new ContentCacheKey() {
+
+            @Override
+            public String getKey() {
+                return "prefix_1";
+            }
+
+            @Override
+            public Predicate<String> getMatcher() {
+                return s -> pattern.matcher(s).matches();
+            }
+
+            @Override
+            public String getPrefix() {
+                return "prefix_1";
+            }
+        };
+
+        // when
+        final List<ContentCacheIndex.Entry> matches = index.match(partialKey);
+
+        // then
+        assertEquals(2, matches.size());
+    }
+
+    @Test
+    public void shouldTrackTotalSize() throws Exception {
+        // given
+        final long expiry = System.currentTimeMillis() + 10000;
+        final ContentCacheIndex.Entry first = index.newEntry(key("first"), expiry);
+        final ContentCacheIndex.Entry second = index.newEntry(key("second"), expiry);
+        final ContentCacheIndex.Entry replacement = index.newEntry(key("first"), expiry + 1);
+
+        // when
+        index.put(first);
+        index.setSize(first, 100);
+        index.put(second);
+        index.setSize(second, 50);
+        assertEquals(150, index.getTotalSize());
+        index.put(replacement);
+        index.setSize(replacement, 10);
+        index.setSize(first, 1000); // no longer indexed: ignored
+
+        // then
+        assertEquals(60, index.getTotalSize());
+        index.remove(key("second"));
+        assertEquals(10, index.getTotalSize());
+        index.clear();
+        assertEquals(0, index.getTotalSize());
+    }
+
+    @Test
+    public void shouldSelectLeastRecentlyUsedEntries() throws Exception {
+        // given
+        final long expiry = System.currentTimeMillis() + 10000;
+        final ContentCacheIndex.Entry permanent = index.newEntry(key("permanent"), -1);
+        index.put(permanent);
+        index.setSize(permanent, 100);
+        for (int i = 0; i < 5; i++) {
+            final ContentCacheIndex.Entry entry = index.newEntry(key("entry" + i), expiry);
+            index.put(entry);
+            index.setSize(entry, 10);
+        }
+        index.get(key("entry0")); // entry0 is now the most recently used
+
+        // when
+        final List<ContentCacheIndex.Entry> candidates = index.getEvictionCandidates(130);
+
+        // then
+        assertEquals(2, candidates.size());
+        assertEquals("entry1", candidates.get(0).getKey());
+        assertEquals("entry2", candidates.get(1).getKey());
+        assertTrue(index.getEvictionCandidates(150).isEmpty());
+    }
+
+    @Test(timeout = 10000L)
+    public void shouldLookupEntriesWithoutListing() throws Exception {
+        // given
+        final long expiry = System.currentTimeMillis() + TimeUnit.HOURS.toMillis(1);
+        final List<ContentCacheKey> keys = new ArrayList<>(ENTRY_COUNT);
+        for (int i = 0; i < ENTRY_COUNT; i++) {
+            final ContentCacheKey key = key("transformation_prep" + i + "_dataset" + i + "_" + Integer.toHexString(i));
+            keys.add(key);
+            index.put(index.newEntry(key, expiry));
+        }
+
+        // when
+        final long start = System.nanoTime();
+        for (int i = 0; i < 10; i++) {
+            for (ContentCacheKey key : keys) {
+                assertNotNull(index.get(key));
+                assertNull(index.get(key(key.getKey() + "_missing")));
+            }
+        }
+        final long elapsed = TimeUnit.NANOSECONDS.toMillis(System.nanoTime() - start);
+
+        // then
+        assertEquals(ENTRY_COUNT, index.size());
+        assertTrue("Lookups took " + elapsed + " ms.", elapsed < 5000);
+    }
+}
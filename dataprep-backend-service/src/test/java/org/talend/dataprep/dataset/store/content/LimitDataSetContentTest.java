@@ -0,0 +1,93 @@
+// ============================================================================
+// Copyright (C) 2006-2018 Talend Inc. - www.talend.com
+//
+// This source code is available under agreement available at
+// https://github.com/Talend/data-prep/blob/master/LICENSE
+//
+// You should have received a copy of the agreement
+// along with this program; if not, write to Talend SA
+// 9 rue Pages 92150 Suresnes, France
+//
+// ============================================================================
+
+package org.talend.dataprep.dataset.store.content;
+
+import static org.junit.Assert.assertEquals;
+
+import java.io.InputStream;
+import java.util.stream.LongStream;
+import java.util.stream.Stream;
+
+import org.junit.Before;
+import org.junit.Test;
+import org.springframework.test.util.ReflectionTestUtils;
+import org.talend.dataprep.api.dataset.DataSetMetadata;
+import org.talend.dataprep.api.dataset.RowMetadata;
+import org.talend.dataprep.api.dataset.row.DataSetRow;
+
+public class LimitDataSetContentTest {
+
+    private DataSetContentStore store;
+
+    private final DataSetMetadata metadata = new DataSetMetadata();
+
+    @Before
+    public void setUp() {
+        final LimitDataSetContent limit = new LimitDataSetContent();
+        ReflectionTestUtils.setField(limit, "limit", 10L);
+        store = limit.get(new RangeContentStore(100));
+    }
+
+    @Test
+    public void shouldApplyLimitOnRows() {
+        assertEquals(10, store.rows(metadata, -1).count());
+        assertEquals(10, store.rows(metadata, 50).count());
+        assertEquals(5, store.rows(metadata, 5).count());
+    }
+
+    @Test
+    public void shouldApplyLimitOnRowRanges() {
+        assertEquals(10, store.rows(metadata, 0, -1).count());
+        assertEquals(5, store.rows(metadata, 5, 50).count());
+        assertEquals(3, store.rows(metadata, 2, 5).count());
+        assertEquals(0, store.rows(metadata, 20, 30).count());
+    }
+
+    /**
+     * A content store with <code>size</code> rows.
+     */
+    private static class RangeContentStore extends DataSetContentStore {
+
+        private final long size;
+
+        private RangeContentStore(long size) {
+            this.size = size;
+        }
+
+        @Override
+        protected Stream<DataSetRow> rows(DataSetMetadata dataSetMetadata, long limit) {
+            return LongStream.range(0, limit < 0 ? size : Math.min(limit, size))
+                    .mapToObj(i -> new DataSetRow(new RowMetadata()));
+        }
+
+        @Override
+        public void storeAsRaw(DataSetMetadata dataSetMetadata, InputStream dataSetContent) {
+            throw new UnsupportedOperationException();
+        }
+
+        @Override
+        public InputStream getAsRaw(DataSetMetadata dataSetMetadata, long limit) {
+            throw new UnsupportedOperationException();
+        }
+
+        @Override
+        public void delete(DataSetMetadata dataSetMetadata) {
+            throw new UnsupportedOperationException();
+        }
+
+        @Override
+        public void clear() {
+            throw new UnsupportedOperationException();
+        }
+    }
+}
@@ -0,0 +1,42 @@
+// ============================================================================
+// Copyright (C) 2006-2018 Talend Inc. - www.talend.com
+//
+// This source code is available under agreement available at
+// https://github.com/Talend/data-prep/blob/master/LICENSE
+//
+// You should have received a copy of the agreement
+// along with this program; if not, write to Talend SA
+// 9 rue Pages 92150 Suresnes, France
+//
+// ============================================================================
+
+
+package org.talend.dataprep.preparation.store.file;
+
+import static org.junit.Assert.assertEquals;
+
+import org.junit.Test;
+import org.springframework.test.context.TestPropertySource;
+import org.talend.dataprep.api.preparation.Preparation;
+
+/**
+ * Runs all {@link FileSystemPreparationRepositoryTest} tests with the in-memory cache enabled.
+ */
+@TestPropertySource(inheritLocations = false, inheritProperties = false, properties = { "preparation.store=file",
+        "preparation.store.file.location=target/test/store/preparation", "preparation.store.file.cache.enabled=true" })
+public class FileSystemPreparationRepositoryCacheTest extends FileSystemPreparationRepositoryTest {
+
+    @Test
+    public void shouldNotShareInstancesWithCache() {
+        // given
+        final Preparation expected = getPreparation("5f8a1c3");
+        expected.setName("stored name");
+        getRepository().add(expected);
+
+        // when
+        getRepository().get(expected.id(), Preparation.class).setName("modified name");
+
+        // then
+        assertEquals("stored name", getRepository().get(expected.id(), Preparation.class).getName());
+    }
+}
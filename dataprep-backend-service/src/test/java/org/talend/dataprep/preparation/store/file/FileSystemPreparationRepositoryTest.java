@@ -12,6 +12,7 @@
 
 package org.talend.dataprep.preparation.store.file;
 
+import static java.util.Collections.singletonList;
 import static org.junit.Assert.*;
 import static org.talend.tql.api.TqlBuilder.contains;
 import static org.talend.tql.api.TqlBuilder.eq;
@@ -120,6 +121,24 @@ public class FileSystemPreparationRepositoryTest extends PreparationRepositoryTe
         assertEquals(expected, actual);
     }
 
+    @Test
+    public void shouldFindStepById() {
+        final Step expected = new Step(Step.ROOT_STEP.id(), "5fa41c6", versionService.version().getVersionId());
+        repository.add(expected);
+
+        assertTrue(repository.exist(Step.class, eq("id", expected.id())));
+        assertFalse(repository.exist(Step.class, eq("id", "unknown")));
+        assertFalse(repository.exist(Preparation.class, eq("id", expected.id())));
+        assertEquals(singletonList(expected), repository.list(Step.class, eq("id", expected.id())).collect(Collectors.toList()));
+    }
+
+    @Test
+    public void shouldNotGetOutsideOfStore() {
+        assertNull(repository.get("../preparation", Preparation.class));
+        assertNull(repository.get("", Preparation.class));
+        assertNull(repository.get(null, Preparation.class));
+    }
+
     @Test
     public void shouldListOnlyPreparationsContainingGivenName() {
         final List<Integer> ids = Arrays.asList(1, 12, 3);
@@ -0,0 +1,74 @@
+// ============================================================================
+// Copyright (C) 2006-2018 Talend Inc. - www.talend.com
+//
+// This source code is available under agreement available at
+// https://github.com/Talend/data-prep/blob/master/LICENSE
+//
+// You should have received a copy of the agreement
+// along with this program; if not, write to Talend SA
+// 9 rue Pages 92150 Suresnes, France
+//
+// ============================================================================
+
+package org.talend.dataprep.transformation.actions.datablending;
+
+import static java.util.Arrays.asList;
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertNotEquals;
+
+import org.junit.Test;
+import org.talend.dataprep.api.dataset.ColumnMetadata;
+import org.talend.dataprep.api.dataset.DataSetContent;
+import org.talend.dataprep.api.dataset.DataSetMetadata;
+import org.talend.dataprep.api.dataset.RowMetadata;
+import org.talend.dataprep.api.type.Type;
+
+public class DataSetLookupRowMatcherTest {
+
+    @Test
+    public void shouldHaveSameVersionForSameContent() {
+        assertEquals(DataSetLookupRowMatcher.getVersion(metadata()), DataSetLookupRowMatcher.getVersion(metadata()));
+    }
+
+    @Test
+    public void shouldChangeVersionWhenFormatChangesWithoutModificationDate() {
+        // given
+        final String version = DataSetLookupRowMatcher.getVersion(metadata());
+
+        // when
+        final DataSetMetadata separatorChanged = metadata();
+        separatorChanged.getContent().addParameter("SEPARATOR", ",");
+        final DataSetMetadata encodingChanged = metadata();
+        encodingChanged.setEncoding("ISO-8859-1");
+        final DataSetMetadata sheetChanged = metadata();
+        sheetChanged.setSheetName("sheet 2");
+        final DataSetMetadata refreshed = metadata();
+        refreshed.getContent().setNbRecords(11);
+        final DataSetMetadata columnAdded = metadata();
+        columnAdded.getRowMetadata().addColumn(column("city"));
+
+        // then
+        assertNotEquals(version, DataSetLookupRowMatcher.getVersion(separatorChanged));
+        assertNotEquals(version, DataSetLookupRowMatcher.getVersion(encodingChanged));
+        assertNotEquals(version, DataSetLookupRowMatcher.getVersion(sheetChanged));
+        assertNotEquals(version, DataSetLookupRowMatcher.getVersion(refreshed));
+        assertNotEquals(version, DataSetLookupRowMatcher.getVersion(columnAdded));
+    }
+
+    private static DataSetMetadata metadata() {
+        final RowMetadata rowMetadata = new RowMetadata(asList(column("id"), column("name")));
+        final DataSetMetadata metadata = new DataSetMetadata("lookup", "lookup", "author", 0L, 0L, rowMetadata, "2.6");
+        final DataSetContent content = new DataSetContent();
+        content.setFormatFamilyId("csv");
+        content.addParameter("SEPARATOR", ";");
+        content.setNbRecords(10);
+        metadata.setContent(content);
+        metadata.setEncoding("UTF-8");
+        metadata.setSheetName("sheet 1");
+        return metadata;
+    }
+
+    private static ColumnMetadata column(String name) {
+        return ColumnMetadata.Builder.column().name(name).type(Type.STRING).build();
+    }
+}
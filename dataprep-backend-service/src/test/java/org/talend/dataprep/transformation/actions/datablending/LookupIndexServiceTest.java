@@ -0,0 +1,145 @@
+// ============================================================================
+// Copyright (C) 2006-2018 Talend Inc. - www.talend.com
+//
+// This source code is available under agreement available at
+// https://github.com/Talend/data-prep/blob/master/LICENSE
+//
+// You should have received a copy of the agreement
+// along with this program; if not, write to Talend SA
+// 9 rue Pages 92150 Suresnes, France
+//
+// ============================================================================
+
+
+package org.talend.dataprep.transformation.actions.datablending;
+
+import static java.util.Arrays.asList;
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertNull;
+import static org.junit.Assert.assertSame;
+
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import org.junit.Before;
+import org.junit.Test;
+import org.springframework.test.util.ReflectionTestUtils;
+import org.talend.dataprep.api.dataset.row.DataSetRow;
+
+public class LookupIndexServiceTest {
+
+    private LookupIndexService service;
+
+    @Before
+    public void setUp() {
+        service = new LookupIndexService();
+        ReflectionTestUtils.setField(service, "maxSize", 1024L * 1024L);
+    }
+
+    @Test
+    public void shouldFindFirstMatchingRow() {
+        // when
+        final LookupIndex index = buildIndex("Paris", "London", "Paris");
+
+        // then
+        assertEquals(2, index.size());
+        assertEquals(0, index.find("Paris"));
+        assertEquals(1, index.find("London"));
+        assertEquals(-1, index.find("Berlin"));
+        assertEquals(-1, index.find(null));
+        assertEquals("Paris", index.get(0, "0000"));
+        assertEquals("value 1", index.get(1, "0001"));
+        assertNull(index.get(1, "9999"));
+    }
+
+    @Test
+    public void shouldBuildIndexOnlyOnceForConcurrentExecutions() throws Exception {
+        // given
+        final AtomicInteger loadCount = new AtomicInteger();
+        final CountDownLatch loading = new CountDownLatch(1);
+        final ExecutorService executor = Executors.newFixedThreadPool(4);
+
+        try {
+            // when
+            final List<Future<LookupIndex>> results = executor.invokeAll(asList( //
+                    () -> service.getIndex("ds", "1", "0000", () -> slowLoad(loadCount, loading)), //
+                    () -> service.getIndex("ds", "1", "0000", () -> slowLoad(loadCount, loading)), //
+                    () -> service.getIndex("ds", "1", "0000", () -> slowLoad(loadCount, loading)), //
+                    () -> {
+                        loading.countDown();
+                        return service.getIndex("ds", "1", "0000", () -> slowLoad(loadCount, loading));
+                    }), 10, TimeUnit.SECONDS);
+
+            // then
+            final LookupIndex index = results.get(0).get();
+            for (Future<LookupIndex> result : results) {
+                assertSame(index, result.get());
+            }
+            assertEquals(1, loadCount.get());
+        } finally {
+            executor.shutdownNow();
+        }
+    }
+
+    @Test
+    public void shouldReplaceIndexOfPreviousVersion() {
+        // given
+        final LookupIndex first = service.getIndex("ds", "1", "0000", () -> buildIndex("a", "b"));
+
+        // when
+        final LookupIndex second = service.getIndex("ds", "2", "0000", () -> buildIndex("a", "b", "c"));
+
+        // then
+        assertSame(second, service.getIndex("ds", "2", "0000", () -> buildIndex("d")));
+        assertEquals(second.getEstimatedSize(), service.getTotalSize());
+        assertEquals(3, service.getIndex("ds", "2", "0000", () -> buildIndex("d")).size());
+        assertEquals(1, service.getIndex("ds", "1", "0000", () -> buildIndex("d")).size());
+        assertEquals(2, first.size());
+    }
+
+    @Test
+    public void shouldEvictLeastRecentlyUsedIndexes() {
+        // given
+        final LookupIndex first = service.getIndex("ds1", "1", "0000", () -> buildIndex("a"));
+        ReflectionTestUtils.setField(service, "maxSize", first.getEstimatedSize() * 2 + 1);
+        final LookupIndex second = service.getIndex("ds2", "1", "0000", () -> buildIndex("b"));
+        assertSame(first, service.getIndex("ds1", "1", "0000", () -> buildIndex("x")));
+
+        // when
+        service.getIndex("ds3", "1", "0000", () -> buildIndex("c"));
+
+        // then (ds2 was the least recently used)
+        assertSame(first, service.getIndex("ds1", "1", "0000", () -> buildIndex("x")));
+        assertEquals(-1, service.getIndex("ds2", "1", "0000", () -> buildIndex("x")).find("b"));
+        assertEquals(0, second.find("b"));
+    }
+
+    private static LookupIndex slowLoad(AtomicInteger loadCount, CountDownLatch loading) {
+        loadCount.incrementAndGet();
+        try {
+            loading.await(5, TimeUnit.SECONDS);
+            Thread.sleep(100);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+        return buildIndex("a", "b");
+    }
+
+    private static LookupIndex buildIndex(String... joinValues) {
+        final LookupIndex.Builder builder = LookupIndex.builder(asList("0000", "0001"), "0000");
+        for (int i = 0; i < joinValues.length; i++) {
+            final Map<String, String> values = new HashMap<>();
+            values.put("0000", joinValues[i]);
+            values.put("0001", "value " + i);
+            builder.add(new DataSetRow(values));
+        }
+        return builder.build();
+    }
+}
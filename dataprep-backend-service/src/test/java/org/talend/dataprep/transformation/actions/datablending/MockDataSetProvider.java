@@ -44,4 +44,16 @@ public class MockDataSetProvider {
         return IOUtils.toString(this.getClass().getResourceAsStream(lookupId + ".json"), UTF_8);
     }
 
+    /**
+     * Lookup metadata (as returned by dataset service, with an empty list of records).
+     *
+     * @param lookupId the lookup dataset id.
+     * @return the lookup dataset (metadata is read from it).
+     * @throws IOException if the lookup dataset can't be read.
+     */
+    @RequestMapping(value = "/datasets/{id}/metadata", method = RequestMethod.GET, produces = MediaType.APPLICATION_JSON_VALUE)
+    public String getSampleRemoteMetadata(@PathVariable(value = "id") String lookupId) throws IOException {
+        return getSampleRemoteFile(lookupId);
+    }
+
 }
@@ -0,0 +1,77 @@
+// ============================================================================
+// Copyright (C) 2006-2018 Talend Inc. - www.talend.com
+//
+// This source code is available under agreement available at
+// https://github.com/Talend/data-prep/blob/master/LICENSE
+//
+// You should have received a copy of the agreement
+// along with this program; if not, write to Talend SA
+// 9 rue Pages 92150 Suresnes, France
+//
+// ============================================================================
+
+
+package org.talend.dataprep.transformation.api.action.dynamic.cluster;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertTrue;
+
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.List;
+import java.util.stream.Collectors;
+import java.util.stream.Stream;
+
+import org.junit.Test;
+import org.springframework.test.util.ReflectionTestUtils;
+import org.talend.dataprep.api.dataset.row.DataSetRow;
+import org.talend.dataprep.parameters.ClusterItem;
+import org.talend.dataprep.parameters.Clusters;
+import org.talend.dataprep.parameters.Parameter;
+
+/**
+ * Unit test for the cluster parameters.
+ *
+ * @see ClusterParameters
+ */
+public class ClusterParametersTest {
+
+    private final ClusterParameters clusterParameters = new ClusterParameters();
+
+    private static Stream<DataSetRow> rows(String... values) {
+        return Stream.of(values).map(v -> new DataSetRow(Collections.singletonMap("0000", v)));
+    }
+
+    private List<ClusterItem> cluster(int blockingThreshold, String... values) {
+        ReflectionTestUtils.setField(clusterParameters, "blockingThreshold", blockingThreshold);
+        return ((Clusters) clusterParameters.getParameters("0000", rows(values)).getDetails()).getClusters();
+    }
+
+    private static List<String> values(ClusterItem cluster) {
+        return cluster.getParameters().stream().map(Parameter::getName).sorted().collect(Collectors.toList());
+    }
+
+    @Test
+    public void shouldKeepMostFrequentValue() {
+        // when
+        final List<ClusterItem> clusters = cluster(0, "Texas", "Tixass", "Tixass", "Tixass", "Texas", "Tixass");
+
+        // then
+        assertEquals(1, clusters.size());
+        assertEquals("Tixass", clusters.get(0).getReplace().getDefault());
+        assertEquals(2, values(clusters.get(0)).size());
+    }
+
+    @Test
+    public void shouldClusterSimilarValuesWithBlocking() {
+        // when (threshold is lower than number of distinct values: blocking is used)
+        final List<ClusterItem> clusters = cluster(1, "Texas", "Tixass", "Tixass", "Massachusetts", "Masachusetts",
+                "Masachusetts");
+
+        // then
+        assertEquals(2, clusters.size());
+        final List<List<String>> values = clusters.stream().map(ClusterParametersTest::values).collect(Collectors.toList());
+        assertTrue(values.contains(Arrays.asList("Texas", "Tixass")));
+        assertTrue(values.contains(Arrays.asList("Masachusetts", "Massachusetts")));
+    }
+}
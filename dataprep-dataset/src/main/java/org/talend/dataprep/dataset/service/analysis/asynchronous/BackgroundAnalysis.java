@@ -14,14 +14,27 @@
 package org.talend.dataprep.dataset.service.analysis.asynchronous;
 
 import static org.talend.dataprep.exception.error.DataSetErrorCodes.UNABLE_TO_ANALYZE_DATASET_QUALITY;
+import static org.talend.dataprep.quality.AnalyzerService.Analysis.*;
 
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.HashSet;
 import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.stream.Collectors;
 import java.util.stream.Stream;
 
+import javax.annotation.Resource;
+
 import org.apache.commons.lang.StringUtils;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.core.task.TaskExecutor;
 import org.springframework.stereotype.Component;
 import org.talend.dataprep.api.dataset.ColumnMetadata;
 import org.talend.dataprep.api.dataset.DataSetMetadata;
@@ -46,6 +59,17 @@ public class BackgroundAnalysis {
     /** This class' logger. */
     private static final Logger LOGGER = LoggerFactory.getLogger(BackgroundAnalysis.class);
 
+    /** Analyses computed in addition to base analysis (semantic types are computed by base analysis). */
+    private static final AnalyzerService.Analysis[] ADVANCED_ANALYSES = { QUALITY, CARDINALITY, FREQUENCY, PATTERNS,
+            LENGTH, QUANTILES, SUMMARY, HISTOGRAM };
+
+    /** Same as {@link #ADVANCED_ANALYSES} but distinct count, frequencies and quantiles are estimated with sketches. */
+    private static final AnalyzerService.Analysis[] APPROXIMATE_ANALYSES = { QUALITY, APPROXIMATE, PATTERNS, LENGTH,
+            SUMMARY, HISTOGRAM };
+
+    /** Number of rows sent at once to each analyzer. */
+    private static final int BATCH_SIZE = 1000;
+
     /** Dataset metadata repository. */
     @Autowired
     DataSetMetadataRepository repository;
@@ -62,6 +86,18 @@ public class BackgroundAnalysis {
     @Autowired
     StatisticsAdapter adapter;
 
+    /** Executor for analyzers (each analyzer runs in its own thread). */
+    @Resource(name = "analysis#executor")
+    TaskExecutor executor;
+
+    /** Number of threads used to analyze content (0 means the number of available processors). */
+    @Value("${dataset.analysis.parallelism:0}")
+    private int parallelism;
+
+    /** Number of records from which approximate statistics are computed (a value &lt;= 0 disables them). */
+    @Value("${dataset.analysis.approximate.threshold:0}")
+    private long approximateThreshold;
+
     /**
      * @see DataSetAnalyzer#analyze
      */
@@ -86,27 +122,63 @@ public class BackgroundAnalysis {
             if (columns.isEmpty()) {
                 LOGGER.debug("Skip statistics of {} (no column information).", metadata.getId());
             } else {
-                // base analysis
-                try (final Stream<DataSetRow> stream = store.stream(metadata)) {
-                    try (Analyzer<Analyzers.Result> analyzer = analyzerService.schemaAnalysis(columns)) {
-                        computeStatistics(analyzer, columns, stream);
-                        LOGGER.debug("Base statistics analysis done for{}", dataSetId);
-                        // Save base analysis
-                        saveAnalyzerResults(dataSetId, analyzer);
+                final Map<String, String> previousTypes = getTypes(columns);
+                final AnalyzerService.Analysis[] advancedAnalyses = getAdvancedAnalyses(metadata);
+                final List<Analyzer<Analyzers.Result>> analyzers = new ArrayList<>();
+                final List<Analyzers.Result> advancedResults = new ArrayList<>();
+                try {
+                    // base analysis (first analyzer) and advanced analysis share the same pass over content
+                    analyzers.add(analyzerService.schemaAnalysis(columns));
+                    for (AnalyzerService.Analysis[] group : getAdvancedAnalysisGroups(advancedAnalyses)) {
+                        analyzers.add(analyzerService.build(columns, group));
+                    }
+                    try (final Stream<DataSetRow> stream = store.streamUnmarked(metadata);
+                            final ParallelAnalyzers parallelAnalyzers = new ParallelAnalyzers(analyzers,
+                                    getParallelism() > 1 ? executor : null, BATCH_SIZE)) {
+                        stream.map(row -> row.toArray(DataSetRow.SKIP_TDP_ID)).forEach(parallelAnalyzers::analyze);
+                        parallelAnalyzers.end();
+
+                        // Save base analysis as soon as available
+                        final List<Analyzers.Result> baseResults = parallelAnalyzers.await(0);
+                        adapter.adapt(columns, baseResults);
+                        saveAnalyzerResults(dataSetId, baseResults);
+                        LOGGER.debug("Base statistics analysis done for {}", dataSetId);
+
+                        // Merge advanced results per column (each analyzer computed a part of the statistics)
+                        for (int i = 1; i < analyzers.size(); i++) {
+                            final List<Analyzers.Result> results = parallelAnalyzers.await(i);
+                            for (int column = 0; column < results.size(); column++) {
+                                if (advancedResults.size() <= column) {
+                                    advancedResults.add(new Analyzers.Result());
+                                }
+                                final Analyzers.Result columnResult = advancedResults.get(column);
+                                results.get(column).getResults().values().forEach(columnResult::add);
+                            }
+                        }
                     }
                 } catch (Exception e) {
-                    LOGGER.warn("Base statistics analysis, dataset {} generates an error", dataSetId, e);
+                    LOGGER.warn("Statistics analysis, dataset {} generates an error", dataSetId, e);
                     throw new TDPException(UNABLE_TO_ANALYZE_DATASET_QUALITY, e);
+                } finally {
+                    close(analyzers);
                 }
+
                 // advanced analysis
-                try (final Stream<DataSetRow> stream = store.stream(metadata)) {
-                    try (Analyzer<Analyzers.Result> analyzer = analyzerService.full(columns)) {
-                        computeStatistics(analyzer, columns, stream);
-                        updateNbRecords(metadata, analyzer.getResult());
-                        LOGGER.debug("Advanced statistics analysis done for{}", dataSetId);
-                        // Save advanced analysis
-                        saveAnalyzerResults(dataSetId, analyzer);
+                try {
+                    adapter.adapt(columns, advancedResults);
+                    updateNbRecords(metadata, advancedResults);
+                    // Advanced analysis used the column types before base analysis: analyze again changed columns
+                    final Set<String> changedColumns = getChangedColumns(previousTypes, columns);
+                    if (!changedColumns.isEmpty()) {
+                        LOGGER.debug("Types of columns {} changed, analyze them again.", changedColumns);
+                        final List<Analyzers.Result> changedResults = analyzeColumns(metadata, columns, changedColumns,
+                                advancedAnalyses);
+                        adapter.adapt(columns, changedResults, c -> changedColumns.contains(c.getId()));
+                        saveAnalyzerResults(dataSetId, advancedResults, changedResults, changedColumns);
+                    } else {
+                        saveAnalyzerResults(dataSetId, advancedResults);
                     }
+                    LOGGER.debug("Advanced statistics analysis done for {}", dataSetId);
                 } catch (Exception e) {
                     LOGGER.warn("Advanced statistics analysis, dataset {} generates an error", dataSetId, e);
                     throw new TDPException(UNABLE_TO_ANALYZE_DATASET_QUALITY, e);
@@ -130,13 +202,30 @@ public class BackgroundAnalysis {
         }
     }
 
-    private void saveAnalyzerResults(String id, Analyzer<Analyzers.Result> analyzer) {
+    private void saveAnalyzerResults(String id, List<Analyzers.Result> results) {
+        saveAnalyzerResults(id, results, Collections.emptyList(), Collections.emptySet());
+    }
+
+    /**
+     * Saves analysis results in data set metadata.
+     *
+     * @param id The data set id.
+     * @param results The results for all columns.
+     * @param changedResults The results for the <code>changedColumns</code> only (override <code>results</code>).
+     * @param changedColumns The ids of the columns analyzed again.
+     */
+    private void saveAnalyzerResults(String id, List<Analyzers.Result> results, List<Analyzers.Result> changedResults,
+            Set<String> changedColumns) {
         DistributedLock datasetLock = repository.createDatasetMetadataLock(id);
         try {
             datasetLock.lock();
             final DataSetMetadata dataSetMetadata = repository.get(id);
             if (dataSetMetadata != null) {
-                adapter.adapt(dataSetMetadata.getRowMetadata().getColumns(), analyzer.getResult());
+                final List<ColumnMetadata> columns = dataSetMetadata.getRowMetadata().getColumns();
+                adapter.adapt(columns, results);
+                if (!changedColumns.isEmpty()) {
+                    adapter.adapt(columns, changedResults, c -> changedColumns.contains(c.getId()));
+                }
                 repository.save(dataSetMetadata);
             }
         } finally {
@@ -144,6 +233,133 @@ public class BackgroundAnalysis {
         }
     }
 
+    /**
+     * @param metadata The data set metadata.
+     * @return The advanced analyses to perform on data set: approximate ones if data set has at least
+     * <code>dataset.analysis.approximate.threshold</code> records.
+     */
+    private AnalyzerService.Analysis[] getAdvancedAnalyses(DataSetMetadata metadata) {
+        if (approximateThreshold > 0) {
+            final long nbRecords = countRecords(metadata, approximateThreshold);
+            if (nbRecords >= approximateThreshold) {
+                LOGGER.debug("Use approximate statistics for {} (at least {} records).", metadata.getId(), nbRecords);
+                return APPROXIMATE_ANALYSES;
+            }
+        }
+        return ADVANCED_ANALYSES;
+    }
+
+    /**
+     * Counts the data set records up to <code>max</code>. Number of records in metadata is only a lower bound (on
+     * import, quality analysis only reads the first records), so content is read when this number is below
+     * <code>max</code>.
+     *
+     * @param metadata The data set metadata.
+     * @param max The max number of records to count.
+     * @return The number of records in data set if it's lower than <code>max</code>, a number &gt;= <code>max</code>
+     * otherwise.
+     */
+    private long countRecords(DataSetMetadata metadata, long max) {
+        final long nbRecords = metadata.getContent().getNbRecords();
+        if (nbRecords >= max) {
+            return nbRecords;
+        }
+        try (final Stream<DataSetRow> stream = store.streamUnmarked(metadata)) {
+            return stream.limit(max).count();
+        }
+    }
+
+    /**
+     * @param advancedAnalyses The advanced analyses to perform.
+     * @return The advanced analyses split in groups (one analyzer per group), semantic analysis is not part of them as
+     * it is already computed by base analysis.
+     */
+    private List<AnalyzerService.Analysis[]> getAdvancedAnalysisGroups(AnalyzerService.Analysis[] advancedAnalyses) {
+        final int groupCount = Math.max(1, Math.min(getParallelism() - 1, advancedAnalyses.length));
+        final List<List<AnalyzerService.Analysis>> groups = new ArrayList<>(groupCount);
+        for (int i = 0; i < groupCount; i++) {
+            groups.add(new ArrayList<>());
+        }
+        for (int i = 0; i < advancedAnalyses.length; i++) {
+            groups.get(i % groupCount).add(advancedAnalyses[i]);
+        }
+        return groups.stream() //
+                .map(group -> group.toArray(new AnalyzerService.Analysis[group.size()])) //
+                .collect(Collectors.toList());
+    }
+
+    private int getParallelism() {
+        return parallelism > 0 ? parallelism : Runtime.getRuntime().availableProcessors();
+    }
+
+    /**
+     * Runs all advanced analyses (in a new pass over content) for some of the columns.
+     *
+     * @param metadata The data set metadata.
+     * @param columns All the data set columns.
+     * @param columnIds The ids of the columns to analyze.
+     * @param advancedAnalyses The advanced analyses to perform.
+     * @return The results for the <code>columnIds</code> columns (in data set columns order).
+     */
+    private List<Analyzers.Result> analyzeColumns(DataSetMetadata metadata, List<ColumnMetadata> columns,
+            Set<String> columnIds, AnalyzerService.Analysis[] advancedAnalyses) throws Exception {
+        final List<ColumnMetadata> selectedColumns = new ArrayList<>();
+        final int[] indexes = new int[columnIds.size()];
+        for (int i = 0; i < columns.size(); i++) {
+            if (columnIds.contains(columns.get(i).getId())) {
+                indexes[selectedColumns.size()] = i;
+                selectedColumns.add(columns.get(i));
+            }
+        }
+        final List<AnalyzerService.Analysis> analyses = new ArrayList<>(Arrays.asList(advancedAnalyses));
+        analyses.add(AnalyzerService.Analysis.SEMANTIC);
+        try (final Stream<DataSetRow> stream = store.streamUnmarked(metadata);
+                final Analyzer<Analyzers.Result> analyzer = analyzerService.build(selectedColumns,
+                        analyses.toArray(new AnalyzerService.Analysis[analyses.size()]))) {
+            stream.map(row -> row.toArray(DataSetRow.SKIP_TDP_ID)).forEach(values -> {
+                final String[] selectedValues = new String[indexes.length];
+                for (int i = 0; i < indexes.length; i++) {
+                    selectedValues[i] = indexes[i] < values.length ? values[indexes[i]] : null;
+                }
+                analyzer.analyze(selectedValues);
+            });
+            analyzer.end();
+            return analyzer.getResult();
+        }
+    }
+
+    /**
+     * @return The type and domain of each column (by column id).
+     */
+    private static Map<String, String> getTypes(List<ColumnMetadata> columns) {
+        final Map<String, String> types = new HashMap<>();
+        for (ColumnMetadata column : columns) {
+            types.put(column.getId(), column.getType() + '|' + column.getDomain());
+        }
+        return types;
+    }
+
+    private static Set<String> getChangedColumns(Map<String, String> previousTypes, List<ColumnMetadata> columns) {
+        final Map<String, String> types = getTypes(columns);
+        final Set<String> changed = new HashSet<>();
+        for (Map.Entry<String, String> type : types.entrySet()) {
+            if (!StringUtils.equals(type.getValue(), previousTypes.get(type.getKey()))) {
+                changed.add(type.getKey());
+            }
+        }
+        return changed;
+    }
+
+    private static void close(List<Analyzer<Analyzers.Result>> analyzers) {
+        for (Analyzer<Analyzers.Result> analyzer : analyzers) {
+            try {
+                analyzer.close();
+            } catch (Exception e) {
+                LOGGER.debug("Unable to close analyzer.", e);
+            }
+        }
+    }
+
     /**
      * Update the number of records for the dataset.
      *
@@ -164,21 +380,4 @@ public class BackgroundAnalysis {
         LOGGER.debug("nb records for {} is updated to {}", metadata.getId(), metadata.getContent().getNbRecords());
     }
 
-    /**
-     * Compute the statistics for the given dataset metadata and content.
-     *
-     * @param analyzer the analyzer to perform.
-     * @param columns the columns metadata.
-     * @param stream the content to compute the statistics from.
-     */
-    private void computeStatistics(final Analyzer<Analyzers.Result> analyzer, final List<ColumnMetadata> columns,
-            final Stream<DataSetRow> stream) {
-        // Create a content with the expected format for the StatisticsClientJson class
-        stream.map(row -> row.toArray(DataSetRow.SKIP_TDP_ID)).forEach(analyzer::analyze);
-        analyzer.end();
-
-        // Store results back in data set
-        adapter.adapt(columns, analyzer.getResult());
-    }
-
 }
@@ -0,0 +1,191 @@
+// ============================================================================
+// Copyright (C) 2006-2018 Talend Inc. - www.talend.com
+//
+// This source code is available under agreement available at
+// https://github.com/Talend/data-prep/blob/master/LICENSE
+//
+// You should have received a copy of the agreement
+// along with this program; if not, write to Talend SA
+// 9 rue Pages 92150 Suresnes, France
+//
+// ============================================================================
+
+
+package org.talend.dataprep.dataset.service.analysis.asynchronous;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.TimeUnit;
+
+import org.springframework.core.task.TaskExecutor;
+import org.talend.dataprep.exception.TDPException;
+import org.talend.dataprep.exception.error.CommonErrorCodes;
+import org.talend.dataquality.common.inference.Analyzer;
+import org.talend.dataquality.common.inference.Analyzers;
+
+/**
+ * <p>
+ * Feeds several analyzers with the same rows in a single pass over the content.
+ * </p>
+ * <p>
+ * When an executor is available, each analyzer runs in its own thread and receives all the rows (in order) by batches:
+ * analyzers results are therefore the same as with a sequential analysis, without any merge of partial results.
+ * Without executor, rows are analyzed by calling thread.
+ * </p>
+ */
+class ParallelAnalyzers implements AutoCloseable {
+
+    /** Marker for the end of the input. */
+    private static final String[][] END = new String[0][];
+
+    /** Maximum number of batches waiting for an analyzer. */
+    private static final int MAX_PENDING_BATCHES = 16;
+
+    private final List<Analyzer<Analyzers.Result>> analyzers;
+
+    private final List<BlockingQueue<String[][]>> queues = new ArrayList<>();
+
+    private final List<CompletableFuture<Void>> completions = new ArrayList<>();
+
+    private final int batchSize;
+
+    private final boolean parallel;
+
+    private String[][] batch;
+
+    private int batchPosition;
+
+    private boolean ended;
+
+    /**
+     * @param analyzers The analyzers to feed (analyzers are neither initialized nor closed by this class).
+     * @param executor The executor to run analyzers in, <code>null</code> to analyze rows in calling thread.
+     * @param batchSize The number of rows sent at once to analyzers.
+     */
+    ParallelAnalyzers(List<Analyzer<Analyzers.Result>> analyzers, TaskExecutor executor, int batchSize) {
+        this.analyzers = analyzers;
+        this.batchSize = Math.max(1, batchSize);
+        this.parallel = executor != null && analyzers.size() > 1;
+        for (Analyzer<Analyzers.Result> analyzer : analyzers) {
+            final CompletableFuture<Void> completion = new CompletableFuture<>();
+            completions.add(completion);
+            if (parallel) {
+                final BlockingQueue<String[][]> queue = new ArrayBlockingQueue<>(MAX_PENDING_BATCHES);
+                queues.add(queue);
+                executor.execute(() -> consume(analyzer, queue, completion));
+            }
+        }
+        batch = new String[this.batchSize][];
+    }
+
+    private static void consume(Analyzer<Analyzers.Result> analyzer, BlockingQueue<String[][]> queue,
+            CompletableFuture<Void> completion) {
+        try {
+            String[][] rows;
+            while ((rows = queue.take()) != END) {
+                for (String[] row : rows) {
+                    analyzer.analyze(row);
+                }
+            }
+            analyzer.end();
+            completion.complete(null);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            completion.completeExceptionally(e);
+        } catch (Throwable e) { // NOSONAR: error is reported to the thread that waits for completion
+            completion.completeExceptionally(e);
+        }
+    }
+
+    /**
+     * Analyzes a row with all analyzers.
+     *
+     * @param row The row values.
+     */
+    void analyze(String[] row) {
+        if (!parallel) {
+            for (Analyzer<Analyzers.Result> analyzer : analyzers) {
+                analyzer.analyze(row);
+            }
+            return;
+        }
+        batch[batchPosition++] = row;
+        if (batchPosition == batchSize) {
+            dispatch(batch);
+            batch = new String[batchSize][];
+            batchPosition = 0;
+        }
+    }
+
+    /**
+     * Signals end of input to all analyzers (remaining rows are analyzed and {@link Analyzer#end()} is called).
+     */
+    void end() {
+        if (ended) {
+            return;
+        }
+        ended = true;
+        if (!parallel) {
+            for (int i = 0; i < analyzers.size(); i++) {
+                analyzers.get(i).end();
+                completions.get(i).complete(null);
+            }
+            return;
+        }
+        if (batchPosition > 0) {
+            final String[][] remaining = new String[batchPosition][];
+            System.arraycopy(batch, 0, remaining, 0, batchPosition);
+            dispatch(remaining);
+        }
+        dispatch(END);
+    }
+
+    /**
+     * Waits for analyzer at <code>index</code> to complete (after {@link #end()} was called).
+     *
+     * @param index The index of the analyzer (as in the list given at creation).
+     * @return The analyzer results.
+     */
+    List<Analyzers.Result> await(int index) {
+        try {
+            completions.get(index).get();
+            return analyzers.get(index).getResult();
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new TDPException(CommonErrorCodes.UNEXPECTED_EXCEPTION, e);
+        } catch (ExecutionException e) {
+            if (e.getCause() instanceof RuntimeException) {
+                throw (RuntimeException) e.getCause();
+            }
+            throw new TDPException(CommonErrorCodes.UNEXPECTED_EXCEPTION, e.getCause());
+        }
+    }
+
+    private void dispatch(String[][] rows) {
+        for (int i = 0; i < queues.size(); i++) {
+            final BlockingQueue<String[][]> queue = queues.get(i);
+            final CompletableFuture<Void> completion = completions.get(i);
+            try {
+                // Don't wait for an analyzer that failed (it no longer reads its queue).
+                while (!completion.isDone() && !queue.offer(rows, 100, TimeUnit.MILLISECONDS)) {
+                    // Wait for analyzer to process pending batches.
+                }
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+                throw new TDPException(CommonErrorCodes.UNEXPECTED_EXCEPTION, e);
+            }
+        }
+    }
+
+    /**
+     * Ends input (if not already done) so analyzer threads can terminate.
+     */
+    @Override
+    public void close() {
+        end();
+    }
+}
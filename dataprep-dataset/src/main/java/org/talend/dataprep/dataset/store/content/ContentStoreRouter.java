@@ -97,6 +97,18 @@ public class ContentStoreRouter extends DataSetContentStore {
         return target.stream(dataSetMetadata);
     }
 
+    @Override
+    protected Stream<DataSetRow> rows(DataSetMetadata dataSetMetadata, long limit) {
+        DataSetContentStore target = wrapStore(dataSetMetadata);
+        return target.rows(dataSetMetadata, limit);
+    }
+
+    @Override
+    protected Stream<DataSetRow> rows(DataSetMetadata dataSetMetadata, long from, long to) {
+        DataSetContentStore target = wrapStore(dataSetMetadata);
+        return target.rows(dataSetMetadata, from, to);
+    }
+
     /**
      * @see DataSetContentStore#clear()
      */
@@ -0,0 +1,371 @@
+// ============================================================================
+// Copyright (C) 2006-2018 Talend Inc. - www.talend.com
+//
+// This source code is available under agreement available at
+// https://github.com/Talend/data-prep/blob/master/LICENSE
+//
+// You should have received a copy of the agreement
+// along with this program; if not, write to Talend SA
+// 9 rue Pages 92150 Suresnes, France
+//
+// ============================================================================
+
+
+package org.talend.dataprep.dataset.store.content.file;
+
+import java.io.BufferedOutputStream;
+import java.io.Closeable;
+import java.io.DataOutputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.nio.ByteBuffer;
+import java.nio.LongBuffer;
+import java.nio.MappedByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.nio.file.StandardOpenOption;
+import java.util.Iterator;
+import java.util.NoSuchElementException;
+import java.util.Spliterator;
+import java.util.Spliterators;
+import java.util.stream.Stream;
+import java.util.stream.StreamSupport;
+
+import org.apache.commons.io.IOUtils;
+import org.apache.commons.io.output.CountingOutputStream;
+import org.talend.daikon.exception.TalendRuntimeException;
+import org.talend.dataprep.BaseErrorCodes;
+import org.talend.dataprep.api.dataset.RowMetadata;
+import org.talend.dataprep.api.dataset.row.DataSetRow;
+
+/**
+ * <p>
+ * A local file that holds data set rows with an index of row offsets: any row can be read without reading the rows
+ * before it. File is read with {@link FileChannel#map(FileChannel.MapMode, long, long) memory mapping}, so concurrent
+ * readers (of the same or distinct ranges) share the same pages and no copy to an intermediate buffer happens.
+ * </p>
+ * <p>
+ * Layout is:
+ * <ul>
+ * <li>Header: magic number, format version, fingerprint of the content (see {@link #open(Path, String)}), number of
+ * columns and column ids.</li>
+ * <li>Rows: for each row, the length prefixed UTF-8 value of each column (length is -1 for a <code>null</code>
+ * value).</li>
+ * <li>Index: the offset of each row.</li>
+ * <li>Footer: offset of the first row, offset of the index, number of rows and magic number.</li>
+ * </ul>
+ * </p>
+ */
+public class IndexedRowFile {
+
+    private static final int MAGIC = 0x54445049; // "TDPI"
+
+    private static final byte VERSION = 2;
+
+    /** Length written in place of a <code>null</code> value (to tell it apart from an empty one). */
+    private static final int NULL_LENGTH = -1;
+
+    private static final int FOOTER_SIZE = 3 * Long.BYTES + Integer.BYTES;
+
+    /** Maximum size of a mapped region of rows. */
+    private static final long WINDOW_SIZE = 64L * 1024 * 1024;
+
+    private final Path path;
+
+    private final String[] columnIds;
+
+    private final long indexOffset;
+
+    private final long rowCount;
+
+    private final LongBuffer index;
+
+    private IndexedRowFile(Path path, String[] columnIds, long indexOffset, long rowCount, LongBuffer index) {
+        this.path = path;
+        this.columnIds = columnIds;
+        this.indexOffset = indexOffset;
+        this.rowCount = rowCount;
+        this.index = index;
+    }
+
+    /**
+     * Opens an existing file.
+     *
+     * @param path The file to open.
+     * @param fingerprint The expected fingerprint of the content.
+     * @return The opened file or <code>null</code> if file does not exist, is not valid or was written for a different
+     * fingerprint.
+     * @throws IOException In case of read error.
+     */
+    public static IndexedRowFile open(Path path, String fingerprint) throws IOException {
+        if (!Files.isRegularFile(path)) {
+            return null;
+        }
+        try (FileChannel channel = FileChannel.open(path, StandardOpenOption.READ)) {
+            final long size = channel.size();
+            if (size < FOOTER_SIZE) {
+                return null;
+            }
+            final ByteBuffer footer = ByteBuffer.allocate(FOOTER_SIZE);
+            while (footer.hasRemaining()) {
+                if (channel.read(footer, size - FOOTER_SIZE + footer.position()) < 0) {
+                    return null;
+                }
+            }
+            footer.flip();
+            final long dataOffset = footer.getLong();
+            final long indexOffset = footer.getLong();
+            final long rowCount = footer.getLong();
+            if (footer.getInt() != MAGIC || indexOffset + rowCount * Long.BYTES != size - FOOTER_SIZE) {
+                return null;
+            }
+
+            final MappedByteBuffer header = channel.map(FileChannel.MapMode.READ_ONLY, 0, dataOffset);
+            if (header.getInt() != MAGIC || header.get() != VERSION || !fingerprint.equals(readString(header))) {
+                return null;
+            }
+            final String[] columnIds = new String[header.getInt()];
+            for (int i = 0; i < columnIds.length; i++) {
+                columnIds[i] = readString(header);
+            }
+
+            final LongBuffer index = channel.map(FileChannel.MapMode.READ_ONLY, indexOffset, rowCount * Long.BYTES)
+                    .asLongBuffer();
+            return new IndexedRowFile(path, columnIds, indexOffset, rowCount, index);
+        }
+    }
+
+    /**
+     * Creates a writer for a new file. File only replaces any existing file at <code>path</code> once
+     * {@link Writer#commit() committed}.
+     *
+     * @param path The file to write.
+     * @param fingerprint The fingerprint of the content.
+     * @param columnIds The ids of the columns to write for each row.
+     * @return A writer for the rows.
+     * @throws IOException In case of write error.
+     */
+    public static Writer writer(Path path, String fingerprint, String[] columnIds) throws IOException {
+        return new Writer(path, fingerprint, columnIds);
+    }
+
+    /**
+     * @return The number of rows in file.
+     */
+    public long getRowCount() {
+        return rowCount;
+    }
+
+    /**
+     * Returns rows from index <code>from</code> (inclusive) to index <code>to</code> (exclusive). As for other data set
+     * row iterators, the same row instance is reused for all rows.
+     *
+     * @param from The index of the first row.
+     * @param to The index after the last row (use -1 or a value greater than {@link #getRowCount()} for "up to the last
+     * row").
+     * @return The rows in range.
+     */
+    public Stream<DataSetRow> stream(long from, long to) {
+        final long start = Math.max(0, Math.min(from, rowCount));
+        final long end = to < 0 ? rowCount : Math.max(start, Math.min(to, rowCount));
+        final Iterator<DataSetRow> iterator = new RowIterator(start, end);
+        return StreamSupport.stream(Spliterators.spliterator(iterator, end - start, Spliterator.ORDERED), false);
+    }
+
+    private long rowStart(long row) {
+        return index.get((int) row);
+    }
+
+    private long rowEnd(long row) {
+        return row + 1 < rowCount ? index.get((int) (row + 1)) : indexOffset;
+    }
+
+    private static String readString(ByteBuffer buffer) {
+        final int length = buffer.getInt();
+        if (length < 0) {
+            return null;
+        } else if (length == 0) {
+            return "";
+        }
+        final byte[] bytes = new byte[length];
+        buffer.get(bytes);
+        return new String(bytes, StandardCharsets.UTF_8);
+    }
+
+    private static void writeString(DataOutputStream output, String value) throws IOException {
+        if (value == null) {
+            output.writeInt(NULL_LENGTH);
+            return;
+        } else if (value.isEmpty()) {
+            output.writeInt(0);
+            return;
+        }
+        final byte[] bytes = value.getBytes(StandardCharsets.UTF_8);
+        output.writeInt(bytes.length);
+        output.write(bytes);
+    }
+
+    /**
+     * Iterates over a range of rows, mapping consecutive windows of the file.
+     */
+    private class RowIterator implements Iterator<DataSetRow> {
+
+        private final DataSetRow row = new DataSetRow(new RowMetadata());
+
+        private final long end;
+
+        private long current;
+
+        private MappedByteBuffer window;
+
+        private long windowStart;
+
+        private long windowEnd;
+
+        private RowIterator(long start, long end) {
+            this.current = start;
+            this.end = end;
+        }
+
+        @Override
+        public boolean hasNext() {
+            return current < end;
+        }
+
+        @Override
+        public DataSetRow next() {
+            if (!hasNext()) {
+                throw new NoSuchElementException();
+            }
+            final long start = rowStart(current);
+            final long rowEnd = rowEnd(current);
+            if (window == null || start < windowStart || rowEnd > windowEnd) {
+                map(start, rowEnd);
+            }
+            window.position((int) (start - windowStart));
+            row.clear();
+            for (String columnId : columnIds) {
+                final String value = readString(window);
+                if (value != null) {
+                    row.set(columnId, value);
+                }
+            }
+            current++;
+            return row;
+        }
+
+        private void map(long start, long rowEnd) {
+            // Map as many rows of the range as possible (but always the whole current row)
+            final long rangeEnd = IndexedRowFile.this.rowEnd(end - 1);
+            final long mappedEnd = Math.max(rowEnd, Math.min(rangeEnd, start + WINDOW_SIZE));
+            try (FileChannel channel = FileChannel.open(path, StandardOpenOption.READ)) {
+                window = channel.map(FileChannel.MapMode.READ_ONLY, start, mappedEnd - start);
+                windowStart = start;
+                windowEnd = mappedEnd;
+            } catch (IOException e) {
+                throw new TalendRuntimeException(BaseErrorCodes.UNEXPECTED_EXCEPTION, e);
+            }
+        }
+    }
+
+    /**
+     * Writes rows to a temporary file, file is moved to its final location on {@link #commit()}.
+     */
+    public static class Writer implements Closeable {
+
+        private final Path path;
+
+        private final Path rowsFile;
+
+        private final Path indexFile;
+
+        private final String[] columnIds;
+
+        private final CountingOutputStream counter;
+
+        private final DataOutputStream rows;
+
+        private final DataOutputStream index;
+
+        private final long dataOffset;
+
+        private long rowCount;
+
+        private boolean committed;
+
+        private Writer(Path path, String fingerprint, String[] columnIds) throws IOException {
+            this.path = path;
+            this.columnIds = columnIds;
+            Files.createDirectories(path.getParent());
+            rowsFile = Files.createTempFile(path.getParent(), path.getFileName().toString(), ".rows");
+            indexFile = Files.createTempFile(path.getParent(), path.getFileName().toString(), ".index");
+            counter = new CountingOutputStream(new BufferedOutputStream(Files.newOutputStream(rowsFile)));
+            rows = new DataOutputStream(counter);
+            index = new DataOutputStream(new BufferedOutputStream(Files.newOutputStream(indexFile)));
+
+            rows.writeInt(MAGIC);
+            rows.writeByte(VERSION);
+            writeString(rows, fingerprint);
+            rows.writeInt(columnIds.length);
+            for (String columnId : columnIds) {
+                writeString(rows, columnId);
+            }
+            rows.flush();
+            dataOffset = counter.getByteCount();
+        }
+
+        /**
+         * Appends a row (values of the columns given at creation).
+         *
+         * @param row The row to write.
+         * @throws IOException In case of write error.
+         */
+        public void write(DataSetRow row) throws IOException {
+            index.writeLong(counter.getByteCount());
+            for (String columnId : columnIds) {
+                writeString(rows, row.get(columnId));
+            }
+            rowCount++;
+        }
+
+        /**
+         * Completes the file (index and footer) and moves it to its final location.
+         *
+         * @throws IOException In case of write error.
+         */
+        public void commit() throws IOException {
+            index.close();
+            final long indexOffset = counter.getByteCount();
+            try (InputStream indexContent = Files.newInputStream(indexFile)) {
+                IOUtils.copy(indexContent, rows);
+            }
+            rows.writeLong(dataOffset);
+            rows.writeLong(indexOffset);
+            rows.writeLong(rowCount);
+            rows.writeInt(MAGIC);
+            rows.close();
+            Files.move(rowsFile, path, StandardCopyOption.REPLACE_EXISTING, StandardCopyOption.ATOMIC_MOVE);
+            committed = true;
+        }
+
+        /**
+         * Releases all resources, and deletes temporary files (file at final location is left unchanged if this writer
+         * was not committed).
+         */
+        @Override
+        public void close() throws IOException {
+            try {
+                index.close();
+                rows.close();
+            } finally {
+                Files.deleteIfExists(indexFile);
+                if (!committed) {
+                    Files.deleteIfExists(rowsFile);
+                }
+            }
+        }
+    }
+}
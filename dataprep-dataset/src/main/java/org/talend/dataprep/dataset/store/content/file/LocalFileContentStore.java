@@ -14,24 +14,47 @@ package org.talend.dataprep.dataset.store.content.file;
 
 import static org.talend.daikon.exception.ExceptionContext.build;
 
+import java.io.File;
 import java.io.IOException;
 import java.io.InputStream;
 import java.io.OutputStream;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.util.Iterator;
+import java.util.Map;
+import java.util.TreeMap;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.stream.Stream;
 
+import org.apache.commons.io.FileUtils;
 import org.apache.commons.io.IOUtils;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
 import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
 import org.springframework.boot.autoconfigure.condition.ConditionalOnBean;
 import org.springframework.stereotype.Component;
 import org.talend.daikon.content.ContentServiceEnabled;
 import org.talend.daikon.content.DeletableResource;
 import org.talend.daikon.content.ResourceResolver;
+import org.talend.dataprep.api.dataset.ColumnMetadata;
+import org.talend.dataprep.api.dataset.DataSetContent;
 import org.talend.dataprep.api.dataset.DataSetMetadata;
+import org.talend.dataprep.api.dataset.row.DataSetRow;
 import org.talend.dataprep.dataset.store.content.DataSetContentStore;
 import org.talend.dataprep.exception.TDPException;
 import org.talend.dataprep.exception.error.DataSetErrorCodes;
 
 /**
+ * <p>
  * Local dataset content that stores content in files.
+ * </p>
+ * <p>
+ * Once the data set schema is known, the raw content is converted (on first read) into an {@link IndexedRowFile}:
+ * later reads no longer parse the raw content and ranges of rows are directly read from the memory mapped file. This
+ * file is rebuilt whenever the raw content or the metadata used to parse it (format, encoding, columns...) changes.
+ * </p>
  */
 @Component("ContentStore#local")
 @ConditionalOnBean(ContentServiceEnabled.class)
@@ -39,15 +62,131 @@ public class LocalFileContentStore extends DataSetContentStore {
 
     private static final String ROOT = "/store/datasets/content/dataset/";
 
+    private static final Logger LOGGER = LoggerFactory.getLogger(LocalFileContentStore.class);
+
     @Autowired
     private ResourceResolver resolver;
 
+    /** Where to store the indexed rows (must be a local directory as files are memory mapped). */
+    @Value("${dataset.content.store.index.location:${java.io.tmpdir}/dataprep/store/datasets/index}")
+    private String indexLocation;
+
+    /** Enable or disable the conversion of raw content into indexed rows. */
+    @Value("${dataset.content.store.index.enabled:true}")
+    private boolean indexEnabled;
+
+    /** Locks (per data set id) to prevent concurrent conversions of the same data set. */
+    private final Map<String, Object> indexLocks = new ConcurrentHashMap<>();
+
     private DeletableResource getResource(DataSetMetadata dataSetMetadata) {
         return resolver.getResource(ROOT + dataSetMetadata.getId());
     }
 
+    private Path getIndexPath(DataSetMetadata dataSetMetadata) {
+        return Paths.get(indexLocation, dataSetMetadata.getId());
+    }
+
+    /**
+     * @return A string that changes whenever the raw content or the way it is parsed into rows changes. Size and last
+     * modification of the raw content are part of it, so an index built from a raw content that was replaced during the
+     * conversion is never used.
+     */
+    private String getFingerprint(DataSetMetadata dataSetMetadata) throws IOException {
+        final DataSetContent content = dataSetMetadata.getContent();
+        final DeletableResource resource = getResource(dataSetMetadata);
+        final StringBuilder fingerprint = new StringBuilder();
+        fingerprint.append(resource.contentLength()) //
+                .append('|').append(resource.lastModified()) //
+                .append('|').append(content.getFormatFamilyId()) //
+                .append('|').append(dataSetMetadata.getEncoding()) //
+                .append('|').append(dataSetMetadata.getSheetName()) //
+                .append('|').append(content.getNbLinesInHeader()) //
+                .append('|').append(content.getNbLinesInFooter()) //
+                .append('|').append(new TreeMap<>(content.getParameters()));
+        for (ColumnMetadata column : dataSetMetadata.getRowMetadata().getColumns()) {
+            fingerprint.append('|').append(column.getId());
+        }
+        return fingerprint.toString();
+    }
+
+    /**
+     * Returns the indexed rows for the data set, converting the raw content if needed.
+     *
+     * @param dataSetMetadata The data set metadata.
+     * @return The indexed rows or <code>null</code> if rows can't be indexed (schema not yet analyzed, error...).
+     */
+    private IndexedRowFile getIndexedRows(DataSetMetadata dataSetMetadata) {
+        if (!indexEnabled || !dataSetMetadata.getLifecycle().schemaAnalyzed()
+                || dataSetMetadata.getRowMetadata().getColumns().isEmpty()) {
+            return null;
+        }
+        final Path path = getIndexPath(dataSetMetadata);
+        try {
+            final String fingerprint = getFingerprint(dataSetMetadata);
+            IndexedRowFile indexedRows = IndexedRowFile.open(path, fingerprint);
+            if (indexedRows != null) {
+                return indexedRows;
+            }
+            synchronized (indexLocks.computeIfAbsent(dataSetMetadata.getId(), id -> new Object())) {
+                // Another thread may have converted content in the meantime
+                indexedRows = IndexedRowFile.open(path, fingerprint);
+                if (indexedRows == null) {
+                    index(dataSetMetadata, path, fingerprint);
+                    indexedRows = IndexedRowFile.open(path, fingerprint);
+                }
+                return indexedRows;
+            }
+        } catch (Exception e) {
+            LOGGER.warn("Unable to use indexed rows for data set #{}, read raw content.", dataSetMetadata.getId(), e);
+            return null;
+        }
+    }
+
+    private void index(DataSetMetadata dataSetMetadata, Path path, String fingerprint) throws IOException {
+        final long start = System.currentTimeMillis();
+        final String[] columnIds = dataSetMetadata.getRowMetadata().getColumns().stream() //
+                .map(ColumnMetadata::getId) //
+                .toArray(String[]::new);
+        try (Stream<DataSetRow> rows = super.rows(dataSetMetadata, -1);
+                IndexedRowFile.Writer writer = IndexedRowFile.writer(path, fingerprint, columnIds)) {
+            final Iterator<DataSetRow> iterator = rows.iterator();
+            while (iterator.hasNext()) {
+                writer.write(iterator.next());
+            }
+            writer.commit();
+        }
+        LOGGER.debug("Indexed rows of data set #{} in {} ms.", dataSetMetadata.getId(),
+                System.currentTimeMillis() - start);
+    }
+
+    private void deleteIndexedRows(DataSetMetadata dataSetMetadata) {
+        try {
+            Files.deleteIfExists(getIndexPath(dataSetMetadata));
+        } catch (IOException e) {
+            LOGGER.warn("Unable to delete indexed rows of data set #{}.", dataSetMetadata.getId(), e);
+        }
+    }
+
+    @Override
+    protected Stream<DataSetRow> rows(DataSetMetadata dataSetMetadata, long limit) {
+        return rows(dataSetMetadata, 0, limit);
+    }
+
+    @Override
+    protected Stream<DataSetRow> rows(DataSetMetadata dataSetMetadata, long from, long to) {
+        final IndexedRowFile indexedRows = getIndexedRows(dataSetMetadata);
+        if (indexedRows != null) {
+            return indexedRows.stream(from, to);
+        } else if (from == 0) {
+            return super.rows(dataSetMetadata, to);
+        } else {
+            return super.rows(dataSetMetadata, from, to);
+        }
+    }
+
     @Override
     public void storeAsRaw(DataSetMetadata dataSetMetadata, InputStream dataSetContent) {
+        deleteIndexedRows(dataSetMetadata);
         final DeletableResource resource = getResource(dataSetMetadata);
         try (OutputStream outputStream = resource.getOutputStream()) {
             IOUtils.copy(dataSetContent, outputStream);
@@ -69,6 +208,8 @@ public class LocalFileContentStore extends DataSetContentStore {
 
     @Override
     public void delete(DataSetMetadata dataSetMetadata) {
+        deleteIndexedRows(dataSetMetadata);
+        indexLocks.remove(dataSetMetadata.getId());
         final DeletableResource resource = getResource(dataSetMetadata);
         try {
             resource.delete();
@@ -81,6 +222,7 @@ public class LocalFileContentStore extends DataSetContentStore {
     @Override
     public void clear() {
         try {
+            FileUtils.deleteDirectory(new File(indexLocation));
             resolver.clear(ROOT + "/**");
         } catch (IOException e) {
             throw new TDPException(DataSetErrorCodes.UNABLE_TO_CLEAR_DATASETS, e);
@@ -14,10 +14,13 @@ package org.talend.dataprep.dataset.store.metadata;
 
 import static org.talend.dataprep.util.SortAndOrderHelper.getDataSetMetadataComparator;
 
+import java.util.Collections;
 import java.util.Comparator;
+import java.util.Objects;
 import java.util.function.Predicate;
 import java.util.stream.Stream;
 
+import org.apache.commons.lang.StringUtils;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 import org.talend.dataprep.api.dataset.DataSetMetadata;
@@ -33,10 +36,30 @@ public abstract class ObjectDataSetMetadataRepository extends DataSetMetadataRep
 
     protected abstract Stream<DataSetMetadata> source();
 
+    /**
+     * @return The metadata used to answer search and listing queries (by default, the full metadata from
+     * {@link #source()}). Implementations may return lighter metadata (without column statistics) as long as all fields
+     * used for filtering and sorting are present: listing queries filter and sort summaries, then only
+     * {@link #resolve(DataSetMetadata) resolve} the ones read by the caller.
+     */
+    protected Stream<DataSetMetadata> summaries() {
+        return source();
+    }
+
+    /**
+     * @param summary A metadata returned by {@link #summaries()}.
+     * @return The full metadata to return to callers of listing queries, or <code>null</code> if data set no longer
+     * exists. Implementations that return lighter or shared summaries must return a new instance of the full metadata
+     * (callers are free to modify returned metadata), default implementation returns <code>summary</code>.
+     */
+    protected DataSetMetadata resolve(DataSetMetadata summary) {
+        return summary;
+    }
+
     @Override
     public boolean exist(String filter) {
         final Predicate<DataSetMetadata> accept = Tql.parse(filter).accept(new BeanPredicateVisitor<>(DataSetMetadata.class));
-        return source().anyMatch(accept);
+        return summaries().anyMatch(accept);
     }
 
     @Override
@@ -47,18 +70,31 @@ public abstract class ObjectDataSetMetadataRepository extends DataSetMetadataRep
     @Override
     public Stream<DataSetMetadata> list(String filter, Sort sortField, Order sortDirection) {
         final Predicate<DataSetMetadata> accept = Tql.parse(filter).accept(new BeanPredicateVisitor<>(DataSetMetadata.class));
-        final Stream<DataSetMetadata> stream = source().filter(accept);
+        Stream<DataSetMetadata> stream = summaries().filter(accept);
         if (sortField != null) {
             final Comparator<DataSetMetadata> dataSetMetadataComparator = getDataSetMetadataComparator(sortField, sortDirection);
-            return stream.sorted(dataSetMetadataComparator);
-        } else {
-            return stream;
+            stream = stream.sorted(dataSetMetadataComparator);
+        }
+        // Resolve after sort so callers that limit the stream only resolve the metadata they read
+        return stream.map(this::resolve).filter(Objects::nonNull);
+    }
+
+    @Override
+    public Iterable<DataSetMetadata> listCompatible(String id) {
+        final DataSetMetadata metadata = get(id);
+        if (metadata == null) {
+            return Collections.emptyList();
         }
+        final Stream<DataSetMetadata> stream = summaries()
+                .filter(m -> m != null && !StringUtils.equals(id, m.getId()) && metadata.compatible(m)) //
+                .map(this::resolve) //
+                .filter(Objects::nonNull);
+        return stream::iterator;
     }
 
     @Override
     public int size() {
-        return (int) source().count();
+        return (int) summaries().count();
     }
 
     @Override
@@ -80,7 +116,7 @@ public abstract class ObjectDataSetMetadataRepository extends DataSetMetadataRep
 
     @Override
     public long countAllDataSetsSize() {
-        return list().mapToLong(DataSetMetadata::getDataSetSize).sum();
+        return summaries().mapToLong(DataSetMetadata::getDataSetSize).sum();
     }
 
 }
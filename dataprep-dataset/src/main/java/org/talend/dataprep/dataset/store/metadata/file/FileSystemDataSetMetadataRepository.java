@@ -16,6 +16,9 @@ package org.talend.dataprep.dataset.store.metadata.file;
 import java.io.*;
 import java.nio.file.Files;
 import java.util.Arrays;
+import java.util.Collections;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
 import java.util.concurrent.locks.ReentrantReadWriteLock;
 import java.util.stream.Stream;
 import java.util.zip.GZIPInputStream;
@@ -23,6 +26,7 @@ import java.util.zip.GZIPOutputStream;
 
 import javax.annotation.PostConstruct;
 
+import org.apache.commons.io.IOUtils;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 import org.springframework.beans.factory.annotation.Autowired;
@@ -30,7 +34,9 @@ import org.springframework.beans.factory.annotation.Value;
 import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
 import org.springframework.stereotype.Component;
 import org.talend.daikon.exception.ExceptionContext;
+import org.talend.dataprep.api.dataset.ColumnMetadata;
 import org.talend.dataprep.api.dataset.DataSetMetadata;
+import org.talend.dataprep.api.dataset.statistics.Statistics;
 import org.talend.dataprep.dataset.store.metadata.DataSetMetadataRepository;
 import org.talend.dataprep.dataset.store.metadata.ObjectDataSetMetadataRepository;
 import org.talend.dataprep.exception.TDPException;
@@ -44,6 +50,12 @@ import com.fasterxml.jackson.databind.ObjectMapper;
  * File system implementation of the DataSetMetadataRepository.
  *
  * DatasetMetadata are saved as gzipped json files.
+ *
+ * When <code>dataset.metadata.store.file.index.enabled</code> is set, search queries are evaluated on an in-memory
+ * index of summaries (metadata without column statistics, see {@link #toSummary(byte[])}). Index is built on first query
+ * and updated on each save/remove under the same locks as the files. The index only selects data set ids: all queries
+ * return the full metadata read from the files (see {@link #resolve(DataSetMetadata)}). As index is kept per process,
+ * it must not be enabled when several instances share the same store.
  */
 @Component
 @ConditionalOnProperty(name = "dataset.metadata.store", havingValue = "file")
@@ -65,6 +77,16 @@ public class FileSystemDataSetMetadataRepository extends ObjectDataSetMetadataRe
     @Value("${dataset.metadata.store.file.location}")
     private String storeLocation;
 
+    /** <code>true</code> to evaluate search queries in memory, <code>false</code> to always read all files. */
+    @Value("${dataset.metadata.store.file.index.enabled:false}")
+    private boolean indexEnabled;
+
+    /** Summaries of all data sets in store, by data set id. */
+    private final Map<String, DataSetMetadata> summaries = new ConcurrentHashMap<>();
+
+    /** <code>true</code> once all files in store were read in {@link #summaries}. */
+    private volatile boolean indexed;
+
     @PostConstruct
     private void init() {
         try {
@@ -83,8 +105,14 @@ public class FileSystemDataSetMetadataRepository extends ObjectDataSetMetadataRe
         final File file = getFile(id);
 
         lock.writeLock().lock();
-        try (GZIPOutputStream output = new GZIPOutputStream(new FileOutputStream(file))) {
-            mapper.writer().writeValue(output, metadata);
+        try {
+            final byte[] json = mapper.writer().writeValueAsBytes(metadata);
+            try (GZIPOutputStream output = new GZIPOutputStream(new FileOutputStream(file))) {
+                output.write(json);
+            }
+            if (indexEnabled) {
+                summaries.put(id, toSummary(json));
+            }
         } catch (IOException e) {
             LOG.error("Error saving {}", metadata, e);
             throw new TDPException(DataSetErrorCodes.UNABLE_TO_STORE_DATASET_METADATA, e,  ExceptionContext.build().put("id", metadata.getId()));
@@ -128,10 +156,27 @@ public class FileSystemDataSetMetadataRepository extends ObjectDataSetMetadataRe
     @Override
     public void remove(String id) {
         final File file = getFile(id);
-        FilesHelper.deleteQuietly(file);
+        ReentrantReadWriteLock lock = locks.getLock(id);
+        lock.writeLock().lock();
+        try {
+            FilesHelper.deleteQuietly(file);
+            summaries.remove(id);
+        } finally {
+            lock.writeLock().unlock();
+        }
         LOG.debug("metadata {} successfully deleted", id);
     }
 
+    @Override
+    public void clear() {
+        super.clear();
+        synchronized (summaries) {
+            // Files removed without this repository (if any) are removed from index on next query.
+            summaries.clear();
+            indexed = false;
+        }
+    }
+
     @Override
     public Stream<DataSetMetadata> source() {
         final File folder = getRootFolder();
@@ -143,6 +188,84 @@ public class FileSystemDataSetMetadataRepository extends ObjectDataSetMetadataRe
         return Arrays.stream(files).map(f -> get(f.getName())).filter(m -> m != null);
     }
 
+    @Override
+    protected Stream<DataSetMetadata> summaries() {
+        if (!indexEnabled) {
+            return super.summaries();
+        }
+        if (!indexed) {
+            buildIndex();
+        }
+        return summaries.values().stream();
+    }
+
+    /**
+     * Summaries lack statistics and are shared by all queries: callers get the full metadata read from file.
+     */
+    @Override
+    protected DataSetMetadata resolve(DataSetMetadata summary) {
+        if (!indexEnabled) {
+            return summary;
+        }
+        return get(summary.getId());
+    }
+
+    /**
+     * Reads all files in store to fill the summaries index. Each file is read under its data set lock, so a concurrent
+     * save or remove is either visible in file or applied to index after it.
+     */
+    private void buildIndex() {
+        synchronized (summaries) {
+            if (indexed) {
+                return;
+            }
+            final long start = System.currentTimeMillis();
+            final File[] files = getRootFolder().listFiles();
+            if (files != null) {
+                for (File file : files) {
+                    final String id = file.getName();
+                    if (id.startsWith(".")) {
+                        continue;
+                    }
+                    ReentrantReadWriteLock lock = locks.getLock(id);
+                    lock.readLock().lock();
+                    try (GZIPInputStream input = new GZIPInputStream(new FileInputStream(file))) {
+                        summaries.put(id, toSummary(IOUtils.toByteArray(input)));
+                    } catch (FileNotFoundException e) {
+                        LOG.debug("dataset #{} removed during indexing", id, e);
+                    } catch (IOException e) {
+                        LOG.error("unable to index dataset {}", id, e);
+                    } finally {
+                        lock.readLock().unlock();
+                    }
+                }
+            }
+            indexed = true;
+            LOG.info("Data set metadata index built in {} ms ({} data sets).", System.currentTimeMillis() - start,
+                    summaries.size());
+        }
+    }
+
+    /**
+     * Creates the summary of a data set metadata: all the fields are kept (including column names and types used by
+     * compatibility checks) except the column statistics and the schema parser result.
+     *
+     * @param json The serialized data set metadata.
+     * @return A new metadata instance without the large (and not searchable) fields.
+     * @throws IOException If <code>json</code> can't be read.
+     */
+    private DataSetMetadata toSummary(byte[] json) throws IOException {
+        final DataSetMetadata summary = mapper.readerFor(DataSetMetadata.class).readValue(json);
+        if (summary.getRowMetadata() != null) {
+            for (ColumnMetadata column : summary.getRowMetadata().getColumns()) {
+                column.setStatistics(new Statistics());
+                column.setSemanticDomains(Collections.emptyList());
+            }
+        }
+        summary.setSchemaParserResult(null);
+        return summary;
+    }
+
     /**
      * Return the file that matches the given metadata id.
      *
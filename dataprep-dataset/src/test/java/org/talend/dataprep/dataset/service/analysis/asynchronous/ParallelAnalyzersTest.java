@@ -0,0 +1,144 @@
+// ============================================================================
+// Copyright (C) 2006-2018 Talend Inc. - www.talend.com
+//
+// This source code is available under agreement available at
+// https://github.com/Talend/data-prep/blob/master/LICENSE
+//
+// You should have received a copy of the agreement
+// along with this program; if not, write to Talend SA
+// 9 rue Pages 92150 Suresnes, France
+//
+// ============================================================================
+
+
+package org.talend.dataprep.dataset.service.analysis.asynchronous;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertTrue;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.List;
+
+import org.junit.Test;
+import org.springframework.core.task.SimpleAsyncTaskExecutor;
+import org.springframework.core.task.TaskExecutor;
+import org.talend.dataprep.exception.TDPException;
+import org.talend.dataprep.exception.error.CommonErrorCodes;
+import org.talend.dataquality.common.inference.Analyzer;
+import org.talend.dataquality.common.inference.Analyzers;
+
+public class ParallelAnalyzersTest {
+
+    private static final int ROW_COUNT = 2503;
+
+    @Test
+    public void shouldAnalyzeAllRowsInCallingThread() {
+        assertAllRowsAnalyzed(null);
+    }
+
+    @Test
+    public void shouldAnalyzeAllRowsInOrderWithExecutor() {
+        assertAllRowsAnalyzed(new SimpleAsyncTaskExecutor("test-analysis-"));
+    }
+
+    @Test(expected = TDPException.class)
+    public void shouldReportAnalyzerError() {
+        // given
+        final RecordingAnalyzer failing = new RecordingAnalyzer(3);
+        final List<Analyzer<Analyzers.Result>> analyzers = Arrays.asList(new RecordingAnalyzer(-1), failing);
+
+        // when
+        try (ParallelAnalyzers parallelAnalyzers = new ParallelAnalyzers(analyzers,
+                new SimpleAsyncTaskExecutor("test-analysis-"), 2)) {
+            for (int i = 0; i < ROW_COUNT; i++) {
+                parallelAnalyzers.analyze(new String[] { String.valueOf(i) });
+            }
+            parallelAnalyzers.end();
+            assertEquals(ROW_COUNT, parallelAnalyzers.await(0).size());
+
+            // then
+            parallelAnalyzers.await(1);
+        }
+    }
+
+    private static void assertAllRowsAnalyzed(TaskExecutor executor) {
+        // given
+        final List<RecordingAnalyzer> recordingAnalyzers = Arrays.asList(new RecordingAnalyzer(-1),
+                new RecordingAnalyzer(-1), new RecordingAnalyzer(-1));
+        final List<Analyzer<Analyzers.Result>> analyzers = new ArrayList<>(recordingAnalyzers);
+
+        // when
+        try (ParallelAnalyzers parallelAnalyzers = new ParallelAnalyzers(analyzers, executor, 100)) {
+            for (int i = 0; i < ROW_COUNT; i++) {
+                parallelAnalyzers.analyze(new String[] { String.valueOf(i) });
+            }
+            parallelAnalyzers.end();
+
+            // then
+            for (int i = 0; i < analyzers.size(); i++) {
+                assertEquals(ROW_COUNT, parallelAnalyzers.await(i).size());
+                final RecordingAnalyzer analyzer = recordingAnalyzers.get(i);
+                assertTrue(analyzer.ended);
+                for (int row = 0; row < ROW_COUNT; row++) {
+                    assertEquals(String.valueOf(row), analyzer.values.get(row));
+                }
+            }
+        }
+    }
+
+    /**
+     * An analyzer that keeps all analyzed values (one result per row) and may fail at a given row.
+     */
+    private static class RecordingAnalyzer implements Analyzer<Analyzers.Result> {
+
+        private final List<String> values = Collections.synchronizedList(new ArrayList<>());
+
+        private final int failAt;
+
+        private volatile boolean ended;
+
+        private RecordingAnalyzer(int failAt) {
+            this.failAt = failAt;
+        }
+
+        @Override
+        public void init() {
+            // Nothing to do.
+        }
+
+        @Override
+        public boolean analyze(String... record) {
+            if (values.size() == failAt) {
+                throw new TDPException(CommonErrorCodes.UNEXPECTED_EXCEPTION);
+            }
+            values.add(record[0]);
+            return true;
+        }
+
+        @Override
+        public void end() {
+            ended = true;
+        }
+
+        @Override
+        public List<Analyzers.Result> getResult() {
+            final List<Analyzers.Result> results = new ArrayList<>();
+            for (int i = 0; i < values.size(); i++) {
+                results.add(new Analyzers.Result());
+            }
+            return results;
+        }
+
+        @Override
+        public Analyzer<Analyzers.Result> merge(Analyzer<Analyzers.Result> another) {
+            throw new UnsupportedOperationException();
+        }
+
+        @Override
+        public void close() {
+            // Nothing to do.
+        }
+    }
+}
@@ -16,13 +16,16 @@ package org.talend.dataprep.dataset.service.analysis.asynchronous;
 import static org.hamcrest.CoreMatchers.is;
 import static org.junit.Assert.*;
 
+import java.io.ByteArrayInputStream;
 import java.io.InputStream;
+import java.nio.charset.StandardCharsets;
 import java.util.List;
 import java.util.Random;
 import java.util.stream.Collectors;
 
 import org.junit.Test;
 import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.test.util.ReflectionTestUtils;
 import org.talend.dataprep.api.dataset.ColumnMetadata;
 import org.talend.dataprep.api.dataset.DataSetMetadata;
 import org.talend.dataprep.api.dataset.statistics.PatternFrequency;
@@ -46,6 +49,9 @@ public class StatisticsAnalysisTest extends DataSetBaseTest {
     @Autowired
     SyncBackgroundAnalysis statisticsAnalysis;
 
+    @Autowired
+    BackgroundAnalysis backgroundAnalysis;
+
     /** Random to generate random dataset id. */
     private Random random = new Random();
 
@@ -82,6 +88,35 @@ public class StatisticsAnalysisTest extends DataSetBaseTest {
         assertThat(metadata.getContent().getNbRecords(), is(4L));
     }
 
+    @Test
+    public void shouldComputeApproximateStatisticsOnImportedDataSetsOverThreshold() throws Exception {
+        // given (threshold over the number of records analyzed by synchronous quality analysis)
+        ReflectionTestUtils.setField(backgroundAnalysis, "approximateThreshold", 2500L);
+        try {
+            // when
+            final String smallDataSetId = createCSVDataSet(getContent(2400), "small");
+            final String largeDataSetId = createCSVDataSet(getContent(2600), "large");
+
+            // then
+            final DataSetMetadata small = dataSetMetadataRepository.get(smallDataSetId);
+            assertThat(small.getContent().getNbRecords(), is(2400L));
+            assertFalse(small.getRowMetadata().getById("0001").getStatistics().isApproximate());
+            final DataSetMetadata large = dataSetMetadataRepository.get(largeDataSetId);
+            assertThat(large.getContent().getNbRecords(), is(2600L));
+            assertTrue(large.getRowMetadata().getById("0001").getStatistics().isApproximate());
+        } finally {
+            ReflectionTestUtils.setField(backgroundAnalysis, "approximateThreshold", 0L);
+        }
+    }
+
+    private static InputStream getContent(int records) {
+        final StringBuilder content = new StringBuilder("id,name\n");
+        for (int i = 0; i < records; i++) {
+            content.append(i).append(",name_").append(i % 100).append('\n');
+        }
+        return new ByteArrayInputStream(content.toString().getBytes(StandardCharsets.UTF_8));
+    }
+
     /**
      * Initialize a dataset with the given content. Perform the format and the schema analysis.
      *
@@ -0,0 +1,131 @@
+// ============================================================================
+// Copyright (C) 2006-2018 Talend Inc. - www.talend.com
+//
+// This source code is available under agreement available at
+// https://github.com/Talend/data-prep/blob/master/LICENSE
+//
+// You should have received a copy of the agreement
+// along with this program; if not, write to Talend SA
+// 9 rue Pages 92150 Suresnes, France
+//
+// ============================================================================
+
+
+package org.talend.dataprep.dataset.store.content.file;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertNotNull;
+import static org.junit.Assert.assertNull;
+
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.stream.Collectors;
+
+import org.junit.Rule;
+import org.junit.Test;
+import org.junit.rules.TemporaryFolder;
+import org.talend.dataprep.api.dataset.row.DataSetRow;
+
+public class IndexedRowFileTest {
+
+    private static final String[] COLUMNS = { "0000", "0001" };
+
+    @Rule
+    public TemporaryFolder folder = new TemporaryFolder();
+
+    private Path write(String fingerprint, int rowCount) throws Exception {
+        final Path path = folder.getRoot().toPath().resolve("dataset");
+        try (IndexedRowFile.Writer writer = IndexedRowFile.writer(path, fingerprint, COLUMNS)) {
+            for (int i = 0; i < rowCount; i++) {
+                final Map<String, String> values = new HashMap<>();
+                values.put("0000", "value_" + i);
+                values.put("0001", i % 2 == 0 ? "" : "été " + i);
+                writer.write(new DataSetRow(values));
+            }
+            writer.commit();
+        }
+        return path;
+    }
+
+    @Test
+    public void shouldReadAllRows() throws Exception {
+        // given
+        final Path path = write("fingerprint", 1000);
+
+        // when
+        final IndexedRowFile file = IndexedRowFile.open(path, "fingerprint");
+
+        // then
+        assertNotNull(file);
+        assertEquals(1000, file.getRowCount());
+        final List<String> values = file.stream(0, -1).map(r -> r.get("0000") + "/" + r.get("0001"))
+                .collect(Collectors.toList());
+        assertEquals(1000, values.size());
+        assertEquals("value_0/", values.get(0));
+        assertEquals("value_999/été 999", values.get(999));
+    }
+
+    @Test
+    public void shouldReadRange() throws Exception {
+        // given
+        final IndexedRowFile file = IndexedRowFile.open(write("fingerprint", 1000), "fingerprint");
+
+        // when
+        final List<String> values = file.stream(500, 503).map(r -> r.get("0000")).collect(Collectors.toList());
+
+        // then
+        assertEquals(3, values.size());
+        assertEquals("value_500", values.get(0));
+        assertEquals("value_502", values.get(2));
+        assertEquals(0, file.stream(2000, 3000).count());
+        assertEquals(10, file.stream(990, 2000).count());
+    }
+
+    @Test
+    public void shouldKeepNullApartFromEmptyValue() throws Exception {
+        // given
+        final Path path = folder.getRoot().toPath().resolve("dataset");
+        try (IndexedRowFile.Writer writer = IndexedRowFile.writer(path, "fingerprint", COLUMNS)) {
+            final Map<String, String> values = new HashMap<>();
+            values.put("0000", null);
+            values.put("0001", "");
+            writer.write(new DataSetRow(values));
+            writer.commit();
+        }
+
+        // when
+        final DataSetRow row = IndexedRowFile.open(path, "fingerprint").stream(0, -1).findFirst().get();
+
+        // then
+        assertNull(row.get("0000"));
+        assertEquals("", row.get("0001"));
+    }
+
+    @Test
+    public void shouldIgnoreOtherFingerprint() throws Exception {
+        // given
+        final Path path = write("fingerprint", 10);
+
+        // then
+        assertNull(IndexedRowFile.open(path, "other fingerprint"));
+        assertNull(IndexedRowFile.open(path.resolveSibling("missing"), "fingerprint"));
+    }
+
+    @Test
+    public void shouldNotReplaceFileWithoutCommit() throws Exception {
+        // given
+        final Path path = write("fingerprint", 10);
+
+        // when
+        try (IndexedRowFile.Writer writer = IndexedRowFile.writer(path, "fingerprint", COLUMNS)) {
+            writer.write(new DataSetRow(new HashMap<>()));
+        }
+
+        // then
+        assertEquals(10, IndexedRowFile.open(path, "fingerprint").getRowCount());
+        assertEquals(1, Files.list(folder.getRoot().toPath()).count());
+    }
+}
@@ -0,0 +1,88 @@
+//  ============================================================================
+//
+//  Copyright (C) 2006-2018 Talend Inc. - www.talend.com
+//
+//  This source code is available under agreement available at
+//  https://github.com/Talend/data-prep/blob/master/LICENSE
+//
+//  You should have received a copy of the agreement
+//  along with this program; if not, write to Talend SA
+//  9 rue Pages 92150 Suresnes, France
+//
+//  ============================================================================
+
+package org.talend.dataprep.dataset.store.metadata.file;
+
+import static java.util.Collections.singletonList;
+import static org.junit.Assert.assertEquals;
+import static org.mockito.Matchers.anyString;
+import static org.mockito.Mockito.spy;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
+import static org.talend.dataprep.api.dataset.ColumnMetadata.Builder.column;
+
+import java.io.IOException;
+import java.util.List;
+import java.util.stream.Collectors;
+
+import org.junit.Test;
+import org.springframework.test.context.TestPropertySource;
+import org.talend.dataprep.api.dataset.DataSetMetadata;
+import org.talend.dataprep.api.dataset.RowMetadata;
+import org.talend.dataprep.api.type.Type;
+import org.talend.dataprep.util.SortAndOrderHelper.Order;
+import org.talend.dataprep.util.SortAndOrderHelper.Sort;
+
+/**
+ * Runs all {@link FileSystemDataSetMetadataRepositoryTest} tests with the in-memory index enabled.
+ */
+@TestPropertySource(inheritLocations = false, inheritProperties = false, properties = { "dataset.metadata.store=file",
+        "dataset.metadata.store.file.location=target/test/store/metadata", "dataset.metadata.store.file.index.enabled=true" })
+public class FileSystemDataSetMetadataRepositoryIndexTest extends FileSystemDataSetMetadataRepositoryTest {
+
+    @Test
+    public void shouldListFullMetadata() throws IOException {
+        // given
+        final DataSetMetadata metadata = getMetadataWithColumn("1");
+        metadata.getRowMetadata().getColumns().get(0).getStatistics().setCount(42);
+        getRepository().save(metadata);
+        getRepository().save(getMetadataWithColumn("2"));
+
+        // when
+        final DataSetMetadata listed = getRepository().list("id = '1'", null, null).findFirst().get();
+        final DataSetMetadata compatible = getRepository().listCompatible("2").iterator().next();
+
+        // then
+        assertEquals(42, listed.getRowMetadata().getColumns().get(0).getStatistics().getCount());
+        assertEquals("1", compatible.getId());
+        assertEquals(42, compatible.getRowMetadata().getColumns().get(0).getStatistics().getCount());
+    }
+
+    @Test
+    public void shouldOnlyReadListedMetadata() throws IOException {
+        // given
+        for (int i = 1; i <= 5; i++) {
+            final DataSetMetadata metadata = getMetadata(String.valueOf(i));
+            metadata.setName("dataset #" + i);
+            getRepository().save(metadata);
+        }
+        final FileSystemDataSetMetadataRepository repository = spy(getRepository());
+
+        // when
+        final List<DataSetMetadata> listed = repository.list("lifecycle.importing = false", Sort.NAME, Order.ASC) //
+                .limit(2) //
+                .collect(Collectors.toList());
+
+        // then
+        assertEquals(2, listed.size());
+        assertEquals("1", listed.get(0).getId());
+        assertEquals("2", listed.get(1).getId());
+        verify(repository, times(2)).get(anyString());
+    }
+
+    private DataSetMetadata getMetadataWithColumn(String id) throws IOException {
+        final DataSetMetadata metadata = getMetadata(id);
+        metadata.setRowMetadata(new RowMetadata(singletonList(column().name("name").type(Type.STRING).build())));
+        return metadata;
+    }
+}
@@ -24,7 +24,9 @@ import java.io.File;
 import java.io.FileOutputStream;
 import java.io.IOException;
 import java.util.Iterator;
+import java.util.List;
 import java.util.concurrent.atomic.AtomicInteger;
+import java.util.stream.Collectors;
 
 import org.junit.After;
 import org.junit.Test;
@@ -34,6 +36,8 @@ import org.springframework.test.context.TestPropertySource;
 import org.talend.dataprep.api.dataset.DataSetMetadata;
 import org.talend.dataprep.dataset.DataSetBaseTest;
 import org.talend.dataprep.dataset.store.metadata.DataSetMetadataRepositoryTestUtils;
+import org.talend.dataprep.util.SortAndOrderHelper.Order;
+import org.talend.dataprep.util.SortAndOrderHelper.Sort;
 
 /**
  * Unit/integration test for the file system dataset metadata repository.
@@ -233,6 +237,65 @@ public class FileSystemDataSetMetadataRepositoryTest extends DataSetBaseTest {
         assertEquals(0, repository.size());
     }
 
+    @Test
+    public void shouldListSummariesWithFilterAndSort() throws IOException {
+        // given
+        for (int i = 1; i <= 5; i++) {
+            final DataSetMetadata metadata = getMetadata(String.valueOf(i));
+            metadata.setName("dataset #" + i);
+            metadata.getLifecycle().setImporting(i == 3);
+            repository.save(metadata);
+        }
+
+        // when
+        final List<DataSetMetadata> actual = repository
+                .list("lifecycle.importing = false", Sort.NAME, Order.DESC) //
+                .collect(Collectors.toList());
+
+        // then
+        assertEquals(4, actual.size());
+        assertEquals("dataset #5", actual.get(0).getName());
+        assertEquals("dataset #1", actual.get(3).getName());
+        final DataSetMetadata full = repository.get("5");
+        final DataSetMetadata summary = actual.get(0);
+        assertEquals(full.getRowMetadata().getColumns().size(), summary.getRowMetadata().getColumns().size());
+        assertTrue(full.compatible(summary));
+        assertEquals(full.getDataSetSize(), summary.getDataSetSize());
+    }
+
+    @Test
+    public void shouldNotShareSummariesWithCallers() throws IOException {
+        // given
+        repository.save(getMetadata("1"));
+        final DataSetMetadata listed = repository.list("id = '1'", null, null).findFirst().get();
+
+        // when
+        listed.setName("modified by caller");
+
+        // then
+        assertFalse(repository.exist("name = 'modified by caller'"));
+        assertEquals(getMetadata("1").getName(), repository.list("id = '1'", null, null).findFirst().get().getName());
+    }
+
+    @Test
+    public void shouldUpdateIndexOnSaveAndRemove() throws IOException {
+        // given
+        repository.save(getMetadata("1"));
+        assertTrue(repository.exist("id = '1'"));
+
+        // when
+        final DataSetMetadata renamed = repository.get("1");
+        renamed.setName("renamed");
+        repository.save(renamed);
+        repository.save(getMetadata("2"));
+        repository.remove("2");
+
+        // then
+        assertTrue(repository.exist("name = 'renamed'"));
+        assertFalse(repository.exist("id = '2'"));
+        assertEquals(1, repository.size());
+    }
+
     @Test
     public void shouldIgnoreHiddenFiles() throws Exception {
 
@@ -252,6 +315,10 @@ public class FileSystemDataSetMetadataRepositoryTest extends DataSetBaseTest {
 
     }
 
+    protected FileSystemDataSetMetadataRepository getRepository() {
+        return repository;
+    }
+
     /**
      * Return a dataset metadata with the given id.
      *
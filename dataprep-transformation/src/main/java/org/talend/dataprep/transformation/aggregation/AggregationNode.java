@@ -0,0 +1,182 @@
+// ============================================================================
+// Copyright (C) 2006-2018 Talend Inc. - www.talend.com
+//
+// This source code is available under agreement available at
+// https://github.com/Talend/data-prep/blob/master/LICENSE
+//
+// You should have received a copy of the agreement
+// along with this program; if not, write to Talend SA
+// 9 rue Pages 92150 Suresnes, France
+//
+// ============================================================================
+
+
+package org.talend.dataprep.transformation.aggregation;
+
+import java.util.ArrayDeque;
+import java.util.Deque;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ExecutionException;
+import java.util.function.Function;
+import java.util.function.Predicate;
+
+import org.talend.daikon.exception.TalendRuntimeException;
+import org.talend.dataprep.BaseErrorCodes;
+import org.talend.dataprep.api.dataset.RowMetadata;
+import org.talend.dataprep.api.dataset.row.DataSetRow;
+import org.talend.dataprep.transformation.aggregation.api.AggregationOperation;
+import org.talend.dataprep.transformation.aggregation.api.AggregationParameters;
+import org.talend.dataprep.transformation.aggregation.api.AggregationResult;
+import org.talend.dataprep.transformation.aggregation.operation.GroupAccumulator;
+import org.talend.dataprep.transformation.pipeline.Signal;
+import org.talend.dataprep.transformation.pipeline.node.BasicNode;
+
+/**
+ * <p>
+ * A terminal node that aggregates the rows it receives (no serialization of the rows is needed).
+ * </p>
+ * <p>
+ * Group keys and values are gathered in partitions of {@link #PARTITION_SIZE} rows, each partition is aggregated in a
+ * {@link GroupAccumulator} on the common fork join pool, and partition results are merged in the final result.
+ * </p>
+ */
+public class AggregationNode extends BasicNode {
+
+    /** Number of rows per partition. */
+    static final int PARTITION_SIZE = 8192;
+
+    /** Max number of partitions aggregated at the same time. */
+    private static final int MAX_PENDING_PARTITIONS = Runtime.getRuntime().availableProcessors() * 2;
+
+    private final String groupBy;
+
+    private final String columnId;
+
+    private final Function<RowMetadata, Predicate<DataSetRow>> filterFactory;
+
+    private final GroupAccumulator accumulator;
+
+    private final Deque<CompletableFuture<GroupAccumulator>> pending = new ArrayDeque<>();
+
+    private transient Predicate<DataSetRow> filter;
+
+    private transient String[] partitionKeys = new String[PARTITION_SIZE];
+
+    private transient String[] partitionValues = new String[PARTITION_SIZE];
+
+    private transient int partitionSize;
+
+    private transient AggregationResult result;
+
+    /**
+     * @param parameters the aggregation parameters (first operation and first group by are used).
+     * @param filterFactory a factory for the row filter, called with the metadata of the first row.
+     */
+    public AggregationNode(AggregationParameters parameters, Function<RowMetadata, Predicate<DataSetRow>> filterFactory) {
+        final AggregationOperation operation = parameters.getOperations().get(0);
+        this.groupBy = parameters.getGroupBy().get(0);
+        this.columnId = operation.getColumnId();
+        this.filterFactory = filterFactory;
+        this.accumulator = new GroupAccumulator(operation.getOperator());
+    }
+
+    @Override
+    public void receive(DataSetRow row, RowMetadata metadata) {
+        if (filter == null) {
+            filter = filterFactory.apply(metadata);
+        }
+        if (!filter.test(row)) {
+            return;
+        }
+        partitionKeys[partitionSize] = row.get(groupBy);
+        partitionValues[partitionSize] = row.get(columnId);
+        partitionSize++;
+        if (partitionSize == PARTITION_SIZE) {
+            submitPartition();
+        }
+    }
+
+    @Override
+    public void receive(DataSetRow[] rows, RowMetadata[] metadatas) {
+        for (int i = 0; i < rows.length; i++) {
+            receive(rows[i], metadatas[i]);
+        }
+    }
+
+    private void submitPartition() {
+        final String[] keys = partitionKeys;
+        final String[] values = partitionValues;
+        final int size = partitionSize;
+        pending.add(CompletableFuture.supplyAsync(() -> {
+            final GroupAccumulator partition = new GroupAccumulator(accumulator.getOperator());
+            for (int i = 0; i < size; i++) {
+                partition.accept(keys[i], values[i]);
+            }
+            return partition;
+        }));
+        partitionKeys = new String[PARTITION_SIZE];
+        partitionValues = new String[PARTITION_SIZE];
+        partitionSize = 0;
+        // Bound memory used by pending partitions
+        while (pending.size() > MAX_PENDING_PARTITIONS) {
+            accumulator.merge(join(pending.poll()));
+        }
+    }
+
+    private static GroupAccumulator join(CompletableFuture<GroupAccumulator> future) {
+        try {
+            return future.get();
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new TalendRuntimeException(BaseErrorCodes.UNEXPECTED_EXCEPTION, e);
+        } catch (ExecutionException e) {
+            if (e.getCause() instanceof RuntimeException) {
+                throw (RuntimeException) e.getCause();
+            }
+            throw new TalendRuntimeException(BaseErrorCodes.UNEXPECTED_EXCEPTION, e.getCause());
+        }
+    }
+
+    @Override
+    public void signal(Signal signal) {
+        switch (signal) {
+        case END_OF_STREAM:
+        case STOP:
+            if (result == null) {
+                // Last (partial) partition is aggregated in current thread
+                for (int i = 0; i < partitionSize; i++) {
+                    accumulator.accept(partitionKeys[i], partitionValues[i]);
+                }
+                partitionSize = 0;
+                while (!pending.isEmpty()) {
+                    accumulator.merge(join(pending.poll()));
+                }
+                result = accumulator.toResult();
+            }
+            break;
+        case CANCEL:
+            pending.forEach(f -> f.cancel(true));
+            pending.clear();
+            partitionSize = 0;
+            break;
+        default:
+            break;
+        }
+        super.signal(signal);
+    }
+
+    /**
+     * @return the aggregation result (available once {@link Signal#END_OF_STREAM} is received), <code>null</code>
+     * before.
+     */
+    public AggregationResult getResult() {
+        return result;
+    }
+
+    /**
+     * @return the accumulator that holds all the groups (complete once {@link Signal#END_OF_STREAM} is received).
+     */
+    public GroupAccumulator getAccumulator() {
+        return accumulator;
+    }
+}
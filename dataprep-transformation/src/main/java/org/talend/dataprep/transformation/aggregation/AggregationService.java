@@ -13,7 +13,10 @@
 
 package org.talend.dataprep.transformation.aggregation;
 
-import java.util.function.Predicate;
+import static org.talend.dataprep.api.dataset.row.FlagNames.TDP_ID;
+
+import java.io.IOException;
+import java.io.InputStream;
 
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.stereotype.Service;
@@ -26,8 +29,11 @@ import org.talend.dataprep.exception.TDPException;
 import org.talend.dataprep.exception.error.CommonErrorCodes;
 import org.talend.dataprep.transformation.aggregation.api.AggregationParameters;
 import org.talend.dataprep.transformation.aggregation.api.AggregationResult;
-import org.talend.dataprep.transformation.aggregation.operation.Aggregator;
-import org.talend.dataprep.transformation.aggregation.operation.AggregatorFactory;
+import org.talend.dataprep.transformation.pipeline.Signal;
+
+import com.fasterxml.jackson.core.JsonParser;
+import com.fasterxml.jackson.core.JsonToken;
+import com.fasterxml.jackson.databind.ObjectMapper;
 
 /**
  * Service in charge of... aggregation !
@@ -35,12 +41,11 @@ import org.talend.dataprep.transformation.aggregation.operation.AggregatorFactor
 @Service
 public class AggregationService {
 
-    /** Aggregator factory. */
     @Autowired
-    private AggregatorFactory factory;
+    private FilterService filterService;
 
     @Autowired
-    private FilterService filterService;
+    private ObjectMapper mapper;
 
     /**
      * Process an aggregation.
@@ -50,28 +55,75 @@ public class AggregationService {
      * @return the aggregation result.
      */
     public AggregationResult aggregate(AggregationParameters parameters, DataSet dataset) {
+        final AggregationNode node = createNode(parameters);
 
-        // check the parameters
-        if (parameters.getOperations().isEmpty() || parameters.getGroupBy().isEmpty()) {
-            throw new TDPException(CommonErrorCodes.BAD_AGGREGATION_PARAMETERS);
-        }
-
-        AggregationResult result = new AggregationResult(parameters.getOperations().get(0).getOperator());
-
-        // get the aggregator
-        Aggregator aggregator = factory.get(parameters);
-
-        // Build optional filter
+        // Build optional filter with data set metadata (rows of a data set share the same metadata)
         final DataSetMetadata metadata = dataset.getMetadata();
         final RowMetadata rowMetadata = metadata != null ? metadata.getRowMetadata() : new RowMetadata();
-        final Predicate<DataSetRow> filter = filterService.build(parameters.getFilter(), rowMetadata);
 
         // process the dataset
-        dataset.getRecords().filter(filter).forEach(row -> aggregator.accept(row, result));
+        dataset.getRecords().forEach(row -> node.receive(row, rowMetadata));
+        node.signal(Signal.END_OF_STREAM);
+
+        return node.getResult();
+    }
 
-        // Normalize result (perform clean / optimization now that all input was processed).
-        aggregator.normalize(result);
+    /**
+     * Aggregate the records of a transformation JSON output (as written in cache by a JSON export) without building
+     * the whole data set.
+     *
+     * @param node the aggregation node (see {@link #createNode(AggregationParameters)}).
+     * @param rowMetadata the metadata of the transformed content.
+     * @param content the transformation JSON output.
+     * @throws IOException if content can not be read.
+     */
+    public void aggregate(AggregationNode node, RowMetadata rowMetadata, InputStream content) throws IOException {
+        try (JsonParser parser = mapper.getFactory().createParser(content)) {
+            // move to records array (other fields such as metadata are skipped)
+            JsonToken token = parser.nextToken();
+            while (token != null) {
+                if (token == JsonToken.FIELD_NAME && "records".equals(parser.getCurrentName())) {
+                    parser.nextToken();
+                    break;
+                }
+                if (token == JsonToken.START_ARRAY || (token == JsonToken.START_OBJECT && parser.getCurrentName() != null)) {
+                    parser.skipChildren();
+                }
+                token = parser.nextToken();
+            }
+            // aggregate each record
+            while (parser.nextToken() == JsonToken.START_OBJECT) {
+                final DataSetRow row = new DataSetRow(rowMetadata);
+                String fieldName = null;
+                while ((token = parser.nextToken()) != JsonToken.END_OBJECT) {
+                    if (token == null) {
+                        throw new IOException("Unexpected end of content.");
+                    } else if (token == JsonToken.FIELD_NAME) {
+                        fieldName = parser.getCurrentName();
+                    } else if (token.isStructStart()) {
+                        parser.skipChildren();
+                    } else if (!TDP_ID.equals(fieldName)) {
+                        row.set(fieldName, token == JsonToken.VALUE_NULL ? "" : parser.getText());
+                    }
+                }
+                node.receive(row, rowMetadata);
+            }
+        }
+        node.signal(Signal.END_OF_STREAM);
+    }
 
-        return result;
+    /**
+     * Creates a terminal pipeline node that aggregates the rows it receives, result is available with
+     * {@link AggregationNode#getResult()} once the pipeline is over.
+     *
+     * @param parameters the aggregation parameters.
+     * @return the aggregation node.
+     */
+    public AggregationNode createNode(AggregationParameters parameters) {
+        // check the parameters
+        if (parameters.getOperations().isEmpty() || parameters.getGroupBy().isEmpty()) {
+            throw new TDPException(CommonErrorCodes.BAD_AGGREGATION_PARAMETERS);
+        }
+        return new AggregationNode(parameters, rowMetadata -> filterService.build(parameters.getFilter(), rowMetadata));
     }
 }
@@ -0,0 +1,247 @@
+// ============================================================================
+// Copyright (C) 2006-2018 Talend Inc. - www.talend.com
+//
+// This source code is available under agreement available at
+// https://github.com/Talend/data-prep/blob/master/LICENSE
+//
+// You should have received a copy of the agreement
+// along with this program; if not, write to Talend SA
+// 9 rue Pages 92150 Suresnes, France
+//
+// ============================================================================
+
+
+package org.talend.dataprep.transformation.aggregation.operation;
+
+import java.io.DataInputStream;
+import java.io.DataOutputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.nio.charset.StandardCharsets;
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.Map;
+
+import org.apache.commons.lang.StringUtils;
+import org.talend.dataprep.transformation.aggregation.api.AggregationResult;
+import org.talend.dataprep.transformation.aggregation.api.Operator;
+
+/**
+ * <p>
+ * Accumulates values per group using primitive arrays: each group key is associated to a slot and the aggregated value
+ * (and count) of each group are kept as <code>double</code> (and <code>long</code>), so no object is created per value.
+ * </p>
+ * <p>
+ * Accumulators can be filled independently (e.g. one per partition of the input) and then
+ * {@link #merge(GroupAccumulator) merged}. Non number values are skipped, as well as empty group keys (except for
+ * average), and groups without any number are not part of the result.
+ * </p>
+ * <p>
+ * An accumulator can be {@link #writeTo(OutputStream) written} and {@link #readFrom(InputStream) read} back (e.g. to
+ * keep a computed aggregation in cache).
+ * </p>
+ * <p>
+ * This class is not thread safe.
+ * </p>
+ */
+public class GroupAccumulator {
+
+    private static final int INITIAL_CAPACITY = 16;
+
+    /** The aggregation operator. */
+    private final Operator operator;
+
+    /** Slot index for each group key. */
+    private final Map<String, Integer> slots = new HashMap<>();
+
+    /** Group keys by slot. */
+    private String[] keys = new String[INITIAL_CAPACITY];
+
+    /** Aggregated value by slot (sum, min or max). */
+    private double[] values = new double[INITIAL_CAPACITY];
+
+    /** Number of values by slot. */
+    private long[] counts = new long[INITIAL_CAPACITY];
+
+    /** Number of used slots. */
+    private int size;
+
+    /**
+     * @param operator the aggregation operator.
+     * @throws IllegalArgumentException if operator is not supported.
+     */
+    public GroupAccumulator(Operator operator) {
+        switch (operator) {
+        case AVERAGE:
+        case MIN:
+        case MAX:
+        case SUM:
+            this.operator = operator;
+            break;
+        default:
+            throw new IllegalArgumentException("Operation '" + operator + "' not supported");
+        }
+    }
+
+    /**
+     * Accumulate a value (as read in a data set row).
+     *
+     * @param key the group key.
+     * @param value the value to aggregate, skipped if not a number.
+     */
+    public void accept(String key, String value) {
+        // Average keeps empty keys, other operations skip them
+        if (operator != Operator.AVERAGE && StringUtils.isEmpty(key)) {
+            return;
+        }
+        if (StringUtils.isEmpty(value)) {
+            return;
+        }
+        final double number;
+        try {
+            number = Double.parseDouble(value);
+        } catch (NumberFormatException e) {
+            // skip non number
+            return;
+        }
+        accept(key, number, 1);
+    }
+
+    private void accept(String key, double value, long count) {
+        final Integer slot = slots.get(key);
+        if (slot == null) {
+            if (size == keys.length) {
+                grow();
+            }
+            slots.put(key, size);
+            keys[size] = key;
+            values[size] = value;
+            counts[size] = count;
+            size++;
+            return;
+        }
+        final int i = slot;
+        switch (operator) {
+        case MIN:
+            if (value < values[i]) {
+                values[i] = value;
+            }
+            break;
+        case MAX:
+            if (value > values[i]) {
+                values[i] = value;
+            }
+            break;
+        default: // SUM & AVERAGE
+            values[i] += value;
+            break;
+        }
+        counts[i] += count;
+    }
+
+    private void grow() {
+        final int capacity = keys.length * 2;
+        keys = Arrays.copyOf(keys, capacity);
+        values = Arrays.copyOf(values, capacity);
+        counts = Arrays.copyOf(counts, capacity);
+    }
+
+    /**
+     * Merge all groups of <code>other</code> into this accumulator.
+     *
+     * @param other an accumulator for the same operator.
+     */
+    public void merge(GroupAccumulator other) {
+        if (other.operator != operator) {
+            throw new IllegalArgumentException("Can not merge " + other.operator + " into " + operator);
+        }
+        for (int i = 0; i < other.size; i++) {
+            accept(other.keys[i], other.values[i], other.counts[i]);
+        }
+    }
+
+    /**
+     * @return the aggregation operator.
+     */
+    public Operator getOperator() {
+        return operator;
+    }
+
+    /**
+     * @return the number of groups.
+     */
+    public int size() {
+        return size;
+    }
+
+    /**
+     * Write all groups of this accumulator to <code>output</code> (output is not closed).
+     *
+     * @param output where to write the accumulator.
+     * @throws IOException if accumulator can not be written.
+     * @see #readFrom(InputStream)
+     */
+    public void writeTo(OutputStream output) throws IOException {
+        final DataOutputStream data = new DataOutputStream(output);
+        data.writeUTF(operator.name());
+        data.writeInt(size);
+        for (int i = 0; i < size; i++) {
+            if (keys[i] == null) {
+                data.writeInt(-1);
+            } else {
+                final byte[] key = keys[i].getBytes(StandardCharsets.UTF_8);
+                data.writeInt(key.length);
+                data.write(key);
+            }
+            data.writeDouble(values[i]);
+            data.writeLong(counts[i]);
+        }
+        data.flush();
+    }
+
+    /**
+     * Read an accumulator previously written with {@link #writeTo(OutputStream)}.
+     *
+     * @param input where to read the accumulator from.
+     * @return the accumulator.
+     * @throws IOException if accumulator can not be read.
+     */
+    public static GroupAccumulator readFrom(InputStream input) throws IOException {
+        final DataInputStream data = new DataInputStream(input);
+        final GroupAccumulator accumulator;
+        try {
+            accumulator = new GroupAccumulator(Operator.valueOf(data.readUTF()));
+        } catch (IllegalArgumentException e) {
+            throw new IOException("Unable to read accumulator operator.", e);
+        }
+        final int groups = data.readInt();
+        for (int i = 0; i < groups; i++) {
+            final int length = data.readInt();
+            final String key;
+            if (length < 0) {
+                key = null;
+            } else {
+                final byte[] bytes = new byte[length];
+                data.readFully(bytes);
+                key = new String(bytes, StandardCharsets.UTF_8);
+            }
+            final double value = data.readDouble();
+            final long count = data.readLong();
+            accumulator.accept(key, value, count);
+        }
+        return accumulator;
+    }
+
+    /**
+     * @return the aggregation result for all the groups.
+     */
+    public AggregationResult toResult() {
+        final AggregationResult result = new AggregationResult(operator);
+        for (int i = 0; i < size; i++) {
+            final double value = operator == Operator.AVERAGE ? values[i] / counts[i] : values[i];
+            result.put(keys[i], new NumberContext(value));
+        }
+        return result;
+    }
+}
@@ -40,6 +40,9 @@ public class Configuration {
 
     private final Supplier<Node> monitorSupplier;
 
+    /** Optional terminal node (instead of writing transformed content to {@link #output}). */
+    private final Supplier<Node> outputNodeSupplier;
+
     private final String stepId;
 
     /**
@@ -87,6 +90,7 @@ public class Configuration {
                             final Predicate<DataSetRow> filter, //
                             final Function<RowMetadata, Predicate<DataSetRow>> outFilter, //
                             final Supplier<Node> monitorSupplier, //
+                            final Supplier<Node> outputNodeSupplier, //
                             final ExportParameters.SourceType sourceType, //
                             final String format, //
                             final String actions, //
@@ -101,6 +105,7 @@ public class Configuration {
         this.filter = filter;
         this.outFilter = outFilter;
         this.monitorSupplier = monitorSupplier;
+        this.outputNodeSupplier = outputNodeSupplier;
         this.sourceType = sourceType;
         this.format = format;
         this.actions = actions;
@@ -124,6 +129,14 @@ public class Configuration {
         return monitorSupplier;
     }
 
+    /**
+     * @return The supplier of the terminal node of the transformation, <code>null</code> if transformed content is to
+     * be written to {@link #output()}.
+     */
+    public Supplier<Node> getOutputNode() {
+        return outputNodeSupplier;
+    }
+
     public String stepId() {
         return stepId;
     }
@@ -240,6 +253,8 @@ public class Configuration {
 
         private Supplier<Node> monitorSupplier = BasicNode::new;
 
+        private Supplier<Node> outputNodeSupplier = null;
+
         private Predicate<DataSetRow> filter = r -> true;
 
         private Function<RowMetadata, Predicate<DataSetRow>> outFilter = metadata -> r -> true;
@@ -254,6 +269,16 @@ public class Configuration {
             return this;
         }
 
+        /**
+         * @param outputNodeSupplier the terminal node that receives the transformed rows (no content is written to
+         * {@link #output(OutputStream) output} when set).
+         * @return the mapper to chain calls.
+         */
+        public Builder outputNode(Supplier<Node> outputNodeSupplier) {
+            this.outputNodeSupplier = outputNodeSupplier;
+            return this;
+        }
+
         /**
          * @param output where to write the transformed dataset.
          * @return the mapper to chain calls.
@@ -267,7 +292,7 @@ public class Configuration {
          * @return a new {@link Configuration} from the mapper setup.
          */
         public Configuration build() {
-            return new Configuration(output, filter, outFilter, monitorSupplier, sourceType, format, actions, arguments,
+            return new Configuration(output, filter, outFilter, monitorSupplier, outputNodeSupplier, sourceType, format, actions, arguments,
                     preparation, stepId, allowMetadataChange, globalStatistics, dataVolume, limit);
         }
 
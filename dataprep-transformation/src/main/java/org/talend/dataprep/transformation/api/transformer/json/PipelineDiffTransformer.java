@@ -13,8 +13,10 @@
 
 package org.talend.dataprep.transformation.api.transformer.json;
 
+import java.util.ArrayList;
 import java.util.List;
 import java.util.function.Predicate;
+import java.util.stream.Stream;
 
 import org.apache.commons.lang3.Validate;
 import org.slf4j.Logger;
@@ -26,6 +28,7 @@ import org.talend.dataprep.api.dataset.RowMetadata;
 import org.talend.dataprep.api.dataset.row.DataSetRow;
 import org.talend.dataprep.dataset.StatisticsAdapter;
 import org.talend.dataprep.quality.AnalyzerService;
+import org.talend.dataprep.transformation.actions.common.RunnableAction;
 import org.talend.dataprep.transformation.api.action.ActionParser;
 import org.talend.dataprep.transformation.api.transformer.ExecutableTransformer;
 import org.talend.dataprep.transformation.api.transformer.Transformer;
@@ -38,12 +41,19 @@ import org.talend.dataprep.transformation.pipeline.Node;
 import org.talend.dataprep.transformation.pipeline.Pipeline;
 import org.talend.dataprep.transformation.pipeline.Signal;
 import org.talend.dataprep.transformation.pipeline.builder.NodeBuilder;
+import org.talend.dataprep.transformation.pipeline.builder.StatisticsNodesBuilder;
 import org.talend.dataprep.transformation.pipeline.model.DiffWriterNode;
+import org.talend.dataprep.transformation.pipeline.NodeMetricsCollector;
 import org.talend.dataprep.transformation.pipeline.node.BasicNode;
+import org.talend.dataprep.transformation.service.PipelineMetricsRegistry;
 
 /**
  * Transformer that preview the transformation (puts additional json content so that the front can display the
  * difference between current and previous transformation).
+ * <p>
+ * Actions shared by reference and preview are executed once, only the remaining actions (and the statistics after
+ * actions) are executed in two branches. Records after the last wanted TDP id are not read.
+ * </p>
  */
 @Component
 class PipelineDiffTransformer implements Transformer {
@@ -65,6 +75,9 @@ class PipelineDiffTransformer implements Transformer {
     @Autowired
     private StatisticsAdapter adapter;
 
+    @Autowired
+    private PipelineMetricsRegistry pipelineMetrics;
+
     /**
      * Starts the transformation in preview mode.
      *
@@ -82,12 +95,23 @@ class PipelineDiffTransformer implements Transformer {
                 configuration.getArguments()
         );
 
-        // Build diff pipeline
+        // Build diff pipeline: common actions are executed once, pipeline forks at the first different action
         final Node diffWriterNode = new DiffWriterNode(writer);
-        final String referenceActions = previewConfiguration.getReferenceActions();
-        final String previewActions = previewConfiguration.getPreviewActions();
-        final Pipeline referencePipeline = buildPipeline(rowMetadata, referenceActions);
-        final Pipeline previewPipeline = buildPipeline(rowMetadata, previewActions);
+        final List<RunnableAction> referenceActions = actionParser.parse(previewConfiguration.getReferenceActions());
+        final List<RunnableAction> previewActions = actionParser.parse(previewConfiguration.getPreviewActions());
+        int sharedActions = 0;
+        while (sharedActions < referenceActions.size() && sharedActions < previewActions.size()
+                && referenceActions.get(sharedActions).equals(previewActions.get(sharedActions))) {
+            sharedActions++;
+        }
+        LOGGER.debug("Preview shares {} action(s) with reference ({} action(s) in reference, {} in preview).",
+                sharedActions, referenceActions.size(), previewActions.size());
+        final List<RunnableAction> sharedPrefix = referenceActions.subList(0, sharedActions);
+        final Pipeline sharedPipeline = buildPipeline(rowMetadata, sharedPrefix, false, false);
+        final Node referencePipeline = buildBranch(rowMetadata, sharedPrefix,
+                referenceActions.subList(sharedActions, referenceActions.size()));
+        final Node previewPipeline = buildBranch(rowMetadata, sharedPrefix,
+                previewActions.subList(sharedActions, previewActions.size()));
 
         // Filter source records (extract TDP ids information)
         final List<Long> indexes = previewConfiguration.getIndexes();
@@ -98,9 +122,15 @@ class PipelineDiffTransformer implements Transformer {
 
         // Build diff pipeline
         final Node diffPipeline = NodeBuilder.filteredSource(filter) //
+                .to(sharedPipeline) //
                 .dispatchTo(referencePipeline, previewPipeline) //
                 .zipTo(diffWriterNode) //
                 .build();
+        final boolean monitored = pipelineMetrics.isMonitored();
+        final String traceId = pipelineMetrics.currentTrace();
+        if (monitored) {
+            NodeMetricsCollector.instrument(diffPipeline);
+        }
 
         // wrap this transformer into an ExecutableTransformer
         return new ExecutableTransformer() {
@@ -111,11 +141,20 @@ class PipelineDiffTransformer implements Transformer {
                 try {
                     // Print pipeline before execution (for debug purposes).
                     diffPipeline.logStatus(LOGGER, "Before execution: {}");
-                    input.getRecords().forEach(r -> diffPipeline.exec().receive(r, rowMetadata));
+                    // Stop reading records (and close data set content) once the last wanted TDP id is processed
+                    try (Stream<DataSetRow> records = input.getRecords()) {
+                        records.map(r -> {
+                            diffPipeline.exec().receive(r, rowMetadata);
+                            return r;
+                        }).allMatch(r -> r.getTdpId() < maxIndex);
+                    }
                     diffPipeline.exec().signal(Signal.END_OF_STREAM);
                 } finally {
                     // Print pipeline after execution (for debug purposes).
                     diffPipeline.logStatus(LOGGER, "After execution: {}");
+                    if (monitored) {
+                        pipelineMetrics.record(traceId, diffPipeline);
+                    }
                 }
             }
 
@@ -126,12 +165,44 @@ class PipelineDiffTransformer implements Transformer {
         };
     }
 
-    private Pipeline buildPipeline(RowMetadata rowMetadata, String actions) {
+    /**
+     * Builds a branch of the diff pipeline: the actions that are not shared, followed by the statistics an independent
+     * pipeline (with all the actions of the branch) would compute.
+     * <p>
+     * Branch actions are compiled with the row metadata emitted by the shared actions (see
+     * {@link org.talend.dataprep.transformation.pipeline.node.CompileNode}), so the branch only needs the input row
+     * metadata to know which columns are modified or created by the shared and the branch actions.
+     * </p>
+     *
+     * @param rowMetadata The input row metadata (before shared actions).
+     * @param sharedActions The actions executed before the branch.
+     * @param actions The actions of the branch.
+     * @return The node that applies <code>actions</code> after the shared actions and computes statistics.
+     */
+    private Node buildBranch(RowMetadata rowMetadata, List<RunnableAction> sharedActions, List<RunnableAction> actions) {
+        // Statistics were already computed before shared actions
+        final Node actionsNode = actions.isEmpty() ? new BasicNode() : buildPipeline(rowMetadata, actions, true, false);
+        final List<RunnableAction> allActions = new ArrayList<>(sharedActions);
+        allActions.addAll(actions);
+        final Node statisticsNode = StatisticsNodesBuilder.builder() //
+                .analyzerService(analyzerService) //
+                .actionRegistry(actionRegistry) //
+                .statisticsAdapter(adapter) //
+                .allowSchemaAnalysis(true) //
+                .actions(allActions) //
+                .columns(rowMetadata.getColumns()) //
+                .buildPostStatistics();
+        return NodeBuilder.from(actionsNode).to(statisticsNode).build();
+    }
+
+    private Pipeline buildPipeline(RowMetadata rowMetadata, List<RunnableAction> actions, boolean completeMetadata,
+            boolean globalStatistics) {
         return Pipeline.Builder.builder() //
                 .withAnalyzerService(analyzerService) //
                 .withActionRegistry(actionRegistry) //
-                .withActions(actionParser.parse(actions)) //
-                .withInitialMetadata(rowMetadata, false) //
+                .withActions(actions) //
+                .withInitialMetadata(rowMetadata, completeMetadata) //
+                .withGlobalStatistics(globalStatistics) //
                 .withOutput(BasicNode::new) //
                 .withStatisticsAdapter(adapter) //
                 .build();
@@ -15,13 +15,19 @@ package org.talend.dataprep.transformation.api.transformer.json;
 import static org.talend.dataprep.cache.ContentCache.TimeToLive.DEFAULT;
 import static org.talend.dataprep.transformation.api.transformer.configuration.Configuration.Volume.SMALL;
 
+import java.util.EnumSet;
+import java.util.List;
 import java.util.Optional;
+import java.util.Set;
 import java.util.function.Function;
+import java.util.function.Supplier;
 
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
 import org.springframework.stereotype.Component;
+import org.talend.dataprep.api.action.ActionDefinition;
 import org.talend.dataprep.api.dataset.DataSet;
 import org.talend.dataprep.api.dataset.RowMetadata;
 import org.talend.dataprep.api.preparation.PreparationMessage;
@@ -29,6 +35,9 @@ import org.talend.dataprep.api.preparation.Step;
 import org.talend.dataprep.cache.ContentCache;
 import org.talend.dataprep.dataset.StatisticsAdapter;
 import org.talend.dataprep.quality.AnalyzerService;
+import org.talend.dataprep.transformation.actions.category.ScopeCategory;
+import org.talend.dataprep.transformation.actions.common.ImplicitParameters;
+import org.talend.dataprep.transformation.actions.common.RunnableAction;
 import org.talend.dataprep.transformation.api.action.ActionParser;
 import org.talend.dataprep.transformation.api.transformer.ConfiguredCacheWriter;
 import org.talend.dataprep.transformation.api.transformer.ExecutableTransformer;
@@ -39,9 +48,11 @@ import org.talend.dataprep.transformation.cache.CacheKeyGenerator;
 import org.talend.dataprep.transformation.cache.TransformationMetadataCacheKey;
 import org.talend.dataprep.transformation.format.WriterRegistrationService;
 import org.talend.dataprep.transformation.pipeline.ActionRegistry;
+import org.talend.dataprep.transformation.pipeline.Node;
 import org.talend.dataprep.transformation.pipeline.Pipeline;
 import org.talend.dataprep.transformation.pipeline.Signal;
 import org.talend.dataprep.transformation.pipeline.model.WriterNode;
+import org.talend.dataprep.transformation.service.PipelineMetricsRegistry;
 import org.talend.dataprep.transformation.service.StepMetadataRepository;
 import org.talend.dataprep.transformation.service.TransformationRowMetadataUtils;
 
@@ -50,6 +61,13 @@ public class PipelineTransformer implements Transformer {
 
     private static final Logger LOGGER = LoggerFactory.getLogger(PipelineTransformer.class);
 
+    /** Action behaviors that change the columns of the output (hence its header). */
+    private static final Set<ActionDefinition.Behavior> SCHEMA_BEHAVIORS = EnumSet.of( //
+            ActionDefinition.Behavior.METADATA_CHANGE_NAME, //
+            ActionDefinition.Behavior.METADATA_CREATE_COLUMNS, //
+            ActionDefinition.Behavior.METADATA_COPY_COLUMNS, //
+            ActionDefinition.Behavior.METADATA_DELETE_COLUMNS);
+
     @Autowired
     ActionParser actionParser;
 
@@ -77,6 +95,17 @@ public class PipelineTransformer implements Transformer {
     @Autowired
     private StepMetadataRepository preparationUpdater;
 
+    @Autowired
+    private PipelineMetricsRegistry pipelineMetrics;
+
+    /** Number of workers used to execute actions (1 to disable parallel execution). */
+    @Value("${transformation.pipeline.parallelism:1}")
+    private int parallelism;
+
+    /** Number of rows used to detect column types (0 to analyze all rows). */
+    @Value("${transformation.type.detection.sample.size:0}")
+    private long typeDetectionSampleSize;
+
     @Override
     public ExecutableTransformer buildExecutable(DataSet input, Configuration configuration) {
         final RowMetadata rowMetadata = input.getMetadata().getRowMetadata();
@@ -84,30 +113,47 @@ public class PipelineTransformer implements Transformer {
         // prepare the fallback row metadata
         RowMetadata fallBackRowMetadata = transformationRowMetadataUtils.getMatchingEmptyRowMetadata(rowMetadata);
 
-        final TransformerWriter writer = writerRegistrationService.getWriter(configuration.formatId(), configuration.output(),
-                configuration.getArguments());
-        final ConfiguredCacheWriter metadataWriter = new ConfiguredCacheWriter(contentCache, DEFAULT);
-        final TransformationMetadataCacheKey metadataKey = cacheKeyGenerator.generateMetadataKey(configuration.getPreparationId(),
-                configuration.stepId(), configuration.getSourceType());
         final PreparationMessage preparation = configuration.getPreparation();
+        final List<RunnableAction> actions = actionParser.parse(configuration.getActions());
+        final Supplier<Node> output;
+        if (configuration.getOutputNode() != null) {
+            // Rows are consumed by a custom terminal node (e.g. aggregation): nothing to write
+            output = configuration.getOutputNode();
+        } else {
+            final TransformerWriter writer = writerRegistrationService.getWriter(configuration.formatId(),
+                    configuration.output(), configuration.getArguments());
+            final ConfiguredCacheWriter metadataWriter = new ConfiguredCacheWriter(contentCache, DEFAULT);
+            final TransformationMetadataCacheKey metadataKey = cacheKeyGenerator.generateMetadataKey(
+                    configuration.getPreparationId(), configuration.stepId(), configuration.getSourceType());
+            // When columns can't change after first row, writer may write header (from the compiled metadata of the
+            // first row, as columns may still be created or reordered at compile time) and stream records without
+            // buffering.
+            final boolean stableColumns = !changesSchema(actions);
+            output = () -> new WriterNode(writer, metadataWriter, metadataKey, fallBackRowMetadata, stableColumns);
+        }
         final Function<Step, RowMetadata> rowMetadataSupplier = s -> Optional.ofNullable(s.getRowMetadata()) //
                 .map(id -> preparationUpdater.get(id)) //
                 .orElse(null);
+        final boolean monitored = pipelineMetrics.isMonitored();
+        final String traceId = pipelineMetrics.currentTrace();
         final Pipeline pipeline = Pipeline.Builder.builder() //
                 .withAnalyzerService(analyzerService) //
                 .withActionRegistry(actionRegistry) //
                 .withPreparation(preparation) //
-                .withActions(actionParser.parse(configuration.getActions())) //
+                .withActions(actions) //
                 .withInitialMetadata(rowMetadata, configuration.volume() == SMALL) //
                 .withMonitor(configuration.getMonitor()) //
                 .withFilter(configuration.getFilter()) //
                 .withLimit(configuration.getLimit()) //
                 .withFilterOut(configuration.getOutFilter()) //
-                .withOutput(() -> new WriterNode(writer, metadataWriter, metadataKey, fallBackRowMetadata)) //
+                .withOutput(output) //
                 .withStatisticsAdapter(adapter) //
                 .withStepMetadataSupplier(rowMetadataSupplier) //
                 .withGlobalStatistics(configuration.isGlobalStatistics()) //
                 .allowMetadataChange(configuration.isAllowMetadataChange()) //
+                .withParallelism(parallelism) //
+                .withTypeDetectionSampleSize(typeDetectionSampleSize) //
+                .withNodeMetrics(monitored) //
                 .build();
 
         // wrap this transformer into an executable transformer
@@ -120,6 +166,9 @@ public class PipelineTransformer implements Transformer {
                     pipeline.execute(input);
                 } finally {
                     LOGGER.debug("After transformation: {}", pipeline);
+                    if (monitored) {
+                        pipelineMetrics.record(traceId, pipeline);
+                    }
                 }
 
                 if (preparation != null) {
@@ -135,6 +184,25 @@ public class PipelineTransformer implements Transformer {
         };
     }
 
+    /**
+     * @param actions The actions to be executed.
+     * @return <code>true</code> if any action may add, remove or rename columns (or if it can't be known).
+     */
+    private boolean changesSchema(List<RunnableAction> actions) {
+        for (RunnableAction action : actions) {
+            final ActionDefinition actionDefinition = action.getName() == null ? null : actionRegistry.get(action.getName());
+            if (actionDefinition == null) {
+                return true;
+            }
+            final ScopeCategory scope = ScopeCategory.from(action.getParameters().get(ImplicitParameters.SCOPE.getKey()));
+            final Set<ActionDefinition.Behavior> behavior = actionDefinition.adapt(scope).getBehavior();
+            if (behavior.stream().anyMatch(SCHEMA_BEHAVIORS::contains)) {
+                return true;
+            }
+        }
+        return false;
+    }
+
     @Override
     public boolean accept(Configuration configuration) {
         return Configuration.class.equals(configuration.getClass());
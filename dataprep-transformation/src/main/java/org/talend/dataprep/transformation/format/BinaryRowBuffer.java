@@ -0,0 +1,188 @@
+// ============================================================================
+// Copyright (C) 2006-2018 Talend Inc. - www.talend.com
+//
+// This source code is available under agreement available at
+// https://github.com/Talend/data-prep/blob/master/LICENSE
+//
+// You should have received a copy of the agreement
+// along with this program; if not, write to Talend SA
+// 9 rue Pages 92150 Suresnes, France
+//
+// ============================================================================
+
+
+package org.talend.dataprep.transformation.format;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.List;
+
+import org.talend.dataprep.api.dataset.RowMetadata;
+import org.talend.dataprep.api.dataset.binary.DataSetRowBinaryIterator;
+import org.talend.dataprep.api.dataset.binary.DataSetRowBinaryWriter;
+import org.talend.dataprep.api.dataset.row.DataSetRow;
+import org.talend.dataprep.util.FilesHelper;
+
+/**
+ * Buffer for rows (as arrays of values) on a file.
+ *
+ * This class creates a temporary file to buffer rows in the internal binary row format (see
+ * {@link DataSetRowBinaryWriter}), this avoids the cost of a JSON serialization / deserialization round trip when rows
+ * must be kept until metadata is known. Values and flags of a row are written as the values of positional columns, a
+ * new file is started when the number of values or flags changes (at most once per metadata change).
+ *
+ * This is not intended to be thread-safe. Read is intended to be done after all writes are done.
+ *
+ * @see ObjectBuffer
+ */
+public class BinaryRowBuffer implements AutoCloseable {
+
+    /** Length used for a <code>null</code> array. */
+    private static final int NULL_LENGTH = -1;
+
+    private static final String TRUE = "1";
+
+    private static final String FALSE = "0";
+
+    /** Buffered rows, in the order they were appended. */
+    private final List<Segment> segments = new ArrayList<>();
+
+    /**
+     * Callback for rows read back from the buffer.
+     */
+    @FunctionalInterface
+    public interface RowConsumer {
+
+        void accept(String[] values, Boolean[] flags) throws IOException;
+    }
+
+    /**
+     * Append a row to the buffer.
+     *
+     * @param values the row values.
+     * @param flags per value flags (may be <code>null</code>).
+     * @throws IOException if row can not be written to buffer.
+     */
+    public void appendRow(String[] values, Boolean[] flags) throws IOException {
+        final int valuesLength = values == null ? NULL_LENGTH : values.length;
+        final int flagsLength = flags == null ? NULL_LENGTH : flags.length;
+        Segment segment = segments.isEmpty() ? null : segments.get(segments.size() - 1);
+        if (segment == null || segment.valuesLength != valuesLength || segment.flagsLength != flagsLength) {
+            segment = new Segment(valuesLength, flagsLength);
+            segments.add(segment);
+        }
+        segment.write(values, flags);
+    }
+
+    /**
+     * Read all buffered rows (in the order they were appended).
+     *
+     * @param consumer the consumer for the rows.
+     * @throws IOException if buffer can not be read.
+     */
+    public void readAll(RowConsumer consumer) throws IOException {
+        for (Segment segment : segments) {
+            segment.readAll(consumer);
+        }
+    }
+
+    /**
+     * @return The temporary files used by this buffer.
+     */
+    List<Path> getFiles() {
+        final List<Path> files = new ArrayList<>(segments.size());
+        for (Segment segment : segments) {
+            files.add(segment.file);
+        }
+        return files;
+    }
+
+    @Override
+    public void close() throws IOException {
+        for (Segment segment : segments) {
+            segment.close();
+        }
+    }
+
+    /**
+     * Rows with the same number of values and flags: values are in columns <code>0..valuesLength - 1</code> and flags
+     * in the following columns.
+     */
+    private static class Segment {
+
+        private final int valuesLength;
+
+        private final int flagsLength;
+
+        private final Path file;
+
+        private final DataSetRowBinaryWriter writer;
+
+        private final String[] columnIds;
+
+        private final String[] row;
+
+        private Segment(int valuesLength, int flagsLength) throws IOException {
+            this.valuesLength = valuesLength;
+            this.flagsLength = flagsLength;
+            columnIds = new String[Math.max(valuesLength, 0) + Math.max(flagsLength, 0)];
+            final List<String> ids = new ArrayList<>(columnIds.length);
+            for (int i = 0; i < columnIds.length; i++) {
+                columnIds[i] = String.valueOf(i);
+                ids.add(columnIds[i]);
+            }
+            row = new String[columnIds.length];
+            file = Files.createTempFile("buffered-row", ".bin");
+            writer = new DataSetRowBinaryWriter(Files.newOutputStream(file), ids);
+        }
+
+        private void write(String[] values, Boolean[] flags) throws IOException {
+            int index = 0;
+            for (int i = 0; i < valuesLength; i++) {
+                row[index++] = values[i];
+            }
+            for (int i = 0; i < flagsLength; i++) {
+                row[index++] = flags[i] == null ? null : (flags[i] ? TRUE : FALSE);
+            }
+            writer.write(row);
+        }
+
+        private void readAll(RowConsumer consumer) throws IOException {
+            writer.close();
+            try (InputStream input = Files.newInputStream(file)) {
+                final DataSetRowBinaryIterator iterator = new DataSetRowBinaryIterator(input, new RowMetadata(), true);
+                while (iterator.hasNext()) {
+                    final DataSetRow read = iterator.next();
+                    int index = 0;
+                    String[] values = null;
+                    if (valuesLength != NULL_LENGTH) {
+                        values = new String[valuesLength];
+                        for (int i = 0; i < valuesLength; i++) {
+                            values[i] = read.get(columnIds[index++]);
+                        }
+                    }
+                    Boolean[] flags = null;
+                    if (flagsLength != NULL_LENGTH) {
+                        flags = new Boolean[flagsLength];
+                        for (int i = 0; i < flagsLength; i++) {
+                            final String flag = read.get(columnIds[index++]);
+                            flags[i] = flag == null ? null : TRUE.equals(flag);
+                        }
+                    }
+                    consumer.accept(values, flags);
+                }
+            }
+        }
+
+        private void close() throws IOException {
+            try {
+                writer.close();
+            } finally {
+                FilesHelper.deleteQuietly(file.toFile());
+            }
+        }
+    }
+}
@@ -41,6 +41,9 @@ import org.talend.dataprep.transformation.api.transformer.AbstractTransformerWri
 /**
  * Write datasets in CSV.
  *
+ * Records received before the header is known are buffered (see {@link BinaryRowBuffer}). When header is known before
+ * records (see {@link #setHeader(RowMetadata)}), records are directly written to output.
+ *
  * <strong>Warning</strong>: implementation does not support sending records after metadata. Metadata MUST be sent last or will
  * not be written.
  */
@@ -63,7 +66,7 @@ public class CSVWriter extends AbstractTransformerWriter {
 
     private char escapeCharacter;
 
-    private ObjectBuffer<BufferedDatasetRow> objectBuffer;
+    private BinaryRowBuffer rowBuffer;
 
     /** The default separator. */
     @Value("${default.text.separator:;}")
@@ -182,10 +185,11 @@ public class CSVWriter extends AbstractTransformerWriter {
         }
 
         if (csvWriter == null) {
-            if (objectBuffer == null) {
-                objectBuffer = new ObjectBuffer<>(BufferedDatasetRow.class);
+            if (rowBuffer == null) {
+                rowBuffer = new BinaryRowBuffer();
             }
-            objectBuffer.appendRow(new BufferedDatasetRow(row));
+            final BufferedDatasetRow bufferedRow = new BufferedDatasetRow(row);
+            rowBuffer.appendRow(bufferedRow.nextLine, bufferedRow.isEnclosedTypeValues);
         } else {
             internalWrite(new BufferedDatasetRow(row));
         }
@@ -198,23 +202,40 @@ public class CSVWriter extends AbstractTransformerWriter {
      */
     @Override
     public void write(final RowMetadata rowMetadata) throws IOException {
+        if (csvWriter == null) {
+            writeHeader(rowMetadata);
+        }
+        csvWriter.flush();
+    }
+
+    /**
+     * Write the header as soon as it is known (records are then streamed to output without any buffering).
+     *
+     * @param rowMetadata the row metadata that gives the columns names.
+     */
+    @Override
+    public void setHeader(RowMetadata rowMetadata) throws IOException {
+        if (csvWriter == null) {
+            writeHeader(rowMetadata);
+        }
+    }
+
+    private void writeHeader(RowMetadata rowMetadata) throws IOException {
         csvWriter = new CSVWriterCustom(new OutputStreamWriter(output, encoding), separator, enclosureCharacter, escapeCharacter);
 
         // write the columns names, i.e. the header of the file
         csvWriter.writeNext(new BufferedDatasetRow(rowMetadata).nextLine);
 
         // Write buffered records
-        if (objectBuffer != null) {
-            // Warning: if an exception occurs in the stream it will terminate the stream thus stopping the writing.
+        if (rowBuffer != null) {
             try {
-                objectBuffer.readAll().forEach(this::internalWrite);
-                LOGGER.debug("Finished writing temporary values into TComp.");
+                rowBuffer.readAll((values, enclosed) -> internalWrite(values, enclosed));
+                LOGGER.debug("Finished writing temporary values.");
             } finally {
-                objectBuffer.close();
-                objectBuffer = null;
+                rowBuffer.close();
+                rowBuffer = null;
             }
         }
-        csvWriter.flush();
     }
 
     /**
@@ -223,11 +244,15 @@ public class CSVWriter extends AbstractTransformerWriter {
      * @param row the current row to write
      */
     private void internalWrite(BufferedDatasetRow row) {
+        internalWrite(row.nextLine, row.isEnclosedTypeValues);
+    }
+
+    private void internalWrite(String[] nextLine, Boolean[] isEnclosedTypeValues) {
         // values need to be written in the same order as the columns
         if (DEFAULT_ENCLOSURE_MODE.equals(enclosureMode)) {
-            csvWriter.writeNext(row.nextLine, row.isEnclosedTypeValues);
+            csvWriter.writeNext(nextLine, isEnclosedTypeValues);
         } else {
-            csvWriter.writeNext(row.nextLine);
+            csvWriter.writeNext(nextLine);
         }
     }
 
@@ -238,16 +263,21 @@ public class CSVWriter extends AbstractTransformerWriter {
         }
     }
 
+    @Override
+    public void close() throws IOException {
+        // Clean up buffer if metadata was never received (e.g. canceled export)
+        if (rowBuffer != null) {
+            rowBuffer.close();
+            rowBuffer = null;
+        }
+    }
+
     private static final class BufferedDatasetRow {
 
         public String[] nextLine;
 
         public Boolean[] isEnclosedTypeValues;
 
-        // for jackson serialization
-        public BufferedDatasetRow() {
-        }
-
         public BufferedDatasetRow(RowMetadata rowMetadata) {
             nextLine = rowMetadata.getColumns().stream().map(ColumnMetadata::getName).toArray(String[]::new);
             isEnclosedTypeValues = rowMetadata.getColumns().stream().map(ColumnMetadata::getType)
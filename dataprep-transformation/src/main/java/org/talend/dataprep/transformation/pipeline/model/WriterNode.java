@@ -48,6 +48,9 @@ public class WriterNode extends BasicNode implements Monitored {
 
     private boolean metaDataWrote = false;
 
+    /** True if columns can't change during execution: header is then known with the first row. */
+    private final boolean stableColumns;
+
     private boolean startRecords = false;
 
     private long totalTime;
@@ -68,10 +71,27 @@ public class WriterNode extends BasicNode implements Monitored {
      */
     public WriterNode(final TransformerWriter writer, final ConfiguredCacheWriter metadataCacheWriter,
             final ContentCacheKey metadataKey, RowMetadata fallBackRowMetadata) {
+        this(writer, metadataCacheWriter, metadataKey, fallBackRowMetadata, false);
+    }
+
+    /**
+     * Constructor.
+     *
+     * @param writer the transformer writer.
+     * @param metadataCacheWriter the metadata cache writer.
+     * @param metadataKey the transformation metadata cache key to use.
+     * @param fallBackRowMetadata fallback raw metadata to be able to write an empty content even if no row/rowMetadata id
+     * received.
+     * @param stableColumns <code>true</code> if columns can't be added, removed or renamed once rows are emitted: header
+     * is then set with the (compiled) metadata of the first row so writer does not need to buffer records.
+     */
+    public WriterNode(final TransformerWriter writer, final ConfiguredCacheWriter metadataCacheWriter,
+            final ContentCacheKey metadataKey, RowMetadata fallBackRowMetadata, boolean stableColumns) {
         this.writer = writer;
         this.metadataCacheWriter = metadataCacheWriter;
         this.metadataKey = metadataKey;
         this.fallBackRowMetadata = fallBackRowMetadata;
+        this.stableColumns = stableColumns;
     }
 
     /**
@@ -99,6 +119,10 @@ public class WriterNode extends BasicNode implements Monitored {
             }
             lastRowMetadata = metadata;
             if (row.shouldWrite()) {
+                if (!metaDataWrote && stableColumns) {
+                    writer.setHeader(metadata);
+                    metaDataWrote = true;
+                }
                 writer.write(row);
                 super.receive(row, metadata);
                 if (!metaDataWrote && ++nbRowsReceived > DATASET_RECORDS_LIMIT) {
@@ -209,7 +233,7 @@ public class WriterNode extends BasicNode implements Monitored {
 
     @Override
     public Node copyShallow() {
-        return new WriterNode(writer, metadataCacheWriter, metadataKey, fallBackRowMetadata);
+        return new WriterNode(writer, metadataCacheWriter, metadataKey, fallBackRowMetadata, stableColumns);
     }
 
     @Override
@@ -0,0 +1,205 @@
+// ============================================================================
+// Copyright (C) 2006-2018 Talend Inc. - www.talend.com
+//
+// This source code is available under agreement available at
+// https://github.com/Talend/data-prep/blob/master/LICENSE
+//
+// You should have received a copy of the agreement
+// along with this program; if not, write to Talend SA
+// 9 rue Pages 92150 Suresnes, France
+//
+// ============================================================================
+
+
+package org.talend.dataprep.transformation.service;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.Comparator;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.UUID;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.stream.Collectors;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Service;
+import org.talend.dataprep.transformation.pipeline.Node;
+import org.talend.dataprep.transformation.pipeline.NodeMetricsCollector;
+
+/**
+ * <p>
+ * Keeps the execution metrics (rows in/out, time and allocations) of the nodes of the transformation pipelines.
+ * </p>
+ * <p>
+ * Pipelines are monitored when <code>transformation.pipeline.metrics.enabled</code> is set or when a trace is
+ * requested by the caller (see {@link #TRACE_REQUEST_HEADER}): metrics are then summed per node type (see
+ * {@link NodeMetricsCollector.Entry#getType()}, so number of totals does not grow with executed preparations) and, for
+ * traced executions, the metrics of each node are kept for the last {@link #MAX_TRACES} traces.
+ * </p>
+ *
+ * @see NodeMetricsCollector
+ */
+@Service
+public class PipelineMetricsRegistry {
+
+    /** Request header to set to <code>true</code> to trace a transformation. */
+    public static final String TRACE_REQUEST_HEADER = "X-Pipeline-Trace";
+
+    /** Response header that holds the trace id of a traced transformation. */
+    public static final String TRACE_ID_HEADER = "X-Pipeline-Trace-Id";
+
+    /** Number of traces kept in memory. */
+    static final int MAX_TRACES = 50;
+
+    private static final Logger LOGGER = LoggerFactory.getLogger(PipelineMetricsRegistry.class);
+
+    /** The trace id of the transformation executed by current thread (if any). */
+    private static final ThreadLocal<String> CURRENT_TRACE = new ThreadLocal<>();
+
+    /** Metrics summed for all executions, per node type. */
+    private final Map<String, NodeTotals> totals = new ConcurrentHashMap<>();
+
+    /** Last traces, the oldest trace is removed when {@link #MAX_TRACES} is exceeded. */
+    private final Map<String, List<NodeMetricsCollector.Entry>> traces =
+            Collections.synchronizedMap(new LinkedHashMap<String, List<NodeMetricsCollector.Entry>>() {
+
+                @Override
+                protected boolean removeEldestEntry(Map.Entry<String, List<NodeMetricsCollector.Entry>> eldest) {
+                    return size() > MAX_TRACES;
+                }
+            });
+
+    /** <code>true</code> to monitor all pipelines (not only traced ones). */
+    @Value("${transformation.pipeline.metrics.enabled:false}")
+    private boolean enabled;
+
+    /**
+     * @return A new trace id.
+     */
+    public String newTrace() {
+        return UUID.randomUUID().toString();
+    }
+
+    /**
+     * Associates <code>traceId</code> to transformations executed by current thread until {@link #endTrace()}.
+     *
+     * @param traceId The trace id.
+     */
+    public void startTrace(String traceId) {
+        CURRENT_TRACE.set(traceId);
+    }
+
+    /**
+     * Ends the trace started by {@link #startTrace(String)}.
+     */
+    public void endTrace() {
+        CURRENT_TRACE.remove();
+    }
+
+    /**
+     * @return The trace id for the transformation executed by current thread, <code>null</code> if none.
+     */
+    public String currentTrace() {
+        return CURRENT_TRACE.get();
+    }
+
+    /**
+     * @return <code>true</code> if pipelines built by current thread should record their execution metrics.
+     */
+    public boolean isMonitored() {
+        return enabled || CURRENT_TRACE.get() != null;
+    }
+
+    /**
+     * Records the metrics of an executed pipeline.
+     *
+     * @param traceId The trace id of the execution, <code>null</code> if execution isn't traced.
+     * @param pipeline The executed pipeline (built with node metrics).
+     */
+    public void record(String traceId, Node pipeline) {
+        final List<NodeMetricsCollector.Entry> entries = NodeMetricsCollector.collect(pipeline);
+        for (NodeMetricsCollector.Entry entry : entries) {
+            totals.computeIfAbsent(entry.getType(), NodeTotals::new).add(entry);
+        }
+        if (traceId != null) {
+            traces.put(traceId, entries);
+            LOGGER.info("Pipeline trace #{}: {}", traceId, entries);
+        } else {
+            LOGGER.debug("Pipeline metrics: {}", entries);
+        }
+    }
+
+    /**
+     * @return The metrics summed for all executions, per node type (most time consuming nodes first).
+     */
+    public List<NodeTotals> getTotals() {
+        return totals.values().stream() //
+                .sorted(Comparator.comparingLong(NodeTotals::getTime).reversed()) //
+                .collect(Collectors.toList());
+    }
+
+    /**
+     * @param traceId A trace id.
+     * @return The node metrics of the traced execution, an empty list if trace is unknown or expired.
+     */
+    public List<NodeMetricsCollector.Entry> getTrace(String traceId) {
+        final List<NodeMetricsCollector.Entry> entries = traces.get(traceId);
+        return entries == null ? Collections.emptyList() : new ArrayList<>(entries);
+    }
+
+    /**
+     * Sum of the metrics of all nodes with the same type.
+     */
+    public static class NodeTotals {
+
+        private final String name;
+
+        private long executions;
+
+        private long rowsIn;
+
+        private long time;
+
+        private long allocatedBytes;
+
+        private NodeTotals(String name) {
+            this.name = name;
+        }
+
+        private synchronized void add(NodeMetricsCollector.Entry entry) {
+            executions++;
+            rowsIn += entry.getRowsIn();
+            time += entry.getTime();
+            if (entry.getAllocatedBytes() > 0) {
+                allocatedBytes += entry.getAllocatedBytes();
+            }
+        }
+
+        public String getName() {
+            return name;
+        }
+
+        public synchronized long getExecutions() {
+            return executions;
+        }
+
+        public synchronized long getRowsIn() {
+            return rowsIn;
+        }
+
+        /**
+         * @return The time (in nanoseconds) spent in the node for all executions.
+         */
+        public synchronized long getTime() {
+            return time;
+        }
+
+        public synchronized long getAllocatedBytes() {
+            return allocatedBytes;
+        }
+    }
+}
@@ -32,7 +32,7 @@ import java.util.stream.Collectors;
 import java.util.stream.Stream;
 import java.util.zip.GZIPOutputStream;
 
-import javax.annotation.Resource;
+import javax.servlet.http.HttpServletResponse;
 import javax.validation.Valid;
 
 import org.apache.commons.io.output.NullOutputStream;
@@ -42,7 +42,6 @@ import org.slf4j.LoggerFactory;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.context.ApplicationContext;
 import org.springframework.context.i18n.LocaleContextHolder;
-import org.springframework.core.task.TaskExecutor;
 import org.springframework.http.MediaType;
 import org.springframework.web.bind.annotation.*;
 import org.springframework.web.servlet.mvc.method.annotation.StreamingResponseBody;
@@ -61,6 +60,7 @@ import org.talend.dataprep.api.preparation.Step;
 import org.talend.dataprep.api.preparation.StepDiff;
 import org.talend.dataprep.cache.ContentCache;
 import org.talend.dataprep.cache.ContentCacheKey;
+import org.talend.dataprep.cache.ContentCacheStatistics;
 import org.talend.dataprep.command.dataset.DataSetGet;
 import org.talend.dataprep.command.dataset.DataSetGetMetadata;
 import org.talend.dataprep.command.preparation.PreparationDetailsGet;
@@ -78,9 +78,12 @@ import org.talend.dataprep.quality.AnalyzerService;
 import org.talend.dataprep.security.PublicAPI;
 import org.talend.dataprep.security.SecurityProxy;
 import org.talend.dataprep.transformation.actions.common.RunnableAction;
+import org.talend.dataprep.transformation.aggregation.AggregationNode;
 import org.talend.dataprep.transformation.aggregation.AggregationService;
+import org.talend.dataprep.transformation.aggregation.api.AggregationOperation;
 import org.talend.dataprep.transformation.aggregation.api.AggregationParameters;
 import org.talend.dataprep.transformation.aggregation.api.AggregationResult;
+import org.talend.dataprep.transformation.aggregation.operation.GroupAccumulator;
 import org.talend.dataprep.transformation.api.action.ActionParser;
 import org.talend.dataprep.transformation.api.action.context.ActionContext;
 import org.talend.dataprep.transformation.api.action.context.TransformationContext;
@@ -92,9 +95,13 @@ import org.talend.dataprep.transformation.api.transformer.configuration.PreviewC
 import org.talend.dataprep.transformation.api.transformer.suggestion.Suggestion;
 import org.talend.dataprep.transformation.api.transformer.suggestion.SuggestionEngine;
 import org.talend.dataprep.transformation.cache.CacheKeyGenerator;
+import org.talend.dataprep.transformation.cache.TransformationCacheKey;
 import org.talend.dataprep.transformation.cache.TransformationMetadataCacheKey;
 import org.talend.dataprep.transformation.pipeline.ActionRegistry;
+import org.talend.dataprep.transformation.pipeline.NodeMetricsCollector;
 import org.talend.dataprep.transformation.preview.api.PreviewParameters;
+import org.talend.dataprep.transformation.service.export.ApplyPreparationExportStrategy;
+import org.talend.dataprep.transformation.service.export.PreparationExportStrategy;
 import org.talend.dataquality.common.inference.Analyzer;
 import org.talend.dataquality.common.inference.Analyzers;
 import org.talend.dataquality.semantic.broadcast.TdqCategories;
@@ -115,6 +122,9 @@ public class TransformationService extends BaseTransformationService {
      */
     private static final Logger LOG = LoggerFactory.getLogger(TransformationService.class);
 
+    /** The "format" used in cache keys of aggregation results. */
+    private static final String AGGREGATION_CACHE_FORMAT = "aggregation";
+
     @Autowired
     private AnalyzerService analyzerService;
 
@@ -136,6 +146,12 @@ public class TransformationService extends BaseTransformationService {
     @Autowired
     private AggregationService aggregationService;
 
+    @Autowired
+    private PreparationExportStrategy preparationExportStrategy;
+
+    @Autowired
+    private ApplyPreparationExportStrategy applyPreparationExportStrategy;
+
     /**
      * The action suggestion engine.
      */
@@ -148,12 +164,6 @@ public class TransformationService extends BaseTransformationService {
     @Autowired
     private TransformerFactory factory;
 
-    /**
-     * Task executor for asynchronous processing.
-     */
-    @Resource(name = "serializer#json#executor")
-    private TaskExecutor executor;
-
     /**
      * Security proxy enable a thread to borrow the identity of another user.
      */
@@ -175,13 +185,71 @@ public class TransformationService extends BaseTransformationService {
     @Autowired
     private StatisticsAdapter statisticsAdapter;
 
+    @Autowired
+    private PipelineMetricsRegistry pipelineMetrics;
+
     @RequestMapping(value = "/apply", method = POST)
     @ApiOperation(value = "Run the transformation given the provided export parameters",
             notes = "This operation transforms the dataset or preparation using parameters in export parameters.")
     @VolumeMetered
     public StreamingResponseBody
-            execute(@ApiParam(value = "Preparation id to apply.") @RequestBody @Valid final ExportParameters parameters) {
-        return executeSampleExportStrategy(parameters);
+            execute(@ApiParam(value = "Preparation id to apply.") @RequestBody @Valid final ExportParameters parameters,
+                    @ApiParam(value = "'true' to trace pipeline execution.") @RequestHeader(value = PipelineMetricsRegistry.TRACE_REQUEST_HEADER, required = false) final String trace,
+                    final HttpServletResponse response) {
+        if (!Boolean.parseBoolean(trace)) {
+            return executeSampleExportStrategy(parameters);
+        }
+        final String traceId = startTrace(response);
+        final StreamingResponseBody body;
+        try {
+            body = executeSampleExportStrategy(parameters);
+        } finally {
+            pipelineMetrics.endTrace();
+        }
+        // Content may be computed when body is written (in another thread).
+        return output -> {
+            pipelineMetrics.startTrace(traceId);
+            try {
+                body.writeTo(output);
+            } finally {
+                pipelineMetrics.endTrace();
+            }
+        };
+    }
+
+    /**
+     * Creates a new trace for current request: trace id is returned in {@link PipelineMetricsRegistry#TRACE_ID_HEADER}
+     * response header and node metrics can be retrieved with {@link #getPipelineTrace(String)}.
+     *
+     * @param response The HTTP response of current request.
+     * @return The trace id, associated with current thread.
+     */
+    private String startTrace(HttpServletResponse response) {
+        final String traceId = pipelineMetrics.newTrace();
+        response.setHeader(PipelineMetricsRegistry.TRACE_ID_HEADER, traceId);
+        pipelineMetrics.startTrace(traceId);
+        return traceId;
+    }
+
+    @RequestMapping(value = "/transform/metrics", method = GET, produces = APPLICATION_JSON_VALUE)
+    @ApiOperation(value = "Get pipeline nodes metrics", notes = "Returns the metrics summed per node for all monitored transformations.")
+    @Timed
+    public List<PipelineMetricsRegistry.NodeTotals> getPipelineMetrics() {
+        return pipelineMetrics.getTotals();
+    }
+
+    @RequestMapping(value = "/transform/metrics/{traceId}", method = GET, produces = APPLICATION_JSON_VALUE)
+    @ApiOperation(value = "Get pipeline nodes metrics for a traced transformation", notes = "Returns the metrics of each node of a traced transformation (empty if trace is unknown or not complete).")
+    @Timed
+    public List<NodeMetricsCollector.Entry> getPipelineTrace(@ApiParam(value = "Trace id (as returned in response header).") @PathVariable("traceId") final String traceId) {
+        return pipelineMetrics.getTrace(traceId);
+    }
+
+    @RequestMapping(value = "/transform/cache/metrics", method = GET, produces = APPLICATION_JSON_VALUE)
+    @ApiOperation(value = "Get content cache metrics", notes = "Returns the hit, miss and eviction counts of the content cache.")
+    @Timed
+    public ContentCacheStatistics getContentCacheMetrics() {
+        return contentCache.getStatistics();
     }
 
     @RequestMapping(value = "/apply/preparation/{preparationId}/{stepId}/metadata", method = GET)
@@ -306,57 +374,110 @@ public class TransformationService extends BaseTransformationService {
             throw new TDPException(CommonErrorCodes.BAD_AGGREGATION_PARAMETERS, e);
         }
 
-        InputStream contentToAggregate;
-
-        // get the content of the preparation (internal call with piped streams)
         if (StringUtils.isNotBlank(parameters.getPreparationId())) {
-            try {
-                PipedOutputStream temp = new PipedOutputStream();
-                contentToAggregate = new PipedInputStream(temp);
-
-                // because of piped streams, processing must be asynchronous
-                Runnable r = () -> {
-                    try {
-                        final ExportParameters exportParameters = new ExportParameters();
-                        exportParameters.setPreparationId(parameters.getPreparationId());
-                        exportParameters.setDatasetId(parameters.getDatasetId());
-                        if (parameters.getFilter() != null) {
-                            exportParameters.setFilter(mapper.readTree(parameters.getFilter()));
-                        }
-                        exportParameters.setExportType(JSON);
-                        exportParameters.setStepId(parameters.getStepId());
-
-                        final StreamingResponseBody body = executeSampleExportStrategy(exportParameters);
-                        body.writeTo(temp);
-                    } catch (IOException e) {
-                        throw new TDPException(CommonErrorCodes.UNABLE_TO_AGGREGATE, e);
-                    }
-                };
-                executor.execute(r);
-            } catch (IOException e) {
-                throw new TDPException(CommonErrorCodes.UNABLE_TO_AGGREGATE, e);
-            }
-        } else {
-            final DataSetGet dataSetGet = context.getBean(DataSetGet.class, parameters.getDatasetId(), false, true);
-            contentToAggregate = dataSetGet.execute();
+            return aggregatePreparation(parameters);
         }
 
-        // apply the aggregation
-        try (JsonParser parser = mapper.getFactory().createParser(contentToAggregate)) {
+        final DataSetGet dataSetGet = context.getBean(DataSetGet.class, parameters.getDatasetId(), false, true);
+        try (InputStream contentToAggregate = dataSetGet.execute();
+                JsonParser parser = mapper.getFactory().createParser(contentToAggregate)) {
             final DataSet dataSet = mapper.readerFor(DataSet.class).readValue(parser);
             return aggregationService.aggregate(parameters, dataSet);
         } catch (IOException e) {
             throw new TDPException(CommonErrorCodes.UNABLE_TO_PARSE_JSON, e);
-        } finally {
-            // don't forget to release the connection
-            if (contentToAggregate != null) {
-                try {
-                    contentToAggregate.close();
-                } catch (IOException e) {
-                    LOG.warn("Could not close dataset input stream while aggregating", e);
-                }
+        }
+    }
+
+    /**
+     * Compute the aggregation of a preparation content. Aggregation is cached per preparation step, filter, group by
+     * and operation and when the JSON content of the preparation step is already in cache, it is aggregated instead
+     * of applying the preparation again.
+     *
+     * @param parameters the aggregation parameters (with a preparation id).
+     * @return the aggregation result.
+     */
+    private AggregationResult aggregatePreparation(AggregationParameters parameters) {
+        final String preparationId = parameters.getPreparationId();
+        final boolean applyOnDataSet = StringUtils.isNotBlank(parameters.getDatasetId());
+        final Preparation preparation = getPreparation(preparationId);
+        final String stepId = StringUtils.isEmpty(parameters.getStepId()) || "head".equalsIgnoreCase(parameters.getStepId())
+                ? preparation.getHeadId() : parameters.getStepId();
+        final String dataSetId = applyOnDataSet ? parameters.getDatasetId() : preparation.getDataSetId();
+
+        // previous aggregation for the same step, filter, group by and operation
+        final AggregationOperation operation = parameters.getOperations().isEmpty() ? null : parameters.getOperations().get(0);
+        final TransformationCacheKey aggregationKey = cacheKeyGenerator.generateContentKey(dataSetId, //
+                preparationId, //
+                stepId, //
+                AGGREGATION_CACHE_FORMAT, //
+                HEAD, //
+                Collections.singletonMap("aggregation", parameters.getGroupBy() + "/" + operation), //
+                parameters.getFilter());
+        if (contentCache.has(aggregationKey)) {
+            try (InputStream cached = contentCache.get(aggregationKey)) {
+                LOG.debug("Aggregation of preparation #{} at step {} read from cache.", preparationId, stepId);
+                return GroupAccumulator.readFrom(cached).toResult();
+            } catch (IOException e) {
+                LOG.warn("Unable to read cached aggregation '{}', compute it again.", aggregationKey, e);
+                contentCache.evict(aggregationKey);
             }
         }
+
+        final AggregationNode node = aggregationService.createNode(parameters);
+        if (!applyOnDataSet && aggregateCachedContent(preparationId, dataSetId, stepId, node)) {
+            LOG.debug("Aggregation of preparation #{} at step {} computed from cached content.", preparationId, stepId);
+        } else {
+            // apply the preparation and aggregate the transformed rows (no serialization of the transformed content)
+            final ExportParameters exportParameters = new ExportParameters();
+            exportParameters.setPreparationId(preparationId);
+            exportParameters.setDatasetId(parameters.getDatasetId());
+            exportParameters.setExportType(JSON);
+            exportParameters.setStepId(parameters.getStepId());
+            if (applyOnDataSet) {
+                applyPreparationExportStrategy.execute(exportParameters, () -> node);
+            } else {
+                preparationExportStrategy.execute(exportParameters, () -> node);
+            }
+        }
+
+        // keep the aggregated groups for next requests
+        try (OutputStream output = contentCache.put(aggregationKey, ContentCache.TimeToLive.DEFAULT)) {
+            node.getAccumulator().writeTo(output);
+        } catch (IOException e) {
+            LOG.warn("Unable to cache aggregation '{}'.", aggregationKey, e);
+            contentCache.evict(aggregationKey);
+        }
+        return node.getResult();
+    }
+
+    /**
+     * Aggregate the JSON content of a preparation step if it's (with its metadata) in cache.
+     *
+     * @return <code>true</code> if content was found in cache and aggregated, <code>false</code> otherwise.
+     */
+    private boolean aggregateCachedContent(String preparationId, String dataSetId, String stepId, AggregationNode node) {
+        final TransformationCacheKey contentKey = cacheKeyGenerator.generateContentKey(dataSetId, preparationId, stepId, JSON,
+                HEAD, null);
+        final TransformationMetadataCacheKey metadataKey = cacheKeyGenerator.generateMetadataKey(preparationId, stepId, HEAD);
+        if (!contentCache.has(contentKey) || !contentCache.has(metadataKey)) {
+            return false;
+        }
+        final RowMetadata rowMetadata;
+        try (InputStream metadata = contentCache.get(metadataKey)) {
+            rowMetadata = mapper.readerFor(DataSetMetadata.class).<DataSetMetadata> readValue(metadata).getRowMetadata();
+        } catch (IOException e) {
+            LOG.debug("Unable to read cached metadata of preparation #{} at step {}.", preparationId, stepId, e);
+            return false;
+        }
+        try (InputStream content = contentCache.get(contentKey)) {
+            if (content == null) {
+                return false;
+            }
+            aggregationService.aggregate(node, rowMetadata, content);
+            return true;
+        } catch (IOException e) {
+            throw new TDPException(CommonErrorCodes.UNABLE_TO_PARSE_JSON, e);
+        }
     }
 
     /**
@@ -378,12 +499,21 @@ public class TransformationService extends BaseTransformationService {
     @ApiOperation(value = "Preview the transformation on input data", notes = "This operation returns the input data diff between the old and the new transformation actions", consumes = MediaType.MULTIPART_FORM_DATA_VALUE)
     @VolumeMetered
     public void transformPreview(@ApiParam(name = "body", value = "Preview parameters.") @RequestBody final PreviewParameters previewParameters,
+                                 @ApiParam(value = "'true' to trace pipeline execution.") @RequestHeader(value = PipelineMetricsRegistry.TRACE_REQUEST_HEADER, required = false) final String trace,
+                                 final HttpServletResponse response,
                                  final OutputStream output) {
         //@formatter:on
-        if (shouldApplyDiffToSampleSource(previewParameters)) {
-            executeDiffOnSample(previewParameters, output);
-        } else {
-            executeDiffOnDataset(previewParameters, output);
+        if (Boolean.parseBoolean(trace)) {
+            startTrace(response);
+        }
+        try {
+            if (shouldApplyDiffToSampleSource(previewParameters)) {
+                executeDiffOnSample(previewParameters, output);
+            } else {
+                executeDiffOnDataset(previewParameters, output);
+            }
+        } finally {
+            pipelineMetrics.endTrace();
         }
     }
 
@@ -15,9 +15,11 @@ package org.talend.dataprep.transformation.service.export;
 import static org.talend.dataprep.transformation.api.transformer.configuration.Configuration.Volume.SMALL;
 import static org.talend.dataprep.transformation.format.JsonFormat.JSON;
 
+import java.io.IOException;
 import java.io.InputStream;
 import java.io.OutputStream;
 import java.util.Objects;
+import java.util.function.Supplier;
 
 import org.apache.commons.io.output.TeeOutputStream;
 import org.apache.commons.lang.StringUtils;
@@ -38,6 +40,7 @@ import org.talend.dataprep.transformation.api.transformer.configuration.Configur
 import org.talend.dataprep.transformation.cache.CacheKeyGenerator;
 import org.talend.dataprep.transformation.cache.TransformationCacheKey;
 import org.talend.dataprep.transformation.format.CSVFormat;
+import org.talend.dataprep.transformation.pipeline.Node;
 import org.talend.dataprep.transformation.service.BaseExportStrategy;
 import org.talend.dataprep.transformation.service.ExportUtils;
 
@@ -77,33 +80,37 @@ public class ApplyPreparationExportStrategy extends BaseSampleExportStrategy {
         return outputStream -> executeApplyPreparation(parameters, outputStream);
     }
 
+    /**
+     * Applies the preparation (at the step given in <code>parameters</code>) on the data set given in
+     * <code>parameters</code> and sends the transformed rows to a custom terminal node instead of serializing them:
+     * nothing is written to an output stream nor to the content cache.
+     *
+     * @param parameters The export parameters (preparation id, data set id, step id and source type are used).
+     * @param outputNode The supplier of the node that receives the transformed rows.
+     */
+    public void execute(ExportParameters parameters, Supplier<Node> outputNode) {
+        executeApplyPreparation(parameters, (version, dataSet) -> {
+            final Configuration configuration = Configuration.builder() //
+                    .sourceType(parameters.getFrom()) //
+                    .actions(getActions(parameters.getPreparationId(), version)) //
+                    .preparation(getPreparation(parameters.getPreparationId())) //
+                    .stepId(version) //
+                    .volume(SMALL) //
+                    .outputNode(outputNode) //
+                    .globalStatistics(false) //
+                    .limit(this.limit) //
+                    .build();
+            factory.get(configuration).buildExecutable(dataSet, configuration).execute();
+        });
+    }
+
     private void executeApplyPreparation(ExportParameters parameters, OutputStream outputStream) {
-        final String stepId = parameters.getStepId();
         final String preparationId = parameters.getPreparationId();
         final String formatName = parameters.getExportType();
-        final Preparation preparation = getPreparation(preparationId);
         final String dataSetId = parameters.getDatasetId();
         final ExportFormat format = getFormat(parameters.getExportType());
 
-        // dataset content must be retrieved as the technical user because it might not be shared
-        boolean technicianIdentityReleased = false;
-        securityProxy.asTechnicalUser();
-        // get the dataset content (in an auto-closable block to make sure it is properly closed)
-        final boolean fullContent = parameters.getFrom() == ExportParameters.SourceType.FILTER;
-        final DataSetGet dataSetGet = applicationContext.getBean(DataSetGet.class, dataSetId, fullContent, true);
-
-        try (final InputStream datasetContent = dataSetGet.execute();
-                final JsonParser parser = mapper.getFactory().createParser(datasetContent)) {
-
-            // release the technical user identity
-            securityProxy.releaseIdentity();
-            technicianIdentityReleased = true;
-            // head is not allowed as step id
-            final String version = getCleanStepId(preparation, stepId);
-
-            // Create dataset
-            final DataSet dataSet = mapper.readerFor(DataSet.class).readValue(parser);
-
+        executeApplyPreparation(parameters, (version, dataSet) -> {
             // get the actions to apply (no preparation ==> dataset export ==> no actions)
             final String actions = getActions(preparationId, version);
 
@@ -146,6 +153,39 @@ public class ApplyPreparationExportStrategy extends BaseSampleExportStrategy {
                 contentCache.evict(key);
                 throw e;
             }
+        });
+    }
+
+    /**
+     * Reads the data set given in <code>parameters</code> and hands it (with the clean step id) to
+     * <code>transformation</code>.
+     */
+    private void executeApplyPreparation(ExportParameters parameters, DataSetTransformation transformation) {
+        final String stepId = parameters.getStepId();
+        final String preparationId = parameters.getPreparationId();
+        final Preparation preparation = getPreparation(preparationId);
+        final String dataSetId = parameters.getDatasetId();
+
+        // dataset content must be retrieved as the technical user because it might not be shared
+        boolean technicianIdentityReleased = false;
+        securityProxy.asTechnicalUser();
+        // get the dataset content (in an auto-closable block to make sure it is properly closed)
+        final boolean fullContent = parameters.getFrom() == ExportParameters.SourceType.FILTER;
+        final DataSetGet dataSetGet = applicationContext.getBean(DataSetGet.class, dataSetId, fullContent, true);
+
+        try (final InputStream datasetContent = dataSetGet.execute();
+                final JsonParser parser = mapper.getFactory().createParser(datasetContent)) {
+
+            // release the technical user identity
+            securityProxy.releaseIdentity();
+            technicianIdentityReleased = true;
+            // head is not allowed as step id
+            final String version = getCleanStepId(preparation, stepId);
+
+            // Create dataset
+            final DataSet dataSet = mapper.readerFor(DataSet.class).readValue(parser);
+
+            transformation.transform(version, dataSet);
         } catch (TDPException e) {
             throw e;
         } catch (Exception e) {
@@ -156,4 +196,13 @@ public class ApplyPreparationExportStrategy extends BaseSampleExportStrategy {
             }
         }
     }
+
+    /**
+     * A transformation of a data set (with the preparation clean step id).
+     */
+    @FunctionalInterface
+    private interface DataSetTransformation {
+
+        void transform(String version, DataSet dataSet) throws IOException;
+    }
 }
@@ -17,13 +17,18 @@ import java.io.InputStream;
 import java.io.OutputStream;
 import java.util.ArrayList;
 import java.util.List;
+import java.util.Map;
 import java.util.stream.Collectors;
 
+import javax.annotation.Resource;
+
 import org.apache.commons.io.output.TeeOutputStream;
 import org.apache.commons.lang.StringUtils;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.core.task.TaskExecutor;
 import org.springframework.stereotype.Component;
 import org.springframework.web.servlet.mvc.method.annotation.StreamingResponseBody;
 import org.talend.dataprep.api.dataset.DataSet;
@@ -48,7 +53,8 @@ import com.fasterxml.jackson.core.JsonParser;
 
 /**
  * A {@link BaseExportStrategy strategy} to export a preparation (using its default data set), using any information
- * available in cache (metadata and content).
+ * available in cache (metadata and content): export starts from the most recent step (before the requested one) with
+ * both content and metadata in cache, and only the remaining actions are replayed.
  */
 @Component
 public class OptimizedExportStrategy extends BaseSampleExportStrategy {
@@ -58,6 +64,14 @@ public class OptimizedExportStrategy extends BaseSampleExportStrategy {
     @Autowired
     private CacheKeyGenerator cacheKeyGenerator;
 
+    /** Number of steps between two intermediate results cached after a replay (0 to disable checkpoints). */
+    @Value("${transformation.export.checkpoint.interval:10}")
+    private int checkpointInterval;
+
+    /** Task executor used to cache intermediate results once export is done. */
+    @Resource(name = "export#checkpoint#executor")
+    private TaskExecutor checkpointExecutor;
+
     @Override
     public boolean accept(ExportParameters parameters) {
         if (parameters == null) {
@@ -97,10 +111,121 @@ public class OptimizedExportStrategy extends BaseSampleExportStrategy {
         final DataSetMetadata metadata = optimizedPreparationInput.getMetadata();
         final String previousVersion = optimizedPreparationInput.getPreviousVersion();
         final String version = optimizedPreparationInput.getVersion();
+
+        // create tee to broadcast to cache + service output
+        final TransformationCacheKey key = cacheKeyGenerator.generateContentKey( //
+                dataSetId, //
+                preparationId, //
+                version, //
+                parameters.getExportType(), //
+                parameters.getFrom(), //
+                parameters.getArguments(), //
+                parameters.getFilter() //
+        );
+        LOGGER.debug("Cache key: " + key.getKey());
+        LOGGER.debug("Cache key details: " + key.toString());
+
+        try (final TeeOutputStream tee = new TeeOutputStream(outputStream, contentCache.put(key, ContentCache.TimeToLive.DEFAULT))) {
+            replay(parameters, transformationCacheKey, metadata, previousVersion, version, tee);
+            tee.flush();
+        } catch (Throwable e) { // NOSONAR
+            contentCache.evict(key);
+            throw e;
+        }
+
+        // Checkpoint intermediate steps so later exports (undo/redo...) replay less actions
+        if (checkpointInterval > 0) {
+            scheduleCheckpoints(parameters, optimizedPreparationInput);
+        }
+    }
+
+    /**
+     * Caches (in background) the content of every <code>checkpointInterval</code> step between the step export started
+     * from and the exported one. Each checkpoint is computed from the previous one, checkpoints already in cache are
+     * reused.
+     *
+     * @param parameters the export parameters.
+     * @param input the information used for the export.
+     */
+    private void scheduleCheckpoints(ExportParameters parameters, OptimizedPreparationInput input) {
+        final List<String> steps = input.getSteps();
+        final int from = steps.indexOf(input.getPreviousVersion());
+        final int to = steps.indexOf(input.getVersion());
+        if (to - from <= checkpointInterval) {
+            return;
+        }
+        // Cache keys may depend on current user: compute them before leaving current thread
+        final List<String> checkpoints = new ArrayList<>();
+        final List<TransformationCacheKey> contentKeys = new ArrayList<>();
+        final List<TransformationMetadataCacheKey> metadataKeys = new ArrayList<>();
+        for (int i = from + checkpointInterval; i < to; i += checkpointInterval) {
+            final String checkpoint = steps.get(i);
+            checkpoints.add(checkpoint);
+            contentKeys.add(cacheKeyGenerator.generateContentKey( //
+                    input.getDataSetId(), //
+                    parameters.getPreparationId(), //
+                    checkpoint, //
+                    parameters.getExportType(), //
+                    parameters.getFrom(), //
+                    parameters.getArguments(), //
+                    parameters.getFilter() //
+            ));
+            metadataKeys.add(cacheKeyGenerator.generateMetadataKey(parameters.getPreparationId(), checkpoint, parameters.getFrom()));
+        }
+        final TransformationMetadataCacheKey startMetadataKey = cacheKeyGenerator
+                .generateMetadataKey(parameters.getPreparationId(), input.getPreviousVersion(), parameters.getFrom());
+        checkpointExecutor.execute(() -> {
+            String previousVersion = input.getPreviousVersion();
+            TransformationCacheKey previousKey = input.getTransformationCacheKey();
+            TransformationMetadataCacheKey previousMetadataKey = startMetadataKey;
+            for (int i = 0; i < checkpoints.size(); i++) {
+                final String checkpoint = checkpoints.get(i);
+                final TransformationCacheKey checkpointKey = contentKeys.get(i);
+                final TransformationMetadataCacheKey checkpointMetadataKey = metadataKeys.get(i);
+                if (contentCache.has(checkpointKey) && contentCache.has(checkpointMetadataKey)) {
+                    LOGGER.debug("Reuse checkpoint of preparation {} @ step #{}", parameters.getPreparationId(), checkpoint);
+                } else {
+                    LOGGER.debug("Checkpoint preparation {} @ step #{}", parameters.getPreparationId(), checkpoint);
+                    try (InputStream metadataInput = contentCache.get(previousMetadataKey);
+                            OutputStream checkpointOutput = contentCache.put(checkpointKey, ContentCache.TimeToLive.DEFAULT)) {
+                        final DataSetMetadata previousMetadata = mapper.readerFor(DataSetMetadata.class).readValue(metadataInput);
+                        replay(parameters, previousKey, previousMetadata, previousVersion, checkpoint, checkpointOutput);
+                    } catch (Exception e) {
+                        contentCache.evict(checkpointKey);
+                        LOGGER.warn("Unable to checkpoint preparation {} @ step #{}.", parameters.getPreparationId(),
+                                checkpoint, e);
+                        return;
+                    }
+                    if (!contentCache.has(checkpointMetadataKey)) {
+                        LOGGER.debug("No metadata cached for checkpoint '{}', stop checkpoints.", checkpoint);
+                        return;
+                    }
+                }
+                previousVersion = checkpoint;
+                previousKey = checkpointKey;
+                previousMetadataKey = checkpointMetadataKey;
+            }
+        });
+    }
+
+    /**
+     * Applies the actions between <code>previousVersion</code> and <code>version</code> to the cached content of
+     * <code>previousVersion</code>.
+     *
+     * @param parameters the export parameters.
+     * @param previousKey the content cache key of <code>previousVersion</code>.
+     * @param metadata the metadata of <code>previousVersion</code>.
+     * @param previousVersion the step to start from.
+     * @param version the step to reach.
+     * @param output where to write the result.
+     */
+    private void replay(ExportParameters parameters, TransformationCacheKey previousKey, DataSetMetadata metadata,
+            String previousVersion, String version, OutputStream output) {
+        final String preparationId = parameters.getPreparationId();
         final ExportFormat format = getFormat(parameters.getExportType());
 
         // Get content from previous step
-        try (JsonParser parser = mapper.getFactory().createParser(contentCache.get(transformationCacheKey))) {
+        try (JsonParser parser = mapper.getFactory().createParser(contentCache.get(previousKey))) {
             // Create dataset
             final DataSet dataSet = mapper.readerFor(DataSet.class).readValue(parser);
             dataSet.setMetadata(metadata);
@@ -110,40 +235,22 @@ public class OptimizedExportStrategy extends BaseSampleExportStrategy {
             final PreparationMessage preparation = getPreparation(preparationId);
             preparation.setSteps(getMatchingSteps(preparation.getSteps(), previousVersion, version));
 
-            LOGGER.debug("Running optimized strategy for preparation {} @ step #{}", preparationId, version);
-
-            // create tee to broadcast to cache + service output
-            final TransformationCacheKey key = cacheKeyGenerator.generateContentKey( //
-                    dataSetId, //
-                    preparationId, //
-                    version, //
-                    parameters.getExportType(), //
-                    parameters.getFrom(), //
-                    parameters.getArguments(), //
-                    parameters.getFilter() //
-            );
-            LOGGER.debug("Cache key: " + key.getKey());
-            LOGGER.debug("Cache key details: " + key.toString());
-
-            try (final TeeOutputStream tee = new TeeOutputStream(outputStream, contentCache.put(key, ContentCache.TimeToLive.DEFAULT))) {
-                final Configuration configuration = Configuration.builder() //
-                        .args(parameters.getArguments()) //
-                        .outFilter(rm -> filterService.build(parameters.getFilter(), rm)) //
-                        .sourceType(parameters.getFrom())
-                        .format(format.getName()) //
-                        .actions(actions) //
-                        .preparation(preparation) //
-                        .stepId(version) //
-                        .volume(Configuration.Volume.SMALL) //
-                        .output(tee) //
-                        .limit(limit) //
-                        .build();
-                factory.get(configuration).buildExecutable(dataSet, configuration).execute();
-                tee.flush();
-            } catch (Throwable e) { // NOSONAR
-                contentCache.evict(key);
-                throw e;
-            }
+            LOGGER.debug("Running optimized strategy for preparation {} from step #{} to step #{}", preparationId,
+                    previousVersion, version);
+
+            final Configuration configuration = Configuration.builder() //
+                    .args(parameters.getArguments()) //
+                    .outFilter(rm -> filterService.build(parameters.getFilter(), rm)) //
+                    .sourceType(parameters.getFrom())
+                    .format(format.getName()) //
+                    .actions(actions) //
+                    .preparation(preparation) //
+                    .stepId(version) //
+                    .volume(Configuration.Volume.SMALL) //
+                    .output(output) //
+                    .limit(limit) //
+                    .build();
+            factory.get(configuration).buildExecutable(dataSet, configuration).execute();
         } catch (TDPException e) {
             throw e;
         } catch (Exception e) {
@@ -206,6 +313,10 @@ public class OptimizedExportStrategy extends BaseSampleExportStrategy {
 
         private String filter;
 
+        private final Map<String, String> arguments;
+
+        private List<String> steps;
+
         private OptimizedPreparationInput(ExportParameters parameters) {
             this.stepId = parameters.getStepId();
             this.preparationId = parameters.getPreparationId();
@@ -222,6 +333,7 @@ public class OptimizedExportStrategy extends BaseSampleExportStrategy {
             }
             this.formatName = parameters.getExportType();
             this.filter = parameters.getFilter();
+            this.arguments = parameters.getArguments();
         }
 
         private String getDataSetId() {
@@ -257,6 +369,10 @@ public class OptimizedExportStrategy extends BaseSampleExportStrategy {
             return previousVersion;
         }
 
+        private List<String> getSteps() {
+            return steps;
+        }
+
         // Extract information or returns null is not applicable.
         private OptimizedPreparationInput invoke() throws IOException {
             if (preparation == null) {
@@ -265,42 +381,73 @@ public class OptimizedExportStrategy extends BaseSampleExportStrategy {
             }
             // head is not allowed as step id
             version = stepId;
-            previousVersion = Step.ROOT_STEP.getId();
-            final List<String> steps = preparation.getSteps().stream().map(Step::id).collect(Collectors.toList());
+            steps = preparation.getSteps().stream().map(Step::id).collect(Collectors.toList());
             if (steps.size() <= 2) {
                 LOGGER.debug("Not enough steps ({}) in preparation.", steps.size());
                 return null;
             }
             if (StringUtils.equals("head", stepId) || StringUtils.isEmpty(stepId)) {
                 version = steps.get(steps.size() - 1);
-                previousVersion = steps.get(steps.size() - 2);
             }
-            // Get metadata of previous step
-            final TransformationMetadataCacheKey transformationMetadataCacheKey = cacheKeyGenerator.generateMetadataKey(preparationId, previousVersion, sourceType);
-            if (!contentCache.has(transformationMetadataCacheKey)) {
-                LOGGER.debug("No metadata cached for previous version '{}' (key for lookup: '{}')", previousVersion,
-                        transformationMetadataCacheKey.getKey());
+            final int versionIndex = steps.indexOf(version);
+            if (versionIndex <= 0) {
+                LOGGER.debug("Step '{}' is not a step after root step in preparation.", version);
                 return null;
             }
-            try (InputStream input = contentCache.get(transformationMetadataCacheKey)) {
-                metadata = mapper.readerFor(DataSetMetadata.class).readValue(input);
+            // Look for the most recent previous step with both metadata and content in cache
+            for (int i = versionIndex - 1; i >= 0; i--) {
+                final String candidate = steps.get(i);
+                final TransformationMetadataCacheKey transformationMetadataCacheKey = cacheKeyGenerator
+                        .generateMetadataKey(preparationId, candidate, sourceType);
+                if (!contentCache.has(transformationMetadataCacheKey)) {
+                    LOGGER.debug("No metadata cached for version '{}' (key for lookup: '{}')", candidate,
+                            transformationMetadataCacheKey.getKey());
+                    continue;
+                }
+                final TransformationCacheKey candidateCacheKey = getCachedContentKey(candidate);
+                if (candidateCacheKey == null) {
+                    LOGGER.debug("No content cached for version '{}'", candidate);
+                    continue;
+                }
+                try (InputStream input = contentCache.get(transformationMetadataCacheKey)) {
+                    metadata = mapper.readerFor(DataSetMetadata.class).readValue(input);
+                }
+                previousVersion = candidate;
+                transformationCacheKey = candidateCacheKey;
+                LOGGER.debug("Previous content cache key: " + transformationCacheKey.getKey());
+                LOGGER.debug("Previous content cache key details: " + transformationCacheKey.toString());
+                return this;
             }
-            transformationCacheKey = cacheKeyGenerator.generateContentKey( //
+            LOGGER.debug("No cached content and metadata for steps before '{}'", version);
+            return null;
+        }
+
+        /**
+         * @return the key of the cached content for <code>candidate</code> step (content cached with current export
+         * arguments is preferred over content cached without arguments) or <code>null</code> if none is cached.
+         */
+        private TransformationCacheKey getCachedContentKey(String candidate) {
+            final TransformationCacheKey withArguments = cacheKeyGenerator.generateContentKey( //
                     dataSetId, //
                     preparationId, //
-                    previousVersion, //
+                    candidate, //
                     formatName, //
                     sourceType, //
+                    arguments, //
                     filter //
             );
-            LOGGER.debug("Previous content cache key: " + transformationCacheKey.getKey());
-            LOGGER.debug("Previous content cache key details: " + transformationCacheKey.toString());
-
-            if (!contentCache.has(transformationCacheKey)) {
-                LOGGER.debug("No content cached for previous version '{}'", previousVersion);
-                return null;
+            if (contentCache.has(withArguments)) {
+                return withArguments;
             }
-            return this;
+            final TransformationCacheKey withoutArguments = cacheKeyGenerator.generateContentKey( //
+                    dataSetId, //
+                    preparationId, //
+                    candidate, //
+                    formatName, //
+                    sourceType, //
+                    filter //
+            );
+            return contentCache.has(withoutArguments) ? withoutArguments : null;
         }
     }
 
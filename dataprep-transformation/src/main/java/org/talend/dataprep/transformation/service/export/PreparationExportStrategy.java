@@ -14,8 +14,10 @@ package org.talend.dataprep.transformation.service.export;
 
 import static org.talend.dataprep.api.export.ExportParameters.SourceType.HEAD;
 
+import java.io.IOException;
 import java.io.InputStream;
 import java.io.OutputStream;
+import java.util.function.Supplier;
 
 import org.apache.commons.io.output.TeeOutputStream;
 import org.apache.commons.lang.StringUtils;
@@ -38,6 +40,7 @@ import org.talend.dataprep.transformation.api.transformer.configuration.Configur
 import org.talend.dataprep.transformation.cache.CacheKeyGenerator;
 import org.talend.dataprep.transformation.cache.TransformationCacheKey;
 import org.talend.dataprep.transformation.format.CSVFormat;
+import org.talend.dataprep.transformation.pipeline.Node;
 import org.talend.dataprep.transformation.service.BaseExportStrategy;
 import org.talend.dataprep.transformation.service.ExportUtils;
 
@@ -80,13 +83,85 @@ public class PreparationExportStrategy extends BaseSampleExportStrategy {
         return outputStream -> performPreparation(parameters, outputStream);
     }
 
+    /**
+     * Applies the preparation (at the step given in <code>parameters</code>) on its data set and sends the transformed
+     * rows to a custom terminal node instead of serializing them: nothing is written to an output stream nor to the
+     * content cache.
+     *
+     * @param parameters The export parameters (preparation id, step id and source type are used).
+     * @param outputNode The supplier of the node that receives the transformed rows.
+     */
+    public void execute(final ExportParameters parameters, final Supplier<Node> outputNode) {
+        performPreparation(parameters, (preparation, version, dataSet) -> {
+            final Configuration configuration = Configuration.builder() //
+                    .sourceType(parameters.getFrom()) //
+                    .actions(getActions(parameters.getPreparationId(), version)) //
+                    .preparation(preparation) //
+                    .stepId(version) //
+                    .volume(Configuration.Volume.SMALL) //
+                    .outputNode(outputNode) //
+                    .globalStatistics(false) //
+                    .limit(limit) //
+                    .build();
+            factory.get(configuration).buildExecutable(dataSet, configuration).execute();
+        });
+    }
+
     private void performPreparation(final ExportParameters parameters, final OutputStream outputStream) {
-        final String stepId = parameters.getStepId();
         final String preparationId = parameters.getPreparationId();
         final String formatName = parameters.getExportType();
+        final ExportFormat format = getFormat(parameters.getExportType());
+
+        performPreparation(parameters, (preparation, version, dataSet) -> {
+            final String dataSetId = preparation.getDataSetId();
+
+            // get the actions to apply (no preparation ==> dataset export ==> no actions)
+            final String actions = getActions(preparationId, version);
+
+            final TransformationCacheKey key = cacheKeyGenerator.generateContentKey( //
+                    dataSetId, //
+                    preparationId, //
+                    version, //
+                    formatName, //
+                    parameters.getFrom(), //
+                    parameters.getArguments(), //
+                    parameters.getFilter() //
+            );
+            LOGGER.debug("Cache key: " + key.getKey());
+            LOGGER.debug("Cache key details: " + key.toString());
+
+            try (final TeeOutputStream tee = new TeeOutputStream(outputStream,
+                    contentCache.put(key, ContentCache.TimeToLive.DEFAULT))) {
+                final Configuration configuration = Configuration.builder() //
+                        .args(parameters.getArguments()) //
+                        .outFilter(rm -> filterService.build(parameters.getFilter(), rm)) //
+                        .sourceType(parameters.getFrom())
+                        .format(format.getName()) //
+                        .actions(actions) //
+                        .preparation(preparation) //
+                        .stepId(version) //
+                        .volume(Configuration.Volume.SMALL) //
+                        .output(tee) //
+                        .limit(limit) //
+                        .build();
+                factory.get(configuration).buildExecutable(dataSet, configuration).execute();
+                tee.flush();
+            } catch (Throwable e) { // NOSONAR
+                contentCache.evict(key);
+                throw e;
+            }
+        });
+    }
+
+    /**
+     * Reads the data set of the preparation and hands it (with the preparation and clean step id) to
+     * <code>transformation</code>.
+     */
+    private void performPreparation(final ExportParameters parameters, final PreparationTransformation transformation) {
+        final String stepId = parameters.getStepId();
+        final String preparationId = parameters.getPreparationId();
         final PreparationMessage preparation = getPreparation(preparationId, stepId);
         final String dataSetId = preparation.getDataSetId();
-        final ExportFormat format = getFormat(parameters.getExportType());
 
         // get the dataset content (in an auto-closable block to make sure it is properly closed)
         boolean releasedIdentity = false;
@@ -106,41 +181,7 @@ public class PreparationExportStrategy extends BaseSampleExportStrategy {
                 securityProxy.releaseIdentity();
                 releasedIdentity = true;
 
-                // get the actions to apply (no preparation ==> dataset export ==> no actions)
-                final String actions = getActions(preparationId, version);
-
-                final TransformationCacheKey key = cacheKeyGenerator.generateContentKey( //
-                        dataSetId, //
-                        preparationId, //
-                        version, //
-                        formatName, //
-                        parameters.getFrom(), //
-                        parameters.getArguments(), //
-                        parameters.getFilter() //
-                );
-                LOGGER.debug("Cache key: " + key.getKey());
-                LOGGER.debug("Cache key details: " + key.toString());
-
-                try (final TeeOutputStream tee = new TeeOutputStream(outputStream,
-                        contentCache.put(key, ContentCache.TimeToLive.DEFAULT))) {
-                    final Configuration configuration = Configuration.builder() //
-                            .args(parameters.getArguments()) //
-                            .outFilter(rm -> filterService.build(parameters.getFilter(), rm)) //
-                            .sourceType(parameters.getFrom())
-                            .format(format.getName()) //
-                            .actions(actions) //
-                            .preparation(preparation) //
-                            .stepId(version) //
-                            .volume(Configuration.Volume.SMALL) //
-                            .output(tee) //
-                            .limit(limit) //
-                            .build();
-                    factory.get(configuration).buildExecutable(dataSet, configuration).execute();
-                    tee.flush();
-                } catch (Throwable e) { // NOSONAR
-                    contentCache.evict(key);
-                    throw e;
-                }
+                transformation.transform(preparation, version, dataSet);
             }
         } catch (TDPException e) {
             throw e;
@@ -156,4 +197,13 @@ public class PreparationExportStrategy extends BaseSampleExportStrategy {
     void setMapper(ObjectMapper mapper) {
         this.mapper = mapper;
     }
+
+    /**
+     * A transformation of the data set of a preparation.
+     */
+    @FunctionalInterface
+    private interface PreparationTransformation {
+
+        void transform(PreparationMessage preparation, String version, DataSet dataSet) throws IOException;
+    }
 }
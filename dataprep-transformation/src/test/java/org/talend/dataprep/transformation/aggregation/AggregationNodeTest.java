@@ -0,0 +1,95 @@
+// ============================================================================
+// Copyright (C) 2006-2018 Talend Inc. - www.talend.com
+//
+// This source code is available under agreement available at
+// https://github.com/Talend/data-prep/blob/master/LICENSE
+//
+// You should have received a copy of the agreement
+// along with this program; if not, write to Talend SA
+// 9 rue Pages 92150 Suresnes, France
+//
+// ============================================================================
+
+
+package org.talend.dataprep.transformation.aggregation;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertNull;
+
+import java.util.HashMap;
+import java.util.Map;
+
+import org.junit.Test;
+import org.talend.dataprep.api.dataset.RowMetadata;
+import org.talend.dataprep.api.dataset.row.DataSetRow;
+import org.talend.dataprep.transformation.aggregation.api.AggregationOperation;
+import org.talend.dataprep.transformation.aggregation.api.AggregationParameters;
+import org.talend.dataprep.transformation.aggregation.api.AggregationResult;
+import org.talend.dataprep.transformation.aggregation.api.Operator;
+import org.talend.dataprep.transformation.pipeline.Signal;
+
+/**
+ * Unit test for the aggregation node.
+ *
+ * @see AggregationNode
+ */
+public class AggregationNodeTest {
+
+    private static AggregationParameters parameters(Operator operator) {
+        final AggregationParameters parameters = new AggregationParameters();
+        parameters.addOperation(new AggregationOperation("0001", operator));
+        parameters.addGroupBy("0000");
+        return parameters;
+    }
+
+    private static DataSetRow row(String groupBy, String value) {
+        Map<String, String> values = new HashMap<>();
+        values.put("0000", groupBy);
+        values.put("0001", value);
+        return new DataSetRow(values);
+    }
+
+    @Test
+    public void shouldAggregateOverSeveralPartitions() {
+        // given
+        final AggregationNode node = new AggregationNode(parameters(Operator.SUM), metadata -> r -> true);
+        final RowMetadata metadata = new RowMetadata();
+        final int rowCount = AggregationNode.PARTITION_SIZE * 5 + 123;
+
+        // when
+        final DataSetRow row = row("", "");
+        for (int i = 0; i < rowCount; i++) {
+            // same row instance is reused (as pipeline does)
+            row.set("0000", "key" + (i % 3));
+            row.set("0001", "1");
+            node.receive(row, metadata);
+        }
+        assertNull(node.getResult());
+        node.signal(Signal.END_OF_STREAM);
+
+        // then
+        final AggregationResult result = node.getResult();
+        assertEquals(rowCount, result.get("key0").getValue() + result.get("key1").getValue() + result.get("key2").getValue(),
+                0);
+        assertEquals((rowCount + 2) / 3, result.get("key0").getValue(), 0);
+    }
+
+    @Test
+    public void shouldApplyFilter() {
+        // given
+        final AggregationNode node = new AggregationNode(parameters(Operator.MAX),
+                metadata -> r -> !"skip".equals(r.get("0000")));
+        final RowMetadata metadata = new RowMetadata();
+
+        // when
+        node.receive(row("keep", "1"), metadata);
+        node.receive(row("keep", "5"), metadata);
+        node.receive(row("skip", "10"), metadata);
+        node.signal(Signal.END_OF_STREAM);
+
+        // then
+        final AggregationResult result = node.getResult();
+        assertEquals(5, result.get("keep").getValue(), 0);
+        assertEquals(1, result.entries().size());
+    }
+}
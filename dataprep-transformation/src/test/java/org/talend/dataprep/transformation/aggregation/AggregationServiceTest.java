@@ -13,13 +13,24 @@
 
 package org.talend.dataprep.transformation.aggregation;
 
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+
+import java.io.ByteArrayInputStream;
+import java.nio.charset.StandardCharsets;
+import java.util.Arrays;
+
 import org.junit.Test;
 import org.springframework.beans.factory.annotation.Autowired;
+import org.talend.dataprep.api.dataset.ColumnMetadata;
 import org.talend.dataprep.api.dataset.DataSet;
+import org.talend.dataprep.api.dataset.RowMetadata;
+import org.talend.dataprep.api.type.Type;
 import org.talend.dataprep.exception.TDPException;
 import org.talend.dataprep.transformation.TransformationBaseTest;
 import org.talend.dataprep.transformation.aggregation.api.AggregationOperation;
 import org.talend.dataprep.transformation.aggregation.api.AggregationParameters;
+import org.talend.dataprep.transformation.aggregation.api.AggregationResult;
 import org.talend.dataprep.transformation.aggregation.api.Operator;
 
 /**
@@ -45,6 +56,33 @@ public class AggregationServiceTest extends TransformationBaseTest {
         service.aggregate(params, new DataSet());
     }
 
+    @Test
+    public void shouldAggregateTransformationContent() throws Exception {
+        // given
+        final AggregationParameters params = new AggregationParameters();
+        params.addOperation(new AggregationOperation("0001", Operator.SUM));
+        params.addGroupBy("0000");
+        final RowMetadata rowMetadata = new RowMetadata(Arrays.asList( //
+                ColumnMetadata.Builder.column().id(0).name("city").type(Type.STRING).build(), //
+                ColumnMetadata.Builder.column().id(1).name("amount").type(Type.INTEGER).build()));
+        final String content = "{\"records\":[" //
+                + "{\"0000\":\"Paris\",\"0001\":\"2\",\"tdpId\":1}," //
+                + "{\"0000\":\"Nantes\",\"0001\":\"5\",\"tdpId\":2}," //
+                + "{\"0000\":\"Paris\",\"0001\":\"3\",\"tdpId\":3}," //
+                + "{\"0000\":null,\"0001\":\"7\",\"tdpId\":4}]," //
+                + "\"metadata\":{\"columns\":[{\"id\":\"0000\"},{\"id\":\"0001\"}]}}";
+        final AggregationNode node = service.createNode(params);
+
+        // when
+        service.aggregate(node, rowMetadata, new ByteArrayInputStream(content.getBytes(StandardCharsets.UTF_8)));
+
+        // then
+        final AggregationResult result = node.getResult();
+        assertEquals(5, result.get("Paris").getValue(), 0);
+        assertEquals(5, result.get("Nantes").getValue(), 0);
+        assertFalse(result.contains(""));
+    }
+
     // aggregation will be tested at service level, see AggregationTest.class
 
 }
@@ -0,0 +1,184 @@
+// ============================================================================
+// Copyright (C) 2006-2018 Talend Inc. - www.talend.com
+//
+// This source code is available under agreement available at
+// https://github.com/Talend/data-prep/blob/master/LICENSE
+//
+// You should have received a copy of the agreement
+// along with this program; if not, write to Talend SA
+// 9 rue Pages 92150 Suresnes, France
+//
+// ============================================================================
+
+
+package org.talend.dataprep.transformation.aggregation.operation;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+
+import org.junit.Test;
+import org.talend.dataprep.transformation.aggregation.api.AggregationResult;
+import org.talend.dataprep.transformation.aggregation.api.Operator;
+
+/**
+ * Unit test for the group accumulator.
+ *
+ * @see GroupAccumulator
+ */
+public class GroupAccumulatorTest {
+
+    @Test
+    public void shouldAccumulateGroups() {
+        // given
+        final GroupAccumulator accumulator = new GroupAccumulator(Operator.SUM);
+
+        // when
+        accumulator.accept("a", "1.5");
+        accumulator.accept("b", "2");
+        accumulator.accept("a", "3");
+        accumulator.accept("a", "not a number");
+        accumulator.accept("", "10");
+
+        // then
+        final AggregationResult result = accumulator.toResult();
+        assertEquals(2, accumulator.size());
+        assertEquals(4.5, result.get("a").getValue(), 0);
+        assertEquals(2, result.get("b").getValue(), 0);
+        assertFalse(result.contains(""));
+    }
+
+    @Test
+    public void shouldComputeSum() {
+        // given
+        final GroupAccumulator accumulator = new GroupAccumulator(Operator.SUM);
+
+        // when
+        accept(accumulator, "toto", "514.3", "0", "", "-786.25", "235874", "-8760");
+
+        // then
+        assertEquals(226842.05, accumulator.toResult().get("toto").getValue(), 0);
+    }
+
+    @Test
+    public void shouldComputeMinAndMax() {
+        // given
+        final GroupAccumulator min = new GroupAccumulator(Operator.MIN);
+        final GroupAccumulator max = new GroupAccumulator(Operator.MAX);
+
+        // when
+        for (GroupAccumulator accumulator : new GroupAccumulator[] { min, max }) {
+            accept(accumulator, "toto", "5123.4", "786.884", "41843.453", "0", "-1", "8.87", "-0.01");
+            accept(accumulator, "tata", "-50.2", "-0.2", "20", "875");
+            accept(accumulator, "tutu", "dqsfqs");
+        }
+
+        // then
+        assertEquals(-1, min.toResult().get("toto").getValue(), 0);
+        assertEquals(-50.2, min.toResult().get("tata").getValue(), 0);
+        assertFalse(min.toResult().contains("tutu"));
+        assertEquals(41843.453, max.toResult().get("toto").getValue(), 0);
+        assertEquals(875, max.toResult().get("tata").getValue(), 0);
+        assertFalse(max.toResult().contains("tutu"));
+    }
+
+    @Test
+    public void shouldComputeAverage() {
+        // given
+        final GroupAccumulator accumulator = new GroupAccumulator(Operator.AVERAGE);
+
+        // when
+        accept(accumulator, "toto", "10", "2", "3.6", "", "8.2", "-8", "12.3");
+        accept(accumulator, "tata", "10", "5");
+        accept(accumulator, "empty", "", "");
+
+        // then
+        final AggregationResult result = accumulator.toResult();
+        assertEquals(4.683d, result.get("toto").getValue(), 0.001d);
+        assertEquals(7.5d, result.get("tata").getValue(), 0);
+        assertFalse(result.contains("empty"));
+    }
+
+    @Test
+    public void shouldMergeAverages() {
+        // given
+        final GroupAccumulator first = new GroupAccumulator(Operator.AVERAGE);
+        final GroupAccumulator second = new GroupAccumulator(Operator.AVERAGE);
+        first.accept("a", "1");
+        first.accept("a", "2");
+        second.accept("a", "6");
+        second.accept("b", "");
+
+        // when
+        first.merge(second);
+
+        // then
+        final AggregationResult result = first.toResult();
+        assertEquals(3, result.get("a").getValue(), 0);
+        assertFalse(result.contains("b"));
+    }
+
+    @Test
+    public void shouldMergeMinAndMax() {
+        // given
+        final GroupAccumulator min = new GroupAccumulator(Operator.MIN);
+        final GroupAccumulator otherMin = new GroupAccumulator(Operator.MIN);
+        final GroupAccumulator max = new GroupAccumulator(Operator.MAX);
+        final GroupAccumulator otherMax = new GroupAccumulator(Operator.MAX);
+        for (int i = 0; i < 100; i++) {
+            (i % 2 == 0 ? min : otherMin).accept("key" + (i % 10), String.valueOf(i));
+            (i % 2 == 0 ? max : otherMax).accept("key" + (i % 10), String.valueOf(i));
+        }
+
+        // when
+        min.merge(otherMin);
+        max.merge(otherMax);
+
+        // then
+        assertEquals(10, min.size());
+        assertEquals(3, min.toResult().get("key3").getValue(), 0);
+        assertEquals(93, max.toResult().get("key3").getValue(), 0);
+    }
+
+    @Test(expected = IllegalArgumentException.class)
+    public void shouldNotAcceptCount() {
+        new GroupAccumulator(Operator.COUNT);
+    }
+
+    @Test(expected = IllegalArgumentException.class)
+    public void shouldNotMergeDifferentOperators() {
+        new GroupAccumulator(Operator.MIN).merge(new GroupAccumulator(Operator.MAX));
+    }
+
+    @Test
+    public void shouldWriteAndReadGroups() throws Exception {
+        // given
+        final GroupAccumulator accumulator = new GroupAccumulator(Operator.AVERAGE);
+        accumulator.accept("a", "1");
+        accumulator.accept("a", "2");
+        accumulator.accept("é", "4");
+        accumulator.accept(null, "6");
+        final ByteArrayOutputStream output = new ByteArrayOutputStream();
+
+        // when
+        accumulator.writeTo(output);
+        final GroupAccumulator read = GroupAccumulator.readFrom(new ByteArrayInputStream(output.toByteArray()));
+        read.accept("a", "3");
+
+        // then
+        final AggregationResult result = read.toResult();
+        assertEquals(Operator.AVERAGE, read.getOperator());
+        assertEquals(3, read.size());
+        assertEquals(2, result.get("a").getValue(), 0);
+        assertEquals(4, result.get("é").getValue(), 0);
+        assertEquals(6, result.get(null).getValue(), 0);
+    }
+
+    private static void accept(GroupAccumulator accumulator, String key, String... values) {
+        for (String value : values) {
+            accumulator.accept(key, value);
+        }
+    }
+}
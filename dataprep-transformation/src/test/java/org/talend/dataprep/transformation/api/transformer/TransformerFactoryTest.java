@@ -40,6 +40,21 @@ public class TransformerFactoryTest extends TransformationBaseTest {
 
     @Test
     public void getExporter_csv_exporter_should_write_csv_format() throws Exception {
+        assertCsvExport("upper_case_firstname.json", "expected_export_preparation_uppercase_firstname.csv");
+    }
+
+    @Test
+    public void getExporter_csv_exporter_should_write_header_with_new_column() throws Exception {
+        assertCsvExport("upper_case_firstname_new_column.json",
+                "expected_export_preparation_uppercase_firstname_new_column.csv");
+    }
+
+    @Test
+    public void getExporter_csv_exporter_should_write_header_with_reordered_columns() throws Exception {
+        assertCsvExport("reorder_firstname_after_age.json", "expected_export_preparation_reorder_firstname_after_age.csv");
+    }
+
+    private void assertCsvExport(String actionsResource, String expectedCsvResource) throws Exception {
         // given
         Map<String, String> arguments = new HashMap<>();
         arguments.put(ExportFormat.PREFIX + CSVFormat.ParametersCSV.FIELDS_DELIMITER, ";");
@@ -49,11 +64,11 @@ public class TransformerFactoryTest extends TransformationBaseTest {
                 .args(arguments) //
                 .format(CSV) //
                 .output(outputStream) //
-                .actions(IOUtils.toString(TransformerFactoryTest.class.getResourceAsStream("upper_case_firstname.json"), UTF_8)) //
+                .actions(IOUtils.toString(TransformerFactoryTest.class.getResourceAsStream(actionsResource), UTF_8)) //
                 .build();
         final Transformer transformer = factory.get(configuration);
-        final String expectedCsv = IOUtils.toString(
-                TransformerFactoryTest.class.getResourceAsStream("expected_export_preparation_uppercase_firstname.csv"), UTF_8);
+        final String expectedCsv = IOUtils.toString(TransformerFactoryTest.class.getResourceAsStream(expectedCsvResource),
+                UTF_8);
 
         final InputStream inputStream = TransformerFactoryTest.class.getResourceAsStream("../../format/export_dataset.json");
         try (JsonParser parser = mapper.getFactory().createParser(inputStream)) {
@@ -64,6 +79,5 @@ public class TransformerFactoryTest extends TransformationBaseTest {
             // then
             assertThat(outputStream.toString()).isEqualTo(expectedCsv);
         }
-
     }
 }
@@ -0,0 +1,179 @@
+// ============================================================================
+// Copyright (C) 2006-2018 Talend Inc. - www.talend.com
+//
+// This source code is available under agreement available at
+// https://github.com/Talend/data-prep/blob/master/LICENSE
+//
+// You should have received a copy of the agreement
+// along with this program; if not, write to Talend SA
+// 9 rue Pages 92150 Suresnes, France
+//
+// ============================================================================
+
+
+package org.talend.dataprep.transformation.api.transformer.json;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.talend.dataprep.transformation.format.JsonFormat.JSON;
+
+import java.io.ByteArrayOutputStream;
+import java.io.InputStream;
+import java.util.Collections;
+import java.util.List;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.stream.Collectors;
+
+import org.junit.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.talend.dataprep.api.dataset.DataSet;
+import org.talend.dataprep.api.dataset.RowMetadata;
+import org.talend.dataprep.api.dataset.row.DataSetRow;
+import org.talend.dataprep.dataset.StatisticsAdapter;
+import org.talend.dataprep.quality.AnalyzerService;
+import org.talend.dataprep.transformation.TransformationBaseTest;
+import org.talend.dataprep.transformation.api.action.ActionParser;
+import org.talend.dataprep.transformation.api.transformer.configuration.Configuration;
+import org.talend.dataprep.transformation.api.transformer.configuration.PreviewConfiguration;
+import org.talend.dataprep.transformation.format.WriterRegistrationService;
+import org.talend.dataprep.transformation.pipeline.ActionRegistry;
+import org.talend.dataprep.transformation.pipeline.Node;
+import org.talend.dataprep.transformation.pipeline.Pipeline;
+import org.talend.dataprep.transformation.pipeline.Signal;
+import org.talend.dataprep.transformation.pipeline.builder.NodeBuilder;
+import org.talend.dataprep.transformation.pipeline.model.DiffWriterNode;
+import org.talend.dataprep.transformation.pipeline.node.BasicNode;
+
+import com.fasterxml.jackson.core.JsonParser;
+
+public class PipelineDiffTransformerTest extends TransformationBaseTest {
+
+    private static final String TYPE_CHANGE = "{\"action\": \"type_change\", " //
+            + "\"parameters\": {\"column_id\": \"3\", \"scope\": \"column\", \"new_type\": \"string\"}}";
+
+    private static final String UPPER_CASE = "{\"action\": \"uppercase\", " //
+            + "\"parameters\": {\"column_id\": \"1\", \"scope\": \"column\"}}";
+
+    private static final String LOWER_CASE = "{\"action\": \"lowercase\", " //
+            + "\"parameters\": {\"column_id\": \"2\", \"scope\": \"column\"}}";
+
+    @Autowired
+    private PipelineDiffTransformer transformer;
+
+    @Autowired
+    private ActionParser actionParser;
+
+    @Autowired
+    private ActionRegistry actionRegistry;
+
+    @Autowired
+    private AnalyzerService analyzerService;
+
+    @Autowired
+    private WriterRegistrationService writerRegistrationService;
+
+    @Autowired
+    private StatisticsAdapter adapter;
+
+    @Test
+    public void should_give_same_diff_as_independent_pipelines() throws Exception {
+        // given
+        final String referenceActions = actions(TYPE_CHANGE, UPPER_CASE);
+        final String previewActions = actions(TYPE_CHANGE, UPPER_CASE, LOWER_CASE);
+
+        // when
+        final String diff = preview(dataSet(new AtomicInteger()), referenceActions, previewActions, "[2, 4]");
+
+        // then
+        assertThat(diff).isEqualTo(independentDiff(dataSet(new AtomicInteger()), referenceActions, previewActions, 2, 4));
+    }
+
+    @Test
+    public void should_give_same_diff_as_independent_pipelines_with_empty_branch() throws Exception {
+        // given
+        final String referenceActions = actions(TYPE_CHANGE, UPPER_CASE);
+        final String previewActions = actions(TYPE_CHANGE);
+
+        // when
+        final String diff = preview(dataSet(new AtomicInteger()), referenceActions, previewActions, "[1, 6]");
+
+        // then
+        assertThat(diff).isEqualTo(independentDiff(dataSet(new AtomicInteger()), referenceActions, previewActions, 1, 6));
+    }
+
+    @Test
+    public void should_stop_reading_source_after_last_wanted_row() throws Exception {
+        // given
+        final AtomicInteger reads = new AtomicInteger();
+
+        // when
+        preview(dataSet(reads), actions(TYPE_CHANGE, UPPER_CASE), actions(TYPE_CHANGE, UPPER_CASE, LOWER_CASE), "[1, 2]");
+
+        // then
+        assertThat(reads.get()).isEqualTo(2);
+    }
+
+    private static String actions(String... actions) {
+        return "{\"actions\": [" + String.join(", ", actions) + "]}";
+    }
+
+    /**
+     * @return The 6 records of the export data set (with TDP ids from 1 to 6), <code>reads</code> counts the records read.
+     */
+    private DataSet dataSet(AtomicInteger reads) throws Exception {
+        final InputStream inputStream = PipelineDiffTransformerTest.class
+                .getResourceAsStream("../../../format/export_dataset.json");
+        try (JsonParser parser = mapper.getFactory().createParser(inputStream)) {
+            final DataSet dataSet = mapper.readerFor(DataSet.class).readValue(parser);
+            final List<DataSetRow> records = dataSet.getRecords().collect(Collectors.toList());
+            for (int i = 0; i < records.size(); i++) {
+                records.get(i).setTdpId((long) i + 1);
+            }
+            dataSet.setRecords(records.stream().peek(r -> reads.incrementAndGet()));
+            return dataSet;
+        }
+    }
+
+    private String preview(DataSet dataSet, String referenceActions, String previewActions, String indexes) {
+        final ByteArrayOutputStream output = new ByteArrayOutputStream();
+        final Configuration reference = Configuration.builder() //
+                .format(JSON) //
+                .output(output) //
+                .actions(referenceActions) //
+                .build();
+        final PreviewConfiguration configuration = PreviewConfiguration.preview() //
+                .withActions(previewActions) //
+                .withIndexes(indexes) //
+                .fromReference(reference) //
+                .build();
+        transformer.buildExecutable(dataSet, configuration).execute();
+        return output.toString();
+    }
+
+    /**
+     * @return The diff computed with a complete pipeline for reference and another one for preview (no shared action).
+     */
+    private String independentDiff(DataSet dataSet, String referenceActions, String previewActions, long minIndex,
+            long maxIndex) {
+        final ByteArrayOutputStream output = new ByteArrayOutputStream();
+        final RowMetadata rowMetadata = dataSet.getMetadata().getRowMetadata();
+        final Node diffPipeline = NodeBuilder
+                .filteredSource(r -> r.getTdpId() >= minIndex && r.getTdpId() <= maxIndex) //
+                .dispatchTo(pipeline(rowMetadata, referenceActions), pipeline(rowMetadata, previewActions)) //
+                .zipTo(new DiffWriterNode(writerRegistrationService.getWriter(JSON, output, Collections.emptyMap()))) //
+                .build();
+        dataSet.getRecords().forEach(r -> diffPipeline.exec().receive(r, rowMetadata));
+        diffPipeline.exec().signal(Signal.END_OF_STREAM);
+        return output.toString();
+    }
+
+    private Pipeline pipeline(RowMetadata rowMetadata, String actions) {
+        return Pipeline.Builder.builder() //
+                .withAnalyzerService(analyzerService) //
+                .withActionRegistry(actionRegistry) //
+                .withActions(actionParser.parse(actions)) //
+                .withInitialMetadata(rowMetadata, false) //
+                .withOutput(BasicNode::new) //
+                .withStatisticsAdapter(adapter) //
+                .build();
+    }
+}
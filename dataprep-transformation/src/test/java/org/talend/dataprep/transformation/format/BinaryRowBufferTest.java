@@ -0,0 +1,71 @@
+// ============================================================================
+// Copyright (C) 2006-2018 Talend Inc. - www.talend.com
+//
+// This source code is available under agreement available at
+// https://github.com/Talend/data-prep/blob/master/LICENSE
+//
+// You should have received a copy of the agreement
+// along with this program; if not, write to Talend SA
+// 9 rue Pages 92150 Suresnes, France
+//
+// ============================================================================
+
+
+package org.talend.dataprep.transformation.format;
+
+import static org.junit.Assert.assertArrayEquals;
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertNull;
+
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.List;
+
+import org.junit.Test;
+
+public class BinaryRowBufferTest {
+
+    @Test
+    public void shouldReadRowsInOrder() throws Exception {
+        // given
+        final List<String[]> values = new ArrayList<>();
+        final List<Boolean[]> flags = new ArrayList<>();
+        try (BinaryRowBuffer buffer = new BinaryRowBuffer()) {
+            buffer.appendRow(new String[] { "David Bowie", "汉语/漢語", "" }, new Boolean[] { true, false, null });
+            buffer.appendRow(new String[] { null, "N" }, null);
+
+            // when
+            buffer.readAll((rowValues, rowFlags) -> {
+                values.add(rowValues);
+                flags.add(rowFlags);
+            });
+        }
+
+        // then
+        assertEquals(2, values.size());
+        assertArrayEquals(new String[] { "David Bowie", "汉语/漢語", "" }, values.get(0));
+        assertArrayEquals(new Boolean[] { true, false, null }, flags.get(0));
+        assertArrayEquals(new String[] { null, "N" }, values.get(1));
+        assertNull(flags.get(1));
+    }
+
+    @Test
+    public void testCloseCleanUp() throws Exception {
+        // Given
+        final BinaryRowBuffer buffer = new BinaryRowBuffer();
+        buffer.appendRow(new String[] { "value" }, null);
+        buffer.appendRow(new String[] { "value", "other value" }, null);
+        final List<Path> tempFiles = buffer.getFiles();
+
+        // When
+        buffer.close();
+
+        // Then
+        assertEquals(2, tempFiles.size());
+        for (Path tempFile : tempFiles) {
+            assertFalse(Files.exists(tempFile));
+        }
+    }
+}
@@ -92,6 +92,35 @@ public class CSVWriterTest extends AbstractTransformerWriterTest {
         assertThat(temp.toString(UTF_8.name())).isEqualTo(expectedCsv);
     }
 
+    @Test
+    public void should_stream_records_when_header_is_known() throws Exception {
+        // given
+        final ByteArrayOutputStream temp = new ByteArrayOutputStream();
+        final CSVWriter csvWriter = (CSVWriter) context.getBean("writer#CSV", temp, emptyMap());
+
+        final ColumnMetadata column1 = column().id(1).name("song").type(Type.STRING).build();
+        final ColumnMetadata column2 = column().id(2).name("band").type(Type.STRING).build();
+        final RowMetadata rowMetadata = new RowMetadata(Arrays.asList(column1, column2));
+
+        Map<String, String> values = new HashMap<>();
+        values.put("0001", "last nite");
+        values.put("0002", "the Strokes");
+        final DataSetRow row = new DataSetRow(rowMetadata, values);
+
+        // when
+        csvWriter.setHeader(rowMetadata);
+        csvWriter.write(row);
+        csvWriter.flush();
+        final String beforeMetadata = temp.toString(UTF_8.name());
+        csvWriter.write(rowMetadata);
+        csvWriter.flush();
+
+        // then
+        final String expectedCsv = "\"song\";\"band\"\n" + "\"last nite\";\"the Strokes\"\n";
+        assertThat(beforeMetadata).isEqualTo(expectedCsv);
+        assertThat(temp.toString(UTF_8.name())).isEqualTo(expectedCsv);
+    }
+
     /**
      * see https://jira.talendforge.org/browse/TDP-4390
      */
@@ -42,6 +42,7 @@ import org.springframework.beans.factory.annotation.Autowired;
 import org.talend.dataprep.api.preparation.Preparation;
 import org.talend.dataprep.cache.ContentCache;
 import org.talend.dataprep.cache.ContentCacheKey;
+import org.talend.dataprep.cache.ContentCacheStatistics;
 import org.talend.dataprep.preparation.store.PreparationRepository;
 import org.talend.dataprep.transformation.cache.CacheKeyGenerator;
 import org.talend.dataprep.transformation.cache.TransformationCacheKey;
@@ -219,6 +220,35 @@ public class TransformationServiceTest extends TransformationServiceBaseTest {
         Assert.assertThat(response.getStatusCode(), is(200));
     }
 
+    @Test
+    public void shouldExposeContentCacheMetrics() throws Exception {
+        // given
+        final ContentCacheKey key = cacheKeyGenerator.metadataBuilder() //
+                .preparationId("prepId") //
+                .stepId("step1") //
+                .sourceType(FILTER) //
+                .build();
+        final ContentCacheStatistics before = contentCache.getStatistics();
+        assertFalse(contentCache.has(key));
+        try (final OutputStream entry = contentCache.put(key, PERMANENT)) {
+            entry.write("metadata".getBytes());
+        }
+        assertTrue(contentCache.has(key));
+
+        // when
+        final JsonNode metrics = mapper.readTree(given() //
+                .expect().statusCode(200).log().ifError()//
+                .when() //
+                .get("/transform/cache/metrics") //
+                .asString());
+
+        // then
+        assertEquals(before.getHitCount() + 1, metrics.get("hitCount").asLong());
+        assertEquals(before.getMissCount() + 1, metrics.get("missCount").asLong());
+        assertTrue(metrics.get("size").asLong() > 0);
+        assertTrue(metrics.has("evictionCount"));
+    }
+
     @Test
     public void testEvictPreparationCache() throws Exception {
         // given
@@ -12,15 +12,25 @@
 
 package org.talend.dataprep.transformation.service.export;
 
+import static java.util.stream.Collectors.toList;
+import static org.junit.Assert.assertEquals;
 import static org.junit.Assert.assertFalse;
 import static org.junit.Assert.assertTrue;
+import static org.mockito.Matchers.any;
+import static org.mockito.Mockito.*;
 import static org.talend.dataprep.api.export.ExportParameters.SourceType.HEAD;
 
+import java.io.IOException;
 import java.io.OutputStream;
+import java.util.List;
 
+import org.apache.commons.io.output.NullOutputStream;
 import org.junit.Ignore;
 import org.junit.Test;
+import org.mockito.ArgumentCaptor;
 import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.core.task.SyncTaskExecutor;
+import org.springframework.test.util.ReflectionTestUtils;
 import org.talend.dataprep.api.dataset.DataSet;
 import org.talend.dataprep.api.export.ExportParameters;
 import org.talend.dataprep.api.preparation.Preparation;
@@ -28,6 +38,10 @@ import org.talend.dataprep.api.preparation.Step;
 import org.talend.dataprep.cache.ContentCache;
 import org.talend.dataprep.exception.TDPException;
 import org.talend.dataprep.preparation.store.PreparationRepository;
+import org.talend.dataprep.transformation.api.transformer.ExecutableTransformer;
+import org.talend.dataprep.transformation.api.transformer.Transformer;
+import org.talend.dataprep.transformation.api.transformer.TransformerFactory;
+import org.talend.dataprep.transformation.api.transformer.configuration.Configuration;
 import org.talend.dataprep.transformation.cache.CacheKeyGenerator;
 import org.talend.dataprep.transformation.cache.TransformationCacheKey;
 import org.talend.dataprep.transformation.service.TransformationServiceBaseTest;
@@ -170,6 +184,45 @@ public class OptimizedExportStrategyTest extends TransformationServiceBaseTest {
         assertTrue(optimizedExportStrategy.accept(exportParameters));
     }
 
+    @Test
+    public void testAcceptOK_withOlderCachedStep() throws Exception {
+        // Given
+        final String datasetId = "1234";
+        final String format = "";
+        final String preparation = createEmptyPreparationFromDataset(datasetId, "test");
+        applyAction(preparation, "[{}]");
+        applyAction(preparation, "[{}]");
+        applyAction(preparation, "[{}]");
+
+        // only first step (not the one just before head) is cached
+        final Step step = getPreparation(preparation).getSteps().get(1);
+        try (OutputStream content = contentCache.put(cacheKeyGenerator.generateMetadataKey(preparation, step.id(), HEAD), ContentCache.TimeToLive.DEFAULT)) {
+            content.write("{}".getBytes());
+            content.flush();
+        }
+        final TransformationCacheKey key = cacheKeyGenerator.generateContentKey( //
+                datasetId, //
+                preparation, //
+                step.id(), //
+                format, //
+                HEAD, //
+                "" //
+        );
+        try (OutputStream content = contentCache.put(key, ContentCache.TimeToLive.DEFAULT)) {
+            content.write("{}".getBytes());
+            content.flush();
+        }
+
+        ExportParameters exportParameters = new ExportParameters();
+        exportParameters.setPreparationId(preparation);
+        exportParameters.setDatasetId(datasetId);
+        exportParameters.setExportType(format);
+        exportParameters.setFrom(HEAD);
+
+        // Then
+        assertTrue(optimizedExportStrategy.accept(exportParameters));
+    }
+
     @Test
     public void testExecute() throws Exception {
         // Given
@@ -209,4 +262,90 @@ public class OptimizedExportStrategyTest extends TransformationServiceBaseTest {
         // Then
         optimizedExportStrategy.execute(exportParameters);
     }
+
+    @Test
+    public void testExecute_shouldWriteAndReuseCheckpoints() throws Exception {
+        // given
+        final String datasetId = "1234";
+        final String format = "JSON";
+        final String preparation = createEmptyPreparationFromDataset(datasetId, "test");
+        for (int i = 0; i < 6; i++) {
+            applyAction(preparation, "[{}]");
+        }
+        final List<String> steps = getPreparation(preparation).getSteps().stream().map(Step::id).collect(toList());
+        // only root step is cached
+        putMetadata(preparation, steps.get(0));
+        try (OutputStream content = contentCache.put(contentKey(datasetId, preparation, steps.get(0), format),
+                ContentCache.TimeToLive.DEFAULT)) {
+            content.write("{\"records\": [{\"0000\": \"a\"}]}".getBytes());
+        }
+
+        // transformer writes content and metadata of the step it replays to
+        final Transformer transformer = mock(Transformer.class);
+        when(transformer.buildExecutable(any(), any())).thenAnswer(invocation -> {
+            final Configuration configuration = (Configuration) invocation.getArguments()[1];
+            final ExecutableTransformer executable = mock(ExecutableTransformer.class);
+            doAnswer(execution -> {
+                configuration.output().write("{\"records\": [{\"0000\": \"a\"}]}".getBytes());
+                putMetadata(preparation, configuration.stepId());
+                return null;
+            }).when(executable).execute();
+            return executable;
+        });
+        final TransformerFactory transformerFactory = mock(TransformerFactory.class);
+        when(transformerFactory.get(any())).thenReturn(transformer);
+
+        final Object factory = ReflectionTestUtils.getField(optimizedExportStrategy, "factory");
+        final Object checkpointExecutor = ReflectionTestUtils.getField(optimizedExportStrategy, "checkpointExecutor");
+        final Object checkpointInterval = ReflectionTestUtils.getField(optimizedExportStrategy, "checkpointInterval");
+        ReflectionTestUtils.setField(optimizedExportStrategy, "factory", transformerFactory);
+        ReflectionTestUtils.setField(optimizedExportStrategy, "checkpointExecutor", new SyncTaskExecutor());
+        ReflectionTestUtils.setField(optimizedExportStrategy, "checkpointInterval", 2);
+        try {
+            // when
+            optimizedExportStrategy.execute(exportParameters(preparation, datasetId, format, "head")) //
+                    .writeTo(new NullOutputStream());
+
+            // then (head is replayed from root step, checkpoints every 2 steps)
+            assertTrue(contentCache.has(contentKey(datasetId, preparation, steps.get(2), format)));
+            assertTrue(contentCache.has(contentKey(datasetId, preparation, steps.get(4), format)));
+            assertFalse(contentCache.has(contentKey(datasetId, preparation, steps.get(3), format)));
+            verify(transformer, times(3)).buildExecutable(any(), any());
+
+            // when
+            optimizedExportStrategy.execute(exportParameters(preparation, datasetId, format, steps.get(5))) //
+                    .writeTo(new NullOutputStream());
+
+            // then (step is replayed from last checkpoint)
+            final ArgumentCaptor<Configuration> captor = ArgumentCaptor.forClass(Configuration.class);
+            verify(transformer, times(4)).buildExecutable(any(), captor.capture());
+            assertEquals(steps.get(5), captor.getValue().stepId());
+            assertEquals(1, captor.getValue().getPreparation().getSteps().size());
+        } finally {
+            ReflectionTestUtils.setField(optimizedExportStrategy, "factory", factory);
+            ReflectionTestUtils.setField(optimizedExportStrategy, "checkpointExecutor", checkpointExecutor);
+            ReflectionTestUtils.setField(optimizedExportStrategy, "checkpointInterval", checkpointInterval);
+        }
+    }
+
+    private ExportParameters exportParameters(String preparation, String datasetId, String format, String stepId) {
+        ExportParameters exportParameters = new ExportParameters();
+        exportParameters.setPreparationId(preparation);
+        exportParameters.setDatasetId(datasetId);
+        exportParameters.setExportType(format);
+        exportParameters.setStepId(stepId);
+        exportParameters.setFrom(HEAD);
+        return exportParameters;
+    }
+
+    private TransformationCacheKey contentKey(String datasetId, String preparation, String stepId, String format) {
+        return cacheKeyGenerator.generateContentKey(datasetId, preparation, stepId, format, HEAD, "");
+    }
+
+    private void putMetadata(String preparation, String stepId) throws IOException {
+        try (OutputStream content = contentCache.put(cacheKeyGenerator.generateMetadataKey(preparation, stepId, HEAD),
+                ContentCache.TimeToLive.DEFAULT)) {
+            content.write("{}".getBytes());
+        }
+    }
 }